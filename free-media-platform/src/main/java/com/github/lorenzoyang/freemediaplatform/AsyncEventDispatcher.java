@@ -0,0 +1,322 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// every observer owns a bounded queue; at most one drain task per observer is
+// submitted to the executor at a time, so events reach each observer in order.
+// The critical observers have no queue, they are notified on the publishing thread
+public class AsyncEventDispatcher implements EventDispatcher {
+    private final ObserverRegistry<ObserverQueue> queues = new ObserverRegistry<>();
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    private final int queueCapacity;
+    private final BackpressurePolicy backpressurePolicy;
+    private final QuarantinePolicy quarantinePolicy;
+    private final AtomicLong droppedEventsCount = new AtomicLong();
+    private volatile boolean closed = false;
+
+    private AsyncEventDispatcher(AsyncEventDispatcherBuilder builder) {
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor ? Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "platform-event-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        }) : builder.executor;
+        this.queueCapacity = builder.queueCapacity;
+        this.backpressurePolicy = builder.backpressurePolicy;
+        this.quarantinePolicy = builder.quarantinePolicy;
+    }
+
+    @Override
+    public void addObserver(PlatformObserver observer, Set<Class<? extends PlatformEvent>> eventTypes) {
+        ObserverQueue queue = queues.get(observer).orElseGet(() -> new ObserverQueue(observer));
+        queues.register(observer, queue, eventTypes);
+    }
+
+    @Override
+    public void removeObserver(PlatformObserver observer) {
+        queues.unregister(observer);
+    }
+
+    @Override
+    public Collection<PlatformObserver> getObservers() {
+        return queues.observers();
+    }
+
+    @Override
+    public Map<PlatformObserver, ObserverMetrics> getObserverMetrics() {
+        Map<PlatformObserver, ObserverMetrics> metrics = new LinkedHashMap<>();
+        queues.subscribers().forEach(queue -> metrics.put(queue.monitor.observer(), queue.monitor.metrics()));
+        return metrics;
+    }
+
+    @Override
+    public void releaseObserver(PlatformObserver observer) {
+        queues.get(observer).ifPresent(ObserverQueue::release);
+    }
+
+    // the events are delivered after the events already queued for the observer and ahead of
+    // the events dispatched later; they bypass the backpressure policy, a replay is never
+    // dropped, refused or waited for. A critical observer receives them on the calling thread
+    @Override
+    public void replay(PlatformObserver observer, List<PlatformEvent> events) {
+        queues.get(observer).ifPresent(queue -> {
+            if (observer.isCritical()) {
+                events.forEach(queue.monitor::deliver);
+            } else {
+                queue.replay(events);
+            }
+        });
+    }
+
+    // with the FAIL policy a full queue rejects the event before the change is applied, the
+    // other full queues are reported as suppressed exceptions
+    @Override
+    public void dispatchCritical(PlatformEvent event) {
+        if (closed) {
+            throw new StreamingPlatformException("Event dispatcher is closed");
+        }
+        if (backpressurePolicy == BackpressurePolicy.FAIL) {
+            StreamingPlatformException failure = null;
+            for (ObserverQueue queue : queues.subscribersOf(event)) {
+                if (!queue.monitor.observer().isCritical() && queue.isFull()) {
+                    StreamingPlatformException e = new StreamingPlatformException("Observer queue is full");
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+        ObserverMonitor.deliverCritical(queues.subscribersOf(event), queue -> queue.monitor, event);
+    }
+
+    // with the BLOCK policy the publisher waits for queue space while holding the platform
+    // write lock, so a stalled observer holds up every mutation of the platform. The change has
+    // been applied, so an event that cannot be queued is dropped and counted instead of failing
+    // the publisher: the queue filled up by another publisher since dispatchCritical (FAIL), the
+    // publisher is interrupted while waiting (BLOCK) or the executor rejects the delivery
+    @Override
+    public void dispatchNonCritical(PlatformEvent event) {
+        for (ObserverQueue queue : queues.subscribersOf(event)) {
+            if (!queue.monitor.observer().isCritical()) {
+                queue.enqueue(event);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        queues.subscribers().forEach(ObserverQueue::awaitEmpty);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    public long getDroppedEventsCount() {
+        return droppedEventsCount.get();
+    }
+
+    private class ObserverQueue implements Runnable {
+        private final ObserverMonitor monitor;
+        private final BlockingQueue<PlatformEvent> events = new ArrayBlockingQueue<>(queueCapacity);
+        // replayed events, unbounded and drained before the queued ones; a replay moves the
+        // queued events in first, so that they keep their place ahead of it
+        private final Queue<PlatformEvent> replayed = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        // set once the executor rejects a delivery, until the observer is released
+        private volatile boolean rejected = false;
+        // events enqueued but not yet delivered (or dropped)
+        private final AtomicInteger pending = new AtomicInteger(0);
+
+        private ObserverQueue(PlatformObserver observer) {
+            this.monitor = new ObserverMonitor(observer, quarantinePolicy);
+        }
+
+        private void replay(List<PlatformEvent> replayedEvents) {
+            pending.addAndGet(replayedEvents.size());
+            events.drainTo(replayed);
+            replayed.addAll(replayedEvents);
+            schedule();
+        }
+
+        private void release() {
+            rejected = false;
+            monitor.release();
+        }
+
+        private boolean isFull() {
+            return events.remainingCapacity() == 0;
+        }
+
+        private void enqueue(PlatformEvent event) {
+            pending.incrementAndGet();
+            if (rejected) {
+                dropped();
+                return;
+            }
+            switch (backpressurePolicy) {
+                case BLOCK:
+                    try {
+                        events.put(event);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        dropped();
+                        return;
+                    }
+                    break;
+                case DROP_OLDEST:
+                    while (!events.offer(event)) {
+                        if (events.poll() != null) {
+                            dropped();
+                        }
+                    }
+                    break;
+                case FAIL:
+                    if (!events.offer(event)) {
+                        dropped();
+                        return;
+                    }
+                    break;
+            }
+            schedule();
+        }
+
+        // nothing would drain the queued events once the executor rejects the delivery: the
+        // observer is quarantined with the rejection as its last failure, and its queued events
+        // and the ones enqueued until it is released are dropped so that flush returns. The
+        // delivery is not submitted again meanwhile
+        private void schedule() {
+            if (rejected) {
+                dropQueued();
+            } else if (scheduled.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    monitor.failed(new StreamingPlatformException("Executor rejected the observer delivery", e));
+                    monitor.quarantine();
+                    rejected = true;
+                    scheduled.set(false);
+                    // an event enqueued meanwhile is dropped by its own schedule once it sees rejected
+                    dropQueued();
+                }
+            }
+        }
+
+        private void dropQueued() {
+            while (next() != null) {
+                dropped();
+            }
+        }
+
+        @Override
+        public void run() {
+            PlatformEvent event;
+            while ((event = next()) != null) {
+                try {
+                    // a failing observer does not stop the delivery of its next events
+                    monitor.deliver(event);
+                } finally {
+                    completed();
+                }
+            }
+            scheduled.set(false);
+            // an event may have been enqueued after the last poll but before the reset
+            if (!isEmpty()) {
+                schedule();
+            }
+        }
+
+        private PlatformEvent next() {
+            PlatformEvent event = replayed.poll();
+            return event != null ? event : events.poll();
+        }
+
+        private boolean isEmpty() {
+            return replayed.isEmpty() && events.isEmpty();
+        }
+
+        private void dropped() {
+            droppedEventsCount.incrementAndGet();
+            completed();
+        }
+
+        private void completed() {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        private synchronized void awaitEmpty() {
+            try {
+                while (pending.get() > 0) {
+                    wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new StreamingPlatformException("Interrupted while flushing observer queue");
+            }
+        }
+    }
+
+    public static class AsyncEventDispatcherBuilder {
+        private Executor executor = null;
+        private int queueCapacity = 1024;
+        private BackpressurePolicy backpressurePolicy = BackpressurePolicy.DROP_OLDEST;
+        private QuarantinePolicy quarantinePolicy = QuarantinePolicy.NONE;
+
+        // e.g. Executors.newVirtualThreadPerTaskExecutor() on runtimes that provide it;
+        // by default a cached pool of daemon platform threads is used and shut down on close
+        public AsyncEventDispatcherBuilder withExecutor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+            return this;
+        }
+
+        public AsyncEventDispatcherBuilder withQueueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be a positive integer greater than 0");
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        public AsyncEventDispatcherBuilder withBackpressurePolicy(BackpressurePolicy backpressurePolicy) {
+            this.backpressurePolicy = Objects.requireNonNull(backpressurePolicy, "Backpressure policy cannot be null");
+            return this;
+        }
+
+        public AsyncEventDispatcherBuilder withQuarantinePolicy(QuarantinePolicy quarantinePolicy) {
+            this.quarantinePolicy = Objects.requireNonNull(quarantinePolicy, "Quarantine policy cannot be null");
+            return this;
+        }
+
+        public AsyncEventDispatcher build() {
+            return new AsyncEventDispatcher(this);
+        }
+    }
+}
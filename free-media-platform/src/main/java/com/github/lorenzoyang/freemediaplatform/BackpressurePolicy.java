@@ -0,0 +1,12 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+public enum BackpressurePolicy {
+    // the publishing thread waits until the observer queue has room, while holding the
+    // platform write lock when the event comes from a StreamingPlatform mutation: a stalled
+    // observer holds up every mutation, so it has to be chosen explicitly
+    BLOCK,
+    // the oldest queued event of the observer is discarded, the default
+    DROP_OLDEST,
+    // the publishing thread gets a StreamingPlatformException and the mutation is rejected
+    FAIL
+}
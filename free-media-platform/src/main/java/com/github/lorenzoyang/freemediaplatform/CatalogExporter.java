@@ -0,0 +1,133 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+// renders a catalog in partitions on a fork-join pool and writes them to a file in catalog
+// order: the calling thread writes each partition as soon as it and all the previous ones are
+// done, while at most two partitions per worker are rendered ahead of it
+public class CatalogExporter implements AutoCloseable {
+    // the first guess for the buffer of a partition, which grows as needed
+    private static final int INITIAL_BYTES_PER_CONTENT = 256;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int partitionSize;
+
+    private CatalogExporter(CatalogExporterBuilder builder) {
+        this.ownsPool = builder.pool == null;
+        this.pool = ownsPool ? new ForkJoinPool(builder.parallelism) : builder.pool;
+        this.partitionSize = builder.partitionSize;
+    }
+
+    // each content is written by an encoder straight into the buffer of its partition, e.g.
+    // DisplayContentWriter::new or JsonContentEncoder::new. The factory is called for every
+    // partition buffer, so encoders do not need to be thread-safe; an encoder must throw
+    // BufferOverflowException when the buffer is full, the content is then written again
+    // into a buffer twice as large. Returns the bytes written
+    public long export(Iterable<Content> contents, Function<ByteBuffer, ? extends ContentVisitor<?>> encoderFactory,
+                       Path file) throws IOException {
+        Objects.requireNonNull(contents, "Contents cannot be null");
+        Objects.requireNonNull(encoderFactory, "Encoder factory cannot be null");
+        Objects.requireNonNull(file, "File cannot be null");
+        List<Content> catalog = new ArrayList<>();
+        contents.forEach(catalog::add);
+
+        int maxInFlight = 2 * pool.getParallelism();
+        Deque<ForkJoinTask<ByteBuffer>> inFlight = new ArrayDeque<>();
+        long written = 0;
+        int nextPartitionStart = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (nextPartitionStart < catalog.size() || !inFlight.isEmpty()) {
+                while (nextPartitionStart < catalog.size() && inFlight.size() < maxInFlight) {
+                    List<Content> partition = catalog.subList(nextPartitionStart,
+                            Math.min(nextPartitionStart + partitionSize, catalog.size()));
+                    inFlight.add(pool.submit(() -> render(partition, encoderFactory)));
+                    nextPartitionStart += partition.size();
+                }
+                ByteBuffer buffer = inFlight.poll().join();
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer);
+                }
+            }
+        } finally {
+            inFlight.forEach(task -> task.cancel(true));
+        }
+        return written;
+    }
+
+    private static ByteBuffer render(List<Content> partition,
+                                     Function<ByteBuffer, ? extends ContentVisitor<?>> encoderFactory) {
+        ByteBuffer buffer = ByteBuffer.allocate(partition.size() * INITIAL_BYTES_PER_CONTENT);
+        ContentVisitor<?> encoder = encoderFactory.apply(buffer);
+        for (Content content : partition) {
+            int start = buffer.position();
+            while (true) {
+                try {
+                    content.accept(encoder);
+                    break;
+                } catch (BufferOverflowException e) {
+                    // drops the partially written content
+                    buffer.position(start);
+                    ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity());
+                    larger.put(buffer.flip());
+                    buffer = larger;
+                    encoder = encoderFactory.apply(buffer);
+                }
+            }
+        }
+        return buffer.flip();
+    }
+
+    // shuts down the pool unless it was provided through the builder
+    @Override
+    public void close() {
+        if (ownsPool) {
+            pool.shutdown();
+        }
+    }
+
+    public static class CatalogExporterBuilder {
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private ForkJoinPool pool = null;
+        private int partitionSize = 256;
+
+        public CatalogExporterBuilder withParallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be a positive integer greater than 0");
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        // runs on the given pool instead of a pool owned by the exporter, the parallelism is ignored
+        public CatalogExporterBuilder withPool(ForkJoinPool pool) {
+            this.pool = Objects.requireNonNull(pool, "Pool cannot be null");
+            return this;
+        }
+
+        public CatalogExporterBuilder withPartitionSize(int partitionSize) {
+            if (partitionSize <= 0) {
+                throw new IllegalArgumentException("Partition size must be a positive integer greater than 0");
+            }
+            this.partitionSize = partitionSize;
+            return this;
+        }
+
+        public CatalogExporter build() {
+            return new CatalogExporter(this);
+        }
+    }
+}
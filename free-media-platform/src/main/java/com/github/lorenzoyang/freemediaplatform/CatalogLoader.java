@@ -0,0 +1,95 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+// pulls contents from a ContentLoader and hands them to the platform in chunks, so that
+// the titles already loaded can be served while the rest streams in
+class CatalogLoader implements Runnable {
+    private final ContentLoader loader;
+    private final int chunkSize;
+    private final Consumer<List<Content>> chunkConsumer;
+    private final AtomicLong loadedCount = new AtomicLong(0);
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private volatile long startNanos = 0;
+    private volatile long endNanos = 0;
+    private volatile boolean cancelled = false;
+
+    CatalogLoader(ContentLoader loader, int chunkSize, Consumer<List<Content>> chunkConsumer) {
+        this.loader = loader;
+        this.chunkSize = chunkSize;
+        this.chunkConsumer = chunkConsumer;
+    }
+
+    static CatalogLoader completed() {
+        var catalogLoader = new CatalogLoader(Collections::emptyIterator, 1, chunk -> {
+        });
+        catalogLoader.run();
+        return catalogLoader;
+    }
+
+    @Override
+    public void run() {
+        startNanos = System.nanoTime();
+        try {
+            Iterator<Content> stream = loader.openStream();
+            List<Content> chunk = new ArrayList<>(chunkSize);
+            while (!cancelled && stream.hasNext()) {
+                chunk.add(stream.next());
+                if (chunk.size() == chunkSize || !stream.hasNext()) {
+                    chunkConsumer.accept(chunk);
+                    loadedCount.addAndGet(chunk.size());
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            endNanos = System.nanoTime();
+            if (cancelled) {
+                completion.cancel(false);
+            } else {
+                completion.complete(null);
+            }
+        } catch (Throwable e) {
+            // errors too, otherwise the waiters of await() would block forever
+            endNanos = System.nanoTime();
+            completion.completeExceptionally(e);
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    void cancel() {
+        cancelled = true;
+    }
+
+    LoadProgress progress() {
+        long start = startNanos;
+        long end = completion.isDone() ? endNanos : System.nanoTime();
+        Throwable failure = completion.isCompletedExceptionally() && !completion.isCancelled()
+                ? completion.handle((result, e) -> e instanceof CompletionException ? e.getCause() : e).join()
+                : null;
+        return new LoadProgress(loadedCount.get(), loader.getExpectedCount(),
+                Duration.ofNanos(start == 0 ? 0 : end - start), completion.isDone(), completion.isCancelled(), failure);
+    }
+
+    void await() {
+        try {
+            completion.join();
+        } catch (CancellationException e) {
+            throw new StreamingPlatformException("Catalog loading was cancelled");
+        } catch (CompletionException e) {
+            throw new StreamingPlatformException("Catalog loading failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+public enum CatalogOrder {
+    // the order in which contents were added, the same order as contentIterator()
+    INSERTION,
+    TITLE
+}
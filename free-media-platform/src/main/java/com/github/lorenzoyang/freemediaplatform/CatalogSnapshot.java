@@ -0,0 +1,60 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class CatalogSnapshot implements Iterable<Content> {
+    private final long version;
+    private final Map<String, Content> contentsByTitle;
+    // built on the first stream() call; racing threads at worst build equal arrays
+    private volatile Content[] contentsArray;
+
+    // the map is owned by the snapshot and never mutated after construction
+    CatalogSnapshot(long version, Map<String, Content> contentsByTitle) {
+        this.version = version;
+        this.contentsByTitle = Collections.unmodifiableMap(contentsByTitle);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return contentsByTitle.size();
+    }
+
+    public Optional<Content> getContentByTitle(String title) {
+        return Optional.ofNullable(contentsByTitle.get(title));
+    }
+
+    public boolean contains(Content content) {
+        return content != null && contentsByTitle.containsKey(content.getTitle());
+    }
+
+    @Override
+    public Iterator<Content> iterator() {
+        return contentsByTitle.values().iterator();
+    }
+
+    // array-backed, so that parallel streams split into balanced halves
+    @Override
+    public Spliterator<Content> spliterator() {
+        Content[] array = contentsArray;
+        if (array == null) {
+            array = contentsByTitle.values().toArray(new Content[0]);
+            contentsArray = array;
+        }
+        return Spliterators.spliterator(array, Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
+    public Stream<Content> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    Collection<Content> values() {
+        return contentsByTitle.values();
+    }
+}
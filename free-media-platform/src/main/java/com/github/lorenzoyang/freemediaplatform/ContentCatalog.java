@@ -0,0 +1,110 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitorAdapter;
+
+import java.util.*;
+import java.util.function.Function;
+
+// keyed on the title, the same key used by Content.equals/hashCode;
+// the LinkedHashMap keeps the insertion order for the iterator
+class ContentCatalog implements ContentStore {
+    private final LinkedHashMap<String, Content> contentsByTitle = new LinkedHashMap<>();
+    private long version = 0;
+    // the last snapshot taken, reused until the next change
+    private CatalogSnapshot snapshot;
+
+    ContentCatalog(Collection<Content> contents) {
+        Objects.requireNonNull(contents, "Contents cannot be null");
+        contents.forEach(content -> contentsByTitle.putIfAbsent(content.getTitle(), content));
+    }
+
+    @Override
+    public Optional<Content> get(String title) {
+        return Optional.ofNullable(contentsByTitle.get(title));
+    }
+
+    @Override
+    public boolean contains(Content content) {
+        return content != null && contentsByTitle.containsKey(content.getTitle());
+    }
+
+    @Override
+    public boolean add(Content content) {
+        if (contentsByTitle.putIfAbsent(content.getTitle(), content) != null) {
+            return false;
+        }
+        version++;
+        return true;
+    }
+
+    @Override
+    public Optional<Content> remove(Content content) {
+        Optional<Content> removedContent = Optional.ofNullable(contentsByTitle.remove(content.getTitle()));
+        removedContent.ifPresent(removed -> version++);
+        return removedContent;
+    }
+
+    @Override
+    public Optional<Content> replace(Content content) {
+        Optional<Content> oldContent = Optional.ofNullable(contentsByTitle.replace(content.getTitle(), content));
+        oldContent.ifPresent(old -> version++);
+        return oldContent;
+    }
+
+    // an insertion order cannot be restored once changed, so the changes are resolved on the
+    // involved contents and the resulting events are applied as they are
+    @Override
+    public <T> T applyChanges(ContentChangeSet changes, Function<BatchContentEvent, T> onChanges) {
+        BatchContentEvent event = changes.preview(contentsByTitle);
+        if (event.isEmpty()) {
+            return null;
+        }
+        T result = onChanges.apply(event);
+        event.accept(new PlatformEventVisitorAdapter() {
+            @Override
+            public void visitAddContent(AddContentEvent event) {
+                contentsByTitle.put(event.getAddedContent().getTitle(), event.getAddedContent());
+            }
+
+            @Override
+            public void visitRemoveContent(RemoveContentEvent event) {
+                contentsByTitle.remove(event.getRemovedContent().getTitle());
+            }
+
+            @Override
+            public void visitUpdateContent(UpdateContentEvent event) {
+                contentsByTitle.replace(event.getUpdatedContent().getTitle(), event.getUpdatedContent());
+            }
+        });
+        version++;
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return contentsByTitle.size();
+    }
+
+    @Override
+    public Collection<Content> values() {
+        return Collections.unmodifiableCollection(contentsByTitle.values());
+    }
+
+    @Override
+    public CatalogSnapshot snapshot() {
+        if (snapshot == null || snapshot.getVersion() != version) {
+            snapshot = new CatalogSnapshot(version, new LinkedHashMap<>(contentsByTitle));
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Iterator<Content> iterator() {
+        return values().iterator();
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
+
+import java.util.*;
+
+public class ContentChangeSet {
+    private final List<Change> changes;
+
+    private ContentChangeSet(ContentChangeSetBuilder builder) {
+        this.changes = List.copyOf(builder.changes);
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    // applies the changes in order with the same semantics as addContent, removeContent
+    // and updateContent: changes that would return false are skipped
+    BatchContentEvent applyTo(Map<String, Content> contentsByTitle) {
+        Collection<PlatformEvent> events = new ArrayList<>();
+        for (Change change : changes) {
+            Content content = change.content;
+            switch (change.type) {
+                case ADD:
+                    if (contentsByTitle.putIfAbsent(content.getTitle(), content) == null) {
+                        events.add(new AddContentEvent(content));
+                    }
+                    break;
+                case REMOVE:
+                    Content removedContent = contentsByTitle.remove(content.getTitle());
+                    if (removedContent != null) {
+                        events.add(new RemoveContentEvent(removedContent));
+                    }
+                    break;
+                case UPDATE:
+                    Content oldContent = contentsByTitle.replace(content.getTitle(), content);
+                    if (oldContent != null) {
+                        events.add(new UpdateContentEvent(oldContent, content));
+                    }
+                    break;
+            }
+        }
+        return new BatchContentEvent(events);
+    }
+
+    // the event applyTo would produce on the contents, without changing them: only the
+    // contents with the titles of the changes are involved
+    BatchContentEvent preview(Map<String, Content> contentsByTitle) {
+        Map<String, Content> involvedContents = new HashMap<>();
+        for (Change change : changes) {
+            String title = change.content.getTitle();
+            Content content = contentsByTitle.get(title);
+            if (content != null) {
+                involvedContents.put(title, content);
+            }
+        }
+        return applyTo(involvedContents);
+    }
+
+    private enum ChangeType {
+        ADD, REMOVE, UPDATE
+    }
+
+    private static class Change {
+        private final ChangeType type;
+        private final Content content;
+
+        private Change(ChangeType type, Content content) {
+            this.type = type;
+            this.content = Objects.requireNonNull(content, "Content cannot be null");
+        }
+    }
+
+    public static class ContentChangeSetBuilder {
+        private final List<Change> changes = new ArrayList<>();
+
+        public ContentChangeSetBuilder withAddition(Content newContent) {
+            changes.add(new Change(ChangeType.ADD, newContent));
+            return this;
+        }
+
+        public ContentChangeSetBuilder withRemoval(Content existingContent) {
+            changes.add(new Change(ChangeType.REMOVE, existingContent));
+            return this;
+        }
+
+        public ContentChangeSetBuilder withUpdate(Content updatedContent) {
+            changes.add(new Change(ChangeType.UPDATE, updatedContent));
+            return this;
+        }
+
+        public ContentChangeSet build() {
+            return new ContentChangeSet(this);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// position after the last content of a page: the title or the insertion sequence of that
+// content, so resuming is a seek in the ordered index instead of a skip over the offset
+class ContentCursor {
+    private static final String SEPARATOR = ":";
+
+    private final CatalogOrder order;
+    private final String lastKey;
+
+    ContentCursor(CatalogOrder order, String lastKey) {
+        this.order = order;
+        this.lastKey = lastKey;
+    }
+
+    CatalogOrder getOrder() {
+        return order;
+    }
+
+    String getLastKey() {
+        return lastKey;
+    }
+
+    long getLastSequence() {
+        try {
+            return Long.parseLong(lastKey);
+        } catch (NumberFormatException e) {
+            throw new StreamingPlatformException("Invalid content cursor");
+        }
+    }
+
+    String encode() {
+        String cursor = order.name() + SEPARATOR + lastKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ContentCursor decode(String token) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = cursor.indexOf(SEPARATOR);
+            CatalogOrder order = CatalogOrder.valueOf(cursor.substring(0, separator));
+            return new ContentCursor(order, cursor.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new StreamingPlatformException("Invalid content cursor");
+        }
+    }
+}
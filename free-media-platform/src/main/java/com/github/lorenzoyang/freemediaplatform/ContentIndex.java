@@ -0,0 +1,257 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// secondary indexes on release date, resolution and duration, plus the ordered indexes
+// used for cursor pagination; updated by the platform while it holds its write lock,
+// queried from any thread
+class ContentIndex {
+    private final NavigableMap<LocalDate, Set<Content>> byReleaseDate = new TreeMap<>();
+    private final Map<VideoResolution, Set<Content>> byResolution = new EnumMap<>(VideoResolution.class);
+    private final NavigableMap<Integer, Set<Content>> byDuration = new TreeMap<>();
+    private final Set<Content> allContents = new HashSet<>();
+    private final NavigableMap<String, Content> withoutReleaseDate = new TreeMap<>();
+    private final NavigableMap<String, Content> byTitle = new TreeMap<>();
+    // updates keep the sequence of the replaced content, like the catalog keeps its position
+    private final NavigableMap<Long, Content> byInsertion = new TreeMap<>();
+    private final Map<String, Long> insertionSequences = new HashMap<>();
+    private long nextSequence = 0;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PlatformEventVisitor eventVisitor = new PlatformEventVisitor() {
+        @Override
+        public void visitAddContent(AddContentEvent event) {
+            add(event.getAddedContent());
+        }
+
+        @Override
+        public void visitRemoveContent(RemoveContentEvent event) {
+            remove(event.getRemovedContent());
+        }
+
+        @Override
+        public void visitUpdateContent(UpdateContentEvent event) {
+            replace(event.getOldContent(), event.getUpdatedContent());
+        }
+
+        @Override
+        public void visitBatchContent(BatchContentEvent event) {
+            event.forEachEvent(this);
+        }
+
+        @Override
+        public void visitLoadContent(LoadContentEvent event) {
+            event.getLoadedContents().forEach(ContentIndex.this::add);
+        }
+    };
+
+    ContentIndex(Iterable<Content> contents) {
+        contents.forEach(this::add);
+    }
+
+    void apply(PlatformEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.accept(eventVisitor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    List<Content> find(ContentQuery query) {
+        lock.readLock().lock();
+        try {
+            Collection<Set<Content>> candidates = candidates(query);
+            if (isReleaseDateOrder(query.getOrder()) && size(candidates) >= releaseDateWalkSize(query)) {
+                return findInReleaseDateOrder(query);
+            }
+            // no index follows the order, every candidate is sorted
+            return candidates.stream()
+                    .flatMap(Collection::stream)
+                    .filter(query::matches)
+                    .sorted(query.getOrder())
+                    .limit(query.getLimit())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static boolean isReleaseDateOrder(Comparator<Content> order) {
+        return order == ContentQuery.NEWEST_FIRST || order == ContentQuery.OLDEST_FIRST;
+    }
+
+    private int releaseDateWalkSize(ContentQuery query) {
+        return query.hasReleaseDateRange() ? size(releaseDateRange(query).values()) : allContents.size();
+    }
+
+    private NavigableMap<LocalDate, Set<Content>> releaseDateRange(ContentQuery query) {
+        return range(byReleaseDate, query.getReleasedFrom().orElse(null), query.getReleasedTo().orElse(null));
+    }
+
+    // walks the release date index in the order of the query and stops after the limit, only
+    // the contents of a same day are sorted (by title); contents without a release date come last
+    private List<Content> findInReleaseDateOrder(ContentQuery query) {
+        NavigableMap<LocalDate, Set<Content>> dates = query.hasReleaseDateRange()
+                ? releaseDateRange(query)
+                : byReleaseDate;
+        if (query.getOrder() == ContentQuery.NEWEST_FIRST) {
+            dates = dates.descendingMap();
+        }
+        Stream<Content> contents = dates.values().stream()
+                .flatMap(bucket -> bucket.stream().sorted(Comparator.comparing(Content::getTitle)));
+        if (!query.hasReleaseDateRange()) {
+            contents = Stream.concat(contents, withoutReleaseDate.values().stream());
+        }
+        return contents.filter(query::matches)
+                .limit(query.getLimit())
+                .collect(Collectors.toList());
+    }
+
+    ContentPage firstPage(CatalogOrder order, int pageSize) {
+        lock.readLock().lock();
+        try {
+            if (order == CatalogOrder.TITLE) {
+                return page(CatalogOrder.TITLE, byTitle, pageSize);
+            }
+            return page(CatalogOrder.INSERTION, byInsertion, pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    ContentPage nextPage(ContentCursor cursor, int pageSize) {
+        lock.readLock().lock();
+        try {
+            if (cursor.getOrder() == CatalogOrder.TITLE) {
+                return page(CatalogOrder.TITLE, byTitle.tailMap(cursor.getLastKey(), false), pageSize);
+            }
+            return page(CatalogOrder.INSERTION, byInsertion.tailMap(cursor.getLastSequence(), false), pageSize);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static <K> ContentPage page(CatalogOrder order, NavigableMap<K, Content> remaining, int pageSize) {
+        List<Content> contents = new ArrayList<>(Math.min(pageSize, remaining.size()));
+        K lastKey = null;
+        Iterator<Map.Entry<K, Content>> entries = remaining.entrySet().iterator();
+        while (contents.size() < pageSize && entries.hasNext()) {
+            Map.Entry<K, Content> entry = entries.next();
+            contents.add(entry.getValue());
+            lastKey = entry.getKey();
+        }
+        String nextCursor = entries.hasNext() ? new ContentCursor(order, String.valueOf(lastKey)).encode() : null;
+        return new ContentPage(contents, nextCursor);
+    }
+
+    // the buckets of the most selective index among the criteria of the query
+    private Collection<Set<Content>> candidates(ContentQuery query) {
+        Collection<Set<Content>> best = List.of(allContents);
+        int bestSize = allContents.size();
+
+        if (query.hasReleaseDateRange()) {
+            Collection<Set<Content>> buckets = releaseDateRange(query).values();
+            int size = size(buckets);
+            if (size < bestSize) {
+                best = buckets;
+                bestSize = size;
+            }
+        }
+        if (query.getResolutions().isPresent()) {
+            Collection<Set<Content>> buckets = query.getResolutions().get().stream()
+                    .map(resolution -> byResolution.getOrDefault(resolution, Set.of()))
+                    .collect(Collectors.toList());
+            int size = size(buckets);
+            if (size < bestSize) {
+                best = buckets;
+                bestSize = size;
+            }
+        }
+        if (query.hasDurationRange()) {
+            Collection<Set<Content>> buckets = range(byDuration,
+                    query.getMinDuration().orElse(null), query.getMaxDuration().orElse(null)).values();
+            if (size(buckets) < bestSize) {
+                best = buckets;
+            }
+        }
+        return best;
+    }
+
+    private static <K> NavigableMap<K, Set<Content>> range(NavigableMap<K, Set<Content>> index, K from, K to) {
+        if (from != null && to != null) {
+            return index.subMap(from, true, to, true);
+        } else if (from != null) {
+            return index.tailMap(from, true);
+        } else {
+            return index.headMap(to, true);
+        }
+    }
+
+    private static int size(Collection<Set<Content>> buckets) {
+        return buckets.stream().mapToInt(Set::size).sum();
+    }
+
+    private void add(Content content) {
+        long sequence = nextSequence++;
+        insertionSequences.put(content.getTitle(), sequence);
+        byInsertion.put(sequence, content);
+        byTitle.put(content.getTitle(), content);
+        addToSecondaryIndexes(content);
+    }
+
+    private void remove(Content content) {
+        Long sequence = insertionSequences.remove(content.getTitle());
+        if (sequence != null) {
+            byInsertion.remove(sequence);
+        }
+        byTitle.remove(content.getTitle());
+        removeFromSecondaryIndexes(content);
+    }
+
+    private void replace(Content oldContent, Content updatedContent) {
+        removeFromSecondaryIndexes(oldContent);
+        addToSecondaryIndexes(updatedContent);
+        byTitle.put(updatedContent.getTitle(), updatedContent);
+        Long sequence = insertionSequences.get(updatedContent.getTitle());
+        if (sequence != null) {
+            byInsertion.put(sequence, updatedContent);
+        }
+    }
+
+    private void addToSecondaryIndexes(Content content) {
+        allContents.add(content);
+        content.getReleaseDate().ifPresentOrElse(releaseDate -> addTo(byReleaseDate, releaseDate, content),
+                () -> withoutReleaseDate.put(content.getTitle(), content));
+        content.getResolution().ifPresent(resolution -> addTo(byResolution, resolution, content));
+        addTo(byDuration, content.getDurationInMinutes(), content);
+    }
+
+    private void removeFromSecondaryIndexes(Content content) {
+        allContents.remove(content);
+        content.getReleaseDate().ifPresentOrElse(releaseDate -> removeFrom(byReleaseDate, releaseDate, content),
+                () -> withoutReleaseDate.remove(content.getTitle()));
+        content.getResolution().ifPresent(resolution -> removeFrom(byResolution, resolution, content));
+        removeFrom(byDuration, content.getDurationInMinutes(), content);
+    }
+
+    private static <K> void addTo(Map<K, Set<Content>> index, K key, Content content) {
+        index.computeIfAbsent(key, k -> new HashSet<>()).add(content);
+    }
+
+    private static <K> void removeFrom(Map<K, Set<Content>> index, K key, Content content) {
+        Set<Content> bucket = index.get(key);
+        if (bucket != null && bucket.remove(content) && bucket.isEmpty()) {
+            index.remove(key);
+        }
+    }
+}
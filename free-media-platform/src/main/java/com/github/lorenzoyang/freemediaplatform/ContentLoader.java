@@ -0,0 +1,16 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+
+import java.util.Iterator;
+import java.util.OptionalLong;
+
+public interface ContentLoader {
+    // contents are pulled one at a time, so the whole catalog never has to be materialized
+    Iterator<Content> openStream();
+
+    // used to report the completion ratio of the load, when known
+    default OptionalLong getExpectedCount() {
+        return OptionalLong.empty();
+    }
+}
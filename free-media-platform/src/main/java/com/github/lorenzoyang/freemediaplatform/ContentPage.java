@@ -0,0 +1,31 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+public class ContentPage implements Iterable<Content> {
+    private final List<Content> contents;
+    private final String nextCursor;
+
+    ContentPage(List<Content> contents, String nextCursor) {
+        this.contents = List.copyOf(contents);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Content> getContents() {
+        return contents;
+    }
+
+    // opaque token for StreamingPlatform.getNextContentPage, empty on the last page
+    public Optional<String> getNextCursor() {
+        return Optional.ofNullable(nextCursor);
+    }
+
+    @Override
+    public Iterator<Content> iterator() {
+        return contents.iterator();
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+
+public class ContentQuery {
+    // newest first, contents without a release date last, then by title
+    public static final Comparator<Content> NEWEST_FIRST = Comparator
+            .comparing((Content content) -> content.getReleaseDate().orElse(null),
+                    Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Content::getTitle);
+    // oldest first, contents without a release date last, then by title
+    public static final Comparator<Content> OLDEST_FIRST = Comparator
+            .comparing((Content content) -> content.getReleaseDate().orElse(null),
+                    Comparator.nullsLast(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(Content::getTitle);
+
+    private final LocalDate releasedFrom;
+    private final LocalDate releasedTo;
+    private final Set<VideoResolution> resolutions;
+    private final Integer minDuration;
+    private final Integer maxDuration;
+    private final List<Predicate<Content>> filters;
+    private final Comparator<Content> order;
+    private final int limit;
+
+    private ContentQuery(ContentQueryBuilder builder) {
+        this.releasedFrom = builder.releasedFrom;
+        this.releasedTo = builder.releasedTo;
+        this.resolutions = builder.resolutions == null ? null : Collections.unmodifiableSet(builder.resolutions);
+        this.minDuration = builder.minDuration;
+        this.maxDuration = builder.maxDuration;
+        this.filters = List.copyOf(builder.filters);
+        this.order = builder.order;
+        this.limit = builder.limit;
+    }
+
+    Optional<LocalDate> getReleasedFrom() {
+        return Optional.ofNullable(releasedFrom);
+    }
+
+    Optional<LocalDate> getReleasedTo() {
+        return Optional.ofNullable(releasedTo);
+    }
+
+    boolean hasReleaseDateRange() {
+        return releasedFrom != null || releasedTo != null;
+    }
+
+    Optional<Set<VideoResolution>> getResolutions() {
+        return Optional.ofNullable(resolutions);
+    }
+
+    Optional<Integer> getMinDuration() {
+        return Optional.ofNullable(minDuration);
+    }
+
+    Optional<Integer> getMaxDuration() {
+        return Optional.ofNullable(maxDuration);
+    }
+
+    boolean hasDurationRange() {
+        return minDuration != null || maxDuration != null;
+    }
+
+    Comparator<Content> getOrder() {
+        return order;
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    public boolean matches(Content content) {
+        if (hasReleaseDateRange()) {
+            LocalDate releaseDate = content.getReleaseDate().orElse(null);
+            if (releaseDate == null ||
+                    (releasedFrom != null && releaseDate.isBefore(releasedFrom)) ||
+                    (releasedTo != null && releaseDate.isAfter(releasedTo))) {
+                return false;
+            }
+        }
+        if (resolutions != null && !content.getResolution().map(resolutions::contains).orElse(false)) {
+            return false;
+        }
+        int duration = content.getDurationInMinutes();
+        if ((minDuration != null && duration < minDuration) || (maxDuration != null && duration > maxDuration)) {
+            return false;
+        }
+        return filters.stream().allMatch(filter -> filter.test(content));
+    }
+
+    public static class ContentQueryBuilder {
+        private LocalDate releasedFrom = null;
+        private LocalDate releasedTo = null;
+        private Set<VideoResolution> resolutions = null;
+        private Integer minDuration = null;
+        private Integer maxDuration = null;
+        private final List<Predicate<Content>> filters = new ArrayList<>();
+        private Comparator<Content> order = NEWEST_FIRST;
+        private int limit = Integer.MAX_VALUE;
+
+        // bounds are inclusive, a null bound leaves the range open on that side
+        public ContentQueryBuilder withReleaseDateBetween(LocalDate from, LocalDate to) {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("Release date range start cannot be after its end");
+            }
+            this.releasedFrom = from;
+            this.releasedTo = to;
+            return this;
+        }
+
+        public ContentQueryBuilder withResolution(VideoResolution resolution, VideoResolution... others) {
+            Objects.requireNonNull(resolution, "Resolution cannot be null");
+            this.resolutions = EnumSet.of(resolution, others);
+            return this;
+        }
+
+        // bounds are inclusive, a null bound leaves the range open on that side
+        public ContentQueryBuilder withDurationBetween(Integer minDuration, Integer maxDuration) {
+            if (minDuration != null && maxDuration != null && minDuration > maxDuration) {
+                throw new IllegalArgumentException("Duration range start cannot be greater than its end");
+            }
+            this.minDuration = minDuration;
+            this.maxDuration = maxDuration;
+            return this;
+        }
+
+        // additional filters are combined with the other criteria, they are evaluated
+        // only on the candidates selected through the indexes
+        public ContentQueryBuilder withFilter(Predicate<Content> filter) {
+            filters.add(Objects.requireNonNull(filter, "Filter cannot be null"));
+            return this;
+        }
+
+        public ContentQueryBuilder withOrder(Comparator<Content> order) {
+            this.order = Objects.requireNonNull(order, "Order cannot be null");
+            return this;
+        }
+
+        public ContentQueryBuilder withLimit(int limit) {
+            if (limit <= 0) {
+                throw new IllegalArgumentException("Limit must be a positive integer greater than 0");
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        public ContentQuery build() {
+            return new ContentQuery(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+
+interface ContentStore extends Iterable<Content> {
+    Optional<Content> get(String title);
+
+    boolean contains(Content content);
+
+    boolean add(Content content);
+
+    Optional<Content> remove(Content content);
+
+    Optional<Content> replace(Content content);
+
+    // the changes are resolved once against the current contents and the resulting event goes
+    // to onChanges before the store changes; it is applied only if onChanges returns, and the
+    // result of onChanges is returned. Nothing is called and null is returned when no change
+    // would apply
+    <T> T applyChanges(ContentChangeSet changes, Function<BatchContentEvent, T> onChanges);
+
+    int size();
+
+    Collection<Content> values();
+
+    CatalogSnapshot snapshot();
+}
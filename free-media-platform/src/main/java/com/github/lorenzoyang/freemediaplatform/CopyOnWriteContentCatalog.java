@@ -0,0 +1,106 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+
+import java.util.*;
+import java.util.function.Function;
+
+// readers only dereference the volatile snapshot and never lock; writers are serialized and
+// publish the next version. Versions share the contents through a LayeredContentMap, so a
+// single write copies O(sqrt(n)) entries amortized; a change set is applied to one copy
+class CopyOnWriteContentCatalog implements ContentStore {
+    // the contents of the published snapshot, guarded by this
+    private LayeredContentMap contents;
+    private volatile CatalogSnapshot snapshot;
+
+    CopyOnWriteContentCatalog(Collection<Content> contents) {
+        Objects.requireNonNull(contents, "Contents cannot be null");
+        var contentsByTitle = new LinkedHashMap<String, Content>();
+        contents.forEach(content -> contentsByTitle.putIfAbsent(content.getTitle(), content));
+        this.contents = new LayeredContentMap(contentsByTitle);
+        this.snapshot = new CatalogSnapshot(0, this.contents);
+    }
+
+    @Override
+    public Optional<Content> get(String title) {
+        return snapshot.getContentByTitle(title);
+    }
+
+    @Override
+    public boolean contains(Content content) {
+        return snapshot.contains(content);
+    }
+
+    @Override
+    public synchronized boolean add(Content content) {
+        if (contents.containsKey(content.getTitle())) {
+            return false;
+        }
+        var editor = contents.edit();
+        editor.put(content.getTitle(), content);
+        publish(editor);
+        return true;
+    }
+
+    @Override
+    public synchronized Optional<Content> remove(Content content) {
+        if (!contents.containsKey(content.getTitle())) {
+            return Optional.empty();
+        }
+        var editor = contents.edit();
+        Content removedContent = editor.remove(content.getTitle());
+        publish(editor);
+        return Optional.of(removedContent);
+    }
+
+    @Override
+    public synchronized Optional<Content> replace(Content content) {
+        if (!contents.containsKey(content.getTitle())) {
+            return Optional.empty();
+        }
+        var editor = contents.edit();
+        Content oldContent = editor.replace(content.getTitle(), content);
+        publish(editor);
+        return Optional.of(oldContent);
+    }
+
+    // the whole batch is applied to a single copy and published as one version, the copy is
+    // dropped when onChanges throws
+    @Override
+    public synchronized <T> T applyChanges(ContentChangeSet changes, Function<BatchContentEvent, T> onChanges) {
+        var editor = contents.edit();
+        BatchContentEvent event = changes.applyTo(editor);
+        if (event.isEmpty()) {
+            return null;
+        }
+        T result = onChanges.apply(event);
+        publish(editor);
+        return result;
+    }
+
+    private void publish(LayeredContentMap.Editor editor) {
+        contents = editor.build();
+        snapshot = new CatalogSnapshot(snapshot.getVersion() + 1, contents);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public Collection<Content> values() {
+        return snapshot.values();
+    }
+
+    @Override
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public Iterator<Content> iterator() {
+        return snapshot.iterator();
+    }
+}
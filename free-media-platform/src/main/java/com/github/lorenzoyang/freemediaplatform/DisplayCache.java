@@ -0,0 +1,133 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitorAdapter;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// rendered output of displayContent, bounded by the total number of characters and evicted in
+// least recently used order. An entry remembers the content it was rendered from and is only
+// served for that same instance, so a render racing with an update is never returned stale.
+// A hit only stamps its entry with the access time, the lock is taken to insert an entry into
+// the eviction queue: the queue keeps the access time an entry had when it was queued, an entry
+// found there with a later access is queued again instead of being evicted
+class DisplayCache {
+    private final int capacity;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong weight = new AtomicLong();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // also holds entries already replaced or invalidated, they are dropped when polled
+    private final PriorityQueue<Entry> evictionQueue = new PriorityQueue<>(
+            Comparator.comparingLong(entry -> entry.queuedAccess));
+    private final PlatformEventVisitorAdapter invalidationVisitor = new PlatformEventVisitorAdapter() {
+        @Override
+        public void visitRemoveContent(RemoveContentEvent event) {
+            invalidate(event.getRemovedContent().getTitle());
+        }
+
+        @Override
+        public void visitUpdateContent(UpdateContentEvent event) {
+            invalidate(event.getOldContent().getTitle());
+        }
+    };
+
+    DisplayCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    String get(Content content, Function<Content, String> renderer) {
+        Entry entry = entries.get(content.getTitle());
+        if (entry != null && entry.content == content) {
+            entry.lastAccess = System.nanoTime();
+            hitCount.increment();
+            return entry.text;
+        }
+        missCount.increment();
+
+        String text = renderer.apply(content);
+        if (text.length() <= capacity) {
+            Entry added = new Entry(content, text);
+            Entry previous = entries.put(content.getTitle(), added);
+            weight.addAndGet(text.length() - (previous == null ? 0 : previous.text.length()));
+            enqueue(added);
+        }
+        return text;
+    }
+
+    void apply(PlatformEvent event) {
+        event.accept(invalidationVisitor);
+    }
+
+    DisplayCacheStats stats() {
+        return new DisplayCacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), entries.size(),
+                weight.get());
+    }
+
+    private void invalidate(String title) {
+        Entry removed = entries.remove(title);
+        if (removed != null) {
+            weight.addAndGet(-removed.text.length());
+        }
+    }
+
+    private void enqueue(Entry added) {
+        evictionLock.lock();
+        try {
+            added.queuedAccess = added.lastAccess;
+            evictionQueue.add(added);
+            evict();
+            // the entries no longer cached are dropped once they outnumber the cached ones
+            if (evictionQueue.size() > 2 * entries.size() + 16) {
+                evictionQueue.removeIf(queued -> entries.get(queued.content.getTitle()) != queued);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // an entry cached by a thread still waiting for the lock is not queued yet, that thread
+    // evicts it if needed
+    private void evict() {
+        while (weight.get() > capacity) {
+            Entry eldest = evictionQueue.poll();
+            if (eldest == null) {
+                return;
+            }
+            String title = eldest.content.getTitle();
+            if (entries.get(title) != eldest) {
+                continue;
+            }
+            long lastAccess = eldest.lastAccess;
+            if (lastAccess != eldest.queuedAccess) {
+                eldest.queuedAccess = lastAccess;
+                evictionQueue.add(eldest);
+            } else if (entries.remove(title, eldest)) {
+                weight.addAndGet(-eldest.text.length());
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private static class Entry {
+        private final Content content;
+        private final String text;
+        private volatile long lastAccess = System.nanoTime();
+        // guarded by the eviction lock
+        private long queuedAccess;
+
+        private Entry(Content content, String text) {
+            this.content = content;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+public class DisplayCacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final int size;
+    private final long weight;
+
+    DisplayCacheStats(long hitCount, long missCount, long evictionCount, int size, long weight) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.size = size;
+        this.weight = weight;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    // number of cached renders
+    public int getSize() {
+        return size;
+    }
+
+    // characters held by the cached renders
+    public long getWeight() {
+        return weight;
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface EventDispatcher extends AutoCloseable {
+    default void addObserver(PlatformObserver observer) {
+        addObserver(observer, observer.getSubscribedEventTypes());
+    }
+
+    void addObserver(PlatformObserver observer, Set<Class<? extends PlatformEvent>> eventTypes);
+
+    void removeObserver(PlatformObserver observer);
+
+    Collection<PlatformObserver> getObservers();
+
+    // delivery statistics of every registered observer, in registration order
+    Map<PlatformObserver, ObserverMetrics> getObserverMetrics();
+
+    // lets an observer quarantined by the QuarantinePolicy receive events again
+    void releaseObserver(PlatformObserver observer);
+
+    // delivers past events to a registered observer, before the events dispatched afterwards,
+    // through the same monitoring and quarantine as its live events
+    void replay(PlatformObserver observer, List<PlatformEvent> events);
+
+    // delivers the event the way the platform does, first to the critical observers and, unless
+    // they reject it, to the other ones
+    default void dispatch(PlatformEvent event) {
+        dispatchCritical(event);
+        dispatchNonCritical(event);
+    }
+
+    // called before the change is applied: the critical observers are notified on the calling
+    // thread, in registration order, and a failure rejects the event after the ones already
+    // notified have aborted it. The dispatcher also rejects here an event it would not be able
+    // to hand over to the other observers
+    void dispatchCritical(PlatformEvent event);
+
+    // called once the change has been applied, the other observers receive the event and their
+    // failures are isolated: it must not fail, the change can no longer be rejected
+    void dispatchNonCritical(PlatformEvent event);
+
+    // waits until every event dispatched so far has been delivered
+    void flush();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,54 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// the most recent published events in a ring indexed by sequence, so that the events
+// following a given sequence are found without scanning; guarded by the platform write lock
+class EventHistory {
+    private final PlatformEvent[] events;
+    // sequence of the next event to be recorded, sequences start from 1
+    private long nextSequence = 1;
+
+    EventHistory(int capacity) {
+        this.events = new PlatformEvent[capacity];
+    }
+
+    long nextSequence() {
+        return nextSequence;
+    }
+
+    long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    void record(PlatformEvent event) {
+        assert event.getSequence() == nextSequence;
+        events[(int) (nextSequence % events.length)] = event;
+        nextSequence++;
+    }
+
+    // the oldest sequence still retained
+    long firstRetainedSequence() {
+        return Math.max(1, nextSequence - events.length);
+    }
+
+    // the retained events from the given sequence on, in order
+    List<PlatformEvent> eventsFrom(long fromSequence) {
+        if (fromSequence <= 0) {
+            throw new IllegalArgumentException("Sequence must be a positive integer greater than 0");
+        }
+        if (fromSequence < firstRetainedSequence()) {
+            throw new StreamingPlatformException("Events before sequence " + firstRetainedSequence() +
+                    " are no longer retained");
+        }
+        List<PlatformEvent> retained = new ArrayList<>((int) Math.max(0, nextSequence - fromSequence));
+        for (long sequence = fromSequence; sequence < nextSequence; sequence++) {
+            retained.add(events[(int) (sequence % events.length)]);
+        }
+        return retained;
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+
+import java.util.*;
+
+// immutable contents by title in catalog order, made of a base map shared between versions and
+// of the changes made since the base was built. A new version copies only those changes, which
+// are merged into a new base once they outnumber the square root of the size: a write costs
+// O(sqrt(n)) amortized instead of a copy of the whole catalog, reads do at most three lookups
+final class LayeredContentMap extends AbstractMap<String, Content> {
+    private static final int MIN_MERGE_THRESHOLD = 64;
+
+    private final LinkedHashMap<String, Content> base;
+    // titles of the base replaced (with their new content) or removed (with null)
+    private final HashMap<String, Content> changed;
+    // titles added after the base was built, in insertion order
+    private final LinkedHashMap<String, Content> appended;
+    private final int size;
+
+    // the map is owned by this instance and never mutated
+    LayeredContentMap(LinkedHashMap<String, Content> base) {
+        this(base, new HashMap<>(), new LinkedHashMap<>(), base.size());
+    }
+
+    private LayeredContentMap(LinkedHashMap<String, Content> base, HashMap<String, Content> changed,
+                              LinkedHashMap<String, Content> appended, int size) {
+        this.base = base;
+        this.changed = changed;
+        this.appended = appended;
+        this.size = size;
+    }
+
+    @Override
+    public Content get(Object title) {
+        return lookup(base, changed, appended, title);
+    }
+
+    @Override
+    public boolean containsKey(Object title) {
+        return get(title) != null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Content>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Content>> iterator() {
+                return entryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // a mutable copy of the changes, turned into the next version by build()
+    Editor edit() {
+        return new Editor(this);
+    }
+
+    private static Content lookup(Map<String, Content> base, Map<String, Content> changed,
+                                  Map<String, Content> appended, Object title) {
+        Content content = appended.get(title);
+        if (content != null) {
+            return content;
+        }
+        return changed.containsKey(title) ? changed.get(title) : base.get(title);
+    }
+
+    // the base in its order, with replaced contents in place and removed ones skipped, then the
+    // appended contents
+    private Iterator<Entry<String, Content>> entryIterator() {
+        Iterator<Entry<String, Content>> fromBase = changed.isEmpty()
+                ? base.entrySet().iterator()
+                : new ChangedBaseIterator();
+        Iterator<Entry<String, Content>> fromAppended = appended.entrySet().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return fromBase.hasNext() || fromAppended.hasNext();
+            }
+
+            @Override
+            public Entry<String, Content> next() {
+                return fromBase.hasNext() ? fromBase.next() : fromAppended.next();
+            }
+        };
+    }
+
+    private class ChangedBaseIterator implements Iterator<Entry<String, Content>> {
+        private final Iterator<Entry<String, Content>> entries = base.entrySet().iterator();
+        private Entry<String, Content> next = advance();
+
+        private Entry<String, Content> advance() {
+            while (entries.hasNext()) {
+                Entry<String, Content> entry = entries.next();
+                if (!changed.containsKey(entry.getKey())) {
+                    return entry;
+                }
+                Content content = changed.get(entry.getKey());
+                if (content != null) {
+                    return new SimpleImmutableEntry<>(entry.getKey(), content);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, Content> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Content> current = next;
+            next = advance();
+            return current;
+        }
+    }
+
+    // same semantics as a LinkedHashMap: a replaced title keeps its position, a title removed and
+    // added again moves last. Must not be used after build()
+    static class Editor extends AbstractMap<String, Content> {
+        private final LinkedHashMap<String, Content> base;
+        private final HashMap<String, Content> changed;
+        private final LinkedHashMap<String, Content> appended;
+        private int size;
+
+        private Editor(LayeredContentMap from) {
+            this.base = from.base;
+            this.changed = new HashMap<>(from.changed);
+            this.appended = new LinkedHashMap<>(from.appended);
+            this.size = from.size;
+        }
+
+        @Override
+        public Content get(Object title) {
+            return lookup(base, changed, appended, title);
+        }
+
+        @Override
+        public boolean containsKey(Object title) {
+            return get(title) != null;
+        }
+
+        @Override
+        public Content put(String title, Content content) {
+            Objects.requireNonNull(content, "Content cannot be null");
+            Content previous = get(title);
+            if (appended.containsKey(title)) {
+                appended.put(title, content);
+            } else if (previous != null) {
+                changed.put(title, content);
+            } else {
+                appended.put(title, content);
+                size++;
+            }
+            return previous;
+        }
+
+        @Override
+        public Content remove(Object title) {
+            Content previous = get(title);
+            if (previous == null) {
+                return null;
+            }
+            if (appended.remove(title) == null) {
+                changed.put((String) title, null);
+            }
+            size--;
+            return previous;
+        }
+
+        @Override
+        public Content putIfAbsent(String title, Content content) {
+            Content previous = get(title);
+            return previous != null ? previous : put(title, content);
+        }
+
+        @Override
+        public Content replace(String title, Content content) {
+            return containsKey(title) ? put(title, content) : null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, Content>> entrySet() {
+            return Collections.unmodifiableSet(new LayeredContentMap(base, changed, appended, size).entrySet());
+        }
+
+        LayeredContentMap build() {
+            var edited = new LayeredContentMap(base, changed, appended, size);
+            if (changed.size() + appended.size() <= Math.max(MIN_MERGE_THRESHOLD, (int) Math.sqrt(size))) {
+                return edited;
+            }
+            var merged = new LinkedHashMap<String, Content>(Math.max(16, (int) (size / 0.75f) + 1));
+            edited.entrySet().forEach(entry -> merged.put(entry.getKey(), entry.getValue()));
+            return new LayeredContentMap(merged);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalLong;
+
+public class LoadProgress {
+    private final long loadedCount;
+    private final OptionalLong expectedCount;
+    private final Duration elapsed;
+    private final boolean done;
+    private final boolean cancelled;
+    private final Throwable failure;
+
+    LoadProgress(long loadedCount, OptionalLong expectedCount, Duration elapsed, boolean done, boolean cancelled,
+                 Throwable failure) {
+        this.loadedCount = loadedCount;
+        this.expectedCount = expectedCount;
+        this.elapsed = elapsed;
+        this.done = done;
+        this.cancelled = cancelled;
+        this.failure = failure;
+    }
+
+    // contents read from the loader so far, duplicated titles included
+    public long getLoadedCount() {
+        return loadedCount;
+    }
+
+    public OptionalLong getExpectedCount() {
+        return expectedCount;
+    }
+
+    public OptionalDouble getCompletionRatio() {
+        if (expectedCount.isEmpty() || expectedCount.getAsLong() == 0) {
+            return done ? OptionalDouble.of(1) : OptionalDouble.empty();
+        }
+        return OptionalDouble.of(Math.min(1, (double) loadedCount / expectedCount.getAsLong()));
+    }
+
+    public Duration getElapsed() {
+        return elapsed;
+    }
+
+    // contents per second
+    public double getThroughput() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : loadedCount * 1_000_000_000.0 / nanos;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    // the platform was closed before the loader was fully consumed
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public Optional<Throwable> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+}
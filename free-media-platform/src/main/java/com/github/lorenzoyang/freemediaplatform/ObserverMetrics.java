@@ -0,0 +1,79 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public class ObserverMetrics {
+    private final long deliveredEventsCount;
+    private final long failedEventsCount;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+    private final long[] latencyBuckets;
+    private final long elapsedNanos;
+    private final boolean quarantined;
+    private final RuntimeException lastFailure;
+
+    ObserverMetrics(long deliveredEventsCount, long failedEventsCount, long totalLatencyNanos,
+                    long maxLatencyNanos, long[] latencyBuckets, long elapsedNanos, boolean quarantined,
+                    RuntimeException lastFailure) {
+        this.deliveredEventsCount = deliveredEventsCount;
+        this.failedEventsCount = failedEventsCount;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.latencyBuckets = latencyBuckets;
+        this.elapsedNanos = elapsedNanos;
+        this.quarantined = quarantined;
+        this.lastFailure = lastFailure;
+    }
+
+    // events handed to the observer, failed ones included
+    public long getDeliveredEventsCount() {
+        return deliveredEventsCount;
+    }
+
+    // deliveries that ended with an exception
+    public long getFailedEventsCount() {
+        return failedEventsCount;
+    }
+
+    // delivered events per second since the observer was registered
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : deliveredEventsCount * 1e9 / elapsedNanos;
+    }
+
+    public Duration getAverageLatency() {
+        return deliveredEventsCount == 0 ? Duration.ZERO : Duration.ofNanos(totalLatencyNanos / deliveredEventsCount);
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos);
+    }
+
+    // latencies are kept in power-of-two buckets, the result is the upper bound of the bucket
+    // holding the percentile, capped at the maximum latency
+    public Duration getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100");
+        }
+        long rank = (long) Math.ceil(percentile / 100 * deliveredEventsCount);
+        long seen = 0;
+        for (int bucket = 0; bucket < latencyBuckets.length; bucket++) {
+            seen += latencyBuckets[bucket];
+            if (seen >= rank && seen > 0) {
+                long upperBound = bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+                return Duration.ofNanos(Math.min(upperBound, maxLatencyNanos));
+            }
+        }
+        // the buckets and the count are read one after the other while deliveries go on
+        return Duration.ofNanos(maxLatencyNanos);
+    }
+
+    public boolean isQuarantined() {
+        return quarantined;
+    }
+
+    // the last exception thrown by the observer, or raised by the dispatcher delivering to it
+    public Optional<RuntimeException> getLastFailure() {
+        return Optional.ofNullable(lastFailure);
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// delivers the events to one observer, timing every delivery and isolating its failures:
+// an exception is kept as the last failure of its metrics instead of reaching the publisher,
+// and the quarantine policy decides when the observer is skipped. A critical
+// observer is always notified on the publishing thread, it is never quarantined and its
+// exceptions are rethrown
+class ObserverMonitor {
+    private final PlatformObserver observer;
+    private final QuarantinePolicy quarantinePolicy;
+    private final boolean rethrowsFailures;
+    private final long registeredAtNanos = System.nanoTime();
+    private final LongAdder deliveredEventsCount = new LongAdder();
+    private final LongAdder failedEventsCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    // bucket i counts the latencies below 2^i nanoseconds and not below 2^(i - 1)
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(Long.SIZE);
+    private final AtomicInteger consecutiveSlowDeliveries = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private volatile boolean quarantined = false;
+    private volatile RuntimeException lastFailure;
+
+    ObserverMonitor(PlatformObserver observer, QuarantinePolicy quarantinePolicy) {
+        this.observer = observer;
+        this.quarantinePolicy = observer.isCritical() ? QuarantinePolicy.NONE : quarantinePolicy;
+        this.rethrowsFailures = observer.isCritical();
+    }
+
+    // notifies the critical observers among the subscribers in order; when one of them fails,
+    // the ones already notified abort the event in reverse order and the failure is rethrown
+    // with their own failures suppressed
+    static <T> void deliverCritical(Collection<T> subscribers, Function<T, ObserverMonitor> monitorOf,
+                                    PlatformEvent event) {
+        List<ObserverMonitor> notified = null;
+        for (T subscriber : subscribers) {
+            ObserverMonitor monitor = monitorOf.apply(subscriber);
+            if (!monitor.observer.isCritical()) {
+                continue;
+            }
+            try {
+                monitor.deliver(event);
+            } catch (RuntimeException e) {
+                for (int i = notified == null ? -1 : notified.size() - 1; i >= 0; i--) {
+                    try {
+                        notified.get(i).observer.abort(event);
+                    } catch (RuntimeException abortFailure) {
+                        e.addSuppressed(abortFailure);
+                    }
+                }
+                throw e;
+            }
+            if (notified == null) {
+                notified = new ArrayList<>();
+            }
+            notified.add(monitor);
+        }
+    }
+
+    PlatformObserver observer() {
+        return observer;
+    }
+
+    void deliver(PlatformEvent event) {
+        if (quarantined) {
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            observer.notifyChange(event);
+        } catch (RuntimeException e) {
+            failed = true;
+            lastFailure = e;
+            if (rethrowsFailures) {
+                throw e;
+            }
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void record(long latencyNanos, boolean failed) {
+        deliveredEventsCount.increment();
+        totalLatencyNanos.add(latencyNanos);
+        maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+        latencyBuckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(latencyNanos));
+
+        if (failed) {
+            failedEventsCount.increment();
+            if (quarantinePolicy.exceedsFailures(consecutiveFailures.incrementAndGet())) {
+                quarantined = true;
+            }
+        } else {
+            consecutiveFailures.set(0);
+        }
+        if (quarantinePolicy.isSlow(latencyNanos)) {
+            if (quarantinePolicy.exceedsSlowDeliveries(consecutiveSlowDeliveries.incrementAndGet())) {
+                quarantined = true;
+            }
+        } else {
+            consecutiveSlowDeliveries.set(0);
+        }
+    }
+
+    // for a failure of the dispatcher while handing the events over to the observer
+    void failed(RuntimeException failure) {
+        lastFailure = failure;
+    }
+
+    boolean isQuarantined() {
+        return quarantined;
+    }
+
+    // for the dispatchers that cannot wait any longer for a lagging observer
+    void quarantine() {
+        if (!observer.isCritical()) {
+            quarantined = true;
+        }
+    }
+
+    void release() {
+        consecutiveSlowDeliveries.set(0);
+        consecutiveFailures.set(0);
+        quarantined = false;
+    }
+
+    ObserverMetrics metrics() {
+        long[] buckets = new long[latencyBuckets.length()];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = latencyBuckets.get(i);
+        }
+        return new ObserverMetrics(deliveredEventsCount.sum(), failedEventsCount.sum(), totalLatencyNanos.sum(),
+                maxLatencyNanos.get(), buckets, System.nanoTime() - registeredAtNanos, quarantined, lastFailure);
+    }
+}
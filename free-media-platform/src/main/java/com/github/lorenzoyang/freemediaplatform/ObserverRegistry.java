@@ -0,0 +1,105 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+
+import java.util.*;
+
+// keeps, for every event type, the list of subscribers interested in it; the per-type
+// lists are rebuilt lazily after (un)registrations, so dispatch only reads a volatile
+class ObserverRegistry<T> {
+    private final Map<PlatformObserver, Subscription<T>> subscriptions = new LinkedHashMap<>();
+    private volatile Map<Class<? extends PlatformEvent>, List<T>> subscribersByType = Map.of();
+
+    synchronized void register(PlatformObserver observer, T subscriber,
+                               Set<Class<? extends PlatformEvent>> eventTypes) {
+        Objects.requireNonNull(observer, "Observer cannot be null");
+        Objects.requireNonNull(eventTypes, "Event types cannot be null");
+        if (eventTypes.isEmpty()) {
+            throw new IllegalArgumentException("Observer must subscribe to at least one event type");
+        }
+        subscriptions.put(observer, new Subscription<>(subscriber, Set.copyOf(eventTypes)));
+        subscribersByType = null;
+    }
+
+    synchronized Optional<T> unregister(PlatformObserver observer) {
+        Subscription<T> subscription = subscriptions.remove(observer);
+        if (subscription == null) {
+            return Optional.empty();
+        }
+        subscribersByType = null;
+        return Optional.of(subscription.subscriber);
+    }
+
+    synchronized Optional<T> get(PlatformObserver observer) {
+        return Optional.ofNullable(subscriptions.get(observer)).map(subscription -> subscription.subscriber);
+    }
+
+    synchronized Collection<PlatformObserver> observers() {
+        return List.copyOf(subscriptions.keySet());
+    }
+
+    synchronized Collection<T> subscribers() {
+        Collection<T> subscribers = new ArrayList<>();
+        subscriptions.values().forEach(subscription -> subscribers.add(subscription.subscriber));
+        return subscribers;
+    }
+
+    // a batch reaches the subscribers of BatchContentEvent and of every event type it contains
+    Collection<T> subscribersOf(PlatformEvent event) {
+        Map<Class<? extends PlatformEvent>, List<T>> byType = subscribersByType();
+        if (!(event instanceof BatchContentEvent)) {
+            return byType.getOrDefault(event.getClass(), List.of());
+        }
+
+        Set<T> subscribers = new LinkedHashSet<>(byType.getOrDefault(BatchContentEvent.class, List.of()));
+        Set<Class<? extends PlatformEvent>> containedTypes = new HashSet<>();
+        for (PlatformEvent containedEvent : ((BatchContentEvent) event).getEvents()) {
+            if (containedTypes.add(containedEvent.getClass())) {
+                subscribers.addAll(byType.getOrDefault(containedEvent.getClass(), List.of()));
+            }
+        }
+        return subscribers;
+    }
+
+    // same rule as subscribersOf, for a single subscriber
+    static boolean isSubscribed(Set<Class<? extends PlatformEvent>> eventTypes, PlatformEvent event) {
+        if (eventTypes.contains(event.getClass())) {
+            return true;
+        }
+        if (event instanceof BatchContentEvent) {
+            for (PlatformEvent containedEvent : ((BatchContentEvent) event).getEvents()) {
+                if (eventTypes.contains(containedEvent.getClass())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Map<Class<? extends PlatformEvent>, List<T>> subscribersByType() {
+        Map<Class<? extends PlatformEvent>, List<T>> current = subscribersByType;
+        return current != null ? current : rebuildSubscribersByType();
+    }
+
+    private synchronized Map<Class<? extends PlatformEvent>, List<T>> rebuildSubscribersByType() {
+        if (subscribersByType == null) {
+            Map<Class<? extends PlatformEvent>, List<T>> byType = new HashMap<>();
+            subscriptions.values().forEach(subscription -> subscription.eventTypes.forEach(eventType ->
+                    byType.computeIfAbsent(eventType, type -> new ArrayList<>()).add(subscription.subscriber)));
+            byType.replaceAll((type, subscribers) -> List.copyOf(subscribers));
+            subscribersByType = Map.copyOf(byType);
+        }
+        return subscribersByType;
+    }
+
+    private static class Subscription<T> {
+        private final T subscriber;
+        private final Set<Class<? extends PlatformEvent>> eventTypes;
+
+        private Subscription(T subscriber, Set<Class<? extends PlatformEvent>> eventTypes) {
+            this.subscriber = subscriber;
+            this.eventTypes = eventTypes;
+        }
+    }
+}
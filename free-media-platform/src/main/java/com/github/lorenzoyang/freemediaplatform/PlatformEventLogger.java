@@ -3,6 +3,8 @@ package com.github.lorenzoyang.freemediaplatform;
 import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
 import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
 import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
@@ -16,30 +18,41 @@ import java.util.Iterator;
 public class PlatformEventLogger implements PlatformObserver {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
     private final Collection<String> logMessages = new ArrayList<>();
+    private final PlatformEventVisitor eventVisitor = new PlatformEventVisitor() {
+        @Override
+        public void visitAddContent(AddContentEvent event) {
+            String logMsg = "Content Added: " + formatContentMessage(event.getAddedContent());
+            log(logMsg);
+        }
 
-    @Override
-    public void notifyChange(PlatformEvent event) {
-        event.accept(new PlatformEventVisitor() {
-            @Override
-            public void visitAddContent(AddContentEvent event) {
-                String logMsg = "Content Added: " + formatContentMessage(event.getAddedContent());
-                log(logMsg);
-            }
+        @Override
+        public void visitRemoveContent(RemoveContentEvent event) {
+            String logMsg = "Content Removed: " + formatContentMessage(event.getRemovedContent());
+            log(logMsg);
+        }
+
+        @Override
+        public void visitUpdateContent(UpdateContentEvent event) {
+            String logMsg = String.format("Content Updated: \n\tfrom: %s\n\tto: %s",
+                    formatContentMessage(event.getOldContent()),
+                    formatContentMessage(event.getUpdatedContent()));
+            log(logMsg);
+        }
 
-            @Override
-            public void visitRemoveContent(RemoveContentEvent event) {
-                String logMsg = "Content Removed: " + formatContentMessage(event.getRemovedContent());
-                log(logMsg);
-            }
+        @Override
+        public void visitBatchContent(BatchContentEvent event) {
+            event.forEachEvent(this);
+        }
 
-            @Override
-            public void visitUpdateContent(UpdateContentEvent event) {
-                String logMsg = String.format("Content Updated: \n\tfrom: %s\n\tto: %s",
-                        formatContentMessage(event.getOldContent()),
-                        formatContentMessage(event.getUpdatedContent()));
-                log(logMsg);
-            }
-        });
+        @Override
+        public void visitLoadContent(LoadContentEvent event) {
+            log("Contents Loaded: " + event.getLoadedContents().size());
+        }
+    };
+
+    @Override
+    public void notifyChange(PlatformEvent event) {
+        event.accept(eventVisitor);
     }
 
     private String formatContentMessage(Content content) {
@@ -1,7 +1,38 @@
 package com.github.lorenzoyang.freemediaplatform;
 
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
+
+import java.util.Set;
 
 public interface PlatformObserver {
     void notifyChange(PlatformEvent event);
+
+    // the platform only delivers events of these types (and batches containing them)
+    default Set<Class<? extends PlatformEvent>> getSubscribedEventTypes() {
+        return Set.of(AddContentEvent.class, RemoveContentEvent.class, UpdateContentEvent.class,
+                LoadContentEvent.class);
+    }
+
+    // a critical observer is notified on the publishing thread before the change is applied, it
+    // is never quarantined and its exceptions are not isolated: they reject the change and
+    // propagate to the publisher
+    default boolean isCritical() {
+        return false;
+    }
+
+    // called on the publishing thread when the platform rejects an event this critical observer
+    // has already been notified of, because a critical observer notified after it failed: the
+    // change never happened and the observer must undo what it did for the event
+    default void abort(PlatformEvent event) {
+    }
+
+    // called on the publishing thread once the platform lock is released, after every mutation
+    // the platform notified this critical observer of; it can wait there, e.g. for the event to be
+    // durable, without holding back the next mutations. Its exceptions propagate to the publisher
+    default void commit() {
+    }
 }
@@ -1,16 +1,27 @@
 package com.github.lorenzoyang.freemediaplatform;
 
 import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
 import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
 import com.github.lorenzoyang.freemediaplatform.utils.EmailNotificationService;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
 import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitorAdapter;
 
 import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
 
 public class PlatformUser implements PlatformObserver {
+    // removals are not notified, so the platform does not need to deliver them
+    private static final Set<Class<? extends PlatformEvent>> SUBSCRIBED_EVENT_TYPES =
+            Set.of(AddContentEvent.class, UpdateContentEvent.class);
+    // a batch email lists this many titles and counts the others
+    private static final int MAX_LISTED_TITLES = 10;
+
     private final String email;
     private final EmailNotificationService emailNotificationService;
+    private final PlatformEventVisitor eventVisitor = new NotificationVisitor();
 
     public PlatformUser(String email, EmailNotificationService emailNotificationService) {
         Objects.requireNonNull(email, "Email cannot be null");
@@ -25,20 +36,76 @@ public class PlatformUser implements PlatformObserver {
 
     @Override
     public void notifyChange(PlatformEvent event) {
-        event.accept(new PlatformEventVisitorAdapter() {
-            @Override
-            public void visitAddContent(AddContentEvent event) {
-                String notificationMsg = "New content added: " + event.getAddedContent().getTitle() +
-                        ". Check your email for details.";
-                emailNotificationService.notifyUser(email, "New Content Added", notificationMsg);
+        event.accept(eventVisitor);
+    }
+
+    @Override
+    public Set<Class<? extends PlatformEvent>> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    private void notifyContentAdded(String titles) {
+        String notificationMsg = "New content added: " + titles + ". Check your email for details.";
+        emailNotificationService.notifyUser(email, "New Content Added", notificationMsg);
+    }
+
+    private void notifyContentUpdated(String titles) {
+        String notificationMsg = "Content updated: " + titles + ". Check your email for details.";
+        emailNotificationService.notifyUser(email, "Content Updated", notificationMsg);
+    }
+
+    private class NotificationVisitor extends PlatformEventVisitorAdapter {
+        @Override
+        public void visitAddContent(AddContentEvent event) {
+            notifyContentAdded(event.getAddedContent().getTitle());
+        }
+
+        @Override
+        public void visitUpdateContent(UpdateContentEvent event) {
+            notifyContentUpdated(event.getUpdatedContent().getTitle());
+        }
+
+        @Override
+        public void visitBatchContent(BatchContentEvent event) {
+            // one email per kind of change instead of one per content
+            var addedTitles = new TitleList();
+            var updatedTitles = new TitleList();
+            event.forEachEvent(new PlatformEventVisitorAdapter() {
+                @Override
+                public void visitAddContent(AddContentEvent event) {
+                    addedTitles.add(event.getAddedContent().getTitle());
+                }
+
+                @Override
+                public void visitUpdateContent(UpdateContentEvent event) {
+                    updatedTitles.add(event.getUpdatedContent().getTitle());
+                }
+            });
+
+            if (addedTitles.count > 0) {
+                notifyContentAdded(addedTitles.toString());
+            }
+            if (updatedTitles.count > 0) {
+                notifyContentUpdated(updatedTitles.toString());
             }
+        }
+    }
+
+    private static class TitleList {
+        private final StringJoiner titles = new StringJoiner(", ");
+        private int count = 0;
 
-            @Override
-            public void visitUpdateContent(UpdateContentEvent event) {
-                String notificationMsg = "Content updated: " + event.getUpdatedContent().getTitle() +
-                        ". Check your email for details.";
-                emailNotificationService.notifyUser(email, "Content Updated", notificationMsg);
+        private void add(String title) {
+            if (count++ < MAX_LISTED_TITLES) {
+                titles.add(title);
             }
-        });
+        }
+
+        @Override
+        public String toString() {
+            return count > MAX_LISTED_TITLES
+                    ? titles + " and " + (count - MAX_LISTED_TITLES) + " more"
+                    : titles.toString();
+        }
     }
 }
@@ -0,0 +1,65 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import java.time.Duration;
+import java.util.Objects;
+
+// when an observer stops receiving events: after too many consecutive deliveries over the
+// latency budget or too many consecutive exceptions; a quarantined observer stays registered
+// and can be released through the event dispatcher
+public class QuarantinePolicy {
+    // observers are never quarantined
+    public static final QuarantinePolicy NONE = new QuarantinePolicyBuilder().build();
+
+    private final long latencyBudgetNanos;
+    private final int maxSlowDeliveries;
+    private final int maxFailures;
+
+    private QuarantinePolicy(QuarantinePolicyBuilder builder) {
+        this.latencyBudgetNanos = builder.latencyBudget == null ? Long.MAX_VALUE : builder.latencyBudget.toNanos();
+        this.maxSlowDeliveries = builder.maxSlowDeliveries;
+        this.maxFailures = builder.maxFailures;
+    }
+
+    boolean isSlow(long latencyNanos) {
+        return latencyNanos > latencyBudgetNanos;
+    }
+
+    boolean exceedsSlowDeliveries(int consecutiveSlowDeliveries) {
+        return consecutiveSlowDeliveries >= maxSlowDeliveries;
+    }
+
+    boolean exceedsFailures(int consecutiveFailures) {
+        return consecutiveFailures >= maxFailures;
+    }
+
+    public static class QuarantinePolicyBuilder {
+        private Duration latencyBudget = null;
+        private int maxSlowDeliveries = Integer.MAX_VALUE;
+        private int maxFailures = Integer.MAX_VALUE;
+
+        public QuarantinePolicyBuilder withLatencyBudget(Duration latencyBudget, int maxSlowDeliveries) {
+            Objects.requireNonNull(latencyBudget, "Latency budget cannot be null");
+            if (latencyBudget.isNegative() || latencyBudget.isZero()) {
+                throw new IllegalArgumentException("Latency budget must be positive");
+            }
+            if (maxSlowDeliveries <= 0) {
+                throw new IllegalArgumentException("Max slow deliveries must be a positive integer greater than 0");
+            }
+            this.latencyBudget = latencyBudget;
+            this.maxSlowDeliveries = maxSlowDeliveries;
+            return this;
+        }
+
+        public QuarantinePolicyBuilder withErrorBudget(int maxFailures) {
+            if (maxFailures <= 0) {
+                throw new IllegalArgumentException("Max failures must be a positive integer greater than 0");
+            }
+            this.maxFailures = maxFailures;
+            return this;
+        }
+
+        public QuarantinePolicy build() {
+            return new QuarantinePolicy(this);
+        }
+    }
+}
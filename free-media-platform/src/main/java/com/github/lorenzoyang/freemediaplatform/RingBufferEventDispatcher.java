@@ -0,0 +1,482 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+// events are published into a pre-allocated ring of slots shared by all the observers:
+// a publisher claims the next sequence, waits until every observer has consumed the event
+// that previously used the slot, stores the event and marks the slot with its sequence.
+// A publisher waits at most the publish timeout: the observers still a full ring behind are then
+// quarantined, no longer gate the publishers and skip the events published until they are
+// released, so publishing never fails once the change has been applied.
+// Each observer runs its own consumer, which reads every published sequence in order,
+// delivers the events it is subscribed to and advances its sequence once per batch.
+// Slots are cleared once every consumer has read them, so consumed events are not kept alive.
+// The critical observers are notified on the publishing thread before the event is published,
+// every other observer occupies one executor thread for as long as it is registered.
+// Publishing allocates nothing, but the slots only hold references: the platform still allocates
+// every event, and it cannot reuse them since its event history keeps them for replay
+public class RingBufferEventDispatcher implements EventDispatcher {
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long SLEEP_NANOS = 100_000;
+    private static final long NO_TIMEOUT = Long.MAX_VALUE;
+    // marks a slot while a publisher replaces its event
+    private static final long WRITING = Long.MIN_VALUE;
+
+    private final ObserverRegistry<Consumer> registry = new ObserverRegistry<>();
+    private final PlatformEvent[] slots;
+    // the sequence last published in each slot, WRITING while it is being replaced
+    private final AtomicLongArray publishedSequences;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+    private final QuarantinePolicy quarantinePolicy;
+    private final long publishTimeoutNanos;
+    private final Executor executor;
+    private final boolean ownsExecutor;
+    // the next sequence to be claimed by a publisher
+    private final AtomicLong claimedSequence = new AtomicLong();
+    // the consumers gating the publishers, replaced on every change
+    private volatile Consumer[] consumers = new Consumer[0];
+    // lower bound of the consumer sequences, every slot before it has been cleared;
+    // refreshed by the consumers after each batch and by a publisher that would wrap
+    private volatile long gatingSequence = 0;
+    private final Object gatingLock = new Object();
+    private final Object signal = new Object();
+    private final AtomicInteger blockedThreadsCount = new AtomicInteger();
+    private volatile boolean closed = false;
+
+    private RingBufferEventDispatcher(RingBufferEventDispatcherBuilder builder) {
+        this.slots = new PlatformEvent[builder.capacity];
+        this.publishedSequences = new AtomicLongArray(builder.capacity);
+        for (int i = 0; i < builder.capacity; i++) {
+            publishedSequences.set(i, i - (long) builder.capacity);
+        }
+        this.mask = builder.capacity - 1;
+        this.waitStrategy = builder.waitStrategy;
+        this.quarantinePolicy = builder.quarantinePolicy;
+        this.publishTimeoutNanos = builder.publishTimeout.toNanos();
+        this.ownsExecutor = builder.executor == null;
+        this.executor = ownsExecutor ? Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "platform-event-consumer");
+            thread.setDaemon(true);
+            return thread;
+        }) : builder.executor;
+    }
+
+    @Override
+    public synchronized void addObserver(PlatformObserver observer, Set<Class<? extends PlatformEvent>> eventTypes) {
+        if (closed) {
+            throw new StreamingPlatformException("Event dispatcher is closed");
+        }
+        var existing = registry.get(observer);
+        Consumer consumer = existing.orElseGet(() -> new Consumer(observer));
+        registry.register(observer, consumer, eventTypes);
+        consumer.eventTypes = Set.copyOf(eventTypes);
+        // a critical observer is notified on the publishing thread, it has no running consumer
+        if (existing.isEmpty() && !observer.isCritical()) {
+            // under the gating lock no slot is cleared from a list of consumers without this one
+            synchronized (gatingLock) {
+                Consumer[] updated = Arrays.copyOf(consumers, consumers.length + 1);
+                updated[consumers.length] = consumer;
+                consumers = updated;
+                // a publisher that read the previous consumers has claimed a sequence before this
+                // point, so the consumer starts after it and never reads a slot it did not gate
+                consumer.sequence = claimedSequence.get();
+            }
+            executor.execute(consumer);
+        }
+    }
+
+    @Override
+    public synchronized void removeObserver(PlatformObserver observer) {
+        registry.unregister(observer).ifPresent(this::stop);
+    }
+
+    @Override
+    public Collection<PlatformObserver> getObservers() {
+        return registry.observers();
+    }
+
+    @Override
+    public Map<PlatformObserver, ObserverMetrics> getObserverMetrics() {
+        Map<PlatformObserver, ObserverMetrics> metrics = new LinkedHashMap<>();
+        registry.subscribers().forEach(consumer -> metrics.put(consumer.monitor.observer(), consumer.monitor.metrics()));
+        return metrics;
+    }
+
+    @Override
+    public void releaseObserver(PlatformObserver observer) {
+        registry.get(observer).ifPresent(consumer -> consumer.monitor.release());
+        signalAll();
+    }
+
+    // the events are delivered on the calling thread, the consumer only reads the events
+    // published after the observer was added
+    @Override
+    public void replay(PlatformObserver observer, List<PlatformEvent> events) {
+        registry.get(observer).ifPresent(consumer -> events.forEach(consumer.monitor::deliver));
+    }
+
+    @Override
+    public void dispatchCritical(PlatformEvent event) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        if (closed) {
+            throw new StreamingPlatformException("Event dispatcher is closed");
+        }
+        ObserverMonitor.deliverCritical(registry.subscribersOf(event), consumer -> consumer.monitor, event);
+    }
+
+    // an event whose change was applied while the dispatcher was closing is not published, the
+    // consumers have stopped
+    @Override
+    public void dispatchNonCritical(PlatformEvent event) {
+        Objects.requireNonNull(event, "Event cannot be null");
+        if (closed) {
+            return;
+        }
+        long sequence = claim();
+        int index = (int) (sequence & mask);
+        // a consumer left behind by the publishers sees that the slot it reads is being reused
+        publishedSequences.set(index, WRITING);
+        VarHandle.storeStoreFence();
+        slots[index] = event;
+        publishedSequences.set(index, sequence);
+        signalAll();
+    }
+
+    // a sequence is only claimed once its slot is free, the lagging consumers are quarantined
+    // after the publish timeout instead of failing the publisher; interrupts are deferred until
+    // the event is published
+    private long claim() {
+        long start = System.nanoTime();
+        boolean interrupted = false;
+        try {
+            while (true) {
+                long sequence = claimedSequence.get();
+                long wrapSequence = sequence - slots.length;
+                if (wrapSequence < gatingSequence || refreshGatingSequence(sequence) > wrapSequence) {
+                    if (claimedSequence.compareAndSet(sequence, sequence + 1)) {
+                        return sequence;
+                    }
+                } else if (System.nanoTime() - start >= publishTimeoutNanos) {
+                    // the next refresh no longer waits for them
+                    quarantineLaggingConsumers(wrapSequence);
+                } else if (!waitFor(() -> claimedSequence.get() != sequence
+                                || refreshGatingSequence(sequence) > wrapSequence,
+                        publishTimeoutNanos - (System.nanoTime() - start))) {
+                    interrupted |= Thread.interrupted();
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // the critical observers have no consumer, every lagging one can be quarantined
+    private void quarantineLaggingConsumers(long wrapSequence) {
+        for (Consumer consumer : consumers) {
+            if (consumer.isGating() && consumer.sequence <= wrapSequence) {
+                consumer.monitor.quarantine();
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        long target = claimedSequence.get();
+        for (Consumer consumer : consumers) {
+            if (!waitFor(() -> consumer.sequence >= target || !consumer.isGating(), NO_TIMEOUT)) {
+                throw new StreamingPlatformException("Interrupted while flushing the ring buffer");
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        flush();
+        registry.observers().forEach(observer -> registry.unregister(observer).ifPresent(this::stop));
+        if (ownsExecutor) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    private void stop(Consumer consumer) {
+        consumer.running = false;
+        consumers = Arrays.stream(consumers).filter(other -> other != consumer).toArray(Consumer[]::new);
+        signalAll();
+    }
+
+    // without gating consumers nothing gates the publisher of the given sequence; the slots
+    // read by every consumer are cleared before publishers can see the new gating sequence
+    private long refreshGatingSequence(long sequence) {
+        synchronized (gatingLock) {
+            long minimum = sequence;
+            for (Consumer consumer : consumers) {
+                if (consumer.isGating()) {
+                    minimum = Math.min(minimum, consumer.sequence);
+                }
+            }
+            long gating = gatingSequence;
+            if (minimum <= gating) {
+                return gating;
+            }
+            for (long cleared = Math.max(gating, minimum - slots.length); cleared < minimum; cleared++) {
+                slots[(int) (cleared & mask)] = null;
+            }
+            gatingSequence = minimum;
+            return minimum;
+        }
+    }
+
+    // the slots still referencing an event, for tests
+    int getRetainedEventsCount() {
+        return (int) Arrays.stream(slots).filter(Objects::nonNull).count();
+    }
+
+    private boolean isPublished(long sequence) {
+        return publishedSequences.get((int) (sequence & mask)) == sequence;
+    }
+
+    // the slot of the sequence holds a later one
+    private boolean isOvertaken(long sequence) {
+        return publishedSequences.get((int) (sequence & mask)) > sequence;
+    }
+
+    // false if the thread was interrupted or timed out before the condition held, the
+    // interrupt flag is left set
+    private boolean waitFor(BooleanSupplier condition, long timeoutNanos) {
+        long start = System.nanoTime();
+        int tries = 0;
+        while (!condition.getAsBoolean()) {
+            long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+            if (Thread.currentThread().isInterrupted() || remainingNanos <= 0) {
+                return false;
+            }
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELDING:
+                    if (tries++ < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else {
+                        Thread.yield();
+                    }
+                    break;
+                case SLEEPING:
+                    if (tries < SPIN_TRIES) {
+                        Thread.onSpinWait();
+                    } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+                        Thread.yield();
+                    } else {
+                        LockSupport.parkNanos(Math.min(SLEEP_NANOS, remainingNanos));
+                    }
+                    tries++;
+                    break;
+                case BLOCKING:
+                    if (!block(condition, remainingNanos)) {
+                        return false;
+                    }
+                    break;
+            }
+        }
+        return true;
+    }
+
+    // the count is raised before the condition is checked again under the monitor, so a
+    // thread that changes the state and then finds no blocked thread cannot miss a waiter
+    private boolean block(BooleanSupplier condition, long timeoutNanos) {
+        long start = System.nanoTime();
+        blockedThreadsCount.incrementAndGet();
+        try {
+            synchronized (signal) {
+                while (!condition.getAsBoolean()) {
+                    long remainingNanos = timeoutNanos - (System.nanoTime() - start);
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(signal, remainingNanos);
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            blockedThreadsCount.decrementAndGet();
+        }
+    }
+
+    private void signalAll() {
+        if (blockedThreadsCount.get() > 0) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+    }
+
+    private class Consumer implements Runnable {
+        private final ObserverMonitor monitor;
+        private volatile Set<Class<? extends PlatformEvent>> eventTypes = Set.of();
+        // the next sequence to be consumed, every sequence before it has been delivered
+        private volatile long sequence;
+        private volatile boolean running = true;
+
+        private Consumer(PlatformObserver observer) {
+            this.monitor = new ObserverMonitor(observer, quarantinePolicy);
+        }
+
+        // a quarantined consumer no longer gates the publishers
+        private boolean isGating() {
+            return running && !monitor.isQuarantined();
+        }
+
+        @Override
+        public void run() {
+            long next = sequence;
+            while (running) {
+                if (monitor.isQuarantined()) {
+                    if (!waitFor(() -> !monitor.isQuarantined() || !running, NO_TIMEOUT)) {
+                        break;
+                    }
+                    // the slots before the claimed sequence may have been reused or cleared meanwhile
+                    synchronized (gatingLock) {
+                        next = claimedSequence.get();
+                        sequence = next;
+                    }
+                    // a flush may be waiting for the sequence of the released consumer
+                    signalAll();
+                    continue;
+                }
+                long first = next;
+                // a consumer released before it noticed its quarantine finds its slot reused
+                if (!waitFor(() -> isPublished(first) || isOvertaken(first) || monitor.isQuarantined() || !running,
+                        NO_TIMEOUT)) {
+                    break;
+                }
+                if (monitor.isQuarantined()) {
+                    continue;
+                }
+                // a batch holds every sequence already published, it ends at the first gap
+                long last = next;
+                while (last + 1 < next + slots.length && isPublished(last + 1)) {
+                    last++;
+                }
+                if (!running) {
+                    break;
+                }
+                Set<Class<? extends PlatformEvent>> types = eventTypes;
+                boolean overtaken = false;
+                for (long current = next; current <= last && !overtaken; current++) {
+                    PlatformEvent event = slots[(int) (current & mask)];
+                    // the event is only the one of the current sequence if the slot still holds
+                    // it after the read
+                    VarHandle.loadLoadFence();
+                    overtaken = !isPublished(current);
+                    if (!overtaken) {
+                        deliver(event, types);
+                        next = current + 1;
+                    }
+                }
+                synchronized (gatingLock) {
+                    // a consumer quarantined and released during its batch was left behind by the
+                    // publishers, its next slots may have been reused meanwhile
+                    if (overtaken || gatingSequence > next) {
+                        next = claimedSequence.get();
+                    }
+                    sequence = next;
+                }
+                refreshGatingSequence(claimedSequence.get());
+                signalAll();
+            }
+            running = false;
+            signalAll();
+        }
+
+        // a consumer quarantined during its batch may find its slots cleared
+        private void deliver(PlatformEvent event, Set<Class<? extends PlatformEvent>> types) {
+            if (event != null && ObserverRegistry.isSubscribed(types, event)) {
+                // a failing observer does not stop the delivery of its next events
+                monitor.deliver(event);
+            }
+        }
+    }
+
+    public static class RingBufferEventDispatcherBuilder {
+        private int capacity = 1024;
+        private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+        private Executor executor = null;
+        private QuarantinePolicy quarantinePolicy = QuarantinePolicy.NONE;
+        private Duration publishTimeout = Duration.ofSeconds(1);
+
+        // rounded up to a power of two
+        public RingBufferEventDispatcherBuilder withCapacity(int capacity) {
+            if (capacity <= 0 || capacity > 1 << 30) {
+                throw new IllegalArgumentException("Capacity must be a positive integer greater than 0");
+            }
+            this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+            return this;
+        }
+
+        public RingBufferEventDispatcherBuilder withWaitStrategy(WaitStrategy waitStrategy) {
+            this.waitStrategy = Objects.requireNonNull(waitStrategy, "Wait strategy cannot be null");
+            return this;
+        }
+
+        // every observer keeps one thread of the executor busy until it is removed; by default
+        // a cached pool of daemon threads is used and shut down on close
+        public RingBufferEventDispatcherBuilder withExecutor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "Executor cannot be null");
+            return this;
+        }
+
+        public RingBufferEventDispatcherBuilder withQuarantinePolicy(QuarantinePolicy quarantinePolicy) {
+            this.quarantinePolicy = Objects.requireNonNull(quarantinePolicy, "Quarantine policy cannot be null");
+            return this;
+        }
+
+        // how long a publisher waits for the observers a full ring behind
+        public RingBufferEventDispatcherBuilder withPublishTimeout(Duration publishTimeout) {
+            Objects.requireNonNull(publishTimeout, "Publish timeout cannot be null");
+            if (publishTimeout.isNegative() || publishTimeout.isZero()) {
+                throw new IllegalArgumentException("Publish timeout must be positive");
+            }
+            this.publishTimeout = publishTimeout;
+            return this;
+        }
+
+        public RingBufferEventDispatcher build() {
+            return new RingBufferEventDispatcher(this);
+        }
+    }
+}
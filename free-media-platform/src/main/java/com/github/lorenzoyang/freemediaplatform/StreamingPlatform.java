@@ -3,32 +3,65 @@ package com.github.lorenzoyang.freemediaplatform;
 import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.content.Episode;
 import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
 import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
 import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
 import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentWriter;
 import com.github.lorenzoyang.freemediaplatform.utils.PlaybackContentVisitor;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-public class StreamingPlatform {
+public class StreamingPlatform implements AutoCloseable {
     private final String name;
-    private final Collection<Content> contents;
-    private final Collection<PlatformObserver> observers;
+    private final ContentStore contents;
+    private final ContentIndex contentIndex;
+    private final EventDispatcher eventDispatcher;
+    private final CatalogLoader catalogLoader;
+    private final DisplayCache displayCache;
+    private final EventHistory eventHistory;
+    private final Clock clock;
+    private final Object writeLock = new Object();
+    // committed by the publishing thread once it has released the lock
+    private final CopyOnWriteArrayList<PlatformObserver> criticalObservers = new CopyOnWriteArrayList<>();
 
     public StreamingPlatform(String name, Supplier<Collection<Content>> contentProvider) {
-        Objects.requireNonNull(name, "Streaming platform name cannot be null");
-        if (name.isBlank()) {
-            throw new StreamingPlatformException("Streaming platform name cannot be blank");
-        }
-        this.name = name;
+        this(new StreamingPlatformBuilder(name, contentProvider));
+    }
+
+    private StreamingPlatform(StreamingPlatformBuilder builder) {
+        this.name = builder.name;
+
+        Collection<Content> initialContents = builder.contentProvider.get();
+        // the ContentLoader writes from a background thread while the platform is serving reads
+        this.contents = builder.concurrent || builder.contentLoader != null
+                ? new CopyOnWriteContentCatalog(initialContents)
+                : new ContentCatalog(initialContents);
+        this.contentIndex = new ContentIndex(contents);
 
-        Objects.requireNonNull(contentProvider, "Content provider cannot be null");
-        this.contents = new ArrayList<>(contentProvider.get());
+        this.eventDispatcher = builder.eventDispatcher;
+        this.displayCache = new DisplayCache(builder.displayCacheCapacity);
+        this.eventHistory = new EventHistory(builder.eventHistoryCapacity);
+        this.clock = builder.clock;
 
-        this.observers = new ArrayList<>();
+        this.catalogLoader = builder.contentLoader == null
+                ? CatalogLoader.completed()
+                : new CatalogLoader(builder.contentLoader, builder.loadChunkSize, this::loadContents);
     }
 
     public String getName() {
@@ -39,79 +72,453 @@ public class StreamingPlatform {
         return contents.iterator();
     }
 
+    public CatalogSnapshot catalogSnapshot() {
+        return contents.snapshot();
+    }
+
+    // a stream over an immutable snapshot of the catalog, it splits evenly for parallel traversal
+    public Stream<Content> contentStream() {
+        return contents.snapshot().stream();
+    }
+
+    public ContentPage getFirstContentPage(CatalogOrder order, int pageSize) {
+        Objects.requireNonNull(order, "Catalog order cannot be null");
+        checkPageSize(pageSize);
+        return contentIndex.firstPage(order, pageSize);
+    }
+
+    // resumes right after the last content of the page the cursor comes from; contents added
+    // or removed in the meantime do not shift the following pages
+    public ContentPage getNextContentPage(String cursor, int pageSize) {
+        Objects.requireNonNull(cursor, "Cursor cannot be null");
+        checkPageSize(pageSize);
+        return contentIndex.nextPage(ContentCursor.decode(cursor), pageSize);
+    }
+
+    private static void checkPageSize(int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer greater than 0");
+        }
+    }
+
     public Optional<Content> getContentByTitle(String title) {
-        return contents.stream()
-                .filter(content -> content.getTitle().equals(title))
-                .findFirst();
+        return contents.get(title);
+    }
+
+    // served by the release date, resolution and duration indexes
+    public List<Content> findContents(ContentQuery query) {
+        Objects.requireNonNull(query, "Query cannot be null");
+        return contentIndex.find(query);
     }
 
     public boolean addContent(Content newContent) {
-        if (contents.contains(newContent)) {
-            return false;
+        Objects.requireNonNull(newContent, "Content cannot be null");
+        synchronized (writeLock) {
+            if (contents.get(newContent.getTitle()).isPresent()) {
+                return false;
+            }
+            PlatformEvent event = new AddContentEvent(newContent, eventHistory.nextSequence(), clock.instant());
+            eventDispatcher.dispatchCritical(event);
+            contents.add(newContent);
+            publish(event);
         }
-        contents.add(newContent);
-        notifyObservers(new AddContentEvent(newContent));
+        commitObservers();
         return true;
     }
 
     public boolean removeContent(Content existingContent) {
-        if (!contents.contains(existingContent)) {
-            return false;
+        Objects.requireNonNull(existingContent, "Content cannot be null");
+        synchronized (writeLock) {
+            Optional<Content> removedContent = contents.get(existingContent.getTitle());
+
+            if (removedContent.isEmpty()) {
+                return false;
+            }
+            PlatformEvent event = new RemoveContentEvent(removedContent.get(),
+                    eventHistory.nextSequence(), clock.instant());
+            eventDispatcher.dispatchCritical(event);
+            contents.remove(existingContent);
+            publish(event);
         }
-        contents.remove(existingContent);
-        notifyObservers(new RemoveContentEvent(existingContent));
+        commitObservers();
         return true;
     }
 
     public boolean updateContent(Content updatedContent) {
-        Optional<Content> oldContent = contents.stream()
-                .filter(existingContent -> existingContent.equals(updatedContent))
-                .findFirst();
+        Objects.requireNonNull(updatedContent, "Content cannot be null");
+        synchronized (writeLock) {
+            Optional<Content> oldContent = contents.get(updatedContent.getTitle());
 
-        if (oldContent.isEmpty()) {
-            return false;
+            if (oldContent.isEmpty()) {
+                return false;
+            }
+            PlatformEvent event = new UpdateContentEvent(oldContent.get(), updatedContent,
+                    eventHistory.nextSequence(), clock.instant());
+            eventDispatcher.dispatchCritical(event);
+            contents.replace(updatedContent);
+            publish(event);
         }
-        contents.remove(oldContent.get());
-        contents.add(updatedContent);
-        notifyObservers(new UpdateContentEvent(oldContent.get(), updatedContent));
+        commitObservers();
         return true;
     }
 
+    public int addContents(Collection<Content> newContents) {
+        Objects.requireNonNull(newContents, "Contents cannot be null");
+        var builder = new ContentChangeSet.ContentChangeSetBuilder();
+        newContents.forEach(builder::withAddition);
+        return applyChanges(builder.build());
+    }
+
+    public int removeContents(Collection<Content> existingContents) {
+        Objects.requireNonNull(existingContents, "Contents cannot be null");
+        var builder = new ContentChangeSet.ContentChangeSetBuilder();
+        existingContents.forEach(builder::withRemoval);
+        return applyChanges(builder.build());
+    }
+
+    // applies the whole batch and notifies the observers once with a single BatchContentEvent,
+    // returns the number of changes that were actually applied
+    public int applyChanges(ContentChangeSet changes) {
+        Objects.requireNonNull(changes, "Content changes cannot be null");
+        if (changes.isEmpty()) {
+            return 0;
+        }
+        BatchContentEvent event;
+        synchronized (writeLock) {
+            event = contents.applyChanges(changes, applied -> {
+                var batch = new BatchContentEvent(applied.getEvents(), eventHistory.nextSequence(), clock.instant());
+                eventDispatcher.dispatchCritical(batch);
+                return batch;
+            });
+            if (event == null) {
+                return 0;
+            }
+            publish(event);
+        }
+        commitObservers();
+        return event.size();
+    }
+
+    // contents streamed in by the ContentLoader are published as LoadContentEvents,
+    // which are not news for the users
+    private void loadContents(List<Content> loadedContents) {
+        var builder = new ContentChangeSet.ContentChangeSetBuilder();
+        loadedContents.forEach(builder::withAddition);
+        ContentChangeSet changes = builder.build();
+        synchronized (writeLock) {
+            PlatformEvent event = contents.applyChanges(changes, applied -> {
+                List<Content> addedContents = new ArrayList<>(applied.size());
+                applied.getEvents().forEach(added -> addedContents.add(((AddContentEvent) added).getAddedContent()));
+                var load = new LoadContentEvent(addedContents, eventHistory.nextSequence(), clock.instant());
+                eventDispatcher.dispatchCritical(load);
+                return load;
+            });
+            if (event == null) {
+                return;
+            }
+            publish(event);
+        }
+        commitObservers();
+    }
+
+    public LoadProgress getLoadProgress() {
+        return catalogLoader.progress();
+    }
+
+    // waits until the ContentLoader has been fully consumed
+    public void awaitLoaded() {
+        catalogLoader.await();
+    }
+
+    // renders the version of the content held by the platform; renders are cached until
+    // the content is updated or removed
     public String displayContent(Content content) {
         Objects.requireNonNull(content, "Content cannot be null");
-        if (!contents.contains(content)) {
-            throw new StreamingPlatformException("Content '" + content.getTitle() + "' does not exist");
+        Content storedContent = contents.get(content.getTitle()).orElseThrow(() ->
+                new StreamingPlatformException("Content '" + content.getTitle() + "' does not exist"));
+        return displayCache.get(storedContent, stored ->
+                "From '" + getName() + "' platform:\n" + stored.accept(new DisplayContentVisitor()));
+    }
+
+    // writes the same text as displayContent(Content) into the target, bypassing the cache
+    public void displayContent(Content content, Appendable target) throws IOException {
+        Objects.requireNonNull(content, "Content cannot be null");
+        Objects.requireNonNull(target, "Target cannot be null");
+        Content storedContent = contents.get(content.getTitle()).orElseThrow(() ->
+                new StreamingPlatformException("Content '" + content.getTitle() + "' does not exist"));
+        target.append("From '").append(getName()).append("' platform:\n");
+        try {
+            storedContent.accept(new DisplayContentWriter(target));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
-        return "From '" + getName() + "' platform:\n" + content.accept(new DisplayContentVisitor());
+    }
+
+    // writes the current catalog to the file in catalog order with encoders from the factory
+    // (e.g. DisplayContentWriter::new), rendering it on the given number of threads
+    public long exportCatalog(Path file, Function<ByteBuffer, ? extends ContentVisitor<?>> encoderFactory,
+                              int parallelism) throws IOException {
+        try (CatalogExporter exporter = new CatalogExporter.CatalogExporterBuilder()
+                .withParallelism(parallelism)
+                .build()) {
+            return exporter.export(contents.snapshot(), encoderFactory, file);
+        }
+    }
+
+    public DisplayCacheStats getDisplayCacheStats() {
+        return displayCache.stats();
     }
 
     public Iterable<Episode> watchContent(Content content) {
+        return watchContent(content, 1, 1);
+    }
+
+    // resumes playback from the given episode
+    public Iterable<Episode> watchContent(Content content, int seasonNumber, int episodeNumber) {
         Objects.requireNonNull(content, "Content cannot be null");
         if (!contents.contains(content)) {
             throw new StreamingPlatformException("Content '" + content.getTitle() + "' does not exist");
         }
-        return content.accept(new PlaybackContentVisitor());
+        return content.accept(new PlaybackContentVisitor(seasonNumber, episodeNumber));
     }
 
     public void addObserver(PlatformObserver observer) {
-        observers.add(observer);
+        eventDispatcher.addObserver(observer);
+        registerCritical(observer);
+    }
+
+    // subscribes the observer to the given event types only, regardless of the types it declares
+    public void addObserver(PlatformObserver observer, Set<Class<? extends PlatformEvent>> eventTypes) {
+        eventDispatcher.addObserver(observer, eventTypes);
+        registerCritical(observer);
+    }
+
+    private void registerCritical(PlatformObserver observer) {
+        if (observer.isCritical()) {
+            criticalObservers.addIfAbsent(observer);
+        }
+    }
+
+    // the initializer receives the catalog the observer starts from; it runs and the observer
+    // is registered while no mutation can happen, so no change is missed or seen twice
+    public void attachObserver(PlatformObserver observer, Consumer<CatalogSnapshot> initializer) {
+        Objects.requireNonNull(initializer, "Initializer cannot be null");
+        synchronized (writeLock) {
+            initializer.accept(contents.snapshot());
+            eventDispatcher.addObserver(observer);
+            registerCritical(observer);
+        }
+    }
+
+    // the action receives the catalog while no mutation can happen: every change it contains has
+    // been delivered to the observers notified on the publishing thread, and no later one
+    public <T> T withCatalogSnapshot(Function<CatalogSnapshot, T> action) {
+        Objects.requireNonNull(action, "Action cannot be null");
+        synchronized (writeLock) {
+            return action.apply(contents.snapshot());
+        }
+    }
+
+    // registers the observer and replays to it the retained events from the given sequence on,
+    // through the event dispatcher like the live events; a StreamingPlatformException reports that
+    // the history no longer reaches back to the sequence, attachObserver can then rebuild the
+    // observer state from the catalog. A critical observer failing the replay is not registered
+    public void addObserver(PlatformObserver observer, long fromSequence) {
+        Objects.requireNonNull(observer, "Observer cannot be null");
+        synchronized (writeLock) {
+            Set<Class<? extends PlatformEvent>> eventTypes = observer.getSubscribedEventTypes();
+            List<PlatformEvent> replayedEvents = new ArrayList<>();
+            for (PlatformEvent event : eventHistory.eventsFrom(fromSequence)) {
+                if (ObserverRegistry.isSubscribed(eventTypes, event)) {
+                    replayedEvents.add(event);
+                }
+            }
+            eventDispatcher.addObserver(observer, eventTypes);
+            try {
+                eventDispatcher.replay(observer, replayedEvents);
+            } catch (RuntimeException e) {
+                eventDispatcher.removeObserver(observer);
+                throw e;
+            }
+            registerCritical(observer);
+        }
+        if (observer.isCritical()) {
+            try {
+                observer.commit();
+            } catch (RuntimeException e) {
+                removeObserver(observer);
+                throw e;
+            }
+        }
     }
 
     public void removeObserver(PlatformObserver observer) {
-        observers.remove(observer);
+        eventDispatcher.removeObserver(observer);
+        criticalObservers.remove(observer);
+    }
+
+    // delivery latency, throughput, failures and quarantine state of every observer
+    public Map<PlatformObserver, ObserverMetrics> getObserverMetrics() {
+        return eventDispatcher.getObserverMetrics();
+    }
+
+    public void releaseObserver(PlatformObserver observer) {
+        eventDispatcher.releaseObserver(observer);
+    }
+
+    // sequence of the last published event, 0 before the first one
+    public long getLastEventSequence() {
+        synchronized (writeLock) {
+            return eventHistory.lastSequence();
+        }
+    }
+
+    // the critical observers have accepted the event before the catalog changed, a failure of
+    // theirs leaves the platform untouched
+    private void publish(PlatformEvent event) {
+        eventHistory.record(event);
+        contentIndex.apply(event);
+        displayCache.apply(event);
+        notifyObservers(event);
     }
 
     private void notifyObservers(PlatformEvent event) {
-        observers.forEach(observer -> observer.notifyChange(event));
+        eventDispatcher.dispatchNonCritical(event);
+    }
+
+    // every critical observer is committed even when one of them fails, the first failure is
+    // rethrown with the others suppressed
+    private void commitObservers() {
+        RuntimeException failure = null;
+        for (PlatformObserver observer : criticalObservers) {
+            try {
+                observer.commit();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // waits until the observers have received every event published so far
+    public void flush() {
+        eventDispatcher.flush();
+    }
+
+    @Override
+    public void close() {
+        catalogLoader.cancel();
+        eventDispatcher.close();
     }
 
     // package-private getter for testing purposes
     Collection<Content> getContents() {
-        return Collections.unmodifiableCollection(contents);
+        return contents.values();
     }
 
     // package-private getter for testing purposes
     Collection<PlatformObserver> getObservers() {
-        return Collections.unmodifiableCollection(observers);
+        return eventDispatcher.getObservers();
+    }
+
+    public static class StreamingPlatformBuilder {
+        private final String name;
+        private final Supplier<Collection<Content>> contentProvider;
+        private boolean concurrent = false;
+        private EventDispatcher eventDispatcher = new SynchronousEventDispatcher();
+        private ContentLoader contentLoader = null;
+        private int loadChunkSize = 1000;
+        private Executor loadExecutor = null;
+        private int displayCacheCapacity = 1 << 20;
+        private int eventHistoryCapacity = 1024;
+        private Clock clock = Clock.systemUTC();
+
+        public StreamingPlatformBuilder(String name, Supplier<Collection<Content>> contentProvider) {
+            Objects.requireNonNull(name, "Streaming platform name cannot be null");
+            if (name.isBlank()) {
+                throw new StreamingPlatformException("Streaming platform name cannot be blank");
+            }
+            this.name = name;
+
+            this.contentProvider = Objects.requireNonNull(contentProvider, "Content provider cannot be null");
+        }
+
+        // readers work on immutable catalog snapshots without locking, every
+        // mutation publishes a new snapshot version (copy-on-write)
+        public StreamingPlatformBuilder withConcurrentAccess(boolean concurrent) {
+            this.concurrent = concurrent;
+            return this;
+        }
+
+        // e.g. an AsyncEventDispatcher so that slow observers do not stall the mutating thread
+        public StreamingPlatformBuilder withEventDispatcher(EventDispatcher eventDispatcher) {
+            this.eventDispatcher = Objects.requireNonNull(eventDispatcher, "Event dispatcher cannot be null");
+            return this;
+        }
+
+        // the contents of the loader are added after the ones of the content provider, in the
+        // background: the platform serves the titles already loaded while the rest streams in,
+        // so the catalog is copy-on-write as with withConcurrentAccess(true)
+        public StreamingPlatformBuilder withContentLoader(ContentLoader contentLoader) {
+            this.contentLoader = Objects.requireNonNull(contentLoader, "Content loader cannot be null");
+            return this;
+        }
+
+        public StreamingPlatformBuilder withLoadChunkSize(int loadChunkSize) {
+            if (loadChunkSize <= 0) {
+                throw new IllegalArgumentException("Load chunk size must be a positive integer greater than 0");
+            }
+            this.loadChunkSize = loadChunkSize;
+            return this;
+        }
+
+        // by default the loader runs on its own daemon thread
+        public StreamingPlatformBuilder withLoadExecutor(Executor loadExecutor) {
+            this.loadExecutor = Objects.requireNonNull(loadExecutor, "Load executor cannot be null");
+            return this;
+        }
+
+        // upper bound on the characters kept by the displayContent cache
+        public StreamingPlatformBuilder withDisplayCacheCapacity(int displayCacheCapacity) {
+            if (displayCacheCapacity <= 0) {
+                throw new IllegalArgumentException("Display cache capacity must be a positive integer greater than 0");
+            }
+            this.displayCacheCapacity = displayCacheCapacity;
+            return this;
+        }
+
+        // number of recent events kept for observers that join from a past sequence
+        public StreamingPlatformBuilder withEventHistoryCapacity(int eventHistoryCapacity) {
+            if (eventHistoryCapacity <= 0) {
+                throw new IllegalArgumentException("Event history capacity must be a positive integer greater than 0");
+            }
+            this.eventHistoryCapacity = eventHistoryCapacity;
+            return this;
+        }
+
+        // the source of the event timestamps
+        public StreamingPlatformBuilder withClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "Clock cannot be null");
+            return this;
+        }
+
+        public StreamingPlatform build() {
+            StreamingPlatform platform = new StreamingPlatform(this);
+            if (contentLoader != null) {
+                Executor executor = loadExecutor != null ? loadExecutor : runnable -> {
+                    Thread thread = new Thread(runnable, "platform-content-loader");
+                    thread.setDaemon(true);
+                    thread.start();
+                };
+                executor.execute(platform.catalogLoader);
+            }
+            return platform;
+        }
     }
 }
@@ -0,0 +1,82 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+public class SynchronousEventDispatcher implements EventDispatcher {
+    private final ObserverRegistry<ObserverMonitor> monitors = new ObserverRegistry<>();
+    private final QuarantinePolicy quarantinePolicy;
+
+    public SynchronousEventDispatcher() {
+        this(QuarantinePolicy.NONE);
+    }
+
+    // observers run on the publishing thread, a quarantined observer no longer slows it down
+    public SynchronousEventDispatcher(QuarantinePolicy quarantinePolicy) {
+        this.quarantinePolicy = Objects.requireNonNull(quarantinePolicy, "Quarantine policy cannot be null");
+    }
+
+    @Override
+    public void addObserver(PlatformObserver observer, Set<Class<? extends PlatformEvent>> eventTypes) {
+        ObserverMonitor monitor = monitors.get(observer).orElseGet(() -> new ObserverMonitor(observer, quarantinePolicy));
+        monitors.register(observer, monitor, eventTypes);
+    }
+
+    @Override
+    public void removeObserver(PlatformObserver observer) {
+        monitors.unregister(observer);
+    }
+
+    @Override
+    public Collection<PlatformObserver> getObservers() {
+        return monitors.observers();
+    }
+
+    @Override
+    public Map<PlatformObserver, ObserverMetrics> getObserverMetrics() {
+        Map<PlatformObserver, ObserverMetrics> metrics = new LinkedHashMap<>();
+        monitors.subscribers().forEach(monitor -> metrics.put(monitor.observer(), monitor.metrics()));
+        return metrics;
+    }
+
+    @Override
+    public void releaseObserver(PlatformObserver observer) {
+        monitors.get(observer).ifPresent(ObserverMonitor::release);
+    }
+
+    @Override
+    public void replay(PlatformObserver observer, List<PlatformEvent> events) {
+        monitors.get(observer).ifPresent(monitor -> events.forEach(monitor::deliver));
+    }
+
+    @Override
+    public void dispatchCritical(PlatformEvent event) {
+        ObserverMonitor.deliverCritical(monitors.subscribersOf(event), monitor -> monitor, event);
+    }
+
+    // a failing observer does not prevent the delivery to the next ones
+    @Override
+    public void dispatchNonCritical(PlatformEvent event) {
+        for (ObserverMonitor monitor : monitors.subscribersOf(event)) {
+            if (!monitor.observer().isCritical()) {
+                monitor.deliver(event);
+            }
+        }
+    }
+
+    @Override
+    public void flush() {
+        // events are delivered before dispatch returns
+    }
+
+    @Override
+    public void close() {
+        // nothing to release
+    }
+}
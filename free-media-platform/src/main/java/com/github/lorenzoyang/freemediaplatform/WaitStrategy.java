@@ -0,0 +1,14 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+// how the threads of a RingBufferEventDispatcher wait, consumers for new events and
+// publishers for a free slot; from the lowest latency to the lowest CPU usage
+public enum WaitStrategy {
+    // keeps spinning, best latency but burns a core per waiting thread
+    BUSY_SPIN,
+    // spins for a while, then yields to other threads
+    YIELDING,
+    // spins, yields, then parks for short intervals
+    SLEEPING,
+    // waits on a monitor until it is signalled
+    BLOCKING
+}
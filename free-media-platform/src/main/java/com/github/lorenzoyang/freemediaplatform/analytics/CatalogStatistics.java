@@ -0,0 +1,139 @@
+package com.github.lorenzoyang.freemediaplatform.analytics;
+
+import com.github.lorenzoyang.freemediaplatform.PlatformObserver;
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// aggregates kept up to date in O(1) per event: an update subtracts the old content and
+// adds the new one. Counters are striped and events take no lock, so concurrent events do not
+// contend. Every event is counted as started before it touches the counters and as applied
+// after: a snapshot read while no event started is consistent and published for the next
+// readers, which reuse it until the next event. A reader that keeps overlapping events gets
+// the last consistent snapshot published instead
+public class CatalogStatistics implements PlatformObserver {
+    private static final int SNAPSHOT_ATTEMPTS = 64;
+
+    private final LongAdder startedEvents = new LongAdder();
+    private final LongAdder appliedEvents = new LongAdder();
+    private volatile CatalogStatisticsSnapshot lastSnapshot;
+    private final LongAdder titlesCount = new LongAdder();
+    private final LongAdder totalDuration = new LongAdder();
+    private final Map<VideoResolution, LongAdder> countByResolution = new EnumMap<>(VideoResolution.class);
+    private final ConcurrentMap<Integer, LongAdder> countByReleaseYear = new ConcurrentHashMap<>();
+    private final PlatformEventVisitor eventVisitor = new PlatformEventVisitor() {
+        @Override
+        public void visitAddContent(AddContentEvent event) {
+            count(event.getAddedContent(), 1);
+        }
+
+        @Override
+        public void visitRemoveContent(RemoveContentEvent event) {
+            count(event.getRemovedContent(), -1);
+        }
+
+        @Override
+        public void visitUpdateContent(UpdateContentEvent event) {
+            count(event.getOldContent(), -1);
+            count(event.getUpdatedContent(), 1);
+        }
+
+        @Override
+        public void visitBatchContent(BatchContentEvent event) {
+            event.forEachEvent(this);
+        }
+
+        @Override
+        public void visitLoadContent(LoadContentEvent event) {
+            event.getLoadedContents().forEach(content -> count(content, 1));
+        }
+    };
+
+    public CatalogStatistics(Iterable<Content> contents) {
+        Objects.requireNonNull(contents, "Contents cannot be null");
+        for (VideoResolution resolution : VideoResolution.values()) {
+            countByResolution.put(resolution, new LongAdder());
+        }
+        contents.forEach(content -> count(content, 1));
+        this.lastSnapshot = collect(0);
+    }
+
+    // computes the statistics of the current catalog and keeps them in sync with the platform events
+    public static CatalogStatistics attachTo(StreamingPlatform platform) {
+        Objects.requireNonNull(platform, "Streaming platform cannot be null");
+        var statistics = new CatalogStatistics(List.of());
+        platform.attachObserver(statistics, statistics::load);
+        return statistics;
+    }
+
+    private void load(Iterable<Content> contents) {
+        startedEvents.increment();
+        try {
+            contents.forEach(content -> count(content, 1));
+        } finally {
+            appliedEvents.increment();
+        }
+    }
+
+    @Override
+    public void notifyChange(PlatformEvent event) {
+        startedEvents.increment();
+        try {
+            event.accept(eventVisitor);
+        } finally {
+            appliedEvents.increment();
+        }
+    }
+
+    // the applied events are read before the counters and the started ones after: when they
+    // match, no event was applied while the counters were read
+    public CatalogStatisticsSnapshot snapshot() {
+        for (int attempt = 0; attempt < SNAPSHOT_ATTEMPTS; attempt++) {
+            long applied = appliedEvents.sum();
+            CatalogStatisticsSnapshot last = lastSnapshot;
+            CatalogStatisticsSnapshot snapshot = last.getVersion() == applied ? last : collect(applied);
+            if (startedEvents.sum() == applied) {
+                if (snapshot.getVersion() > last.getVersion()) {
+                    lastSnapshot = snapshot;
+                }
+                return snapshot;
+            }
+            Thread.onSpinWait();
+        }
+        return lastSnapshot;
+    }
+
+    private CatalogStatisticsSnapshot collect(long version) {
+        Map<VideoResolution, Long> resolutions = new EnumMap<>(VideoResolution.class);
+        countByResolution.forEach((resolution, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                resolutions.put(resolution, sum);
+            }
+        });
+        SortedMap<Integer, Long> releaseYears = new TreeMap<>();
+        countByReleaseYear.forEach((year, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                releaseYears.put(year, sum);
+            }
+        });
+        return new CatalogStatisticsSnapshot(version, titlesCount.sum(), totalDuration.sum(), resolutions,
+                releaseYears);
+    }
+
+    private void count(Content content, int sign) {
+        titlesCount.add(sign);
+        totalDuration.add((long) sign * content.getDurationInMinutes());
+        content.getResolution().ifPresent(resolution -> countByResolution.get(resolution).add(sign));
+        content.getReleaseDate().ifPresent(date ->
+                countByReleaseYear.computeIfAbsent(date.getYear(), year -> new LongAdder()).add(sign));
+    }
+}
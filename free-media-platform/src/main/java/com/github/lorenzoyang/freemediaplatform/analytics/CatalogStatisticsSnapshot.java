@@ -0,0 +1,47 @@
+package com.github.lorenzoyang.freemediaplatform.analytics;
+
+import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+
+// resolutions and years without contents are left out of the maps
+public class CatalogStatisticsSnapshot {
+    // number of events applied to the statistics it was read from
+    private final long version;
+    private final long titlesCount;
+    private final long totalDurationInMinutes;
+    private final Map<VideoResolution, Long> countByResolution;
+    private final SortedMap<Integer, Long> countByReleaseYear;
+
+    CatalogStatisticsSnapshot(long version, long titlesCount, long totalDurationInMinutes,
+                              Map<VideoResolution, Long> countByResolution,
+                              SortedMap<Integer, Long> countByReleaseYear) {
+        this.version = version;
+        this.titlesCount = titlesCount;
+        this.totalDurationInMinutes = totalDurationInMinutes;
+        this.countByResolution = Collections.unmodifiableMap(countByResolution);
+        this.countByReleaseYear = Collections.unmodifiableSortedMap(countByReleaseYear);
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    public long getTitlesCount() {
+        return titlesCount;
+    }
+
+    public long getTotalDurationInMinutes() {
+        return totalDurationInMinutes;
+    }
+
+    public Map<VideoResolution, Long> getCountByResolution() {
+        return countByResolution;
+    }
+
+    public SortedMap<Integer, Long> getCountByReleaseYear() {
+        return countByReleaseYear;
+    }
+}
@@ -0,0 +1,354 @@
+package com.github.lorenzoyang.freemediaplatform.analytics;
+
+import com.github.lorenzoyang.freemediaplatform.PlatformObserver;
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.content.Season;
+import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
+import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// read-optimized copy of the catalog with one primitive array per attribute, row i of every
+// array describes the same content; scans filter into a vector of matching rows and then
+// aggregate it, without touching the content objects
+public class ColumnarCatalog implements PlatformObserver {
+    private static final int NO_RELEASE_DATE = Integer.MIN_VALUE;
+    private static final byte NO_RESOLUTION = (byte) VideoResolution.values().length;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] titles = new String[INITIAL_CAPACITY];
+    private int[] releaseEpochDays = new int[INITIAL_CAPACITY];
+    private byte[] resolutions = new byte[INITIAL_CAPACITY];
+    private int[] durations = new int[INITIAL_CAPACITY];
+    private int[] seasonCounts = new int[INITIAL_CAPACITY];
+    private int[] episodeCounts = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    // title -> row, a removed row is filled with the last one so the arrays stay dense
+    private final Map<String, Integer> rows = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PlatformEventVisitor eventVisitor = new PlatformEventVisitor() {
+        @Override
+        public void visitAddContent(AddContentEvent event) {
+            add(event.getAddedContent());
+        }
+
+        @Override
+        public void visitRemoveContent(RemoveContentEvent event) {
+            remove(event.getRemovedContent().getTitle());
+        }
+
+        @Override
+        public void visitUpdateContent(UpdateContentEvent event) {
+            Integer row = rows.get(event.getOldContent().getTitle());
+            if (row != null) {
+                write(row, event.getUpdatedContent());
+            }
+        }
+
+        @Override
+        public void visitBatchContent(BatchContentEvent event) {
+            event.forEachEvent(this);
+        }
+
+        @Override
+        public void visitLoadContent(LoadContentEvent event) {
+            event.getLoadedContents().forEach(ColumnarCatalog.this::add);
+        }
+    };
+
+    public ColumnarCatalog(Iterable<Content> contents) {
+        Objects.requireNonNull(contents, "Contents cannot be null");
+        contents.forEach(this::add);
+    }
+
+    // builds the columns from the current catalog and keeps them in sync with the platform events
+    public static ColumnarCatalog attachTo(StreamingPlatform platform) {
+        Objects.requireNonNull(platform, "Streaming platform cannot be null");
+        var columnarCatalog = new ColumnarCatalog(List.of());
+        platform.attachObserver(columnarCatalog, columnarCatalog::load);
+        return columnarCatalog;
+    }
+
+    private void load(Iterable<Content> contents) {
+        lock.writeLock().lock();
+        try {
+            contents.forEach(this::add);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void notifyChange(PlatformEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.accept(eventVisitor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // every content, narrowed by the with* methods of the selection
+    public Selection select() {
+        return new Selection();
+    }
+
+    private void add(Content content) {
+        if (rows.containsKey(content.getTitle())) {
+            return;
+        }
+        if (size == titles.length) {
+            int capacity = size * 2;
+            titles = Arrays.copyOf(titles, capacity);
+            releaseEpochDays = Arrays.copyOf(releaseEpochDays, capacity);
+            resolutions = Arrays.copyOf(resolutions, capacity);
+            durations = Arrays.copyOf(durations, capacity);
+            seasonCounts = Arrays.copyOf(seasonCounts, capacity);
+            episodeCounts = Arrays.copyOf(episodeCounts, capacity);
+        }
+        rows.put(content.getTitle(), size);
+        write(size, content);
+        size++;
+    }
+
+    private void remove(String title) {
+        Integer row = rows.remove(title);
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            titles[row] = titles[last];
+            releaseEpochDays[row] = releaseEpochDays[last];
+            resolutions[row] = resolutions[last];
+            durations[row] = durations[last];
+            seasonCounts[row] = seasonCounts[last];
+            episodeCounts[row] = episodeCounts[last];
+            rows.put(titles[row], row);
+        }
+        titles[last] = null;
+    }
+
+    private void write(int row, Content content) {
+        titles[row] = content.getTitle();
+        releaseEpochDays[row] = content.getReleaseDate()
+                .map(date -> (int) date.toEpochDay())
+                .orElse(NO_RELEASE_DATE);
+        resolutions[row] = content.getResolution()
+                .map(resolution -> (byte) resolution.ordinal())
+                .orElse(NO_RESOLUTION);
+        durations[row] = content.getDurationInMinutes();
+        content.accept(new ContentVisitor<Void>() {
+            @Override
+            public Void visitMovie(Movie movie) {
+                seasonCounts[row] = 0;
+                episodeCounts[row] = 1;
+                return null;
+            }
+
+            @Override
+            public Void visitTVSeries(TVSeries tvSeries) {
+                int episodes = 0;
+                for (Season season : tvSeries) {
+                    episodes += season.getEpisodesCount();
+                }
+                seasonCounts[row] = tvSeries.getSeasonsCount();
+                episodeCounts[row] = episodes;
+                return null;
+            }
+        });
+    }
+
+    // the filters are plain bounds on the columns, every aggregate reads the catalog once
+    // under the read lock and sees a consistent state
+    public class Selection {
+        private int minReleaseEpochDay = NO_RELEASE_DATE;
+        private int maxReleaseEpochDay = Integer.MAX_VALUE;
+        private long resolutionMask = -1L;
+        private int minDuration = Integer.MIN_VALUE;
+        private int maxDuration = Integer.MAX_VALUE;
+
+        private Selection() {
+        }
+
+        // bounds are inclusive, a null bound leaves the range open on that side;
+        // contents without a release date are excluded
+        public Selection withReleaseDateBetween(LocalDate from, LocalDate to) {
+            if (from != null && to != null && from.isAfter(to)) {
+                throw new IllegalArgumentException("Release date range start cannot be after its end");
+            }
+            this.minReleaseEpochDay = from == null ? NO_RELEASE_DATE + 1 : (int) from.toEpochDay();
+            this.maxReleaseEpochDay = to == null ? Integer.MAX_VALUE : (int) to.toEpochDay();
+            return this;
+        }
+
+        public Selection withResolution(VideoResolution resolution, VideoResolution... others) {
+            Objects.requireNonNull(resolution, "Resolution cannot be null");
+            long mask = 0;
+            for (VideoResolution selected : EnumSet.of(resolution, others)) {
+                mask |= 1L << selected.ordinal();
+            }
+            this.resolutionMask = mask;
+            return this;
+        }
+
+        // bounds are inclusive, a null bound leaves the range open on that side
+        public Selection withDurationBetween(Integer minDuration, Integer maxDuration) {
+            if (minDuration != null && maxDuration != null && minDuration > maxDuration) {
+                throw new IllegalArgumentException("Duration range start cannot be greater than its end");
+            }
+            this.minDuration = minDuration == null ? Integer.MIN_VALUE : minDuration;
+            this.maxDuration = maxDuration == null ? Integer.MAX_VALUE : maxDuration;
+            return this;
+        }
+
+        public int count() {
+            lock.readLock().lock();
+            try {
+                return filter(new int[size]);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public long totalDuration() {
+            lock.readLock().lock();
+            try {
+                int[] selected = new int[size];
+                return sum(durations, selected, filter(selected));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public OptionalDouble averageDuration() {
+            lock.readLock().lock();
+            try {
+                int[] selected = new int[size];
+                int count = filter(selected);
+                return count == 0
+                        ? OptionalDouble.empty()
+                        : OptionalDouble.of((double) sum(durations, selected, count) / count);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public long totalEpisodes() {
+            lock.readLock().lock();
+            try {
+                int[] selected = new int[size];
+                return sum(episodeCounts, selected, filter(selected));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public long totalSeasons() {
+            lock.readLock().lock();
+            try {
+                int[] selected = new int[size];
+                return sum(seasonCounts, selected, filter(selected));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // a movie counts as a single episode
+        public OptionalDouble averageEpisodeDuration() {
+            lock.readLock().lock();
+            try {
+                int[] selected = new int[size];
+                int count = filter(selected);
+                long episodes = sum(episodeCounts, selected, count);
+                return episodes == 0
+                        ? OptionalDouble.empty()
+                        : OptionalDouble.of((double) sum(durations, selected, count) / episodes);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // contents without a resolution are left out
+        public Map<VideoResolution, Double> averageEpisodeDurationByResolution() {
+            lock.readLock().lock();
+            try {
+                int[] selected = new int[size];
+                int count = filter(selected);
+                long[] totalDurations = new long[NO_RESOLUTION + 1];
+                long[] totalEpisodes = new long[NO_RESOLUTION + 1];
+                for (int i = 0; i < count; i++) {
+                    int row = selected[i];
+                    totalDurations[resolutions[row]] += durations[row];
+                    totalEpisodes[resolutions[row]] += episodeCounts[row];
+                }
+
+                Map<VideoResolution, Double> averages = new EnumMap<>(VideoResolution.class);
+                for (VideoResolution resolution : VideoResolution.values()) {
+                    if (totalEpisodes[resolution.ordinal()] > 0) {
+                        averages.put(resolution,
+                                (double) totalDurations[resolution.ordinal()] / totalEpisodes[resolution.ordinal()]);
+                    }
+                }
+                return averages;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        public List<String> titles() {
+            lock.readLock().lock();
+            try {
+                int[] selected = new int[size];
+                int count = filter(selected);
+                List<String> selectedTitles = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    selectedTitles.add(titles[selected[i]]);
+                }
+                return selectedTitles;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // branch-free: every row is written to the vector, only matching rows advance it
+        private int filter(int[] selected) {
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                int releaseEpochDay = releaseEpochDays[row];
+                int duration = durations[row];
+                boolean matches = releaseEpochDay >= minReleaseEpochDay & releaseEpochDay <= maxReleaseEpochDay
+                        & duration >= minDuration & duration <= maxDuration
+                        & ((resolutionMask >>> resolutions[row]) & 1L) != 0;
+                selected[count] = row;
+                count += matches ? 1 : 0;
+            }
+            return count;
+        }
+
+        private long sum(int[] column, int[] selected, int count) {
+            long total = 0;
+            for (int i = 0; i < count; i++) {
+                total += column[selected[i]];
+            }
+            return total;
+        }
+    }
+}
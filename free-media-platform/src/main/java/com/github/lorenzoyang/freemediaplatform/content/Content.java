@@ -9,15 +9,16 @@ import java.util.Optional;
 
 public abstract class Content {
     private final String title;
-    private final String description;
-    private final LocalDate releaseDate;
-    private final VideoResolution resolution;
+    // built once, so that reading an attribute does not allocate (e.g. while encoding)
+    private final Optional<String> description;
+    private final Optional<LocalDate> releaseDate;
+    private final Optional<VideoResolution> resolution;
 
     protected Content(ContentBuilder<?> builder) {
         this.title = builder.title;
-        this.description = builder.description;
-        this.releaseDate = builder.releaseDate;
-        this.resolution = builder.resolution;
+        this.description = Optional.ofNullable(builder.description);
+        this.releaseDate = Optional.ofNullable(builder.releaseDate);
+        this.resolution = Optional.ofNullable(builder.resolution);
     }
 
     public String getTitle() {
@@ -25,15 +26,15 @@ public abstract class Content {
     }
 
     public Optional<String> getDescription() {
-        return Optional.ofNullable(description);
+        return description;
     }
 
     public Optional<LocalDate> getReleaseDate() {
-        return Optional.ofNullable(releaseDate);
+        return releaseDate;
     }
 
     public Optional<VideoResolution> getResolution() {
-        return Optional.ofNullable(resolution);
+        return resolution;
     }
 
     public abstract int getDurationInMinutes();
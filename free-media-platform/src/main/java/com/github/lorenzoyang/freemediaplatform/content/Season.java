@@ -7,7 +7,9 @@ import java.util.stream.IntStream;
 
 public class Season implements Iterable<Episode> {
     private final int seasonNumber;
-    private final Collection<Episode> episodes;
+    // prefix sums of the episode durations: episode i + 1 starts at minute episodeOffsets[i]
+    // of the season and lasts until episodeOffsets[i + 1]; episode numbers follow from the position
+    private final int[] episodeOffsets;
     private final int durationInMinutes;
 
     public Season(int seasonNumber, List<Episode> episodes) {
@@ -21,11 +23,12 @@ public class Season implements Iterable<Episode> {
                 .allMatch(i -> episodes.get(i).getEpisodeNumber() == (i + 1))) {
             throw new InvalidSeasonException("Episodes must be consecutive and start from 1");
         }
-        this.episodes = new ArrayList<>(episodes);
+        this.episodeOffsets = new int[episodes.size() + 1];
+        for (int i = 0; i < episodes.size(); i++) {
+            episodeOffsets[i + 1] = episodeOffsets[i] + episodes.get(i).getDurationInMinutes();
+        }
 
-        this.durationInMinutes = episodes.stream()
-                .mapToInt(Episode::getDurationInMinutes)
-                .sum();
+        this.durationInMinutes = episodeOffsets[episodes.size()];
     }
 
     public int getSeasonNumber() {
@@ -33,13 +36,64 @@ public class Season implements Iterable<Episode> {
     }
 
     public int getEpisodesCount() {
-        return episodes.size();
+        return episodeOffsets.length - 1;
     }
 
     public int getDurationInMinutes() {
         return durationInMinutes;
     }
 
+    public Episode getEpisode(int episodeNumber) {
+        checkEpisodeNumber(episodeNumber);
+        return new Episode(episodeNumber, episodeOffsets[episodeNumber] - episodeOffsets[episodeNumber - 1]);
+    }
+
+    // same as getEpisode(episodeNumber).getDurationInMinutes() without materializing the episode
+    public int getEpisodeDuration(int episodeNumber) {
+        checkEpisodeNumber(episodeNumber);
+        return episodeOffsets[episodeNumber] - episodeOffsets[episodeNumber - 1];
+    }
+
+    // minute of the season at which the episode starts
+    public int getEpisodeOffset(int episodeNumber) {
+        checkEpisodeNumber(episodeNumber);
+        return episodeOffsets[episodeNumber - 1];
+    }
+
+    // the episode playing at the given minute of the season, empty past its end
+    public Optional<TimelinePosition> getPositionAt(int minute) {
+        if (minute < 0) {
+            throw new IllegalArgumentException("Minute cannot be negative");
+        }
+        if (minute >= durationInMinutes) {
+            return Optional.empty();
+        }
+        int index = floorIndex(episodeOffsets, minute);
+        return Optional.of(new TimelinePosition(seasonNumber, index + 1, minute - episodeOffsets[index]));
+    }
+
+    void checkEpisodeNumber(int episodeNumber) {
+        if (episodeNumber < 1 || episodeNumber > getEpisodesCount()) {
+            throw new IllegalArgumentException("Episode " + episodeNumber + " does not exist in season " + seasonNumber);
+        }
+    }
+
+    // last index whose offset is not greater than the value, given offsets[0] <= value < offsets[last];
+    // with equal offsets (empty entries) the last of them is returned
+    static int floorIndex(int[] offsets, int value) {
+        int low = 0;
+        int high = offsets.length - 1;
+        while (high - low > 1) {
+            int middle = (low + high) >>> 1;
+            if (offsets[middle] <= value) {
+                low = middle;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -47,16 +101,33 @@ public class Season implements Iterable<Episode> {
         Season other = (Season) obj;
         return (seasonNumber == other.seasonNumber) &&
                 (durationInMinutes == other.durationInMinutes) &&
-                Objects.equals(episodes, other.episodes);
+                Arrays.equals(episodeOffsets, other.episodeOffsets);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(seasonNumber, episodes, durationInMinutes);
+        return Objects.hash(seasonNumber, Arrays.hashCode(episodeOffsets), durationInMinutes);
     }
 
+    // episodes are materialized while iterating, they are short-lived value objects
     @Override
     public Iterator<Episode> iterator() {
-        return episodes.iterator();
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < getEpisodesCount();
+            }
+
+            @Override
+            public Episode next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                next++;
+                return new Episode(next, episodeOffsets[next] - episodeOffsets[next - 1]);
+            }
+        };
     }
 }
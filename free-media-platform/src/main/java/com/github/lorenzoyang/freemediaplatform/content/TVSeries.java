@@ -3,32 +3,177 @@ package com.github.lorenzoyang.freemediaplatform.content;
 import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidContentException;
 import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Iterator;
-import java.util.Objects;
+import java.util.*;
+import java.util.function.Consumer;
 
 public class TVSeries extends Content implements Iterable<Season> {
-    private final Collection<Season> seasons;
+    private final List<Season> seasons;
+    // prefix sums of the season durations, season i + 1 starts at minute seasonOffsets[i]
+    private final int[] seasonOffsets;
+    // prefix sums of the episode counts, season i + 1 holds the episodes from episodeIndexes[i]
+    private final int[] episodeIndexes;
     private final int durationInMinutes;
 
     private TVSeries(TVSeriesBuilder builder) {
         super(builder);
-        this.seasons = new ArrayList<>(builder.seasons);
-        this.durationInMinutes = seasons.stream()
-                .mapToInt(Season::getDurationInMinutes)
-                .sum();
+        this.seasons = List.copyOf(builder.seasons);
+        this.seasonOffsets = new int[seasons.size() + 1];
+        this.episodeIndexes = new int[seasons.size() + 1];
+        for (int i = 0; i < seasons.size(); i++) {
+            seasonOffsets[i + 1] = seasonOffsets[i] + seasons.get(i).getDurationInMinutes();
+            episodeIndexes[i + 1] = episodeIndexes[i] + seasons.get(i).getEpisodesCount();
+        }
+        this.durationInMinutes = seasonOffsets[seasons.size()];
     }
 
     public int getSeasonsCount() {
         return seasons.size();
     }
 
+    public int getEpisodesCount() {
+        return episodeIndexes[seasons.size()];
+    }
+
     @Override
     public int getDurationInMinutes() {
         return durationInMinutes;
     }
 
+    // numbers are consecutive from 1, so they double as indexes
+    public Season getSeason(int seasonNumber) {
+        checkSeasonNumber(seasonNumber);
+        return seasons.get(seasonNumber - 1);
+    }
+
+    public Episode getEpisode(int seasonNumber, int episodeNumber) {
+        return getSeason(seasonNumber).getEpisode(episodeNumber);
+    }
+
+    // every episode of the series in order, read from the seasons while iterating
+    public Iterable<Episode> episodes() {
+        return episodesBetween(0, getEpisodesCount());
+    }
+
+    // the episodes from the given one to the end of the series
+    public Iterable<Episode> episodesFrom(int seasonNumber, int episodeNumber) {
+        getSeason(seasonNumber).checkEpisodeNumber(episodeNumber);
+        return episodesBetween(episodeIndexes[seasonNumber - 1] + episodeNumber - 1, getEpisodesCount());
+    }
+
+    private Iterable<Episode> episodesBetween(int from, int to) {
+        return new Iterable<>() {
+            @Override
+            public Iterator<Episode> iterator() {
+                return Spliterators.iterator(spliterator());
+            }
+
+            @Override
+            public Spliterator<Episode> spliterator() {
+                return new EpisodeSpliterator(from, to);
+            }
+        };
+    }
+
+    // minute of the series at which the episode starts
+    public int getOffsetOf(int seasonNumber, int episodeNumber) {
+        // the season is checked before its offset is read
+        Season season = getSeason(seasonNumber);
+        return seasonOffsets[seasonNumber - 1] + season.getEpisodeOffset(episodeNumber);
+    }
+
+    // the episode playing at the given minute of the series, empty past its end
+    public Optional<TimelinePosition> getPositionAt(int minute) {
+        if (minute < 0) {
+            throw new IllegalArgumentException("Minute cannot be negative");
+        }
+        if (minute >= durationInMinutes) {
+            return Optional.empty();
+        }
+        int index = Season.floorIndex(seasonOffsets, minute);
+        return seasons.get(index).getPositionAt(minute - seasonOffsets[index]);
+    }
+
+    // minutes left to watch from the given minute of the episode until the end of the series
+    public int getRemainingMinutes(int seasonNumber, int episodeNumber, int minuteInEpisode) {
+        int offset = getOffsetOf(seasonNumber, episodeNumber);
+        if (minuteInEpisode < 0 || minuteInEpisode > getEpisodeEnd(seasonNumber, episodeNumber) - offset) {
+            throw new IllegalArgumentException("Minute must be within the episode duration");
+        }
+        return durationInMinutes - offset - minuteInEpisode;
+    }
+
+    private int getEpisodeEnd(int seasonNumber, int episodeNumber) {
+        Season season = seasons.get(seasonNumber - 1);
+        return episodeNumber < season.getEpisodesCount()
+                ? getOffsetOf(seasonNumber, episodeNumber + 1)
+                : seasonOffsets[seasonNumber];
+    }
+
+    // walks the episodes by their index in the whole series; splitting halves the index range
+    // and finds the season of the middle episode with a binary search
+    private class EpisodeSpliterator implements Spliterator<Episode> {
+        private int index;
+        private final int end;
+        private int seasonIndex;
+        private int episodeIndex;
+
+        private EpisodeSpliterator(int from, int to) {
+            this.end = to;
+            moveTo(from);
+        }
+
+        private void moveTo(int index) {
+            this.index = index;
+            if (index < end) {
+                this.seasonIndex = Season.floorIndex(episodeIndexes, index);
+                this.episodeIndex = index - episodeIndexes[seasonIndex];
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Episode> action) {
+            Objects.requireNonNull(action);
+            if (index >= end) {
+                return false;
+            }
+            Season season = seasons.get(seasonIndex);
+            while (episodeIndex == season.getEpisodesCount()) {
+                season = seasons.get(++seasonIndex);
+                episodeIndex = 0;
+            }
+            action.accept(season.getEpisode(++episodeIndex));
+            index++;
+            return true;
+        }
+
+        @Override
+        public Spliterator<Episode> trySplit() {
+            if (end - index < 2) {
+                return null;
+            }
+            int middle = (index + end) >>> 1;
+            var prefix = new EpisodeSpliterator(index, middle);
+            moveTo(middle);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE | NONNULL;
+        }
+    }
+
+    private void checkSeasonNumber(int seasonNumber) {
+        if (seasonNumber < 1 || seasonNumber > seasons.size()) {
+            throw new IllegalArgumentException("Season " + seasonNumber + " does not exist");
+        }
+    }
+
     @Override
     public <T> T accept(ContentVisitor<T> visitor) {
         return visitor.visitTVSeries(this);
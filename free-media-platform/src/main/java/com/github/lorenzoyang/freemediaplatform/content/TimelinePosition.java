@@ -0,0 +1,41 @@
+package com.github.lorenzoyang.freemediaplatform.content;
+
+import java.util.Objects;
+
+public class TimelinePosition {
+    private final int seasonNumber;
+    private final int episodeNumber;
+    private final int minuteInEpisode;
+
+    public TimelinePosition(int seasonNumber, int episodeNumber, int minuteInEpisode) {
+        this.seasonNumber = seasonNumber;
+        this.episodeNumber = episodeNumber;
+        this.minuteInEpisode = minuteInEpisode;
+    }
+
+    public int getSeasonNumber() {
+        return seasonNumber;
+    }
+
+    public int getEpisodeNumber() {
+        return episodeNumber;
+    }
+
+    public int getMinuteInEpisode() {
+        return minuteInEpisode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        TimelinePosition other = (TimelinePosition) obj;
+        return (seasonNumber == other.seasonNumber) && (episodeNumber == other.episodeNumber) &&
+                (minuteInEpisode == other.minuteInEpisode);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seasonNumber, episodeNumber, minuteInEpisode);
+    }
+}
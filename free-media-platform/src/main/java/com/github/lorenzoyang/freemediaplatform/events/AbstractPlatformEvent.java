@@ -0,0 +1,33 @@
+package com.github.lorenzoyang.freemediaplatform.events;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+
+abstract class AbstractPlatformEvent implements PlatformEvent {
+    private final long sequence;
+    private final Instant timestamp;
+
+    AbstractPlatformEvent() {
+        this.sequence = UNSEQUENCED;
+        this.timestamp = null;
+    }
+
+    AbstractPlatformEvent(long sequence, Instant timestamp) {
+        if (sequence <= 0) {
+            throw new IllegalArgumentException("Sequence must be a positive integer greater than 0");
+        }
+        this.sequence = sequence;
+        this.timestamp = Objects.requireNonNull(timestamp, "Timestamp cannot be null");
+    }
+
+    @Override
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public Optional<Instant> getTimestamp() {
+        return Optional.ofNullable(timestamp);
+    }
+}
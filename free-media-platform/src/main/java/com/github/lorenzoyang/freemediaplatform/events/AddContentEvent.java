@@ -3,13 +3,20 @@ package com.github.lorenzoyang.freemediaplatform.events;
 import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
 
-public class AddContentEvent implements PlatformEvent {
+import java.time.Instant;
+
+public class AddContentEvent extends AbstractPlatformEvent {
     private final Content addedContent;
 
     public AddContentEvent(Content addedContent) {
         this.addedContent = addedContent;
     }
 
+    public AddContentEvent(Content addedContent, long sequence, Instant timestamp) {
+        super(sequence, timestamp);
+        this.addedContent = addedContent;
+    }
+
     public Content getAddedContent() {
         return addedContent;
     }
@@ -0,0 +1,46 @@
+package com.github.lorenzoyang.freemediaplatform.events;
+
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public class BatchContentEvent extends AbstractPlatformEvent {
+    private final List<PlatformEvent> events;
+
+    // the single-content events of the batch, in the order they were applied
+    public BatchContentEvent(Collection<PlatformEvent> events) {
+        this.events = Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    // the batch as a whole takes one sequence, the events it contains stay unsequenced: a batch
+    // is atomic for replay, a subscriber resuming from a sequence receives all of it or none of it
+    public BatchContentEvent(Collection<PlatformEvent> events, long sequence, Instant timestamp) {
+        super(sequence, timestamp);
+        this.events = Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    public List<PlatformEvent> getEvents() {
+        return events;
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    public boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    public void forEachEvent(PlatformEventVisitor visitor) {
+        events.forEach(event -> event.accept(visitor));
+    }
+
+    @Override
+    public void accept(PlatformEventVisitor visitor) {
+        visitor.visitBatchContent(this);
+    }
+}
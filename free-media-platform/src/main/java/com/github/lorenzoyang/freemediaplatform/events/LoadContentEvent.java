@@ -0,0 +1,31 @@
+package com.github.lorenzoyang.freemediaplatform.events;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// a chunk of the initial catalog streamed in by a ContentLoader, not a new release
+public class LoadContentEvent extends AbstractPlatformEvent {
+    private final List<Content> loadedContents;
+
+    public LoadContentEvent(Collection<Content> loadedContents) {
+        this.loadedContents = List.copyOf(loadedContents);
+    }
+
+    public LoadContentEvent(Collection<Content> loadedContents, long sequence, Instant timestamp) {
+        super(sequence, timestamp);
+        this.loadedContents = List.copyOf(loadedContents);
+    }
+
+    public List<Content> getLoadedContents() {
+        return loadedContents;
+    }
+
+    @Override
+    public void accept(PlatformEventVisitor visitor) {
+        visitor.visitLoadContent(this);
+    }
+}
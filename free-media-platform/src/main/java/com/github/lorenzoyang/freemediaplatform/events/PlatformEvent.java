@@ -2,6 +2,23 @@ package com.github.lorenzoyang.freemediaplatform.events;
 
 import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
 
+import java.time.Instant;
+import java.util.Optional;
+
 public interface PlatformEvent {
+    // sequence of the events not published by a platform, e.g. the events inside a batch
+    long UNSEQUENCED = 0;
+
     void accept(PlatformEventVisitor visitor);
+
+    // position of the event in the history of the platform that published it, starting from 1;
+    // events created outside a platform are unsequenced
+    default long getSequence() {
+        return UNSEQUENCED;
+    }
+
+    // when the platform published the event, empty for unsequenced events
+    default Optional<Instant> getTimestamp() {
+        return Optional.empty();
+    }
 }
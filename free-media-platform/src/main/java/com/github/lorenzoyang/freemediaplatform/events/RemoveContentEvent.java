@@ -3,13 +3,20 @@ package com.github.lorenzoyang.freemediaplatform.events;
 import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
 
-public class RemoveContentEvent implements PlatformEvent {
+import java.time.Instant;
+
+public class RemoveContentEvent extends AbstractPlatformEvent {
     private final Content removedContent;
 
     public RemoveContentEvent(Content removedContent) {
         this.removedContent = removedContent;
     }
 
+    public RemoveContentEvent(Content removedContent, long sequence, Instant timestamp) {
+        super(sequence, timestamp);
+        this.removedContent = removedContent;
+    }
+
     public Content getRemovedContent() {
         return removedContent;
     }
@@ -3,7 +3,9 @@ package com.github.lorenzoyang.freemediaplatform.events;
 import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
 
-public class UpdateContentEvent implements PlatformEvent {
+import java.time.Instant;
+
+public class UpdateContentEvent extends AbstractPlatformEvent {
     private final Content oldContent;
     private final Content updatedContent;
 
@@ -12,6 +14,12 @@ public class UpdateContentEvent implements PlatformEvent {
         this.updatedContent = updatedContent;
     }
 
+    public UpdateContentEvent(Content oldContent, Content updatedContent, long sequence, Instant timestamp) {
+        super(sequence, timestamp);
+        this.oldContent = oldContent;
+        this.updatedContent = updatedContent;
+    }
+
     public Content getOldContent() {
         return oldContent;
     }
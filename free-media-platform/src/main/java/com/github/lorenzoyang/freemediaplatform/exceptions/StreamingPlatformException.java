@@ -4,4 +4,8 @@ public class StreamingPlatformException extends RuntimeException {
     public StreamingPlatformException(String message) {
         super(message);
     }
+
+    public StreamingPlatformException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -0,0 +1,524 @@
+package com.github.lorenzoyang.freemediaplatform.search;
+
+import com.github.lorenzoyang.freemediaplatform.PlatformObserver;
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitor;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// inverted index over titles and descriptions; the sorted title token dictionary doubles as
+// the prefix structure used for autocomplete. The postings of a token are also kept by impact,
+// highest term frequency first, so that a search reads them only until its page is settled
+public class ContentSearchIndex implements PlatformObserver {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // completions kept for every prefix that has been requested
+    private static final int CACHED_COMPLETIONS = 32;
+    private static final Comparator<SearchResult> BY_RELEVANCE = Comparator
+            .comparingDouble(SearchResult::getScore).reversed()
+            .thenComparing(result -> result.getContent().getTitle());
+    private static final Comparator<Content> BY_TITLE = Comparator.comparing(Content::getTitle);
+    private static final Comparator<Content> BY_TITLE_LENGTH = Comparator
+            .comparingInt((Content content) -> content.getTitle().length())
+            .thenComparing(Content::getTitle);
+
+    private final Map<String, TokenPosting> postings = new HashMap<>();
+    // title token -> contents whose title contains it, shortest title first
+    private final NavigableMap<String, NavigableSet<Content>> titlePostings = new TreeMap<>();
+    // prefix -> its first completions, dropped when a title token starting with it changes
+    private final Map<String, List<Content>> completions = new ConcurrentHashMap<>();
+    // the ids number the bits of the dense postings, the ids of removed contents are reused
+    private final Map<Content, Integer> contentIds = new HashMap<>();
+    private final Deque<Integer> freeContentIds = new ArrayDeque<>();
+    private int nextContentId = 0;
+    private int contentsCount = 0;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PlatformEventVisitor eventVisitor = new PlatformEventVisitor() {
+        @Override
+        public void visitAddContent(AddContentEvent event) {
+            index(event.getAddedContent());
+        }
+
+        @Override
+        public void visitRemoveContent(RemoveContentEvent event) {
+            unindex(event.getRemovedContent());
+        }
+
+        @Override
+        public void visitUpdateContent(UpdateContentEvent event) {
+            unindex(event.getOldContent());
+            index(event.getUpdatedContent());
+        }
+
+        @Override
+        public void visitBatchContent(BatchContentEvent event) {
+            event.forEachEvent(this);
+        }
+
+        @Override
+        public void visitLoadContent(LoadContentEvent event) {
+            event.getLoadedContents().forEach(ContentSearchIndex.this::index);
+        }
+    };
+
+    public ContentSearchIndex(Iterable<Content> contents) {
+        Objects.requireNonNull(contents, "Contents cannot be null");
+        contents.forEach(this::index);
+    }
+
+    // builds the index from the current catalog and keeps it in sync with the platform events
+    public static ContentSearchIndex attachTo(StreamingPlatform platform) {
+        Objects.requireNonNull(platform, "Streaming platform cannot be null");
+        var searchIndex = new ContentSearchIndex(List.of());
+        platform.attachObserver(searchIndex, searchIndex::load);
+        return searchIndex;
+    }
+
+    private void load(Iterable<Content> contents) {
+        lock.writeLock().lock();
+        try {
+            contents.forEach(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void notifyChange(PlatformEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.accept(eventVisitor);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // contents matching every token of the query, ranked by relevance (tf-idf, title matches
+    // weigh more than description matches); pageNumber starts from 0
+    public SearchPage search(String query, int pageNumber, int pageSize) {
+        Objects.requireNonNull(query, "Query cannot be null");
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative");
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be a positive integer greater than 0");
+        }
+        List<String> tokens = tokenize(query).distinct().collect(Collectors.toList());
+
+        lock.readLock().lock();
+        try {
+            List<TokenPosting> tokenPostings = new ArrayList<>();
+            for (String token : tokens) {
+                TokenPosting tokenPosting = postings.get(token);
+                if (tokenPosting == null) {
+                    return new SearchPage(List.of(), pageNumber, pageSize, 0);
+                }
+                tokenPostings.add(tokenPosting);
+            }
+            if (tokenPostings.isEmpty()) {
+                return new SearchPage(List.of(), pageNumber, pageSize, 0);
+            }
+            tokenPostings.sort(Comparator.comparingInt(TokenPosting::size));
+
+            int hitsCount = countHits(tokenPostings);
+            long from = (long) pageNumber * pageSize;
+            if (from >= hitsCount) {
+                return new SearchPage(List.of(), pageNumber, pageSize, hitsCount);
+            }
+            List<SearchResult> top = rank(tokenPostings, (int) Math.min(from + pageSize, hitsCount));
+            return new SearchPage(top.subList((int) from, top.size()), pageNumber, pageSize, hitsCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the postings are sorted from the rarest: it bounds the hits, the others are only probed.
+    // When every posting is dense the hits are counted on the bitmaps instead
+    private int countHits(List<TokenPosting> tokenPostings) {
+        if (tokenPostings.size() == 1) {
+            return tokenPostings.get(0).size();
+        }
+        if (tokenPostings.stream().allMatch(TokenPosting::isDense)) {
+            int words = Integer.MAX_VALUE;
+            for (TokenPosting tokenPosting : tokenPostings) {
+                words = Math.min(words, tokenPosting.bits.length);
+            }
+            int hitsCount = 0;
+            for (int i = 0; i < words; i++) {
+                long word = -1L;
+                for (TokenPosting tokenPosting : tokenPostings) {
+                    word &= tokenPosting.bits[i];
+                }
+                hitsCount += Long.bitCount(word);
+            }
+            return hitsCount;
+        }
+        int hitsCount = 0;
+        for (Content candidate : tokenPostings.get(0).frequencies.keySet()) {
+            if (isHit(tokenPostings, candidate)) {
+                hitsCount++;
+            }
+        }
+        return hitsCount;
+    }
+
+    // the candidate comes from the first posting
+    private static boolean isHit(List<TokenPosting> tokenPostings, Content candidate) {
+        for (int i = 1; i < tokenPostings.size(); i++) {
+            if (!tokenPostings.get(i).frequencies.containsKey(candidate)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // the threshold algorithm: the postings are read by impact in turn and every content read
+    // is scored in full; a content not read yet cannot score more than the sum of the current
+    // impacts, so the reading stops as soon as the k-th result scores more than that
+    private List<SearchResult> rank(List<TokenPosting> tokenPostings, int k) {
+        double[] idfs = new double[tokenPostings.size()];
+        List<ImpactCursor> cursors = new ArrayList<>(tokenPostings.size());
+        for (int i = 0; i < idfs.length; i++) {
+            idfs[i] = Math.log(1 + (double) contentsCount / tokenPostings.get(i).size());
+            cursors.add(new ImpactCursor(tokenPostings.get(i)));
+        }
+        var ranked = new TopResults<>(BY_RELEVANCE, k);
+        while (true) {
+            // the posting with the highest current impact is read next, it lowers the threshold most
+            double threshold = 0;
+            int turn = 0;
+            for (int i = 0; i < cursors.size(); i++) {
+                // every hit is in every posting: once one is read through, all the hits were scored
+                if (!cursors.get(i).hasNext()) {
+                    return ranked.sorted();
+                }
+                threshold += cursors.get(i).frequency() * idfs[i];
+                if (cursors.get(i).frequency() * idfs[i] > cursors.get(turn).frequency() * idfs[turn]) {
+                    turn = i;
+                }
+            }
+            if (ranked.isFull() && isSettled(cursors, threshold, ranked.worst())) {
+                return ranked.sorted();
+            }
+            int frequency = cursors.get(turn).frequency();
+            Content candidate = cursors.get(turn).next();
+            double score = 0;
+            boolean scored = true;
+            for (int i = 0; i < cursors.size() && scored; i++) {
+                if (i == turn) {
+                    score += frequency * idfs[i];
+                    continue;
+                }
+                Integer candidateFrequency = tokenPostings.get(i).frequencies.get(candidate);
+                // not a hit, or scored already when another posting read it
+                scored = candidateFrequency != null && !cursors.get(i).hasRead(candidate, candidateFrequency);
+                if (scored) {
+                    score += candidateFrequency * idfs[i];
+                }
+            }
+            if (scored) {
+                ranked.offer(new SearchResult(candidate, score));
+            }
+        }
+    }
+
+    // a content not read yet scores at most the threshold, and only when it is in the current
+    // bucket of every posting, after the next content of each
+    private static boolean isSettled(List<ImpactCursor> cursors, double threshold, SearchResult worst) {
+        if (worst.getScore() != threshold) {
+            return worst.getScore() > threshold;
+        }
+        for (ImpactCursor cursor : cursors) {
+            if (BY_TITLE.compare(cursor.peek(), worst.getContent()) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // titles for type-ahead: every token but the last must appear in the title,
+    // the last one is matched as a prefix; shorter titles rank first
+    public List<Content> autocomplete(String prefix, int limit) {
+        Objects.requireNonNull(prefix, "Prefix cannot be null");
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be a positive integer greater than 0");
+        }
+        List<String> tokens = tokenize(prefix).collect(Collectors.toList());
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        String lastToken = tokens.get(tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Content>> requiredPostings = new ArrayList<>();
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                NavigableSet<Content> requiredPosting = titlePostings.get(token);
+                if (requiredPosting == null) {
+                    return List.of();
+                }
+                requiredPostings.add(requiredPosting);
+            }
+            List<NavigableSet<Content>> prefixPostings = new ArrayList<>(titlePostings.subMap(lastToken, true,
+                    lastToken + Character.MAX_VALUE, false).values());
+            if (!requiredPostings.isEmpty() || limit > CACHED_COMPLETIONS) {
+                return complete(prefixPostings, requiredPostings, limit);
+            }
+            List<Content> cached = completions.get(lastToken);
+            if (cached == null) {
+                cached = List.copyOf(complete(prefixPostings, List.of(), CACHED_COMPLETIONS));
+                if (!prefixPostings.isEmpty()) {
+                    completions.put(lastToken, cached);
+                }
+            }
+            return cached.subList(0, Math.min(limit, cached.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // every posting is in completion order: the candidates leapfrog from one posting to the
+    // next content of the other, until all the required postings contain a content whose title
+    // has a token with the prefix
+    private static List<Content> complete(List<NavigableSet<Content>> prefixPostings,
+                                          List<NavigableSet<Content>> requiredPostings, int limit) {
+        List<Content> completed = new ArrayList<>();
+        Content candidate = ceiling(prefixPostings, null, true);
+        while (candidate != null && completed.size() < limit) {
+            Content next = candidate;
+            for (NavigableSet<Content> requiredPosting : requiredPostings) {
+                next = requiredPosting.ceiling(next);
+                if (next == null) {
+                    return completed;
+                }
+            }
+            if (next.equals(candidate)) {
+                completed.add(candidate);
+                candidate = ceiling(prefixPostings, candidate, false);
+            } else {
+                candidate = ceiling(prefixPostings, next, true);
+            }
+        }
+        return completed;
+    }
+
+    // the first content of the union of the postings from the given one on, from the first
+    // content when it is null
+    private static Content ceiling(List<NavigableSet<Content>> postings, Content from, boolean inclusive) {
+        Content ceiling = null;
+        for (NavigableSet<Content> posting : postings) {
+            Content first = from == null ? posting.first() : inclusive ? posting.ceiling(from) : posting.higher(from);
+            if (first != null && (ceiling == null || BY_TITLE_LENGTH.compare(first, ceiling) < 0)) {
+                ceiling = first;
+            }
+        }
+        return ceiling;
+    }
+
+    // the first k elements in the given order, kept in a heap whose head is the worst of them:
+    // offering n elements costs O(n log k) instead of sorting all of them
+    private static class TopResults<T> {
+        private final Comparator<T> order;
+        private final int k;
+        private final PriorityQueue<T> heap;
+
+        private TopResults(Comparator<T> order, int k) {
+            this.order = order;
+            this.k = k;
+            this.heap = new PriorityQueue<>(Math.min(k, 1024), order.reversed());
+        }
+
+        private void offer(T element) {
+            if (heap.size() < k) {
+                heap.add(element);
+            } else if (order.compare(element, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        }
+
+        private boolean isFull() {
+            return heap.size() == k;
+        }
+
+        private T worst() {
+            return heap.peek();
+        }
+
+        private List<T> sorted() {
+            List<T> elements = new ArrayList<>(heap);
+            elements.sort(order);
+            return elements;
+        }
+    }
+
+    // the postings of a token, by content and by impact: the highest term frequency first,
+    // then in title order like the ranking. A posting covering one content id in 64 or more
+    // also keeps a bitmap of the ids, to intersect with the other dense postings
+    private class TokenPosting {
+        private final Map<Content, Integer> frequencies = new HashMap<>();
+        private final NavigableMap<Integer, NavigableSet<Content>> byImpact = new TreeMap<>(Comparator.reverseOrder());
+        private long[] bits;
+
+        private int size() {
+            return frequencies.size();
+        }
+
+        private boolean isDense() {
+            return bits != null;
+        }
+
+        private void add(Content content, int frequency, int contentId) {
+            frequencies.put(content, frequency);
+            byImpact.computeIfAbsent(frequency, f -> new TreeSet<>(BY_TITLE)).add(content);
+            if (bits != null) {
+                setBit(contentId);
+            } else if ((long) size() * 64 >= nextContentId) {
+                bits = new long[0];
+                frequencies.keySet().forEach(added -> setBit(contentIds.get(added)));
+            }
+        }
+
+        private boolean remove(Content content, int contentId) {
+            Integer frequency = frequencies.remove(content);
+            if (frequency == null) {
+                return false;
+            }
+            NavigableSet<Content> bucket = byImpact.get(frequency);
+            if (bucket.remove(content) && bucket.isEmpty()) {
+                byImpact.remove(frequency);
+            }
+            if (bits != null) {
+                if ((long) size() * 128 < nextContentId) {
+                    bits = null;
+                } else if (contentId >> 6 < bits.length) {
+                    bits[contentId >> 6] &= ~(1L << contentId);
+                }
+            }
+            return true;
+        }
+
+        private void setBit(int contentId) {
+            if (contentId >> 6 >= bits.length) {
+                bits = Arrays.copyOf(bits, Math.max((contentId >> 6) + 1, bits.length * 2));
+            }
+            bits[contentId >> 6] |= 1L << contentId;
+        }
+    }
+
+    // reads a posting in impact order
+    private static class ImpactCursor {
+        private final Iterator<Map.Entry<Integer, NavigableSet<Content>>> buckets;
+        private Iterator<Content> bucket = Collections.emptyIterator();
+        private int frequency = 0;
+        private Content next = null;
+        private Content lastRead = null;
+        private int lastReadFrequency = 0;
+
+        private ImpactCursor(TokenPosting tokenPosting) {
+            this.buckets = tokenPosting.byImpact.entrySet().iterator();
+            advance();
+        }
+
+        private boolean hasNext() {
+            return next != null;
+        }
+
+        private Content peek() {
+            return next;
+        }
+
+        // the frequency of the next content
+        private int frequency() {
+            return frequency;
+        }
+
+        // a posting is read from the highest frequency, then in title order
+        private boolean hasRead(Content content, int contentFrequency) {
+            return lastRead != null && (contentFrequency > lastReadFrequency
+                    || contentFrequency == lastReadFrequency && BY_TITLE.compare(content, lastRead) <= 0);
+        }
+
+        private Content next() {
+            lastRead = next;
+            lastReadFrequency = frequency;
+            advance();
+            return lastRead;
+        }
+
+        private void advance() {
+            if (!bucket.hasNext() && buckets.hasNext()) {
+                var entry = buckets.next();
+                frequency = entry.getKey();
+                bucket = entry.getValue().iterator();
+            }
+            next = bucket.hasNext() ? bucket.next() : null;
+        }
+    }
+
+    private void index(Content content) {
+        // the first content with a title is kept, as in the catalog
+        if (contentIds.containsKey(content)) {
+            return;
+        }
+        contentsCount++;
+        int contentId = freeContentIds.isEmpty() ? nextContentId++ : freeContentIds.pop();
+        contentIds.put(content, contentId);
+        termFrequencies(content).forEach((token, frequency) ->
+                postings.computeIfAbsent(token, t -> new TokenPosting()).add(content, frequency, contentId));
+        tokenize(content.getTitle()).forEach(token -> {
+            titlePostings.computeIfAbsent(token, t -> new TreeSet<>(BY_TITLE_LENGTH)).add(content);
+            invalidateCompletions(token);
+        });
+    }
+
+    private void unindex(Content content) {
+        Integer contentId = contentIds.remove(content);
+        if (contentId == null) {
+            return;
+        }
+        contentsCount--;
+        termFrequencies(content).keySet().forEach(token -> {
+            TokenPosting tokenPosting = postings.get(token);
+            if (tokenPosting != null && tokenPosting.remove(content, contentId) && tokenPosting.size() == 0) {
+                postings.remove(token);
+            }
+        });
+        tokenize(content.getTitle()).forEach(token -> {
+            Set<Content> tokenPosting = titlePostings.get(token);
+            if (tokenPosting != null && tokenPosting.remove(content) && tokenPosting.isEmpty()) {
+                titlePostings.remove(token);
+            }
+            invalidateCompletions(token);
+        });
+        freeContentIds.push(contentId);
+    }
+
+    private void invalidateCompletions(String token) {
+        for (int length = 1; length <= token.length(); length++) {
+            completions.remove(token.substring(0, length));
+        }
+    }
+
+    private static Map<String, Integer> termFrequencies(Content content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        tokenize(content.getTitle()).forEach(token -> frequencies.merge(token, TITLE_WEIGHT, Integer::sum));
+        content.getDescription().ifPresent(description -> tokenize(description)
+                .forEach(token -> frequencies.merge(token, DESCRIPTION_WEIGHT, Integer::sum)));
+        return frequencies;
+    }
+
+    private static Stream<String> tokenize(String text) {
+        return TOKEN_SEPARATOR.splitAsStream(text.toLowerCase(Locale.ROOT))
+                .filter(token -> !token.isEmpty());
+    }
+}
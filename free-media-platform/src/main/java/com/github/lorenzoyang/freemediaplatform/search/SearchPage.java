@@ -0,0 +1,43 @@
+package com.github.lorenzoyang.freemediaplatform.search;
+
+import java.util.Iterator;
+import java.util.List;
+
+public class SearchPage implements Iterable<SearchResult> {
+    private final List<SearchResult> results;
+    private final int pageNumber;
+    private final int pageSize;
+    private final int totalHits;
+
+    SearchPage(List<SearchResult> results, int pageNumber, int pageSize, int totalHits) {
+        this.results = List.copyOf(results);
+        this.pageNumber = pageNumber;
+        this.pageSize = pageSize;
+        this.totalHits = totalHits;
+    }
+
+    public List<SearchResult> getResults() {
+        return results;
+    }
+
+    public int getPageNumber() {
+        return pageNumber;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    public boolean hasNextPage() {
+        return (long) (pageNumber + 1) * pageSize < totalHits;
+    }
+
+    @Override
+    public Iterator<SearchResult> iterator() {
+        return results.iterator();
+    }
+}
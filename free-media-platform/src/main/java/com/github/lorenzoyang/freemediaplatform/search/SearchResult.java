@@ -0,0 +1,21 @@
+package com.github.lorenzoyang.freemediaplatform.search;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+
+public class SearchResult {
+    private final Content content;
+    private final double score;
+
+    SearchResult(Content content, double score) {
+        this.content = content;
+        this.score = score;
+    }
+
+    public Content getContent() {
+        return content;
+    }
+
+    public double getScore() {
+        return score;
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidContentException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidEpisodeException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidSeasonException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static com.github.lorenzoyang.freemediaplatform.serialization.BinaryContentFormat.*;
+
+// reads back what BinaryContentEncoder writes, rebuilding the contents through their builders
+public final class BinaryContentDecoder {
+    private final ByteBuffer source;
+
+    private BinaryContentDecoder(ByteBuffer source) {
+        this.source = source;
+    }
+
+    // decodes the content starting at the position of the source and moves past it
+    public static Content decode(ByteBuffer source) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        try {
+            return new BinaryContentDecoder(source).readContent();
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException
+                 | InvalidContentException | InvalidSeasonException | InvalidEpisodeException e) {
+            throw new StreamingPlatformException("Invalid binary content", e);
+        }
+    }
+
+    private Content readContent() {
+        byte type = source.get();
+        int flags = source.get();
+        if ((type != MOVIE && type != TV_SERIES) ||
+                (flags & ~(HAS_DESCRIPTION | HAS_RELEASE_DATE | HAS_RESOLUTION)) != 0) {
+            throw new IllegalArgumentException("Unknown content type or flags");
+        }
+        String title = readString();
+        String description = (flags & HAS_DESCRIPTION) != 0 ? readString() : null;
+        LocalDate releaseDate = null;
+        if ((flags & HAS_RELEASE_DATE) != 0) {
+            long zigzag = readVarLong();
+            releaseDate = LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1));
+        }
+        VideoResolution resolution = null;
+        if ((flags & HAS_RESOLUTION) != 0) {
+            int ordinal = source.get();
+            if (ordinal < 0 || ordinal >= VideoResolution.values().length) {
+                throw new IllegalArgumentException("Unknown resolution");
+            }
+            resolution = VideoResolution.values()[ordinal];
+        }
+
+        if (type == MOVIE) {
+            return new Movie.MovieBuilder(title, new Episode(1, readVarInt()))
+                    .withDescription(description)
+                    .withReleaseDate(releaseDate)
+                    .withResolution(resolution)
+                    .build();
+        }
+        int seasonsCount = readVarInt();
+        if (seasonsCount < 1) {
+            throw new IllegalArgumentException("A TV series needs at least one season");
+        }
+        var builder = new TVSeries.TVSeriesBuilder(title, readSeason(1))
+                .withDescription(description)
+                .withReleaseDate(releaseDate)
+                .withResolution(resolution);
+        for (int seasonNumber = 2; seasonNumber <= seasonsCount; seasonNumber++) {
+            builder.withSeason(readSeason(seasonNumber));
+        }
+        return builder.build();
+    }
+
+    private Season readSeason(int seasonNumber) {
+        int episodesCount = readVarInt();
+        // the count is not trusted for the initial capacity, every episode needs at least one byte
+        List<Episode> episodes = new ArrayList<>(Math.min(episodesCount, source.remaining()));
+        for (int episodeNumber = 1; episodeNumber <= episodesCount; episodeNumber++) {
+            episodes.add(new Episode(episodeNumber, readVarInt()));
+        }
+        return new Season(seasonNumber, episodes);
+    }
+
+    private String readString() {
+        int length = readVarInt();
+        if (length > source.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int readVarInt() {
+        long value = readVarLong();
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value out of range");
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = source.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
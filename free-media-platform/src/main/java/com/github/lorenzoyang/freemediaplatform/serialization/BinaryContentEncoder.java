@@ -0,0 +1,80 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static com.github.lorenzoyang.freemediaplatform.serialization.BinaryContentFormat.*;
+
+// appends each visited content to the target in the format described by BinaryContentFormat;
+// the target can be reused across contents, nothing is allocated while encoding. A full
+// target throws BufferOverflowException, BinaryContentDecoder reads the contents back
+public class BinaryContentEncoder implements ContentVisitor<Void> {
+    private final ByteBuffer target;
+
+    public BinaryContentEncoder(ByteBuffer target) {
+        this.target = Objects.requireNonNull(target, "Target cannot be null");
+    }
+
+    @Override
+    public Void visitMovie(Movie movie) {
+        writeCommonContent(MOVIE, movie);
+        putVarInt(movie.getEpisode().getDurationInMinutes());
+        return null;
+    }
+
+    @Override
+    public Void visitTVSeries(TVSeries tvSeries) {
+        writeCommonContent(TV_SERIES, tvSeries);
+        putVarInt(tvSeries.getSeasonsCount());
+        for (int seasonNumber = 1; seasonNumber <= tvSeries.getSeasonsCount(); seasonNumber++) {
+            Season season = tvSeries.getSeason(seasonNumber);
+            putVarInt(season.getEpisodesCount());
+            for (int episodeNumber = 1; episodeNumber <= season.getEpisodesCount(); episodeNumber++) {
+                putVarInt(season.getEpisodeDuration(episodeNumber));
+            }
+        }
+        return null;
+    }
+
+    private void writeCommonContent(byte type, Content content) {
+        String description = content.getDescription().orElse(null);
+        LocalDate releaseDate = content.getReleaseDate().orElse(null);
+        VideoResolution resolution = content.getResolution().orElse(null);
+        int flags = (description != null ? HAS_DESCRIPTION : 0) |
+                (releaseDate != null ? HAS_RELEASE_DATE : 0) |
+                (resolution != null ? HAS_RESOLUTION : 0);
+        target.put(type).put((byte) flags);
+        putString(content.getTitle());
+        if (description != null) {
+            putString(description);
+        }
+        if (releaseDate != null) {
+            long epochDay = releaseDate.toEpochDay();
+            putVarLong((epochDay << 1) ^ (epochDay >> 63));
+        }
+        if (resolution != null) {
+            target.put((byte) resolution.ordinal());
+        }
+    }
+
+    private void putString(String text) {
+        putVarInt(Utf8.encodedLength(text));
+        Utf8.put(target, text);
+    }
+
+    private void putVarInt(int value) {
+        putVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void putVarLong(long value) {
+        while ((value & ~0x7FL) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+// layout of a content in the binary wire format; varints are unsigned LEB128, the release
+// date is a zigzag varint so that dates before the epoch stay short:
+//
+//   type               MOVIE or TV_SERIES (byte)
+//   flags              HAS_DESCRIPTION | HAS_RELEASE_DATE | HAS_RESOLUTION (byte)
+//   title              UTF-8 length (varint), UTF-8 bytes
+//   description        UTF-8 length (varint), UTF-8 bytes, if HAS_DESCRIPTION
+//   release date       epoch day (zigzag varint), if HAS_RELEASE_DATE
+//   resolution         ordinal (byte), if HAS_RESOLUTION
+//   movie              episode duration in minutes (varint)
+//   TV series          seasons count (varint), then for each season the episodes count
+//                      (varint) followed by their durations in minutes (varint each)
+//
+// season and episode numbers are not written since builders require them to be consecutive from 1
+final class BinaryContentFormat {
+    static final byte MOVIE = 0;
+    static final byte TV_SERIES = 1;
+
+    static final int HAS_DESCRIPTION = 1;
+    static final int HAS_RELEASE_DATE = 1 << 1;
+    static final int HAS_RESOLUTION = 1 << 2;
+
+    private BinaryContentFormat() {
+    }
+}
@@ -0,0 +1,305 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidContentException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidEpisodeException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidSeasonException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// reads back the JSON written by JsonContentEncoder and rebuilds the contents through their
+// builders; fields may come in any order and be separated by whitespace, absent optional
+// fields can also be written as null
+public final class JsonContentDecoder {
+    private final ByteBuffer source;
+
+    private JsonContentDecoder(ByteBuffer source) {
+        this.source = source;
+    }
+
+    // decodes the JSON object starting at the position of the source and moves past it
+    public static Content decode(ByteBuffer source) {
+        Objects.requireNonNull(source, "Source cannot be null");
+        try {
+            return new JsonContentDecoder(source).readContent();
+        } catch (BufferUnderflowException | IllegalArgumentException | DateTimeException
+                 | InvalidContentException | InvalidSeasonException | InvalidEpisodeException e) {
+            throw new StreamingPlatformException("Invalid JSON content", e);
+        }
+    }
+
+    private Content readContent() {
+        String type = null;
+        String title = null;
+        String description = null;
+        LocalDate releaseDate = null;
+        VideoResolution resolution = null;
+        Episode episode = null;
+        List<Season> seasons = null;
+
+        expect('{');
+        do {
+            String field = readString();
+            expect(':');
+            switch (field) {
+                case "type":
+                    type = readString();
+                    break;
+                case "title":
+                    title = readString();
+                    break;
+                case "description":
+                    description = readNullableString();
+                    break;
+                case "releaseDate":
+                    String date = readNullableString();
+                    releaseDate = date != null ? LocalDate.parse(date) : null;
+                    break;
+                case "resolution":
+                    String name = readNullableString();
+                    resolution = name != null ? VideoResolution.valueOf(name) : null;
+                    break;
+                case "episode":
+                    episode = readEpisode();
+                    break;
+                case "seasons":
+                    seasons = readSeasons();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown field " + field);
+            }
+        } while (next() == ',');
+        expectCurrent('}');
+
+        if (title == null) {
+            throw new IllegalArgumentException("Missing title");
+        }
+        if ("movie".equals(type) && episode != null) {
+            return new Movie.MovieBuilder(title, episode)
+                    .withDescription(description)
+                    .withReleaseDate(releaseDate)
+                    .withResolution(resolution)
+                    .build();
+        }
+        if ("tvSeries".equals(type) && seasons != null && !seasons.isEmpty()) {
+            var builder = new TVSeries.TVSeriesBuilder(title, seasons.get(0))
+                    .withDescription(description)
+                    .withReleaseDate(releaseDate)
+                    .withResolution(resolution);
+            for (int i = 1; i < seasons.size(); i++) {
+                builder.withSeason(seasons.get(i));
+            }
+            return builder.build();
+        }
+        throw new IllegalArgumentException("Unknown content type or missing episodes");
+    }
+
+    private List<Season> readSeasons() {
+        List<Season> seasons = new ArrayList<>();
+        expect('[');
+        if (peek() == ']') {
+            source.get();
+            return seasons;
+        }
+        do {
+            int seasonNumber = 0;
+            List<Episode> episodes = null;
+            expect('{');
+            do {
+                String field = readString();
+                expect(':');
+                if (field.equals("seasonNumber")) {
+                    seasonNumber = readInt();
+                } else if (field.equals("episodes")) {
+                    episodes = readEpisodes();
+                } else {
+                    throw new IllegalArgumentException("Unknown field " + field);
+                }
+            } while (next() == ',');
+            expectCurrent('}');
+            if (episodes == null) {
+                throw new IllegalArgumentException("Missing episodes");
+            }
+            seasons.add(new Season(seasonNumber, episodes));
+        } while (next() == ',');
+        expectCurrent(']');
+        return seasons;
+    }
+
+    private List<Episode> readEpisodes() {
+        List<Episode> episodes = new ArrayList<>();
+        expect('[');
+        if (peek() == ']') {
+            source.get();
+            return episodes;
+        }
+        do {
+            episodes.add(readEpisode());
+        } while (next() == ',');
+        expectCurrent(']');
+        return episodes;
+    }
+
+    private Episode readEpisode() {
+        int episodeNumber = 0;
+        int durationInMinutes = 0;
+        expect('{');
+        do {
+            String field = readString();
+            expect(':');
+            if (field.equals("episodeNumber")) {
+                episodeNumber = readInt();
+            } else if (field.equals("durationInMinutes")) {
+                durationInMinutes = readInt();
+            } else {
+                throw new IllegalArgumentException("Unknown field " + field);
+            }
+        } while (next() == ',');
+        expectCurrent('}');
+        return new Episode(episodeNumber, durationInMinutes);
+    }
+
+    private String readNullableString() {
+        if (peek() != 'n') {
+            return readString();
+        }
+        for (int i = 0; i < 4; i++) {
+            if (source.get() != "null".charAt(i)) {
+                throw new IllegalArgumentException("Expected null");
+            }
+        }
+        return null;
+    }
+
+    private String readString() {
+        expect('"');
+        StringBuilder sb = null;
+        int runStart = source.position();
+        while (true) {
+            byte b = source.get();
+            if (b == '"') {
+                String run = decodeRun(runStart, source.position() - 1);
+                return sb == null ? run : sb.append(run).toString();
+            }
+            if (b == '\\') {
+                if (sb == null) {
+                    sb = new StringBuilder();
+                }
+                sb.append(decodeRun(runStart, source.position() - 1));
+                sb.append(readEscape());
+                runStart = source.position();
+            } else if (b >= 0 && b < 0x20) {
+                throw new IllegalArgumentException("Unescaped control character");
+            }
+        }
+    }
+
+    // UTF-8 bytes between two escapes or quotes; multi-byte sequences never contain '"' or '\'
+    private String decodeRun(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        source.duplicate().position(start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private char readEscape() {
+        byte b = source.get();
+        switch (b) {
+            case '"':
+            case '\\':
+            case '/':
+                return (char) b;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(source.get(), 16);
+                    if (digit < 0) {
+                        throw new IllegalArgumentException("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw new IllegalArgumentException("Invalid escape");
+        }
+    }
+
+    private int readInt() {
+        skipWhitespace();
+        boolean negative = peek() == '-';
+        if (negative) {
+            source.get();
+        }
+        long value = 0;
+        int digits = 0;
+        while (source.hasRemaining() && peekRaw() >= '0' && peekRaw() <= '9') {
+            value = value * 10 + (source.get() - '0');
+            if (++digits > 10) {
+                throw new IllegalArgumentException("Number out of range");
+            }
+        }
+        value = negative ? -value : value;
+        if (digits == 0 || value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid number");
+        }
+        return (int) value;
+    }
+
+    private void expect(char c) {
+        if (next() != c) {
+            throw new IllegalArgumentException("Expected " + c);
+        }
+    }
+
+    private void expectCurrent(char c) {
+        if (source.get(source.position() - 1) != c) {
+            throw new IllegalArgumentException("Expected " + c);
+        }
+    }
+
+    // the next byte that is not whitespace, consumed
+    private byte next() {
+        skipWhitespace();
+        return source.get();
+    }
+
+    // the next byte that is not whitespace, not consumed
+    private byte peek() {
+        skipWhitespace();
+        return peekRaw();
+    }
+
+    private byte peekRaw() {
+        if (!source.hasRemaining()) {
+            throw new BufferUnderflowException();
+        }
+        return source.get(source.position());
+    }
+
+    private void skipWhitespace() {
+        while (source.hasRemaining()) {
+            byte b = source.get(source.position());
+            if (b != ' ' && b != '\t' && b != '\n' && b != '\r') {
+                return;
+            }
+            source.get();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// appends each visited content to the target as a UTF-8 JSON object, for instance
+//
+//   {"type":"tvSeries","title":"Series","releaseDate":"2020-01-31","resolution":"UHD_4K",
+//    "seasons":[{"seasonNumber":1,"episodes":[{"episodeNumber":1,"durationInMinutes":20}]}]}
+//
+// absent optional fields are left out. Field names and punctuation are encoded once, strings
+// and numbers are written byte by byte, so the target can be reused across contents without
+// allocating. A full target throws BufferOverflowException, JsonContentDecoder reads it back
+public class JsonContentEncoder implements ContentVisitor<Void> {
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] MOVIE = ascii("{\"type\":\"movie\",\"title\":");
+    private static final byte[] TV_SERIES = ascii("{\"type\":\"tvSeries\",\"title\":");
+    private static final byte[] DESCRIPTION = ascii(",\"description\":");
+    private static final byte[] RELEASE_DATE = ascii(",\"releaseDate\":\"");
+    private static final byte[] RESOLUTION = ascii(",\"resolution\":\"");
+    private static final byte[] EPISODE = ascii(",\"episode\":");
+    private static final byte[] SEASONS = ascii(",\"seasons\":[");
+    private static final byte[] SEASON_NUMBER = ascii("{\"seasonNumber\":");
+    private static final byte[] EPISODES = ascii(",\"episodes\":[");
+    private static final byte[] EPISODE_NUMBER = ascii("{\"episodeNumber\":");
+    private static final byte[] DURATION = ascii(",\"durationInMinutes\":");
+
+    private final ByteBuffer target;
+
+    public JsonContentEncoder(ByteBuffer target) {
+        this.target = Objects.requireNonNull(target, "Target cannot be null");
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Override
+    public Void visitMovie(Movie movie) {
+        target.put(MOVIE);
+        writeCommonContent(movie);
+        target.put(EPISODE);
+        writeEpisode(1, movie.getEpisode().getDurationInMinutes());
+        target.put((byte) '}');
+        return null;
+    }
+
+    @Override
+    public Void visitTVSeries(TVSeries tvSeries) {
+        target.put(TV_SERIES);
+        writeCommonContent(tvSeries);
+        target.put(SEASONS);
+        for (int seasonNumber = 1; seasonNumber <= tvSeries.getSeasonsCount(); seasonNumber++) {
+            Season season = tvSeries.getSeason(seasonNumber);
+            if (seasonNumber > 1) {
+                target.put((byte) ',');
+            }
+            target.put(SEASON_NUMBER);
+            putInt(seasonNumber);
+            target.put(EPISODES);
+            for (int episodeNumber = 1; episodeNumber <= season.getEpisodesCount(); episodeNumber++) {
+                if (episodeNumber > 1) {
+                    target.put((byte) ',');
+                }
+                writeEpisode(episodeNumber, season.getEpisodeDuration(episodeNumber));
+            }
+            target.put((byte) ']').put((byte) '}');
+        }
+        target.put((byte) ']').put((byte) '}');
+        return null;
+    }
+
+    private void writeCommonContent(Content content) {
+        putString(content.getTitle());
+        String description = content.getDescription().orElse(null);
+        if (description != null) {
+            target.put(DESCRIPTION);
+            putString(description);
+        }
+        LocalDate releaseDate = content.getReleaseDate().orElse(null);
+        if (releaseDate != null) {
+            target.put(RELEASE_DATE);
+            putDate(releaseDate);
+            target.put((byte) '"');
+        }
+        VideoResolution resolution = content.getResolution().orElse(null);
+        if (resolution != null) {
+            target.put(RESOLUTION);
+            // enum constant names are ASCII
+            String name = resolution.name();
+            for (int i = 0; i < name.length(); i++) {
+                target.put((byte) name.charAt(i));
+            }
+            target.put((byte) '"');
+        }
+    }
+
+    private void writeEpisode(int episodeNumber, int durationInMinutes) {
+        target.put(EPISODE_NUMBER);
+        putInt(episodeNumber);
+        target.put(DURATION);
+        putInt(durationInMinutes);
+        target.put((byte) '}');
+    }
+
+    private void putString(String text) {
+        target.put((byte) '"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                target.put((byte) '\\').put((byte) c);
+            } else if (c == '\n') {
+                target.put((byte) '\\').put((byte) 'n');
+            } else if (c == '\t') {
+                target.put((byte) '\\').put((byte) 't');
+            } else if (c == '\r') {
+                target.put((byte) '\\').put((byte) 'r');
+            } else if (c < 0x20) {
+                target.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0')
+                        .put(HEX_DIGITS[c >> 4]).put(HEX_DIGITS[c & 0xF]);
+            } else {
+                i = Utf8.put(target, text, i);
+            }
+        }
+        target.put((byte) '"');
+    }
+
+    // ISO-8601 as LocalDate.toString writes it: years past 9999 need a sign
+    private void putDate(LocalDate date) {
+        int year = date.getYear();
+        if (year > 9999) {
+            target.put((byte) '+');
+        }
+        Utf8.putPaddedInt(target, year, 4);
+        target.put((byte) '-');
+        Utf8.putPaddedInt(target, date.getMonthValue(), 2);
+        target.put((byte) '-');
+        Utf8.putPaddedInt(target, date.getDayOfMonth(), 2);
+    }
+
+    private void putInt(int value) {
+        Utf8.putPaddedInt(target, value, 1);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// UTF-8 written by hand into the target buffer, so that no intermediate byte array is created;
+// a lone surrogate is written as '?' like String.getBytes does
+public final class Utf8 {
+    private Utf8() {
+    }
+
+    public static int encodedLength(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    public static void put(ByteBuffer target, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            i = put(target, text, i);
+        }
+    }
+
+    // same bytes as String.getBytes(UTF_8)
+    public static byte[] encode(String text) {
+        ByteBuffer target = ByteBuffer.allocate(encodedLength(text));
+        put(target, text);
+        return target.array();
+    }
+
+    // decimal digits, left-padded with zeros to the given number of digits
+    public static void putPaddedInt(ByteBuffer target, int value, int minDigits) {
+        long remaining = value;
+        if (remaining < 0) {
+            target.put((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        int digits = 1;
+        while (divisor * 10 <= remaining || digits < minDigits) {
+            divisor *= 10;
+            digits++;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            target.put((byte) ('0' + remaining / divisor % 10));
+        }
+    }
+
+    // the encoded length as an int followed by the encoded text, with no length limit
+    public static void putLengthPrefixed(ByteBuffer target, String text) {
+        target.putInt(encodedLength(text));
+        put(target, text);
+    }
+
+    public static String getLengthPrefixed(ByteBuffer source) {
+        int length = source.getInt();
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // writes the character at the given index, returns the index of its last char
+    static int put(ByteBuffer target, String text, int index) {
+        char c = text.charAt(index);
+        if (c < 0x80) {
+            target.put((byte) c);
+        } else if (c < 0x800) {
+            target.put((byte) (0xC0 | (c >> 6)))
+                    .put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c) && index + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(index + 1))) {
+            int codePoint = Character.toCodePoint(c, text.charAt(index + 1));
+            target.put((byte) (0xF0 | (codePoint >> 18)))
+                    .put((byte) (0x80 | ((codePoint >> 12) & 0x3F)))
+                    .put((byte) (0x80 | ((codePoint >> 6) & 0x3F)))
+                    .put((byte) (0x80 | (codePoint & 0x3F)));
+            return index + 1;
+        } else if (Character.isSurrogate(c)) {
+            target.put((byte) '?');
+        } else {
+            target.put((byte) (0xE0 | (c >> 12)))
+                    .put((byte) (0x80 | ((c >> 6) & 0x3F)))
+                    .put((byte) (0x80 | (c & 0x3F)));
+        }
+        return index;
+    }
+}
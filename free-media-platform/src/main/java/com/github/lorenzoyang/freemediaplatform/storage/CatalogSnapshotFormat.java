@@ -0,0 +1,35 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+// layout of a catalog snapshot file, all integers are big-endian:
+//
+//   header            MAGIC, VERSION, contents, seasons, episodes, strings (6 x int)
+//   content records   contents x CONTENT_RECORD_SIZE
+//                     type (byte), resolution ordinal or NONE (byte), padding (short),
+//                     title string, description string or NONE, release epoch day or
+//                     NO_RELEASE_DATE, first season, seasons count (5 x int)
+//   season records    seasons x SEASON_RECORD_SIZE: first episode, episodes count (2 x int)
+//   episode records   episodes x EPISODE_RECORD_SIZE: duration in minutes (int)
+//   title index       contents x TITLE_INDEX_RECORD_SIZE: content index (int), in the
+//                     unsigned byte order of the UTF-8 titles
+//   string offsets    (strings + 1) x int, offsets into the string data
+//   string data       UTF-8 bytes
+//
+// a movie is stored as a single season holding its only episode; season and episode
+// numbers are not stored since builders require them to be consecutive from 1
+final class CatalogSnapshotFormat {
+    static final int MAGIC = 0x464D5053; // "FMPS"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 6 * Integer.BYTES;
+    static final int CONTENT_RECORD_SIZE = 4 + 5 * Integer.BYTES;
+    static final int SEASON_RECORD_SIZE = 2 * Integer.BYTES;
+    static final int EPISODE_RECORD_SIZE = Integer.BYTES;
+    static final int TITLE_INDEX_RECORD_SIZE = Integer.BYTES;
+
+    static final byte MOVIE = 0;
+    static final byte TV_SERIES = 1;
+    static final int NONE = -1;
+    static final int NO_RELEASE_DATE = Integer.MIN_VALUE;
+
+    private CatalogSnapshotFormat() {
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.serialization.Utf8;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+import static com.github.lorenzoyang.freemediaplatform.storage.CatalogSnapshotFormat.*;
+
+public class CatalogSnapshotWriter {
+    private final List<Content> contents = new ArrayList<>();
+    private final List<Integer> seasonRecords = new ArrayList<>();
+    private final List<Integer> episodeDurations = new ArrayList<>();
+    private final List<byte[]> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private long stringDataSize = 0;
+
+    private CatalogSnapshotWriter() {
+    }
+
+    // the file is written next to the target and then moved over it, so readers see either
+    // the previous snapshot or the complete new one
+    public static void write(Iterable<Content> contents, Path file) throws IOException {
+        Objects.requireNonNull(contents, "Contents cannot be null");
+        Objects.requireNonNull(file, "File cannot be null");
+        var writer = new CatalogSnapshotWriter();
+        contents.forEach(writer.contents::add);
+
+        Path directory = file.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+                OutputStream stream = Channels.newOutputStream(channel);
+                var output = new DataOutputStream(new BufferedOutputStream(stream));
+                writer.writeTo(output);
+                output.flush();
+                channel.force(true);
+            }
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private void writeTo(DataOutputStream output) throws IOException {
+        var records = new ArrayList<int[]>(contents.size());
+        var types = new byte[contents.size()];
+        for (int i = 0; i < contents.size(); i++) {
+            Content content = contents.get(i);
+            int firstSeason = seasonRecords.size() / 2;
+            types[i] = content.accept(seasonCollector);
+            records.add(new int[]{
+                    content.getResolution().map(Enum::ordinal).orElse(NONE),
+                    stringId(content.getTitle()),
+                    content.getDescription().map(this::stringId).orElse(NONE),
+                    content.getReleaseDate().map(date -> Math.toIntExact(date.toEpochDay())).orElse(NO_RELEASE_DATE),
+                    firstSeason,
+                    seasonRecords.size() / 2 - firstSeason
+            });
+        }
+        if (HEADER_SIZE + (long) contents.size() * (CONTENT_RECORD_SIZE + TITLE_INDEX_RECORD_SIZE)
+                + seasonRecords.size() * (long) Integer.BYTES + episodeDurations.size() * (long) EPISODE_RECORD_SIZE
+                + (strings.size() + 1L) * Integer.BYTES + stringDataSize > Integer.MAX_VALUE) {
+            throw new IOException("Catalog is too large for a single snapshot file");
+        }
+
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(contents.size());
+        output.writeInt(seasonRecords.size() / 2);
+        output.writeInt(episodeDurations.size());
+        output.writeInt(strings.size());
+
+        for (int i = 0; i < records.size(); i++) {
+            int[] record = records.get(i);
+            output.writeByte(types[i]);
+            output.writeByte(record[0]);
+            output.writeShort(0);
+            for (int j = 1; j < record.length; j++) {
+                output.writeInt(record[j]);
+            }
+        }
+        for (int value : seasonRecords) {
+            output.writeInt(value);
+        }
+        for (int duration : episodeDurations) {
+            output.writeInt(duration);
+        }
+        Integer[] titleIndex = new Integer[records.size()];
+        Arrays.setAll(titleIndex, i -> i);
+        Arrays.sort(titleIndex, (i, j) -> Arrays.compareUnsigned(strings.get(records.get(i)[1]),
+                strings.get(records.get(j)[1])));
+        for (int index : titleIndex) {
+            output.writeInt(index);
+        }
+        int offset = 0;
+        for (byte[] string : strings) {
+            output.writeInt(offset);
+            offset += string.length;
+        }
+        output.writeInt(offset);
+        for (byte[] string : strings) {
+            output.write(string);
+        }
+    }
+
+    private int stringId(String string) {
+        return stringIds.computeIfAbsent(string, s -> {
+            byte[] bytes = Utf8.encode(s);
+            strings.add(bytes);
+            stringDataSize += bytes.length;
+            return strings.size() - 1;
+        });
+    }
+
+    private void addSeason(Iterable<Episode> episodes) {
+        seasonRecords.add(episodeDurations.size());
+        int count = 0;
+        for (Episode episode : episodes) {
+            episodeDurations.add(episode.getDurationInMinutes());
+            count++;
+        }
+        seasonRecords.add(count);
+    }
+
+    private final ContentVisitor<Byte> seasonCollector = new ContentVisitor<>() {
+        @Override
+        public Byte visitMovie(Movie movie) {
+            addSeason(List.of(movie.getEpisode()));
+            return MOVIE;
+        }
+
+        @Override
+        public Byte visitTVSeries(TVSeries tvSeries) {
+            tvSeries.forEach(season -> addSeason(season));
+            return TV_SERIES;
+        }
+    };
+}
@@ -0,0 +1,10 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+public enum Durability {
+    // every event is forced to disk before the mutation returns
+    SYNC,
+    // the mutation waits for a force shared with the events appended while the previous one ran
+    GROUP_COMMIT,
+    // the mutation returns right away, events are forced every commit interval
+    ASYNC
+}
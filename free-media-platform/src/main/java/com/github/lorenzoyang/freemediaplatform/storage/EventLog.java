@@ -0,0 +1,645 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+import com.github.lorenzoyang.freemediaplatform.CatalogSnapshot;
+import com.github.lorenzoyang.freemediaplatform.PlatformObserver;
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+// append-only log of the catalog mutations, each record is framed as length, CRC32, payload.
+// the initial catalog (LoadContentEvent) is not logged: the state of the platform is the
+// snapshot it starts from plus the replay of this log. Events are written when the platform
+// notifies them and awaited to be durable when it commits, after releasing its lock.
+// Recovery: the platform is built from recover(snapshotFile, initialCatalog) as its content
+// provider, then the log is added as its observer, and checkpoint(platform, snapshotFile)
+// is called from time to time so that the log does not grow forever:
+//   var platform = new StreamingPlatform(name, log.recover(snapshotFile, initialCatalog));
+//   platform.addObserver(log);
+public class EventLog implements PlatformObserver, AutoCloseable {
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final Set<Class<? extends PlatformEvent>> SUBSCRIBED_EVENT_TYPES = Set.of(
+            AddContentEvent.class, RemoveContentEvent.class, UpdateContentEvent.class, BatchContentEvent.class);
+
+    private final Path file;
+    private final Durability durability;
+    private final long commitIntervalNanos;
+    private final int compactionThreshold;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private FileChannel channel;
+    private long appendedPosition;
+    // every record before this position has been forced to the device
+    private long durablePosition;
+    // incremented by every rewrite, which makes the whole file durable at once
+    private long generation;
+    // a force runs without the lock, the channel is not replaced meanwhile
+    private boolean forcing = false;
+    private long forcesCount;
+    // a compaction or a checkpoint reads and rewrites the log without the lock
+    private boolean rewriting = false;
+    // the last record appended and where it starts: the platform may still abort its event until
+    // the next one is appended, so a rewrite only reads the records before it
+    private PlatformEvent abortableEvent;
+    private long abortablePosition;
+    private int recordsCount;
+    private int nextCompaction;
+    private boolean closed = false;
+    // the reason the flusher stopped, appends fail from then on instead of waiting for it
+    private Exception flusherFailure;
+    private volatile StreamingPlatformException lastCompactionFailure;
+    private final Thread flusher;
+
+    private EventLog(EventLogBuilder builder) throws IOException {
+        this.file = builder.file;
+        this.durability = builder.durability;
+        this.commitIntervalNanos = builder.commitInterval.toNanos();
+        this.compactionThreshold = builder.compactionThreshold;
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        // a crash can leave a torn record at the end, it is dropped with everything after it
+        List<EventLogRecord> records = new ArrayList<>();
+        this.appendedPosition = readRecords(channel, channel.size(), records);
+        channel.truncate(appendedPosition);
+        channel.position(appendedPosition);
+        this.durablePosition = appendedPosition;
+        this.recordsCount = records.size();
+        this.nextCompaction = compactionThreshold;
+
+        this.flusher = new Thread(this::flushLoop, "event-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public Set<Class<? extends PlatformEvent>> getSubscribedEventTypes() {
+        return SUBSCRIBED_EVENT_TYPES;
+    }
+
+    // a mutation that cannot be logged must fail the publisher instead of being skipped
+    @Override
+    public boolean isCritical() {
+        return true;
+    }
+
+    @Override
+    public void notifyChange(PlatformEvent event) {
+        EventLogRecord record = EventLogRecord.of(event);
+        if (!record.isEmpty()) {
+            append(event, record);
+        }
+    }
+
+    // the record of the rejected event is the last one appended, it is truncated; once it has
+    // been forced the truncation is forced too, so that a restart does not replay it
+    @Override
+    public void abort(PlatformEvent event) {
+        lock.lock();
+        try {
+            awaitForce();
+            if (event != abortableEvent) {
+                return;
+            }
+            checkOpen();
+            channel.truncate(abortablePosition);
+            if (durablePosition > abortablePosition) {
+                channel.force(true);
+                durablePosition = abortablePosition;
+            }
+            appendedPosition = abortablePosition;
+            recordsCount--;
+            abortableEvent = null;
+        } catch (IOException e) {
+            throw new StreamingPlatformException("Event log write failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the record is only written here, under the lock of the platform, and commit waits for it
+    // to be durable
+    private void append(PlatformEvent event, EventLogRecord record) {
+        ByteBuffer buffer = frame(record);
+        lock.lock();
+        try {
+            checkOpen();
+            abortableEvent = null;
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            abortableEvent = event;
+            abortablePosition = appendedPosition;
+            appendedPosition += buffer.capacity();
+            recordsCount++;
+
+            if (recordsCount >= nextCompaction || durability == Durability.GROUP_COMMIT) {
+                pending.signal();
+            }
+        } catch (IOException e) {
+            throw new StreamingPlatformException("Event log write failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // waits until every record appended before the call is durable, whichever thread appended
+    // it; the platform calls it without its lock, so the records of concurrent mutations are
+    // covered by the same force. Events notified outside of a platform are only guaranteed to be
+    // durable once this returns
+    @Override
+    public void commit() {
+        if (durability == Durability.ASYNC) {
+            return;
+        }
+        lock.lock();
+        try {
+            long target = appendedPosition;
+            long appendedGeneration = generation;
+            // while the flusher compacts, the committers force the log themselves
+            while (durablePosition < target && generation == appendedGeneration) {
+                checkOpen();
+                if ((durability == Durability.SYNC || rewriting) && !forcing) {
+                    force();
+                } else {
+                    durable.awaitUninterruptibly();
+                }
+            }
+        } catch (IOException e) {
+            throw new StreamingPlatformException("Event log write failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ByteBuffer frame(EventLogRecord record) {
+        byte[] payload = record.encode();
+        var crc = new CRC32();
+        crc.update(payload);
+        return ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+    }
+
+    // forces the records of the group commit and of the asynchronous durability, and compacts
+    // the log in the background once it reaches the threshold
+    private void flushLoop() {
+        lock.lock();
+        try {
+            while (!closed) {
+                if (recordsCount >= nextCompaction && !rewriting) {
+                    lock.unlock();
+                    try {
+                        compactInBackground();
+                    } finally {
+                        lock.lock();
+                    }
+                } else if (durability == Durability.SYNC || durablePosition == appendedPosition || forcing) {
+                    pending.awaitNanos(commitIntervalNanos);
+                } else {
+                    if (durability == Durability.ASYNC) {
+                        pending.awaitNanos(commitIntervalNanos);
+                    }
+                    force();
+                }
+            }
+        } catch (InterruptedException | IOException | RuntimeException e) {
+            // the committers waiting for the flusher fail instead of waiting forever
+            flusherFailure = e;
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // a failed compaction leaves the log as it was, it is attempted again once the log doubles
+    // and the failure is kept for getLastCompactionFailure
+    private void compactInBackground() {
+        try {
+            compact();
+        } catch (StreamingPlatformException e) {
+            lock.lock();
+            try {
+                nextCompaction = Math.max(compactionThreshold, 2 * recordsCount);
+            } finally {
+                lock.unlock();
+            }
+            lastCompactionFailure = e;
+        }
+    }
+
+    // called with the lock held, which is released while the channel is forced
+    private void force() throws IOException {
+        if (closed || forcing || durablePosition >= appendedPosition) {
+            return;
+        }
+        long target = appendedPosition;
+        FileChannel forcedChannel = channel;
+        forcing = true;
+        lock.unlock();
+        boolean forced = false;
+        try {
+            forcedChannel.force(false);
+            forced = true;
+            forcesCount++;
+        } finally {
+            lock.lock();
+            forcing = false;
+            if (forced) {
+                durablePosition = target;
+            }
+            durable.signalAll();
+        }
+    }
+
+    private void awaitForce() {
+        while (forcing) {
+            durable.awaitUninterruptibly();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new StreamingPlatformException("Event log is closed");
+        }
+        if (flusherFailure != null) {
+            throw new StreamingPlatformException("Event log flusher has stopped", flusherFailure);
+        }
+    }
+
+    // the contents of the snapshot with every logged mutation applied in order
+    public List<Content> replay(Iterable<Content> snapshot) {
+        Objects.requireNonNull(snapshot, "Snapshot cannot be null");
+        Map<String, Content> state = new LinkedHashMap<>();
+        snapshot.forEach(content -> state.putIfAbsent(content.getTitle(), content));
+
+        List<EventLogRecord> records = new ArrayList<>();
+        lock.lock();
+        try {
+            checkOpen();
+            readRecords(channel, appendedPosition, records);
+        } catch (IOException e) {
+            throw new StreamingPlatformException("Event log read failed", e);
+        } finally {
+            lock.unlock();
+        }
+        records.forEach(record -> record.applyTo(state));
+        return new ArrayList<>(state.values());
+    }
+
+    // the last failure of the compactions run by the flusher, the explicit ones throw it
+    public Optional<StreamingPlatformException> getLastCompactionFailure() {
+        return Optional.ofNullable(lastCompactionFailure);
+    }
+
+    // content provider of a platform recovering from this log: the snapshot file written by the
+    // last checkpoint, or the initial catalog when there was none yet, with the log replayed
+    public Supplier<Collection<Content>> recover(Path snapshotFile, Supplier<Collection<Content>> initialCatalog) {
+        Objects.requireNonNull(snapshotFile, "Snapshot file cannot be null");
+        Objects.requireNonNull(initialCatalog, "Initial catalog cannot be null");
+        return () -> {
+            if (!Files.exists(snapshotFile)) {
+                return replay(initialCatalog.get());
+            }
+            try {
+                return replay(MappedCatalogSnapshot.open(snapshotFile));
+            } catch (IOException e) {
+                throw new StreamingPlatformException("Catalog snapshot read failed", e);
+            }
+        };
+    }
+
+    // rewrites the log with one record per title holding its latest state; a title removed
+    // and added again keeps its removal so replay moves it last as the platform did. The last
+    // record is kept as it is, the platform could still reject its event.
+    // Runs on the flusher thread once the compaction threshold is reached, the appends go on
+    // meanwhile and only the records they wrote are copied under the lock
+    public void compact() {
+        Rewrite rewrite = startRewrite(false);
+        try {
+            Map<String, CompactedTitle> titles = new LinkedHashMap<>();
+            List<EventLogRecord> compactedRecords = new ArrayList<>();
+            readRecords(rewrite.channel, rewrite.position, compactedRecords);
+            for (EventLogRecord record : compactedRecords) {
+                for (int i = 0; i < record.getTitles().size(); i++) {
+                    String title = record.getTitles().get(i);
+                    Content content = record.getContents().get(i);
+                    CompactedTitle compacted = titles.get(title);
+                    if (compacted != null && (compacted.content != null || content == null)) {
+                        compacted.content = content;
+                        compacted.removed |= content == null;
+                    } else {
+                        titles.remove(title);
+                        titles.put(title, new CompactedTitle(content, compacted != null || content == null));
+                    }
+                }
+            }
+
+            List<EventLogRecord> records = new ArrayList<>();
+            titles.forEach((title, compacted) -> {
+                var record = new EventLogRecord();
+                if (compacted.removed) {
+                    record.remove(title);
+                }
+                if (compacted.content != null) {
+                    record.put(compacted.content);
+                }
+                records.add(record);
+            });
+            rewrite(rewrite, records);
+        } catch (IOException e) {
+            throw new StreamingPlatformException("Event log compaction failed", e);
+        } finally {
+            finishRewrite();
+        }
+    }
+
+    // writes the catalog of the platform to the snapshot file and drops the records it already
+    // contains. The catalog is taken under the lock of the platform, where every event notified
+    // so far has been accepted, and the mutations go on while the snapshot is written. After a
+    // crash between the two steps the whole log is replayed over the new snapshot, which leaves
+    // it unchanged. A running compaction is waited for before taking the lock of the platform,
+    // so that the mutations are not held up by it
+    public void checkpoint(StreamingPlatform platform, Path snapshotFile) {
+        Objects.requireNonNull(platform, "Platform cannot be null");
+        Objects.requireNonNull(snapshotFile, "Snapshot file cannot be null");
+        Map.Entry<CatalogSnapshot, Rewrite> start;
+        do {
+            awaitRewrite();
+            // another rewrite may have started meanwhile, it is waited for again
+            start = platform.withCatalogSnapshot(catalog -> {
+                Rewrite rewrite = tryStartRewrite(true);
+                return rewrite != null ? Map.entry(catalog, rewrite) : null;
+            });
+        } while (start == null);
+        try {
+            CatalogSnapshotWriter.write(start.getKey(), snapshotFile);
+            rewrite(start.getValue(), List.of());
+        } catch (IOException e) {
+            throw new StreamingPlatformException("Event log checkpoint failed", e);
+        } finally {
+            finishRewrite();
+        }
+    }
+
+    private Rewrite startRewrite(boolean lastEventAccepted) {
+        Rewrite rewrite;
+        while ((rewrite = tryStartRewrite(lastEventAccepted)) == null) {
+            awaitRewrite();
+        }
+        return rewrite;
+    }
+
+    private void awaitRewrite() {
+        lock.lock();
+        try {
+            while (rewriting) {
+                checkOpen();
+                durable.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // one rewrite at a time, it starts from the records appended so far, but for the last one
+    // while its event may still be aborted; null while another rewrite is running
+    private Rewrite tryStartRewrite(boolean lastEventAccepted) {
+        lock.lock();
+        try {
+            checkOpen();
+            if (rewriting) {
+                return null;
+            }
+            rewriting = true;
+            if (lastEventAccepted) {
+                abortableEvent = null;
+            }
+            return abortableEvent != null
+                    ? new Rewrite(channel, abortablePosition, recordsCount - 1)
+                    : new Rewrite(channel, appendedPosition, recordsCount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finishRewrite() {
+        lock.lock();
+        try {
+            rewriting = false;
+            durable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // the records are written and forced to a temporary file, then the records appended since
+    // the rewrite started are copied and forced under the lock and the file replaces the log;
+    // the current channel is only closed once the new file is in place, so a failure leaves
+    // the log usable as it was
+    private void rewrite(Rewrite rewrite, List<EventLogRecord> records) throws IOException {
+        Path temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(),
+                file.getFileName().toString(), ".tmp");
+        try (FileChannel output = FileChannel.open(temporaryFile, StandardOpenOption.WRITE)) {
+            for (EventLogRecord record : records) {
+                ByteBuffer buffer = frame(record);
+                while (buffer.hasRemaining()) {
+                    output.write(buffer);
+                }
+            }
+            output.force(true);
+
+            lock.lock();
+            try {
+                checkOpen();
+                awaitForce();
+                long position = rewrite.position;
+                while (position < appendedPosition) {
+                    position += channel.transferTo(position, appendedPosition - position, output);
+                }
+                output.force(true);
+                Files.move(temporaryFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                FileChannel rewritten = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                channel.close();
+                channel = rewritten;
+                // the abortable record was copied last
+                abortablePosition = channel.size() - (appendedPosition - abortablePosition);
+                appendedPosition = channel.size();
+                durablePosition = appendedPosition;
+                channel.position(appendedPosition);
+                recordsCount = records.size() + recordsCount - rewrite.recordsCount;
+                nextCompaction = Math.max(compactionThreshold, 2 * records.size());
+                generation++;
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    // reads the records before the given position and stops at the first one that is incomplete
+    // or does not match its checksum, returns the position right after the last record read
+    private static long readRecords(FileChannel channel, long size, List<EventLogRecord> records)
+            throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE);
+        long position = 0;
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            while (header.hasRemaining()) {
+                channel.read(header, position + header.position());
+            }
+            int length = header.getInt(0);
+            if (length < 0 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            while (payload.hasRemaining()) {
+                channel.read(payload, position + RECORD_HEADER_SIZE + payload.position());
+            }
+            var crc = new CRC32();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != header.getInt(Integer.BYTES)) {
+                break;
+            }
+            records.add(EventLogRecord.decode(payload.array()));
+            position += RECORD_HEADER_SIZE + length;
+        }
+        return position;
+    }
+
+    // package-private getter for testing purposes
+    int getRecordsCount() {
+        lock.lock();
+        try {
+            return recordsCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // package-private getter for testing purposes
+    long getForcesCount() {
+        lock.lock();
+        try {
+            return forcesCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // package-private getter for testing purposes
+    boolean isDurable() {
+        lock.lock();
+        try {
+            return durablePosition == appendedPosition;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // package-private getter for testing purposes
+    Thread getFlusher() {
+        return flusher;
+    }
+
+    // forces the pending records and releases the file
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            while (durablePosition < appendedPosition) {
+                awaitForce();
+                force();
+            }
+            closed = true;
+            pending.signalAll();
+            durable.signalAll();
+            channel.close();
+        } catch (IOException e) {
+            throw new StreamingPlatformException("Event log write failed", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class Rewrite {
+        private final FileChannel channel;
+        private final long position;
+        private final int recordsCount;
+
+        private Rewrite(FileChannel channel, long position, int recordsCount) {
+            this.channel = channel;
+            this.position = position;
+            this.recordsCount = recordsCount;
+        }
+    }
+
+    private static class CompactedTitle {
+        private Content content;
+        private boolean removed;
+
+        private CompactedTitle(Content content, boolean removed) {
+            this.content = content;
+            this.removed = removed;
+        }
+    }
+
+    public static class EventLogBuilder {
+        private final Path file;
+        private Durability durability = Durability.GROUP_COMMIT;
+        private Duration commitInterval = Duration.ofMillis(10);
+        private int compactionThreshold = 10_000;
+
+        public EventLogBuilder(Path file) {
+            this.file = Objects.requireNonNull(file, "File cannot be null");
+        }
+
+        public EventLogBuilder withDurability(Durability durability) {
+            this.durability = Objects.requireNonNull(durability, "Durability cannot be null");
+            return this;
+        }
+
+        public EventLogBuilder withCommitInterval(Duration commitInterval) {
+            Objects.requireNonNull(commitInterval, "Commit interval cannot be null");
+            if (commitInterval.isNegative() || commitInterval.isZero()) {
+                throw new IllegalArgumentException("Commit interval must be positive");
+            }
+            this.commitInterval = commitInterval;
+            return this;
+        }
+
+        // the log is compacted once it holds this many records, and then again once it has
+        // doubled in size since the last compaction
+        public EventLogBuilder withCompactionThreshold(int compactionThreshold) {
+            if (compactionThreshold <= 0) {
+                throw new IllegalArgumentException("Compaction threshold must be a positive integer greater than 0");
+            }
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        public EventLog build() throws IOException {
+            return new EventLog(this);
+        }
+    }
+}
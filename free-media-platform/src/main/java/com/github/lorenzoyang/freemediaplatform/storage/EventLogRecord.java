@@ -0,0 +1,135 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import com.github.lorenzoyang.freemediaplatform.serialization.BinaryContentDecoder;
+import com.github.lorenzoyang.freemediaplatform.serialization.BinaryContentEncoder;
+import com.github.lorenzoyang.freemediaplatform.serialization.Utf8;
+import com.github.lorenzoyang.freemediaplatform.utils.PlatformEventVisitorAdapter;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// the operations of one event: a batch is a single record, so it is replayed all or nothing.
+// a record only stores the resulting state of each title (a content, or null once removed),
+// replaying it again over a state that already contains it leaves the state unchanged
+final class EventLogRecord {
+    private static final int INITIAL_BYTES_PER_OPERATION = 256;
+
+    private final List<String> titles = new ArrayList<>();
+    private final List<Content> contents = new ArrayList<>();
+
+    static EventLogRecord of(PlatformEvent event) {
+        var record = new EventLogRecord();
+        event.accept(new PlatformEventVisitorAdapter() {
+            @Override
+            public void visitAddContent(AddContentEvent event) {
+                record.put(event.getAddedContent());
+            }
+
+            @Override
+            public void visitRemoveContent(RemoveContentEvent event) {
+                record.remove(event.getRemovedContent().getTitle());
+            }
+
+            @Override
+            public void visitUpdateContent(UpdateContentEvent event) {
+                record.put(event.getUpdatedContent());
+            }
+        });
+        return record;
+    }
+
+    void put(Content content) {
+        titles.add(content.getTitle());
+        contents.add(content);
+    }
+
+    void remove(String title) {
+        titles.add(title);
+        contents.add(null);
+    }
+
+    boolean isEmpty() {
+        return titles.isEmpty();
+    }
+
+    // same semantics as the catalog: an update keeps the position, a re-added title moves last
+    void applyTo(Map<String, Content> state) {
+        for (int i = 0; i < titles.size(); i++) {
+            if (contents.get(i) == null) {
+                state.remove(titles.get(i));
+            } else {
+                state.put(titles.get(i), contents.get(i));
+            }
+        }
+    }
+
+    List<String> getTitles() {
+        return titles;
+    }
+
+    List<Content> getContents() {
+        return contents;
+    }
+
+    // a removal is the length-prefixed UTF-8 title, a content is encoded by BinaryContentEncoder;
+    // the buffer grows until the whole record fits
+    byte[] encode() {
+        int capacity = Integer.BYTES + INITIAL_BYTES_PER_OPERATION * titles.size();
+        while (true) {
+            ByteBuffer output = ByteBuffer.allocate(capacity);
+            try {
+                write(output);
+                return Arrays.copyOf(output.array(), output.position());
+            } catch (BufferOverflowException e) {
+                capacity *= 2;
+            }
+        }
+    }
+
+    private void write(ByteBuffer output) {
+        var encoder = new BinaryContentEncoder(output);
+        output.putInt(titles.size());
+        for (int i = 0; i < titles.size(); i++) {
+            Content content = contents.get(i);
+            if (content == null) {
+                output.put((byte) 0);
+                Utf8.putLengthPrefixed(output, titles.get(i));
+            } else {
+                output.put((byte) 1);
+                content.accept(encoder);
+            }
+        }
+    }
+
+    // a record that matches its checksum but not the format (e.g. written by another version)
+    // is reported as malformed
+    static EventLogRecord decode(byte[] payload) throws IOException {
+        var input = ByteBuffer.wrap(payload);
+        var record = new EventLogRecord();
+        try {
+            int operations = input.getInt();
+            for (int i = 0; i < operations; i++) {
+                if (input.get() != 0) {
+                    record.put(BinaryContentDecoder.decode(input));
+                } else {
+                    record.remove(Utf8.getLengthPrefixed(input));
+                }
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | StreamingPlatformException e) {
+            throw new IOException("Malformed event log record", e);
+        }
+        return record;
+    }
+}
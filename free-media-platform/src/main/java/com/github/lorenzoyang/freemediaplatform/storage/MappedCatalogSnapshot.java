@@ -0,0 +1,243 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+import com.github.lorenzoyang.freemediaplatform.ContentLoader;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import com.github.lorenzoyang.freemediaplatform.serialization.Utf8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+
+import static com.github.lorenzoyang.freemediaplatform.storage.CatalogSnapshotFormat.*;
+
+// read-only view of a snapshot file mapped in memory: opening only validates the header,
+// each content is decoded when it is requested and a title is looked up on the mapped bytes
+public class MappedCatalogSnapshot implements ContentLoader, Iterable<Content> {
+    private final ByteBuffer buffer;
+    private final int contentsCount;
+    private final int seasonsCount;
+    private final int episodesCount;
+    private final int stringsCount;
+    private final int contentRecordsOffset;
+    private final int seasonRecordsOffset;
+    private final int episodeRecordsOffset;
+    private final int titleIndexOffset;
+    private final int stringOffsetsOffset;
+    private final int stringDataOffset;
+
+    private MappedCatalogSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new StreamingPlatformException("Invalid catalog snapshot file");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new StreamingPlatformException("Unsupported catalog snapshot version");
+        }
+        this.contentsCount = buffer.getInt(2 * Integer.BYTES);
+        this.seasonsCount = buffer.getInt(3 * Integer.BYTES);
+        this.episodesCount = buffer.getInt(4 * Integer.BYTES);
+        this.stringsCount = buffer.getInt(5 * Integer.BYTES);
+        if (contentsCount < 0 || seasonsCount < 0 || episodesCount < 0 || stringsCount < 0) {
+            throw new StreamingPlatformException("Invalid catalog snapshot file");
+        }
+
+        // the sections are laid out in long arithmetic, corrupted counts cannot wrap around
+        long seasonRecords = HEADER_SIZE + (long) contentsCount * CONTENT_RECORD_SIZE;
+        long episodeRecords = seasonRecords + (long) seasonsCount * SEASON_RECORD_SIZE;
+        long titleIndex = episodeRecords + (long) episodesCount * EPISODE_RECORD_SIZE;
+        long stringOffsets = titleIndex + (long) contentsCount * TITLE_INDEX_RECORD_SIZE;
+        long stringData = stringOffsets + (stringsCount + 1L) * Integer.BYTES;
+        if (stringData > buffer.capacity() ||
+                stringData + buffer.getInt((int) stringData - Integer.BYTES) != buffer.capacity()) {
+            throw new StreamingPlatformException("Invalid catalog snapshot file");
+        }
+        this.contentRecordsOffset = HEADER_SIZE;
+        this.seasonRecordsOffset = (int) seasonRecords;
+        this.episodeRecordsOffset = (int) episodeRecords;
+        this.titleIndexOffset = (int) titleIndex;
+        this.stringOffsetsOffset = (int) stringOffsets;
+        this.stringDataOffset = (int) stringData;
+    }
+
+    public static MappedCatalogSnapshot open(Path file) throws IOException {
+        Objects.requireNonNull(file, "File cannot be null");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // a snapshot is written as a single mapping
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new StreamingPlatformException("Invalid catalog snapshot file");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCatalogSnapshot(buffer);
+        }
+    }
+
+    public int size() {
+        return contentsCount;
+    }
+
+    public String getTitle(int index) {
+        return string(buffer.getInt(record(index) + 4));
+    }
+
+    // a binary search of the title index, comparing the UTF-8 bytes in place: only the
+    // content found is decoded
+    public Optional<Content> get(String title) {
+        Objects.requireNonNull(title, "Title cannot be null");
+        byte[] encodedTitle = Utf8.encode(title);
+        int low = 0;
+        int high = contentsCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int index = buffer.getInt(titleIndexOffset + middle * TITLE_INDEX_RECORD_SIZE);
+            if (index < 0 || index >= contentsCount) {
+                throw new StreamingPlatformException("Invalid catalog snapshot record");
+            }
+            int comparison = compareString(buffer.getInt(record(index) + 4), encodedTitle);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return Optional.of(getContent(index));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public Content getContent(int index) {
+        int record = record(index);
+        byte type = buffer.get(record);
+        byte resolution = buffer.get(record + 1);
+        String title = string(buffer.getInt(record + 4));
+        int description = buffer.getInt(record + 8);
+        int releaseEpochDay = buffer.getInt(record + 12);
+        int firstSeason = buffer.getInt(record + 16);
+        int seasonsCount = buffer.getInt(record + 20);
+
+        if (firstSeason < 0 || seasonsCount < 1 || firstSeason > this.seasonsCount - seasonsCount
+                || type != MOVIE && type != TV_SERIES || type == MOVIE && seasonsCount != 1
+                || resolution != NONE && (resolution < 0 || resolution >= VideoResolution.values().length)) {
+            throw new StreamingPlatformException("Invalid catalog snapshot record");
+        }
+        String descriptionValue = description != NONE ? string(description) : null;
+        LocalDate releaseDate = releaseEpochDay != NO_RELEASE_DATE ? LocalDate.ofEpochDay(releaseEpochDay) : null;
+        VideoResolution resolutionValue = resolution != NONE ? VideoResolution.values()[resolution] : null;
+
+        if (type == MOVIE) {
+            List<Episode> episodes = season(firstSeason);
+            if (episodes.size() != 1) {
+                throw new StreamingPlatformException("Invalid catalog snapshot record");
+            }
+            return new Movie.MovieBuilder(title, episodes.get(0))
+                    .withDescription(descriptionValue)
+                    .withReleaseDate(releaseDate)
+                    .withResolution(resolutionValue)
+                    .build();
+        }
+        var builder = new TVSeries.TVSeriesBuilder(title, new Season(1, season(firstSeason)))
+                .withDescription(descriptionValue)
+                .withReleaseDate(releaseDate)
+                .withResolution(resolutionValue);
+        for (int i = 1; i < seasonsCount; i++) {
+            builder.withSeason(new Season(i + 1, season(firstSeason + i)));
+        }
+        return builder.build();
+    }
+
+    @Override
+    public Iterator<Content> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                return next < contentsCount;
+            }
+
+            @Override
+            public Content next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return getContent(next++);
+            }
+        };
+    }
+
+    @Override
+    public Iterator<Content> openStream() {
+        return iterator();
+    }
+
+    @Override
+    public OptionalLong getExpectedCount() {
+        return OptionalLong.of(contentsCount);
+    }
+
+    private int record(int index) {
+        Objects.checkIndex(index, contentsCount);
+        return contentRecordsOffset + index * CONTENT_RECORD_SIZE;
+    }
+
+    private List<Episode> season(int season) {
+        int record = seasonRecordsOffset + season * SEASON_RECORD_SIZE;
+        int firstEpisode = buffer.getInt(record);
+        int episodesCount = buffer.getInt(record + Integer.BYTES);
+        if (firstEpisode < 0 || episodesCount < 0 || firstEpisode > this.episodesCount - episodesCount) {
+            throw new StreamingPlatformException("Invalid catalog snapshot record");
+        }
+        List<Episode> episodes = new ArrayList<>(episodesCount);
+        for (int i = 0; i < episodesCount; i++) {
+            int duration = buffer.getInt(episodeRecordsOffset + (firstEpisode + i) * EPISODE_RECORD_SIZE);
+            episodes.add(new Episode(i + 1, duration));
+        }
+        return episodes;
+    }
+
+    private String string(int id) {
+        byte[] bytes = new byte[stringLength(id)];
+        int start = stringStart(id);
+        buffer.duplicate().position(stringDataOffset + start).get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // the unsigned byte order the title index is sorted in
+    private int compareString(int id, byte[] other) {
+        int length = stringLength(id);
+        int start = stringDataOffset + stringStart(id);
+        for (int i = 0; i < Math.min(length, other.length); i++) {
+            int comparison = Byte.compareUnsigned(buffer.get(start + i), other[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, other.length);
+    }
+
+    // the offsets of a string and of the next one bound it within the string data
+    private int stringLength(int id) {
+        int length = stringStart(id + 1) - stringStart(id);
+        if (length < 0) {
+            throw new StreamingPlatformException("Invalid catalog snapshot record");
+        }
+        return length;
+    }
+
+    private int stringStart(int id) {
+        if (id < 0 || id > stringsCount) {
+            throw new StreamingPlatformException("Invalid catalog snapshot record");
+        }
+        int start = buffer.getInt(stringOffsetsOffset + id * Integer.BYTES);
+        if (start < 0 || start > buffer.capacity() - stringDataOffset) {
+            throw new StreamingPlatformException("Invalid catalog snapshot record");
+        }
+        return start;
+    }
+}
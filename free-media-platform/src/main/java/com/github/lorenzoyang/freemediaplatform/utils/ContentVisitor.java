@@ -1,5 +1,6 @@
 package com.github.lorenzoyang.freemediaplatform.utils;
 
+import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.content.Movie;
 import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
 
@@ -7,4 +8,28 @@ public interface ContentVisitor<T> {
     T visitMovie(Movie movie);
 
     T visitTVSeries(TVSeries tvSeries);
+
+    // a new walk computing the result of this visitor inside a FusedContentVisitor traversal;
+    // by default the visitor is applied to the whole content once the walk completes, so it
+    // takes part in the fusion but still walks the content on its own
+    default ContentWalkVisitor<T> newWalk() {
+        return new ContentWalkVisitor<>() {
+            private Content content;
+
+            @Override
+            public void enterMovie(Movie movie) {
+                content = movie;
+            }
+
+            @Override
+            public void enterTVSeries(TVSeries tvSeries) {
+                content = tvSeries;
+            }
+
+            @Override
+            public T complete() {
+                return content.accept(ContentVisitor.this);
+            }
+        };
+    }
 }
@@ -0,0 +1,54 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.content.Season;
+import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+// receives a content one node at a time instead of walking it: FusedContentVisitor walks the
+// TVSeries -> Season -> Episode graph once and hands every node to the walks of several visitors.
+// A walk is created for a single content and holds the state of that traversal only
+public interface ContentWalkVisitor<T> {
+    default void enterMovie(Movie movie) {
+    }
+
+    default void enterTVSeries(TVSeries tvSeries) {
+    }
+
+    default void enterSeason(Season season) {
+    }
+
+    // an episode of the season entered last
+    default void visitEpisode(Episode episode) {
+    }
+
+    // the result for the content just walked
+    T complete();
+
+    // a visitor walking every content with a new walk from the factory
+    static <T> ContentVisitor<T> visitor(Supplier<? extends ContentWalkVisitor<T>> walks) {
+        Objects.requireNonNull(walks, "Walks cannot be null");
+        return new ContentVisitor<>() {
+            // creates the walks on every visit, so it is shared by all the visits
+            private final FusedContentVisitor traversal = new FusedContentVisitor(this);
+
+            @Override
+            public T visitMovie(Movie movie) {
+                return traversal.visitMovie(movie).get(this);
+            }
+
+            @Override
+            public T visitTVSeries(TVSeries tvSeries) {
+                return traversal.visitTVSeries(tvSeries).get(this);
+            }
+
+            @Override
+            public ContentWalkVisitor<T> newWalk() {
+                return walks.get();
+            }
+        };
+    }
+}
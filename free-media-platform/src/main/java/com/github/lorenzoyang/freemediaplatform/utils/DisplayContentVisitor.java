@@ -1,60 +1,56 @@
 package com.github.lorenzoyang.freemediaplatform.utils;
 
-import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
 import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.content.Season;
 import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
-import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
-
-import java.time.format.DateTimeFormatter;
 
+// the text is produced by DisplayContentWriter, which can also write it to a Writer or a ByteBuffer;
+// every visit and walk writes into its own buffer, so a single visitor can be shared by threads
 public class DisplayContentVisitor implements ContentVisitor<String> {
-    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-yyyy");
-    private static final String DEFAULT_DESCRIPTION = "No description available";
-    private static final String DEFAULT_RELEASE_DATE = "Release date not specified";
-    private static final String INDENT = "  ";
-
     @Override
     public String visitMovie(Movie movie) {
-        return String.format("Movie: %s\n%s",
-                movie.getTitle(),
-                formatCommonContent(movie));
+        var sb = new StringBuilder();
+        movie.accept(new DisplayContentWriter(sb));
+        return sb.toString();
     }
 
     @Override
     public String visitTVSeries(TVSeries tvSeries) {
         var sb = new StringBuilder();
-        sb.append("TV Series: ").append(tvSeries.getTitle()).append("\n");
-        sb.append(formatCommonContent(tvSeries));
-
-        tvSeries.forEach(season -> {
-            sb.append("Season ").append(season.getSeasonNumber()).append("\n");
-            sb.append(INDENT).append("Total Duration: ").append(season.getDurationInMinutes()).append(" minutes\n");
-
-            season.forEach(episode -> sb.append(String.format("%sEpisode %d, Duration: %d minutes\n",
-                    INDENT, episode.getEpisodeNumber(), episode.getDurationInMinutes())));
-        });
-
+        tvSeries.accept(new DisplayContentWriter(sb));
         return sb.toString();
     }
 
-
-    private String formatCommonContent(Content content) {
-        String description = content.getDescription().orElse(DEFAULT_DESCRIPTION);
-        String releaseDate = content.getReleaseDate()
-                .map(DATE_FORMATTER::format)
-                .orElse(DEFAULT_RELEASE_DATE);
-        String resolution = content.getResolution()
-                .map(VideoResolution::getDisplayName)
-                .orElse("Resolution not specified");
-
-        return String.format("%sDescription: %s\n" +
-                        "%sRelease Date: %s\n" +
-                        "%sResolution: %s\n" +
-                        "%sTotal Duration: %d minutes\n",
-                INDENT, description,
-                INDENT, releaseDate,
-                INDENT, resolution,
-                INDENT, content.getDurationInMinutes()
-        );
+    @Override
+    public ContentWalkVisitor<String> newWalk() {
+        var sb = new StringBuilder();
+        var writer = new DisplayContentWriter(sb);
+        return new ContentWalkVisitor<>() {
+            @Override
+            public void enterMovie(Movie movie) {
+                writer.enterMovie(movie);
+            }
+
+            @Override
+            public void enterTVSeries(TVSeries tvSeries) {
+                writer.enterTVSeries(tvSeries);
+            }
+
+            @Override
+            public void enterSeason(Season season) {
+                writer.enterSeason(season);
+            }
+
+            @Override
+            public void visitEpisode(Episode episode) {
+                writer.visitEpisode(episode);
+            }
+
+            @Override
+            public String complete() {
+                return sb.toString();
+            }
+        };
     }
 }
@@ -0,0 +1,245 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.serialization.Utf8;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// writes the DisplayContentVisitor output straight into the target, without formatting
+// through intermediate strings: constant fragments are encoded once, numbers and dates are
+// written digit by digit. A ByteBuffer receives UTF-8 and throws BufferOverflowException
+// when it runs out of space
+public class DisplayContentWriter implements ContentVisitor<Void>, ContentWalkVisitor<Void> {
+    private static final Fragment MOVIE = new Fragment("Movie: ");
+    private static final Fragment TV_SERIES = new Fragment("TV Series: ");
+    private static final Fragment DESCRIPTION = new Fragment("\n  Description: ");
+    private static final Fragment RELEASE_DATE = new Fragment("\n  Release Date: ");
+    private static final Fragment RESOLUTION = new Fragment("\n  Resolution: ");
+    private static final Fragment TOTAL_DURATION = new Fragment("\n  Total Duration: ");
+    private static final Fragment SEASON = new Fragment("Season ");
+    private static final Fragment EPISODE = new Fragment("  Episode ");
+    private static final Fragment EPISODE_DURATION = new Fragment(", Duration: ");
+    private static final Fragment MINUTES = new Fragment(" minutes\n");
+    private static final Fragment DEFAULT_DESCRIPTION = new Fragment("No description available");
+    private static final Fragment DEFAULT_RELEASE_DATE = new Fragment("Release date not specified");
+    private static final Fragment DEFAULT_RESOLUTION = new Fragment("Resolution not specified");
+
+    private final Sink sink;
+
+    // a Writer or a StringBuilder, for instance
+    public DisplayContentWriter(Appendable target) {
+        Objects.requireNonNull(target, "Target cannot be null");
+        this.sink = new AppendableSink(target);
+    }
+
+    public DisplayContentWriter(ByteBuffer target) {
+        Objects.requireNonNull(target, "Target cannot be null");
+        this.sink = new ByteBufferSink(target);
+    }
+
+    @Override
+    public Void visitMovie(Movie movie) {
+        enterMovie(movie);
+        return complete();
+    }
+
+    @Override
+    public Void visitTVSeries(TVSeries tvSeries) {
+        enterTVSeries(tvSeries);
+        for (int seasonNumber = 1; seasonNumber <= tvSeries.getSeasonsCount(); seasonNumber++) {
+            Season season = tvSeries.getSeason(seasonNumber);
+            enterSeason(season);
+            for (int episodeNumber = 1; episodeNumber <= season.getEpisodesCount(); episodeNumber++) {
+                writeEpisode(episodeNumber, season.getEpisodeDuration(episodeNumber));
+            }
+        }
+        return complete();
+    }
+
+    @Override
+    public void enterMovie(Movie movie) {
+        sink.append(MOVIE);
+        writeCommonContent(movie);
+    }
+
+    @Override
+    public void enterTVSeries(TVSeries tvSeries) {
+        sink.append(TV_SERIES);
+        writeCommonContent(tvSeries);
+    }
+
+    @Override
+    public void enterSeason(Season season) {
+        sink.append(SEASON);
+        sink.appendInt(season.getSeasonNumber());
+        sink.append(TOTAL_DURATION);
+        sink.appendInt(season.getDurationInMinutes());
+        sink.append(MINUTES);
+    }
+
+    @Override
+    public void visitEpisode(Episode episode) {
+        writeEpisode(episode.getEpisodeNumber(), episode.getDurationInMinutes());
+    }
+
+    @Override
+    public Void complete() {
+        return null;
+    }
+
+    // the writer appends to its target as it walks
+    @Override
+    public ContentWalkVisitor<Void> newWalk() {
+        return this;
+    }
+
+    private void writeEpisode(int episodeNumber, int durationInMinutes) {
+        sink.append(EPISODE);
+        sink.appendInt(episodeNumber);
+        sink.append(EPISODE_DURATION);
+        sink.appendInt(durationInMinutes);
+        sink.append(MINUTES);
+    }
+
+    private void writeCommonContent(Content content) {
+        sink.append(content.getTitle());
+        sink.append(DESCRIPTION);
+        String description = content.getDescription().orElse(null);
+        if (description != null) {
+            sink.append(description);
+        } else {
+            sink.append(DEFAULT_DESCRIPTION);
+        }
+        sink.append(RELEASE_DATE);
+        LocalDate releaseDate = content.getReleaseDate().orElse(null);
+        if (releaseDate != null) {
+            sink.appendPaddedInt(releaseDate.getDayOfMonth(), 2);
+            sink.append('-');
+            sink.appendPaddedInt(releaseDate.getMonthValue(), 2);
+            sink.append('-');
+            sink.appendPaddedInt(releaseDate.getYear(), 4);
+        } else {
+            sink.append(DEFAULT_RELEASE_DATE);
+        }
+        sink.append(RESOLUTION);
+        VideoResolution resolution = content.getResolution().orElse(null);
+        if (resolution != null) {
+            sink.append(resolution.getDisplayName());
+        } else {
+            sink.append(DEFAULT_RESOLUTION);
+        }
+        sink.append(TOTAL_DURATION);
+        sink.appendInt(content.getDurationInMinutes());
+        sink.append(MINUTES);
+    }
+
+    private static class Fragment {
+        private final String text;
+        private final byte[] utf8;
+
+        private Fragment(String text) {
+            this.text = text;
+            this.utf8 = Utf8.encode(text);
+        }
+    }
+
+    private abstract static class Sink {
+        abstract void append(char c);
+
+        abstract void append(Fragment fragment);
+
+        void append(String text) {
+            for (int i = 0; i < text.length(); i++) {
+                append(text.charAt(i));
+            }
+        }
+
+        void appendInt(int value) {
+            appendPaddedInt(value, 1);
+        }
+
+        void appendPaddedInt(int value, int minDigits) {
+            long remaining = value;
+            if (remaining < 0) {
+                append('-');
+                remaining = -remaining;
+            }
+            long divisor = 1;
+            int digits = 1;
+            while (divisor * 10 <= remaining || digits < minDigits) {
+                divisor *= 10;
+                digits++;
+            }
+            for (; divisor > 0; divisor /= 10) {
+                append((char) ('0' + remaining / divisor % 10));
+            }
+        }
+    }
+
+    private static class AppendableSink extends Sink {
+        private final Appendable target;
+
+        private AppendableSink(Appendable target) {
+            this.target = target;
+        }
+
+        @Override
+        void append(char c) {
+            try {
+                target.append(c);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        void append(Fragment fragment) {
+            append(fragment.text);
+        }
+
+        @Override
+        void append(String text) {
+            try {
+                target.append(text);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static class ByteBufferSink extends Sink {
+        private final ByteBuffer target;
+
+        private ByteBufferSink(ByteBuffer target) {
+            this.target = target;
+        }
+
+        @Override
+        void append(char c) {
+            if (c < 0x80) {
+                target.put((byte) c);
+            } else {
+                Utf8.put(target, String.valueOf(c));
+            }
+        }
+
+        @Override
+        void append(Fragment fragment) {
+            target.put(fragment.utf8);
+        }
+
+        @Override
+        void append(String text) {
+            Utf8.put(target, text);
+        }
+
+        @Override
+        void appendPaddedInt(int value, int minDigits) {
+            Utf8.putPaddedInt(target, value, minDigits);
+        }
+    }
+}
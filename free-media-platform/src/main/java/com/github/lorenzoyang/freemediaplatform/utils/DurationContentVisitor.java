@@ -0,0 +1,48 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
+
+import java.util.IntSummaryStatistics;
+
+// count, total, shortest, longest and average duration of the episodes of a content; a movie
+// counts as a single episode
+public class DurationContentVisitor implements ContentVisitor<IntSummaryStatistics> {
+    @Override
+    public IntSummaryStatistics visitMovie(Movie movie) {
+        var durations = new IntSummaryStatistics();
+        durations.accept(movie.getDurationInMinutes());
+        return durations;
+    }
+
+    @Override
+    public IntSummaryStatistics visitTVSeries(TVSeries tvSeries) {
+        var durations = new IntSummaryStatistics();
+        for (Episode episode : tvSeries.episodes()) {
+            durations.accept(episode.getDurationInMinutes());
+        }
+        return durations;
+    }
+
+    @Override
+    public ContentWalkVisitor<IntSummaryStatistics> newWalk() {
+        var durations = new IntSummaryStatistics();
+        return new ContentWalkVisitor<>() {
+            @Override
+            public void enterMovie(Movie movie) {
+                durations.accept(movie.getDurationInMinutes());
+            }
+
+            @Override
+            public void visitEpisode(Episode episode) {
+                durations.accept(episode.getDurationInMinutes());
+            }
+
+            @Override
+            public IntSummaryStatistics complete() {
+                return durations;
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import java.util.Map;
+
+public class FusedContentResults {
+    // position of every fused visitor, shared by the results of every traversal
+    private final Map<ContentVisitor<?>, Integer> positions;
+    private final Object[] results;
+
+    FusedContentResults(Map<ContentVisitor<?>, Integer> positions, Object[] results) {
+        this.positions = positions;
+        this.results = results;
+    }
+
+    // the result of the given visitor, which must be one of the fused visitors
+    @SuppressWarnings("unchecked")
+    public <T> T get(ContentVisitor<T> visitor) {
+        Integer position = positions.get(visitor);
+        if (position == null) {
+            throw new IllegalArgumentException("Visitor is not part of the fused traversal");
+        }
+        return (T) results[position];
+    }
+}
@@ -0,0 +1,76 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.content.Season;
+import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// a single traversal feeding several visitors: every season and episode is read once and
+// passed to the walk of each visitor in turn, then all the results are returned together.
+// Visitors without a walk of their own (see ContentVisitor.newWalk) are applied separately.
+// The walks are created on every visit, so the fused visitor is as thread-safe as its visitors
+public class FusedContentVisitor implements ContentVisitor<FusedContentResults> {
+    private final List<ContentVisitor<?>> visitors;
+    // a visitor fused twice gets the result of its first position
+    private final Map<ContentVisitor<?>, Integer> positions = new IdentityHashMap<>();
+
+    public FusedContentVisitor(ContentVisitor<?>... visitors) {
+        Objects.requireNonNull(visitors, "Visitors cannot be null");
+        this.visitors = List.of(visitors);
+        for (int i = 0; i < visitors.length; i++) {
+            positions.putIfAbsent(visitors[i], i);
+        }
+    }
+
+    @Override
+    public FusedContentResults visitMovie(Movie movie) {
+        List<ContentWalkVisitor<?>> walks = newWalks();
+        for (ContentWalkVisitor<?> walk : walks) {
+            walk.enterMovie(movie);
+        }
+        return complete(walks);
+    }
+
+    @Override
+    public FusedContentResults visitTVSeries(TVSeries tvSeries) {
+        List<ContentWalkVisitor<?>> walks = newWalks();
+        for (ContentWalkVisitor<?> walk : walks) {
+            walk.enterTVSeries(tvSeries);
+        }
+        for (int seasonNumber = 1; seasonNumber <= tvSeries.getSeasonsCount(); seasonNumber++) {
+            Season season = tvSeries.getSeason(seasonNumber);
+            for (ContentWalkVisitor<?> walk : walks) {
+                walk.enterSeason(season);
+            }
+            for (int episodeNumber = 1; episodeNumber <= season.getEpisodesCount(); episodeNumber++) {
+                Episode episode = season.getEpisode(episodeNumber);
+                for (ContentWalkVisitor<?> walk : walks) {
+                    walk.visitEpisode(episode);
+                }
+            }
+        }
+        return complete(walks);
+    }
+
+    private List<ContentWalkVisitor<?>> newWalks() {
+        List<ContentWalkVisitor<?>> walks = new ArrayList<>(visitors.size());
+        for (ContentVisitor<?> visitor : visitors) {
+            walks.add(visitor.newWalk());
+        }
+        return walks;
+    }
+
+    private FusedContentResults complete(List<ContentWalkVisitor<?>> walks) {
+        Object[] results = new Object[walks.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = walks.get(i).complete();
+        }
+        return new FusedContentResults(positions, results);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// the metadata of a content as text fields, in a fixed order: title, description, release date,
+// resolution, seasons, episodes and duration; missing optional fields are left out.
+// The counts are kept by the series, so the walk only needs the content it enters
+public class MetadataContentVisitor implements ContentVisitor<Map<String, String>> {
+    @Override
+    public Map<String, String> visitMovie(Movie movie) {
+        return metadata(movie, 1, 1);
+    }
+
+    @Override
+    public Map<String, String> visitTVSeries(TVSeries tvSeries) {
+        return metadata(tvSeries, tvSeries.getSeasonsCount(), tvSeries.getEpisodesCount());
+    }
+
+    private static Map<String, String> metadata(Content content, int seasonsCount, int episodesCount) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("title", content.getTitle());
+        content.getDescription().ifPresent(description -> metadata.put("description", description));
+        content.getReleaseDate().ifPresent(date -> metadata.put("releaseDate", date.toString()));
+        content.getResolution().ifPresent(resolution -> metadata.put("resolution", resolution.name()));
+        metadata.put("seasons", Integer.toString(seasonsCount));
+        metadata.put("episodes", Integer.toString(episodesCount));
+        metadata.put("duration", Integer.toString(content.getDurationInMinutes()));
+        return Collections.unmodifiableMap(metadata);
+    }
+
+    @Override
+    public ContentWalkVisitor<Map<String, String>> newWalk() {
+        return new ContentWalkVisitor<>() {
+            private Map<String, String> metadata;
+
+            @Override
+            public void enterMovie(Movie movie) {
+                metadata = visitMovie(movie);
+            }
+
+            @Override
+            public void enterTVSeries(TVSeries tvSeries) {
+                metadata = visitTVSeries(tvSeries);
+            }
+
+            @Override
+            public Map<String, String> complete() {
+                return metadata;
+            }
+        };
+    }
+}
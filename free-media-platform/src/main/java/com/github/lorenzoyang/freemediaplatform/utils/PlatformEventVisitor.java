@@ -1,6 +1,8 @@
 package com.github.lorenzoyang.freemediaplatform.utils;
 
 import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
 
@@ -10,4 +12,8 @@ public interface PlatformEventVisitor {
     void visitRemoveContent(RemoveContentEvent event);
 
     void visitUpdateContent(UpdateContentEvent event);
+
+    void visitBatchContent(BatchContentEvent event);
+
+    void visitLoadContent(LoadContentEvent event);
 }
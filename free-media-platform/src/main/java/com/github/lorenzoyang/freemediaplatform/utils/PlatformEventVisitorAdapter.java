@@ -1,6 +1,8 @@
 package com.github.lorenzoyang.freemediaplatform.utils;
 
 import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
 import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
 
@@ -19,4 +21,15 @@ public abstract class PlatformEventVisitorAdapter implements PlatformEventVisito
     public void visitUpdateContent(UpdateContentEvent event) {
         // default implementation
     }
+
+    @Override
+    public void visitBatchContent(BatchContentEvent event) {
+        // default implementation: a batch is handled as its single-content events
+        event.forEachEvent(this);
+    }
+
+    @Override
+    public void visitLoadContent(LoadContentEvent event) {
+        // default implementation
+    }
 }
@@ -2,25 +2,65 @@ package com.github.lorenzoyang.freemediaplatform.utils;
 
 import com.github.lorenzoyang.freemediaplatform.content.Episode;
 import com.github.lorenzoyang.freemediaplatform.content.Movie;
-import com.github.lorenzoyang.freemediaplatform.content.Season;
 import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
+// the episodes are not copied, a TV series is read season by season while it is played
 public class PlaybackContentVisitor implements ContentVisitor<Iterable<Episode>> {
+    private final int seasonNumber;
+    private final int episodeNumber;
+
+    public PlaybackContentVisitor() {
+        this(1, 1);
+    }
+
+    // playback starts from the given episode
+    public PlaybackContentVisitor(int seasonNumber, int episodeNumber) {
+        this.seasonNumber = seasonNumber;
+        this.episodeNumber = episodeNumber;
+    }
+
     @Override
     public Iterable<Episode> visitMovie(Movie movie) {
+        if (seasonNumber != 1) {
+            throw new IllegalArgumentException("Season " + seasonNumber + " does not exist");
+        }
+        if (episodeNumber != 1) {
+            throw new IllegalArgumentException("Episode " + episodeNumber + " does not exist in season 1");
+        }
         return List.of(movie.getEpisode());
     }
 
     @Override
     public Iterable<Episode> visitTVSeries(TVSeries tvSeries) {
-        Collection<Episode> allEpisodes = new ArrayList<>();
-        for (Season season : tvSeries) {
-            season.iterator().forEachRemaining(allEpisodes::add);
-        }
-        return allEpisodes;
+        return seasonNumber == 1 && episodeNumber == 1
+                ? tvSeries.episodes()
+                : tvSeries.episodesFrom(seasonNumber, episodeNumber);
+    }
+
+    // playback reads no episode up front, the walk takes the content it enters and returns the
+    // same lazy episodes without a visit of its own
+    @Override
+    public ContentWalkVisitor<Iterable<Episode>> newWalk() {
+        return new ContentWalkVisitor<>() {
+            private Movie movie;
+            private TVSeries tvSeries;
+
+            @Override
+            public void enterMovie(Movie movie) {
+                this.movie = movie;
+            }
+
+            @Override
+            public void enterTVSeries(TVSeries tvSeries) {
+                this.tvSeries = tvSeries;
+            }
+
+            @Override
+            public Iterable<Episode> complete() {
+                return movie != null ? visitMovie(movie) : visitTVSeries(tvSeries);
+            }
+        };
     }
 }
@@ -0,0 +1,30 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import java.lang.management.ManagementFactory;
+
+// allocations of the current thread, for the tests asserting that a code path does not allocate
+public final class Allocations {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private Allocations() {
+    }
+
+    // bytes allocated by one run of the action once it has run the given number of times, so
+    // that it is compiled; the cost of the measurement itself is subtracted
+    public static long allocatedBytes(int warmUpRuns, Runnable action) {
+        for (int i = 0; i < warmUpRuns; i++) {
+            action.run();
+        }
+        long overhead = measure(() -> {
+        });
+        return measure(action) - overhead;
+    }
+
+    private static long measure(Runnable action) {
+        long threadId = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(threadId);
+        action.run();
+        return THREADS.getThreadAllocatedBytes(threadId) - before;
+    }
+}
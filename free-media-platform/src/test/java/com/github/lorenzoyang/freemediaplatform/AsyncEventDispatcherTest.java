@@ -0,0 +1,452 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class AsyncEventDispatcherTest {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static PlatformEvent addEvent(int i) {
+        Content movie = new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build();
+        return new AddContentEvent(movie);
+    }
+
+    private static List<String> titles(List<PlatformEvent> events) {
+        return events.stream()
+                .map(event -> ((AddContentEvent) event).getAddedContent().getTitle())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEventsAreDeliveredInOrderToEveryObserver() {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .withQueueCapacity(8)
+                .withBackpressurePolicy(BackpressurePolicy.BLOCK)
+                .build();
+        List<PlatformEvent> received1 = Collections.synchronizedList(new ArrayList<>());
+        List<PlatformEvent> received2 = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addObserver(received1::add);
+        dispatcher.addObserver(received2::add);
+
+        List<PlatformEvent> dispatched = IntStream.range(0, 200)
+                .mapToObj(AsyncEventDispatcherTest::addEvent)
+                .collect(Collectors.toList());
+        dispatched.forEach(dispatcher::dispatch);
+        dispatcher.flush();
+
+        assertEquals(dispatched, received1);
+        assertEquals(dispatched, received2);
+    }
+
+    @Test
+    public void testSlowObserverDoesNotStallPublisherWithDropOldestPolicy() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<PlatformEvent> slowReceived = Collections.synchronizedList(new ArrayList<>());
+        List<PlatformEvent> fastReceived = Collections.synchronizedList(new ArrayList<>());
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .withQueueCapacity(2)
+                .withBackpressurePolicy(BackpressurePolicy.DROP_OLDEST)
+                .build();
+        dispatcher.addObserver(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            slowReceived.add(event);
+        });
+        dispatcher.addObserver(fastReceived::add);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+        release.countDown();
+        dispatcher.flush();
+
+        // the publisher was never blocked: the slow observer only kept the two most recent
+        // events, plus the one it was possibly handling
+        assertThat(slowReceived.size()).isBetween(2, 3);
+        assertThat(titles(slowReceived)).endsWith("Movie8", "Movie9");
+        assertThat(titles(fastReceived)).endsWith("Movie9");
+        assertEquals(20 - slowReceived.size() - fastReceived.size(), dispatcher.getDroppedEventsCount());
+    }
+
+    @Test
+    public void testFailPolicyThrowsWhenObserverQueueIsFull() {
+        CountDownLatch release = new CountDownLatch(1);
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .withQueueCapacity(1)
+                .withBackpressurePolicy(BackpressurePolicy.FAIL)
+                .build();
+        dispatcher.addObserver(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 10; i++) {
+                dispatcher.dispatch(addEvent(i));
+            }
+        }).isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Observer queue is full");
+
+        release.countDown();
+        dispatcher.flush();
+    }
+
+    @Test
+    public void testFullQueueRejectsTheEventForEveryObserver() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch stalledCount = new CountDownLatch(2);
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .withQueueCapacity(1)
+                .withBackpressurePolicy(BackpressurePolicy.FAIL)
+                .build();
+        PlatformObserver stalled = event -> {
+            try {
+                stalledCount.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        dispatcher.addObserver(stalled);
+        dispatcher.addObserver(stalled::notifyChange);
+        dispatcher.addObserver(received::add);
+
+        int failures = 0;
+        for (int i = 0; i < 10; i++) {
+            try {
+                dispatcher.dispatch(addEvent(i));
+            } catch (StreamingPlatformException e) {
+                assertEquals("Observer queue is full", e.getMessage());
+                assertThat(e.getSuppressed()).hasSize(1);
+                failures++;
+            }
+            // both stalled observers hold the first event, their queues fill up at the same time
+            if (i == 0) {
+                assertTrue(stalledCount.await(10, TimeUnit.SECONDS));
+            }
+            // the other observer keeps up
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received.size() < i + 1 - failures && System.nanoTime() < deadline) {
+                Thread.yield();
+            }
+        }
+        release.countDown();
+        dispatcher.flush();
+
+        assertThat(failures).isPositive();
+        assertEquals(10 - failures, received.size());
+        assertEquals(0, dispatcher.getDroppedEventsCount());
+    }
+
+    @Test
+    public void testReplayBypassesTheBackpressurePolicy() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .withQueueCapacity(1)
+                .withBackpressurePolicy(BackpressurePolicy.FAIL)
+                .build();
+        PlatformObserver observer = event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        };
+        dispatcher.addObserver(observer);
+
+        List<PlatformEvent> replayed = IntStream.range(0, 10)
+                .mapToObj(AsyncEventDispatcherTest::addEvent)
+                .collect(Collectors.toList());
+        dispatcher.replay(observer, replayed);
+        dispatcher.dispatch(addEvent(10));
+        release.countDown();
+        dispatcher.flush();
+
+        assertThat(titles(received)).hasSize(11).startsWith("Movie0", "Movie1").endsWith("Movie10");
+        assertEquals(0, dispatcher.getDroppedEventsCount());
+    }
+
+    @Test
+    public void testReplayToARegisteredObserverFollowsItsQueuedEvents() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .withQueueCapacity(4)
+                .withBackpressurePolicy(BackpressurePolicy.BLOCK)
+                .build();
+        PlatformObserver observer = event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        };
+        dispatcher.addObserver(observer);
+
+        for (int i = 0; i < 4; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+        dispatcher.replay(observer, List.of(addEvent(4), addEvent(5)));
+        dispatcher.dispatch(addEvent(6));
+        release.countDown();
+        dispatcher.flush();
+
+        assertThat(titles(received)).containsExactly("Movie0", "Movie1", "Movie2", "Movie3", "Movie4",
+                "Movie5", "Movie6");
+    }
+
+    @Test
+    public void testBlockPolicyWaitsForQueueSpace() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .withQueueCapacity(1)
+                .withBackpressurePolicy(BackpressurePolicy.BLOCK)
+                .build();
+        dispatcher.addObserver(event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            received.add(event);
+        });
+
+        Future<?> publisher = Executors.newSingleThreadExecutor().submit(() -> {
+            for (int i = 0; i < 5; i++) {
+                dispatcher.dispatch(addEvent(i));
+            }
+        });
+        assertThatThrownBy(() -> publisher.get(200, TimeUnit.MILLISECONDS))
+                .isInstanceOf(TimeoutException.class);
+
+        release.countDown();
+        publisher.get(5, TimeUnit.SECONDS);
+        dispatcher.flush();
+        assertThat(titles(received)).containsExactly("Movie0", "Movie1", "Movie2", "Movie3", "Movie4");
+    }
+
+    @Test
+    public void testFailingObserverKeepsReceivingLaterEvents() {
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .build();
+        PlatformObserver failing = event -> {
+            received.add(event);
+            throw new IllegalStateException("Observer failure");
+        };
+        dispatcher.addObserver(failing);
+
+        dispatcher.dispatch(addEvent(1));
+        dispatcher.dispatch(addEvent(2));
+        dispatcher.flush();
+
+        assertThat(titles(received)).containsExactly("Movie1", "Movie2");
+        assertEquals(2, dispatcher.getObserverMetrics().get(failing).getFailedEventsCount());
+    }
+
+    @Test
+    public void testCriticalObserverIsNotifiedOnThePublishingThread() {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(executor)
+                .build();
+        List<Thread> threads = new ArrayList<>();
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        PlatformObserver critical = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                threads.add(Thread.currentThread());
+                if (((AddContentEvent) event).getAddedContent().getTitle().equals("Movie1")) {
+                    throw new IllegalStateException("Critical failure");
+                }
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        dispatcher.addObserver(received::add);
+        dispatcher.addObserver(critical);
+
+        dispatcher.dispatch(addEvent(0));
+        assertThatThrownBy(() -> dispatcher.dispatch(addEvent(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Critical failure");
+        dispatcher.flush();
+
+        assertThat(threads).hasSize(2).containsOnly(Thread.currentThread());
+        assertThat(titles(received)).containsExactly("Movie0");
+    }
+
+    @Test
+    public void testCloseDrainsAndRejectsNewEvents() {
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder().build();
+        dispatcher.addObserver(received::add);
+
+        dispatcher.dispatch(addEvent(1));
+        dispatcher.close();
+
+        assertEquals(1, received.size());
+        assertThatThrownBy(() -> dispatcher.dispatch(addEvent(2)))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Event dispatcher is closed");
+    }
+
+    @Test
+    public void testRejectedDeliveryQuarantinesTheObserverUntilReleased() {
+        List<Runnable> accepted = new ArrayList<>();
+        List<Runnable> rejected = new ArrayList<>();
+        boolean[] rejecting = {true};
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withExecutor(runnable -> {
+                    if (rejecting[0]) {
+                        rejected.add(runnable);
+                        throw new RejectedExecutionException();
+                    }
+                    accepted.add(runnable);
+                })
+                .build();
+        List<PlatformEvent> received = new ArrayList<>();
+        PlatformObserver observer = received::add;
+        dispatcher.addObserver(observer);
+
+        dispatcher.dispatch(addEvent(1));
+        dispatcher.dispatch(addEvent(2));
+
+        ObserverMetrics metrics = dispatcher.getObserverMetrics().get(observer);
+        assertThat(metrics.getLastFailure().orElseThrow())
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Executor rejected the observer delivery")
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+        assertTrue(metrics.isQuarantined());
+        // the delivery is not submitted again, nothing is left pending and flush returns
+        assertEquals(1, rejected.size());
+        dispatcher.flush();
+        assertEquals(2, dispatcher.getDroppedEventsCount());
+
+        rejecting[0] = false;
+        dispatcher.releaseObserver(observer);
+        dispatcher.dispatch(addEvent(3));
+        accepted.forEach(Runnable::run);
+
+        assertThat(titles(received)).containsExactly("Movie3");
+        assertFalse(dispatcher.getObserverMetrics().get(observer).isQuarantined());
+    }
+
+
+    @Test
+    public void testFullQueueRejectsThePlatformMutation() {
+        CountDownLatch release = new CountDownLatch(1);
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        try (StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withEventDispatcher(new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                        .withExecutor(executor)
+                        .withQueueCapacity(1)
+                        .withBackpressurePolicy(BackpressurePolicy.FAIL)
+                        .build())
+                .build()) {
+            platform.addObserver(event -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                received.add(event);
+            });
+
+            List<String> added = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Content movie = new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build();
+                try {
+                    assertTrue(platform.addContent(movie));
+                    added.add(movie.getTitle());
+                } catch (StreamingPlatformException e) {
+                    assertEquals("Observer queue is full", e.getMessage());
+                    assertThat(platform.getContentByTitle(movie.getTitle())).isEmpty();
+                }
+            }
+            release.countDown();
+            platform.flush();
+
+            // the queue holds one event and the observer at most another one
+            assertThat(added).hasSizeBetween(1, 2);
+            assertThat(platform.getContents()).extracting(Content::getTitle).containsExactlyElementsOf(added);
+            assertThat(titles(received)).containsExactlyElementsOf(added);
+            assertEquals(added.size(), platform.getLastEventSequence());
+        }
+    }
+
+    @Test
+    public void testBuilderThrowsForInvalidArguments() {
+        var builder = new AsyncEventDispatcher.AsyncEventDispatcherBuilder();
+
+        assertThatThrownBy(() -> builder.withQueueCapacity(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Queue capacity must be a positive integer greater than 0");
+        assertThatThrownBy(() -> builder.withExecutor(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Executor cannot be null");
+        assertThatThrownBy(() -> builder.withBackpressurePolicy(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Backpressure policy cannot be null");
+    }
+
+    @Test
+    public void testStreamingPlatformWithAsyncDispatcherNotifiesAfterFlush() {
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        try (StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withEventDispatcher(new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                        .withExecutor(executor)
+                        .build())
+                .build()) {
+            platform.addObserver(received::add);
+
+            assertTrue(platform.addContent(new Movie.MovieBuilder("Movie", new Episode(1, 1)).build()));
+            platform.flush();
+
+            assertEquals(1, received.size());
+        }
+    }
+}
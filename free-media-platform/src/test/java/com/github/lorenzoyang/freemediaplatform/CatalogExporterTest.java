@@ -0,0 +1,140 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.serialization.JsonContentEncoder;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentWriter;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+public class CatalogExporterTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private List<Content> contents;
+
+    @Before
+    public void setUp() {
+        this.file = folder.getRoot().toPath().resolve("catalog.txt");
+        this.contents = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            contents.add(i % 3 == 0
+                    ? new TVSeries.TVSeriesBuilder("Série " + i, new Season(1, List.of(new Episode(1, i + 1)))).build()
+                    : new Movie.MovieBuilder("Movie " + i, new Episode(1, i + 1)).build());
+        }
+    }
+
+    private String sequentialRender() {
+        return contents.stream()
+                .map(content -> content.accept(new DisplayContentVisitor()))
+                .collect(Collectors.joining());
+    }
+
+    @Test
+    public void testExportKeepsCatalogOrderForAnyParallelism() throws IOException {
+        String expected = sequentialRender();
+        for (int parallelism : new int[]{1, 4, 16}) {
+            try (CatalogExporter exporter = new CatalogExporter.CatalogExporterBuilder()
+                    .withParallelism(parallelism)
+                    .withPartitionSize(7)
+                    .build()) {
+                long written = exporter.export(contents, DisplayContentWriter::new, file);
+
+                assertEquals(expected, Files.readString(file));
+                assertEquals(expected.getBytes(StandardCharsets.UTF_8).length, written);
+            }
+        }
+    }
+
+    @Test
+    public void testExportRunsAnyEncoder() throws IOException {
+        ByteBuffer expected = ByteBuffer.allocate(256 * 1024);
+        var encoder = new JsonContentEncoder(expected);
+        contents.forEach(content -> content.accept(encoder));
+
+        try (CatalogExporter exporter = new CatalogExporter.CatalogExporterBuilder()
+                .withPartitionSize(7)
+                .build()) {
+            exporter.export(contents, JsonContentEncoder::new, file);
+        }
+
+        assertEquals(expected.flip(), ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    @Test
+    public void testPartitionBufferGrowsForLargeContents() throws IOException {
+        Content longDescription = new Movie.MovieBuilder("Movie", new Episode(1, 1))
+                .withDescription("é".repeat(10_000))
+                .build();
+        List<Content> catalog = List.of(contents.get(0), longDescription, contents.get(1));
+
+        try (CatalogExporter exporter = new CatalogExporter.CatalogExporterBuilder().build()) {
+            exporter.export(catalog, DisplayContentWriter::new, file);
+        }
+
+        assertEquals(catalog.stream()
+                .map(content -> content.accept(new DisplayContentVisitor()))
+                .collect(Collectors.joining()), Files.readString(file));
+    }
+
+    @Test
+    public void testVisitorFailureIsPropagated() {
+        ContentVisitor<Void> failingEncoder = new ContentVisitor<>() {
+            @Override
+            public Void visitMovie(Movie movie) {
+                throw new IllegalStateException("Render failure");
+            }
+
+            @Override
+            public Void visitTVSeries(TVSeries tvSeries) {
+                return null;
+            }
+        };
+
+        try (CatalogExporter exporter = new CatalogExporter.CatalogExporterBuilder().build()) {
+            assertThatThrownBy(() -> exporter.export(contents, buffer -> failingEncoder, file))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("Render failure");
+        }
+    }
+
+    @Test
+    public void testPlatformExportsCurrentCatalog() throws IOException {
+        try (StreamingPlatform platform = new StreamingPlatform("Streaming Platform", () -> contents)) {
+            platform.exportCatalog(file, DisplayContentWriter::new, 4);
+        }
+
+        assertEquals(sequentialRender(), Files.readString(file));
+    }
+
+    @Test
+    public void testBuilderThrowsForInvalidArguments() {
+        var builder = new CatalogExporter.CatalogExporterBuilder();
+
+        assertThatThrownBy(() -> builder.withParallelism(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Parallelism must be a positive integer greater than 0");
+        assertThatThrownBy(() -> builder.withPartitionSize(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Partition size must be a positive integer greater than 0");
+        assertThatThrownBy(() -> builder.withPool(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Pool cannot be null");
+    }
+}
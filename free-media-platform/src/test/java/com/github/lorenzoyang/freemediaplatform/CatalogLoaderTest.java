@@ -0,0 +1,214 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import com.github.lorenzoyang.freemediaplatform.utils.MockEmailNotificationService;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class CatalogLoaderTest {
+    private static List<Content> movies(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build())
+                .collect(Collectors.toList());
+    }
+
+    private static ContentLoader loaderOf(List<Content> contents) {
+        return new ContentLoader() {
+            @Override
+            public Iterator<Content> openStream() {
+                return contents.iterator();
+            }
+
+            @Override
+            public OptionalLong getExpectedCount() {
+                return OptionalLong.of(contents.size());
+            }
+        };
+    }
+
+    @Test
+    public void testLoaderHandsContentsInChunksAndReportsProgress() {
+        List<List<Content>> chunks = new ArrayList<>();
+        var catalogLoader = new CatalogLoader(loaderOf(movies(5)), 2, chunk -> chunks.add(List.copyOf(chunk)));
+
+        LoadProgress before = catalogLoader.progress();
+        assertFalse(before.isDone());
+        assertEquals(0, before.getLoadedCount());
+        assertThat(before.getCompletionRatio()).hasValue(0);
+
+        catalogLoader.run();
+
+        assertThat(chunks).extracting(List::size).containsExactly(2, 2, 1);
+        LoadProgress after = catalogLoader.progress();
+        assertTrue(after.isDone());
+        assertEquals(5, after.getLoadedCount());
+        assertThat(after.getCompletionRatio()).hasValue(1);
+        assertThat(after.getThroughput()).isPositive();
+        assertThat(after.getFailure()).isEmpty();
+        assertFalse(after.isCancelled());
+    }
+
+    @Test
+    public void testLoaderReportsFailure() {
+        var catalogLoader = new CatalogLoader(() -> {
+            throw new IllegalStateException("Source unavailable");
+        }, 2, chunk -> {
+        });
+
+        catalogLoader.run();
+
+        assertTrue(catalogLoader.progress().isDone());
+        assertThat(catalogLoader.progress().getFailure()).containsInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(catalogLoader::await)
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Catalog loading failed")
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testLoaderReportsErrorsAndCompletes() {
+        var catalogLoader = new CatalogLoader(() -> {
+            throw new StackOverflowError("Source too deep");
+        }, 2, chunk -> {
+        });
+
+        assertThatThrownBy(catalogLoader::run).isInstanceOf(StackOverflowError.class);
+
+        assertTrue(catalogLoader.progress().isDone());
+        assertThat(catalogLoader.progress().getFailure()).containsInstanceOf(StackOverflowError.class);
+        assertThatThrownBy(catalogLoader::await)
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Catalog loading failed")
+                .hasCauseInstanceOf(StackOverflowError.class);
+    }
+
+    @Test
+    public void testCancelledLoaderIsReportedAsCancelled() {
+        List<List<Content>> chunks = new ArrayList<>();
+        var catalogLoader = new CatalogLoader(loaderOf(movies(5)), 2, chunk -> chunks.add(List.copyOf(chunk)));
+
+        catalogLoader.cancel();
+        catalogLoader.run();
+
+        assertThat(chunks).isEmpty();
+        LoadProgress progress = catalogLoader.progress();
+        assertTrue(progress.isDone());
+        assertTrue(progress.isCancelled());
+        assertThat(progress.getFailure()).isEmpty();
+        assertThatThrownBy(catalogLoader::await)
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Catalog loading was cancelled");
+    }
+
+    @Test
+    public void testPlatformServesLoadedTitlesWhileLoading() throws Exception {
+        CountDownLatch firstChunkServed = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        List<Content> movies = movies(4);
+        Iterator<Content> gatedStream = new Iterator<>() {
+            private int next = 0;
+
+            @Override
+            public boolean hasNext() {
+                if (next == 2) {
+                    firstChunkServed.countDown();
+                    try {
+                        resume.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return next < movies.size();
+            }
+
+            @Override
+            public Content next() {
+                return movies.get(next++);
+            }
+        };
+        List<PlatformEvent> events = Collections.synchronizedList(new ArrayList<>());
+        var emailService = new MockEmailNotificationService();
+
+        StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withContentLoader(() -> gatedStream)
+                .withLoadChunkSize(2)
+                .build();
+        platform.addObserver(events::add);
+        platform.addObserver(new PlatformUser("lorenzoyang@gmail.com", emailService));
+
+        assertTrue(firstChunkServed.await(5, TimeUnit.SECONDS));
+        assertThat(platform.getContentByTitle("Movie0")).isPresent();
+        assertThat(platform.getContentByTitle("Movie3")).isEmpty();
+        assertFalse(platform.getLoadProgress().isDone());
+        // the catalog is copy-on-write with a loader, an iterator opened now is not disturbed
+        Iterator<Content> iterator = platform.contentIterator();
+
+        resume.countDown();
+        platform.awaitLoaded();
+
+        List<String> iterated = new ArrayList<>();
+        iterator.forEachRemaining(content -> iterated.add(content.getTitle()));
+        assertThat(iterated).containsExactly("Movie0", "Movie1");
+
+        assertTrue(platform.getLoadProgress().isDone());
+        assertEquals(4, platform.getLoadProgress().getLoadedCount());
+        assertEquals(4, platform.getContents().size());
+        assertThat(events).isNotEmpty().allMatch(event -> event instanceof LoadContentEvent);
+        assertEquals(0, emailService.getNotificationsCount());
+    }
+
+    @Test
+    public void testPlatformWithoutLoaderIsAlreadyLoaded() {
+        StreamingPlatform platform = new StreamingPlatform("Streaming Platform", List::of);
+
+        platform.awaitLoaded();
+        assertTrue(platform.getLoadProgress().isDone());
+        assertEquals(0, platform.getLoadProgress().getLoadedCount());
+    }
+
+    @Test
+    public void testLoadedContentsAreIndexedAndDeduplicated() {
+        List<Content> movies = new ArrayList<>(movies(3));
+        movies.add(new Movie.MovieBuilder("Movie0", new Episode(1, 9)).build());
+        StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform",
+                () -> List.of(movies.get(1)))
+                .withContentLoader(loaderOf(movies))
+                .withLoadExecutor(Runnable::run)
+                .build();
+
+        assertEquals(3, platform.getContents().size());
+        assertThat(platform.getContentByTitle("Movie0")).containsSame(movies.get(0));
+        assertThat(platform.getFirstContentPage(CatalogOrder.INSERTION, 10))
+                .extracting(Content::getTitle)
+                .containsExactly("Movie1", "Movie0", "Movie2");
+    }
+
+    @Test
+    public void testBuilderThrowsForInvalidLoaderArguments() {
+        var builder = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of);
+
+        assertThatThrownBy(() -> builder.withContentLoader(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Content loader cannot be null");
+        assertThatThrownBy(() -> builder.withLoadChunkSize(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Load chunk size must be a positive integer greater than 0");
+        assertThatThrownBy(() -> builder.withLoadExecutor(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Load executor cannot be null");
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Spliterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class ContentCatalogTest {
+    private Content movie1;
+    private Content movie2;
+    private ContentCatalog catalog;
+
+    @Before
+    public void setUp() {
+        this.movie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 1)).build();
+        this.movie2 = new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build();
+        this.catalog = new ContentCatalog(List.of(movie1, movie2));
+    }
+
+    @Test
+    public void testConstructorIgnoresDuplicateTitles() {
+        Content duplicate = new Movie.MovieBuilder("Movie1", new Episode(1, 2)).build();
+        ContentCatalog catalog = new ContentCatalog(List.of(movie1, duplicate));
+
+        assertEquals(1, catalog.size());
+        assertThat(catalog.get("Movie1")).containsSame(movie1);
+    }
+
+    @Test
+    public void testConstructorThrowsNullPointerExceptionForNullContents() {
+        assertThatThrownBy(() -> new ContentCatalog(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Contents cannot be null");
+    }
+
+    @Test
+    public void testGetReturnsContentByTitle() {
+        assertThat(catalog.get("Movie2")).containsSame(movie2);
+        assertThat(catalog.get("NonExistent")).isEmpty();
+        assertThat(catalog.get(null)).isEmpty();
+    }
+
+    @Test
+    public void testContainsUsesTitle() {
+        Content sameTitle = new Movie.MovieBuilder("Movie1", new Episode(1, 5)).build();
+
+        assertTrue(catalog.contains(sameTitle));
+        assertFalse(catalog.contains(new Movie.MovieBuilder("Other", new Episode(1, 1)).build()));
+        assertFalse(catalog.contains(null));
+    }
+
+    @Test
+    public void testAddAndRemoveContent() {
+        Content movie3 = new Movie.MovieBuilder("Movie3", new Episode(1, 1)).build();
+
+        assertTrue(catalog.add(movie3));
+        assertFalse(catalog.add(movie3));
+        assertEquals(3, catalog.size());
+
+        assertThat(catalog.remove(movie3)).containsSame(movie3);
+        assertThat(catalog.remove(movie3)).isEmpty();
+        assertEquals(2, catalog.size());
+    }
+
+    @Test
+    public void testReplaceKeepsInsertionOrder() {
+        Content updated = new Movie.MovieBuilder("Movie1", new Episode(1, 1))
+                .withDescription("Updated description")
+                .build();
+
+        assertThat(catalog.replace(updated)).containsSame(movie1);
+        assertThat(catalog).containsExactly(updated, movie2);
+        assertThat(catalog.get("Movie1")).containsSame(updated);
+
+        Content nonExistent = new Movie.MovieBuilder("NonExistent", new Episode(1, 1)).build();
+        assertThat(catalog.replace(nonExistent)).isEmpty();
+        assertEquals(2, catalog.size());
+    }
+
+    @Test
+    public void testSnapshotCopiesContentsAndTracksVersion() {
+        CatalogSnapshot before = catalog.snapshot();
+        assertEquals(0, before.getVersion());
+
+        Content movie3 = new Movie.MovieBuilder("Movie3", new Episode(1, 1)).build();
+        catalog.add(movie3);
+        catalog.remove(movie1);
+        catalog.remove(movie1);
+
+        CatalogSnapshot after = catalog.snapshot();
+        assertEquals(2, after.getVersion());
+        assertThat(before).containsExactly(movie1, movie2);
+        assertThat(after).containsExactly(movie2, movie3);
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilTheNextChange() {
+        CatalogSnapshot first = catalog.snapshot();
+        assertSame(first, catalog.snapshot());
+
+        catalog.remove(new Movie.MovieBuilder("NonExistent", new Episode(1, 1)).build());
+        assertSame(first, catalog.snapshot());
+
+        catalog.remove(movie1);
+        CatalogSnapshot second = catalog.snapshot();
+        assertNotSame(first, second);
+        assertSame(second, catalog.snapshot());
+        assertThat(first).containsExactly(movie1, movie2);
+    }
+
+    @Test
+    public void testSnapshotSpliteratorSplitsEvenly() {
+        for (int i = 3; i <= 100; i++) {
+            catalog.add(new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build());
+        }
+        var spliterator = catalog.snapshot().spliterator();
+        var prefix = spliterator.trySplit();
+
+        assertNotNull(prefix);
+        assertEquals(50, prefix.estimateSize());
+        assertEquals(50, spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SUBSIZED));
+    }
+
+    @Test
+    public void testIteratorIsReadOnly() {
+        var iterator = catalog.iterator();
+        iterator.next();
+
+        assertThatThrownBy(iterator::remove).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ContentIndexTest {
+    private Content oldMovie;
+    private Content newMovie;
+    private Content longMovie;
+    private Content tvSeries;
+    private Content undatedMovie;
+    private ContentIndex index;
+
+    @Before
+    public void setUp() {
+        this.oldMovie = new Movie.MovieBuilder("OldMovie", new Episode(1, 80))
+                .withReleaseDate(LocalDate.of(2000, 1, 1))
+                .withResolution(VideoResolution.SD_480P)
+                .build();
+        this.newMovie = new Movie.MovieBuilder("NewMovie", new Episode(1, 85))
+                .withReleaseDate(LocalDate.of(2024, 6, 1))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.longMovie = new Movie.MovieBuilder("LongMovie", new Episode(1, 180))
+                .withReleaseDate(LocalDate.of(2023, 3, 1))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.tvSeries = new TVSeries.TVSeriesBuilder("TVSeries", new Season(1, List.of(
+                new Episode(1, 40),
+                new Episode(2, 40)
+        ))).withReleaseDate(LocalDate.of(2024, 1, 1))
+                .withResolution(VideoResolution.FULL_HD_1080P)
+                .build();
+        this.undatedMovie = new Movie.MovieBuilder("UndatedMovie", new Episode(1, 60)).build();
+        this.index = new ContentIndex(List.of(oldMovie, newMovie, longMovie, tvSeries, undatedMovie));
+    }
+
+    @Test
+    public void testFindWithoutCriteriaReturnsEverythingNewestFirst() {
+        assertThat(index.find(new ContentQuery.ContentQueryBuilder().build()))
+                .containsExactly(newMovie, tvSeries, longMovie, oldMovie, undatedMovie);
+    }
+
+    @Test
+    public void testFindByReleaseDateRange() {
+        var query = new ContentQuery.ContentQueryBuilder()
+                .withReleaseDateBetween(LocalDate.of(2023, 1, 1), null)
+                .build();
+        assertThat(index.find(query)).containsExactly(newMovie, tvSeries, longMovie);
+
+        query = new ContentQuery.ContentQueryBuilder()
+                .withReleaseDateBetween(LocalDate.of(2000, 1, 1), LocalDate.of(2023, 3, 1))
+                .build();
+        assertThat(index.find(query)).containsExactly(longMovie, oldMovie);
+    }
+
+    @Test
+    public void testFindByResolutionAndDurationCombinesCriteria() {
+        var query = new ContentQuery.ContentQueryBuilder()
+                .withResolution(VideoResolution.UHD_4K)
+                .withDurationBetween(null, 90)
+                .build();
+        assertThat(index.find(query)).containsExactly(newMovie);
+
+        query = new ContentQuery.ContentQueryBuilder()
+                .withResolution(VideoResolution.UHD_4K, VideoResolution.FULL_HD_1080P)
+                .build();
+        assertThat(index.find(query)).containsExactly(newMovie, tvSeries, longMovie);
+    }
+
+    @Test
+    public void testFindAppliesFiltersOrderAndLimit() {
+        var query = new ContentQuery.ContentQueryBuilder()
+                .withDurationBetween(60, null)
+                .withFilter(content -> content instanceof Movie)
+                .withOrder(Comparator.comparing(Content::getTitle))
+                .withLimit(2)
+                .build();
+
+        assertThat(index.find(query)).containsExactly(longMovie, newMovie);
+    }
+
+    @Test
+    public void testReleaseDateOrdersWalkTheIndexUpToTheLimit() {
+        List<Content> contents = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            var builder = new Movie.MovieBuilder("Movie" + i, new Episode(1, 60 + i % 50))
+                    .withResolution(VideoResolution.values()[i % VideoResolution.values().length]);
+            if (i % 7 != 0) {
+                builder.withReleaseDate(LocalDate.of(2000, 1, 1).plusDays(i % 30));
+            }
+            contents.add(builder.build());
+        }
+        var largeIndex = new ContentIndex(contents);
+
+        for (Comparator<Content> order : List.of(ContentQuery.NEWEST_FIRST, ContentQuery.OLDEST_FIRST)) {
+            for (LocalDate from : Arrays.asList(null, LocalDate.of(2000, 1, 10))) {
+                var query = new ContentQuery.ContentQueryBuilder()
+                        .withReleaseDateBetween(from, from == null ? null : from.plusDays(5))
+                        .withDurationBetween(70, null)
+                        .withOrder(order)
+                        .withLimit(25)
+                        .build();
+                List<Content> expected = contents.stream()
+                        .filter(query::matches)
+                        .sorted(order)
+                        .limit(25)
+                        .collect(Collectors.toList());
+
+                assertThat(largeIndex.find(query)).containsExactlyElementsOf(expected);
+            }
+        }
+        var untilUndated = new ContentQuery.ContentQueryBuilder()
+                .withOrder(ContentQuery.OLDEST_FIRST)
+                .withLimit(190)
+                .build();
+        assertThat(largeIndex.find(untilUndated).subList(171, 190))
+                .allMatch(content -> content.getReleaseDate().isEmpty());
+    }
+
+    @Test
+    public void testApplyKeepsIndexesInSyncWithEvents() {
+        Content updatedOldMovie = new Movie.MovieBuilder("OldMovie", new Episode(1, 80))
+                .withReleaseDate(LocalDate.of(2025, 1, 1))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        index.apply(new UpdateContentEvent(oldMovie, updatedOldMovie));
+        index.apply(new BatchContentEvent(List.of(
+                new RemoveContentEvent(newMovie),
+                new RemoveContentEvent(longMovie))));
+
+        var query = new ContentQuery.ContentQueryBuilder()
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        assertThat(index.find(query)).containsExactly(updatedOldMovie);
+
+        query = new ContentQuery.ContentQueryBuilder()
+                .withResolution(VideoResolution.SD_480P)
+                .build();
+        assertThat(index.find(query)).isEmpty();
+    }
+
+    @Test
+    public void testQueryBuilderThrowsForInvalidRanges() {
+        var builder = new ContentQuery.ContentQueryBuilder();
+
+        assertThatThrownBy(() -> builder.withReleaseDateBetween(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Release date range start cannot be after its end");
+        assertThatThrownBy(() -> builder.withDurationBetween(10, 5))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duration range start cannot be greater than its end");
+        assertThatThrownBy(() -> builder.withLimit(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be a positive integer greater than 0");
+    }
+}
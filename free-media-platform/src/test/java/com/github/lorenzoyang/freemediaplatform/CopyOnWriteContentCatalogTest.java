@@ -0,0 +1,58 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.*;
+
+public class CopyOnWriteContentCatalogTest {
+    private Content movie1;
+    private Content movie2;
+    private CopyOnWriteContentCatalog catalog;
+
+    @Before
+    public void setUp() {
+        this.movie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 1)).build();
+        this.movie2 = new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build();
+        this.catalog = new CopyOnWriteContentCatalog(List.of(movie1, movie2));
+    }
+
+    @Test
+    public void testMutationsPublishNewSnapshotVersions() {
+        CatalogSnapshot initial = catalog.snapshot();
+        assertEquals(0, initial.getVersion());
+
+        Content movie3 = new Movie.MovieBuilder("Movie3", new Episode(1, 1)).build();
+        assertTrue(catalog.add(movie3));
+        assertFalse(catalog.add(movie3));
+        assertEquals(1, catalog.snapshot().getVersion());
+
+        Content updated = new Movie.MovieBuilder("Movie1", new Episode(1, 2)).build();
+        assertThat(catalog.replace(updated)).containsSame(movie1);
+        assertThat(catalog.remove(movie2)).containsSame(movie2);
+        assertThat(catalog.remove(movie2)).isEmpty();
+
+        CatalogSnapshot latest = catalog.snapshot();
+        assertEquals(3, latest.getVersion());
+        assertThat(latest).containsExactly(updated, movie3);
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterMutations() {
+        CatalogSnapshot snapshot = catalog.snapshot();
+        var iterator = catalog.iterator();
+
+        catalog.add(new Movie.MovieBuilder("Movie3", new Episode(1, 1)).build());
+        catalog.remove(movie1);
+
+        assertThat(snapshot).containsExactly(movie1, movie2);
+        assertThat(snapshot.getContentByTitle("Movie1")).containsSame(movie1);
+        assertThat(iterator).toIterable().containsExactly(movie1, movie2);
+    }
+}
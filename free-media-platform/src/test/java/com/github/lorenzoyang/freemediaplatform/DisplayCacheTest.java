@@ -0,0 +1,140 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class DisplayCacheTest {
+    private final AtomicInteger renders = new AtomicInteger();
+
+    private String render(Content content) {
+        renders.incrementAndGet();
+        return content.getTitle() + "!";
+    }
+
+    private static Content movie(String title) {
+        return new Movie.MovieBuilder(title, new Episode(1, 1)).build();
+    }
+
+    @Test
+    public void testRepeatedRendersAreServedFromCache() {
+        var cache = new DisplayCache(100);
+        Content movie = movie("Movie");
+
+        assertEquals("Movie!", cache.get(movie, this::render));
+        assertEquals("Movie!", cache.get(movie, this::render));
+
+        DisplayCacheStats stats = cache.stats();
+        assertEquals(1, renders.get());
+        assertEquals(1, stats.getHitCount());
+        assertEquals(1, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+        assertEquals(6, stats.getWeight());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedRendersAreEvictedBeyondCapacity() {
+        var cache = new DisplayCache(12);
+        Content movie1 = movie("Movie");
+        Content movie2 = movie("Other");
+        Content movie3 = movie("Third");
+
+        cache.get(movie1, this::render);
+        cache.get(movie2, this::render);
+        cache.get(movie1, this::render);
+        cache.get(movie3, this::render);
+
+        DisplayCacheStats stats = cache.stats();
+        assertEquals(1, stats.getEvictionCount());
+        assertEquals(2, stats.getSize());
+        cache.get(movie1, this::render);
+        assertEquals(3, renders.get());
+        cache.get(movie2, this::render);
+        assertEquals(4, renders.get());
+    }
+
+    @Test
+    public void testRenderLargerThanCapacityIsNotCached() {
+        var cache = new DisplayCache(3);
+
+        cache.get(movie("Movie"), this::render);
+
+        assertEquals(0, cache.stats().getSize());
+        assertEquals(0, cache.stats().getEvictionCount());
+    }
+
+    @Test
+    public void testUpdateAndRemoveEventsInvalidateEntries() {
+        var cache = new DisplayCache(100);
+        Content movie1 = movie("Movie1");
+        Content movie2 = movie("Movie2");
+        Content movie3 = movie("Movie3");
+        cache.get(movie1, this::render);
+        cache.get(movie2, this::render);
+        cache.get(movie3, this::render);
+
+        cache.apply(new UpdateContentEvent(movie1, movie("Movie1")));
+        cache.apply(new BatchContentEvent(List.of(new RemoveContentEvent(movie2))));
+
+        assertEquals(1, cache.stats().getSize());
+        cache.get(movie3, this::render);
+        assertEquals(1, cache.stats().getHitCount());
+    }
+
+    @Test
+    public void testEntryIsOnlyServedForTheContentItWasRenderedFrom() {
+        var cache = new DisplayCache(100);
+        cache.get(movie("Movie"), this::render);
+        cache.get(movie("Movie"), this::render);
+
+        assertEquals(2, renders.get());
+        assertEquals(0, cache.stats().getHitCount());
+        assertEquals(1, cache.stats().getSize());
+    }
+
+    @Test
+    public void testConcurrentReadersAreServedConsistently() throws Exception {
+        // room for about half of the contents, so hits race with misses and evictions
+        var cache = new DisplayCache(10 * 8);
+        List<Content> contents = IntStream.range(0, 20)
+                .mapToObj(i -> movie("Movie" + String.format("%02d", i)))
+                .collect(Collectors.toList());
+        ExecutorService readers = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int reader = 0; reader < 8; reader++) {
+            int offset = reader;
+            futures.add(readers.submit(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    Content content = contents.get((offset + i * (i % 3 == 0 ? 1 : 7)) % contents.size());
+                    assertEquals(content.getTitle() + "!", cache.get(content, this::render));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        readers.shutdown();
+
+        DisplayCacheStats stats = cache.stats();
+        assertEquals(8 * 5_000, stats.getHitCount() + stats.getMissCount());
+        assertEquals(renders.get(), stats.getMissCount());
+        assertTrue(stats.getWeight() <= 10 * 8);
+        assertEquals(8L * stats.getSize(), stats.getWeight());
+    }
+}
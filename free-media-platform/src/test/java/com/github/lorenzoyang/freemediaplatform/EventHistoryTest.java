@@ -0,0 +1,66 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import org.junit.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+public class EventHistoryTest {
+    private static PlatformEvent event(long sequence) {
+        return new AddContentEvent(new Movie.MovieBuilder("Movie" + sequence, new Episode(1, 1)).build(),
+                sequence, Instant.EPOCH);
+    }
+
+    @Test
+    public void testEventsFromReturnsRetainedEventsInOrder() {
+        EventHistory history = new EventHistory(3);
+        for (long sequence = 1; sequence <= 5; sequence++) {
+            history.record(event(sequence));
+        }
+
+        assertEquals(5, history.lastSequence());
+        assertEquals(3, history.firstRetainedSequence());
+        assertThat(history.eventsFrom(3)).extracting(PlatformEvent::getSequence).containsExactly(3L, 4L, 5L);
+        assertThat(history.eventsFrom(5)).extracting(PlatformEvent::getSequence).containsExactly(5L);
+        assertThat(history.eventsFrom(6)).isEmpty();
+        assertThat(history.eventsFrom(10)).isEmpty();
+    }
+
+    @Test
+    public void testEventsFromThrowsForSequencesNoLongerRetained() {
+        EventHistory history = new EventHistory(2);
+        assertThat(history.eventsFrom(1)).isEmpty();
+        for (long sequence = 1; sequence <= 3; sequence++) {
+            history.record(event(sequence));
+        }
+
+        assertThatThrownBy(() -> history.eventsFrom(1))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Events before sequence 2 are no longer retained");
+        assertThatThrownBy(() -> history.eventsFrom(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Sequence must be a positive integer greater than 0");
+    }
+
+    @Test
+    public void testSequencedEventsRequireValidSequenceAndTimestamp() {
+        var movie = new Movie.MovieBuilder("Movie", new Episode(1, 1)).build();
+
+        assertEquals(PlatformEvent.UNSEQUENCED, new AddContentEvent(movie).getSequence());
+        assertThat(new AddContentEvent(movie).getTimestamp()).isEmpty();
+        assertThatThrownBy(() -> new AddContentEvent(movie, 0, Instant.EPOCH))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Sequence must be a positive integer greater than 0");
+        assertThatThrownBy(() -> new AddContentEvent(movie, 1, null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Timestamp cannot be null");
+    }
+}
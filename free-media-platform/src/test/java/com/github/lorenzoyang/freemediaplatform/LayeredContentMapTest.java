@@ -0,0 +1,85 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.*;
+
+public class LayeredContentMapTest {
+    private static Content movie(String title, int duration) {
+        return new Movie.MovieBuilder(title, new Episode(1, duration)).build();
+    }
+
+    @Test
+    public void testEditsFollowLinkedHashMapSemantics() {
+        var base = new LinkedHashMap<String, Content>();
+        base.put("A", movie("A", 1));
+        base.put("B", movie("B", 1));
+        base.put("C", movie("C", 1));
+        var initial = new LayeredContentMap(base);
+
+        var editor = initial.edit();
+        Content updatedA = movie("A", 2);
+        assertNotNull(editor.replace("A", updatedA));
+        assertNotNull(editor.remove("B"));
+        assertNull(editor.putIfAbsent("D", movie("D", 1)));
+        assertNull(editor.putIfAbsent("B", movie("B", 2)));
+        assertNull(editor.remove("E"));
+        var edited = editor.build();
+
+        assertThat(edited.keySet()).containsExactly("A", "C", "D", "B");
+        assertSame(updatedA, edited.get("A"));
+        assertEquals(2, edited.get("B").getDurationInMinutes());
+        assertEquals(4, edited.size());
+        // the previous version is not affected
+        assertThat(initial.keySet()).containsExactly("A", "B", "C");
+        assertEquals(1, initial.get("A").getDurationInMinutes());
+    }
+
+    @Test
+    public void testRandomEditsMatchLinkedHashMapAcrossMerges() {
+        var random = new Random(42);
+        var expected = new LinkedHashMap<String, Content>();
+        var actual = new LayeredContentMap(new LinkedHashMap<>());
+        List<LayeredContentMap> versions = new ArrayList<>();
+        List<List<String>> versionTitles = new ArrayList<>();
+
+        for (int i = 0; i < 5_000; i++) {
+            var editor = actual.edit();
+            for (int j = 0; j <= random.nextInt(3); j++) {
+                String title = "Movie" + random.nextInt(400);
+                Content content = movie(title, 1 + random.nextInt(100));
+                switch (random.nextInt(3)) {
+                    case 0:
+                        assertEquals(expected.putIfAbsent(title, content), editor.putIfAbsent(title, content));
+                        break;
+                    case 1:
+                        assertEquals(expected.remove(title), editor.remove(title));
+                        break;
+                    default:
+                        assertEquals(expected.replace(title, content), editor.replace(title, content));
+                        break;
+                }
+            }
+            actual = editor.build();
+            if (i % 500 == 0) {
+                versions.add(actual);
+                versionTitles.add(new ArrayList<>(expected.keySet()));
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+
+        assertThat(actual.entrySet()).containsExactlyElementsOf(expected.entrySet());
+        for (int i = 0; i < versions.size(); i++) {
+            assertThat(versions.get(i).keySet()).containsExactlyElementsOf(versionTitles.get(i));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ObserverRegistryTest {
+    private final PlatformObserver addObserver = event -> {
+    };
+    private final PlatformObserver removeObserver = event -> {
+    };
+    private final PlatformObserver allObserver = event -> {
+    };
+    private ObserverRegistry<PlatformObserver> registry;
+    private Content movie;
+
+    @Before
+    public void setUp() {
+        this.registry = new ObserverRegistry<>();
+        registry.register(addObserver, addObserver, Set.of(AddContentEvent.class));
+        registry.register(removeObserver, removeObserver, Set.of(RemoveContentEvent.class));
+        registry.register(allObserver, allObserver, allObserver.getSubscribedEventTypes());
+        this.movie = new Movie.MovieBuilder("Movie", new Episode(1, 1)).build();
+    }
+
+    @Test
+    public void testSubscribersOfReturnsOnlyObserversOfTheEventType() {
+        assertThat(registry.subscribersOf(new AddContentEvent(movie)))
+                .containsExactly(addObserver, allObserver);
+        assertThat(registry.subscribersOf(new RemoveContentEvent(movie)))
+                .containsExactly(removeObserver, allObserver);
+        assertThat(registry.subscribersOf(new UpdateContentEvent(movie, movie)))
+                .containsExactly(allObserver);
+    }
+
+    @Test
+    public void testSubscribersOfBatchContainsObserversOfEveryContainedType() {
+        var updateBatch = new BatchContentEvent(List.of(new UpdateContentEvent(movie, movie)));
+        assertThat(registry.subscribersOf(updateBatch)).containsExactly(allObserver);
+
+        var mixedBatch = new BatchContentEvent(List.of(
+                new AddContentEvent(movie), new RemoveContentEvent(movie), new AddContentEvent(movie)));
+        assertThat(registry.subscribersOf(mixedBatch))
+                .containsExactlyInAnyOrder(addObserver, removeObserver, allObserver);
+
+        PlatformObserver batchObserver = event -> {
+        };
+        registry.register(batchObserver, batchObserver, Set.of(BatchContentEvent.class));
+        assertThat(registry.subscribersOf(updateBatch)).containsExactlyInAnyOrder(batchObserver, allObserver);
+    }
+
+    @Test
+    public void testRegisterAgainReplacesSubscribedTypes() {
+        registry.register(addObserver, addObserver, Set.of(RemoveContentEvent.class));
+
+        assertThat(registry.subscribersOf(new AddContentEvent(movie))).containsExactly(allObserver);
+        assertThat(registry.subscribersOf(new RemoveContentEvent(movie)))
+                .containsExactlyInAnyOrder(addObserver, removeObserver, allObserver);
+        assertThat(registry.observers()).containsExactly(addObserver, removeObserver, allObserver);
+    }
+
+    @Test
+    public void testUnregisterRemovesObserverFromEveryType() {
+        assertThat(registry.unregister(allObserver)).containsSame(allObserver);
+        assertThat(registry.unregister(allObserver)).isEmpty();
+
+        assertThat(registry.subscribersOf(new AddContentEvent(movie))).containsExactly(addObserver);
+        assertThat(registry.subscribersOf(new UpdateContentEvent(movie, movie))).isEmpty();
+        assertThat(registry.observers()).containsExactly(addObserver, removeObserver);
+    }
+
+    @Test
+    public void testRegisterThrowsForInvalidArguments() {
+        assertThatThrownBy(() -> registry.register(null, null, Set.of(AddContentEvent.class)))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Observer cannot be null");
+        assertThatThrownBy(() -> registry.register(addObserver, addObserver, null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Event types cannot be null");
+        assertThatThrownBy(() -> registry.register(addObserver, addObserver, Set.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Observer must subscribe to at least one event type");
+    }
+}
@@ -3,6 +3,7 @@ package com.github.lorenzoyang.freemediaplatform;
 import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.content.Episode;
 import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -70,6 +71,34 @@ public class PlatformEventLoggerTest {
         assertEquals(expected, this.platformEventLogger.logMessagesIterator().next());
     }
 
+    @Test
+    public void testNotifyChangeForBatchContentEventLogsEachChange() {
+        Content contentToAdd = new Movie.MovieBuilder("contentToAdd", new Episode(1, 1))
+                .build();
+        Content contentToRemove = this.platform.contentIterator().next();
+        this.platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                .withAddition(contentToAdd)
+                .withRemoval(contentToRemove)
+                .build());
+
+        assertThat(this.platformEventLogger.getLogMessages()).containsExactly(
+                "Content Added: {Title='contentToAdd', Description='No description available', " +
+                        "Release Date='Release date not specified', Resolution='Resolution not specified'}",
+                "Content Removed: {Title='Movie', Description='No description available', " +
+                        "Release Date='Release date not specified', Resolution='Resolution not specified'}"
+        );
+    }
+
+    @Test
+    public void testNotifyChangeForLoadContentEventLogsLoadedCount() {
+        this.platformEventLogger.notifyChange(new LoadContentEvent(List.of(
+                new Movie.MovieBuilder("Movie1", new Episode(1, 1)).build(),
+                new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build()
+        )));
+
+        assertEquals("Contents Loaded: 2", this.platformEventLogger.logMessagesIterator().next());
+    }
+
     @Test
     public void testClearLogMessagesRunsCorrectly() {
         this.platformEventLogger.getLogMessages().add("Test log message");
@@ -3,12 +3,16 @@ package com.github.lorenzoyang.freemediaplatform;
 import com.github.lorenzoyang.freemediaplatform.content.Content;
 import com.github.lorenzoyang.freemediaplatform.content.Episode;
 import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
 import com.github.lorenzoyang.freemediaplatform.utils.MockEmailNotificationService;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 
@@ -85,4 +89,55 @@ public class PlatformUserTest {
         String expected = "";
         assertEquals(expected, this.emailNotificationService.getLastNotificationMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testUserIsNotSubscribedToRemoveContentEvents() {
+        PlatformUser user = new PlatformUser("lorenzoyang@gmail.com", this.emailNotificationService);
+
+        assertThat(user.getSubscribedEventTypes())
+                .containsExactlyInAnyOrder(AddContentEvent.class, UpdateContentEvent.class);
+    }
+
+    @Test
+    public void testNotifyChangeForBatchContentEventSendsOneEmailPerKindOfChange() {
+        Content updatedContent = new Movie.MovieBuilder("Movie", new Episode(1, 1))
+                .withDescription("Updated description")
+                .build();
+        this.platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                .withAddition(new Movie.MovieBuilder("Movie1", new Episode(1, 1)).build())
+                .withAddition(new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build())
+                .withUpdate(updatedContent)
+                .build());
+
+        assertEquals(2, this.emailNotificationService.getNotificationsCount());
+        String expected = "To: lorenzoyang@gmail.com\n" +
+                "Subject: Content Updated\n" +
+                "Message: Content updated: Movie. Check your email for details.";
+        assertEquals(expected, this.emailNotificationService.getLastNotificationMessage());
+
+        this.platform.addContents(List.of(
+                new Movie.MovieBuilder("Movie3", new Episode(1, 1)).build(),
+                new Movie.MovieBuilder("Movie4", new Episode(1, 1)).build()
+        ));
+        assertEquals(3, this.emailNotificationService.getNotificationsCount());
+        expected = "To: lorenzoyang@gmail.com\n" +
+                "Subject: New Content Added\n" +
+                "Message: New content added: Movie3, Movie4. Check your email for details.";
+        assertEquals(expected, this.emailNotificationService.getLastNotificationMessage());
+    }
+
+    @Test
+    public void testNotifyChangeForLargeBatchListsTheFirstTitlesOnly() {
+        List<Content> contents = new ArrayList<>();
+        for (int i = 1; i <= 13; i++) {
+            contents.add(new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build());
+        }
+        this.platform.addContents(contents);
+
+        String expected = "To: lorenzoyang@gmail.com\n" +
+                "Subject: New Content Added\n" +
+                "Message: New content added: Movie1, Movie2, Movie3, Movie4, Movie5, Movie6, Movie7, " +
+                "Movie8, Movie9, Movie10 and 3 more. Check your email for details.";
+        assertEquals(expected, this.emailNotificationService.getLastNotificationMessage());
+    }
+}
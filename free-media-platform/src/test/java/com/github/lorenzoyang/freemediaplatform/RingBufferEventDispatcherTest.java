@@ -0,0 +1,461 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.BatchContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferEventDispatcherTest {
+    private static PlatformEvent addEvent(int i) {
+        Content movie = new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build();
+        return new AddContentEvent(movie);
+    }
+
+    private static List<String> titles(List<PlatformEvent> events) {
+        return events.stream()
+                .map(event -> ((AddContentEvent) event).getAddedContent().getTitle())
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testEventsAreDeliveredInOrderWithEveryWaitStrategy() {
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                    .withCapacity(8)
+                    .withWaitStrategy(waitStrategy)
+                    .build();
+            List<PlatformEvent> received1 = Collections.synchronizedList(new ArrayList<>());
+            List<PlatformEvent> received2 = Collections.synchronizedList(new ArrayList<>());
+            dispatcher.addObserver(received1::add);
+            dispatcher.addObserver(received2::add);
+
+            // the ring wraps many times
+            List<PlatformEvent> dispatched = IntStream.range(0, 200)
+                    .mapToObj(RingBufferEventDispatcherTest::addEvent)
+                    .collect(Collectors.toList());
+            dispatched.forEach(dispatcher::dispatch);
+            dispatcher.flush();
+
+            assertEquals(waitStrategy.name(), dispatched, received1);
+            assertEquals(waitStrategy.name(), dispatched, received2);
+            dispatcher.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentPublishersKeepTheirOwnOrder() throws Exception {
+        ExecutorService publishers = Executors.newFixedThreadPool(4);
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withCapacity(16)
+                .build();
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addObserver(received::add);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int publisher = 0; publisher < 4; publisher++) {
+            int first = publisher * 1_000;
+            futures.add(publishers.submit(() -> {
+                for (int i = first; i < first + 500; i++) {
+                    dispatcher.dispatch(addEvent(i));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        dispatcher.flush();
+        publishers.shutdown();
+
+        List<String> titles = titles(received);
+        assertEquals(2_000, titles.size());
+        for (int publisher = 0; publisher < 4; publisher++) {
+            List<String> expected = IntStream.range(publisher * 1_000, publisher * 1_000 + 500)
+                    .mapToObj(i -> "Movie" + i)
+                    .collect(Collectors.toList());
+            assertThat(titles.stream().filter(expected::contains)).containsExactlyElementsOf(expected);
+        }
+        dispatcher.close();
+    }
+
+    @Test
+    public void testConsumedSlotsAreCleared() throws InterruptedException {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withCapacity(8)
+                .build();
+        List<PlatformEvent> received1 = Collections.synchronizedList(new ArrayList<>());
+        List<PlatformEvent> received2 = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addObserver(received1::add);
+        dispatcher.addObserver(received2::add);
+
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+        dispatcher.flush();
+
+        assertEquals(20, received1.size());
+        assertEquals(20, received2.size());
+        // the last consumer clears the slots right after advancing its sequence
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (dispatcher.getRetainedEventsCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(0, dispatcher.getRetainedEventsCount());
+        dispatcher.close();
+    }
+
+    @Test
+    public void testPublishingAnEventDoesNotAllocate() {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withCapacity(64)
+                .build();
+        AtomicLong delivered = new AtomicLong();
+        dispatcher.addObserver(event -> delivered.incrementAndGet());
+        PlatformEvent event = addEvent(1);
+        long[] published = {0};
+
+        // the ring never fills up, so the publisher does not wait for the consumer; only the
+        // publication is measured, the critical observers are notified through their collection
+        long allocated = Allocations.allocatedBytes(500, () -> {
+            for (int i = 0; i < 32; i++) {
+                dispatcher.dispatchNonCritical(event);
+            }
+            published[0] += 32;
+            while (delivered.get() < published[0]) {
+                Thread.onSpinWait();
+            }
+        });
+
+        assertEquals(0, allocated);
+        dispatcher.close();
+    }
+
+    @Test
+    public void testObserversOnlyReceiveSubscribedEvents() {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder().build();
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addObserver(received::add, Set.of(RemoveContentEvent.class));
+
+        Content movie = new Movie.MovieBuilder("Movie", new Episode(1, 1)).build();
+        PlatformEvent remove = new RemoveContentEvent(movie);
+        PlatformEvent batch = new BatchContentEvent(List.of(new RemoveContentEvent(movie)));
+        dispatcher.dispatch(addEvent(1));
+        dispatcher.dispatch(remove);
+        dispatcher.dispatch(batch);
+        dispatcher.flush();
+
+        assertThat(received).containsExactly(remove, batch);
+        dispatcher.close();
+    }
+
+    @Test
+    public void testRemovedObserverNoLongerGatesPublishers() {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withCapacity(2)
+                .build();
+        PlatformObserver stuck = event -> {
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addObserver(stuck);
+        dispatcher.addObserver(received::add);
+
+        dispatcher.dispatch(addEvent(0));
+        dispatcher.removeObserver(stuck);
+        for (int i = 1; i < 10; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+        dispatcher.flush();
+
+        assertThat(dispatcher.getObservers()).hasSize(1);
+        assertThat(received).hasSize(10);
+        dispatcher.close();
+    }
+
+    @Test
+    public void testLaggingObserverIsQuarantinedAfterThePublishTimeout() throws InterruptedException {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withCapacity(2)
+                .withPublishTimeout(Duration.ofMillis(50))
+                .build();
+        CountDownLatch unblocked = new CountDownLatch(1);
+        List<PlatformEvent> lagging = Collections.synchronizedList(new ArrayList<>());
+        PlatformObserver stuck = event -> {
+            lagging.add(event);
+            try {
+                unblocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        dispatcher.addObserver(stuck);
+        dispatcher.addObserver(received::add);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+        dispatcher.flush();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(received).hasSize(10);
+        assertTrue(dispatcher.getObserverMetrics().get(stuck).isQuarantined());
+
+        // once released, the observer receives the events published after it caught up
+        unblocked.countDown();
+        dispatcher.releaseObserver(stuck);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (lagging.size() < 2 && System.nanoTime() < deadline) {
+            dispatcher.dispatch(addEvent(lagging.size() + 100));
+            dispatcher.flush();
+        }
+        assertFalse(dispatcher.getObserverMetrics().get(stuck).isQuarantined());
+        assertThat(lagging).hasSizeGreaterThanOrEqualTo(2);
+        dispatcher.close();
+    }
+
+    @Test
+    public void testConsumerReleasedDuringABatchSkipsTheReusedSlots() throws InterruptedException {
+        List<Runnable> consumers = new ArrayList<>();
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withCapacity(4)
+                .withPublishTimeout(Duration.ofMillis(50))
+                .withExecutor(consumers::add)
+                .build();
+        CountDownLatch delivering = new CountDownLatch(1);
+        CountDownLatch unblocked = new CountDownLatch(1);
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        PlatformObserver stuck = event -> {
+            received.add(event);
+            delivering.countDown();
+            try {
+                unblocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        dispatcher.addObserver(stuck);
+
+        // the consumer starts once the ring is full, so its first batch holds the four events
+        for (int i = 0; i < 4; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+        Thread consumer = new Thread(consumers.get(0));
+        consumer.start();
+        delivering.await();
+        // the publishers quarantine the consumer and reuse the slots of its batch
+        for (int i = 4; i < 10; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+        assertTrue(dispatcher.getObserverMetrics().get(stuck).isQuarantined());
+        dispatcher.releaseObserver(stuck);
+        unblocked.countDown();
+        // the events published before the consumer caught up are skipped
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (int i = 10; received.size() < 3 && System.nanoTime() < deadline; i++) {
+            dispatcher.dispatch(addEvent(i));
+            dispatcher.flush();
+        }
+
+        List<Integer> numbers = titles(received).stream()
+                .map(title -> Integer.parseInt(title.substring("Movie".length())))
+                .collect(Collectors.toList());
+        assertThat(numbers).hasSizeGreaterThanOrEqualTo(3).startsWith(0).isSorted().doesNotHaveDuplicates();
+        assertThat(numbers.get(1)).isGreaterThanOrEqualTo(10);
+        dispatcher.close();
+        consumer.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(consumer.isAlive());
+    }
+
+    @Test
+    public void testCriticalObserverIsNotifiedOnThePublishingThread() {
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withCapacity(2)
+                .withPublishTimeout(Duration.ofMillis(50))
+                .build();
+        List<Thread> threads = new ArrayList<>();
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        PlatformObserver critical = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                threads.add(Thread.currentThread());
+                if (((AddContentEvent) event).getAddedContent().getTitle().equals("Movie2")) {
+                    throw new IllegalStateException("Critical failure");
+                }
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        dispatcher.addObserver(critical);
+        dispatcher.addObserver(received::add);
+
+        // a critical observer does not occupy a slot of the ring, it never lags behind
+        dispatcher.dispatch(addEvent(0));
+        dispatcher.dispatch(addEvent(1));
+        assertThatThrownBy(() -> dispatcher.dispatch(addEvent(2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Critical failure");
+        dispatcher.dispatch(addEvent(3));
+        dispatcher.flush();
+
+        assertThat(threads).hasSize(4).containsOnly(Thread.currentThread());
+        assertThat(titles(received)).containsExactly("Movie0", "Movie1", "Movie3");
+        assertFalse(dispatcher.getObserverMetrics().get(critical).isQuarantined());
+        dispatcher.close();
+    }
+
+    @Test
+    public void testFailingObserverKeepsReceivingLaterEvents() {
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .withExecutor(executor)
+                .build();
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        PlatformObserver failing = event -> {
+            received.add(event);
+            throw new IllegalStateException("Observer failure");
+        };
+        dispatcher.addObserver(failing);
+
+        dispatcher.dispatch(addEvent(1));
+        dispatcher.dispatch(addEvent(2));
+        dispatcher.flush();
+
+        assertThat(titles(received)).containsExactly("Movie1", "Movie2");
+        assertEquals(2, dispatcher.getObserverMetrics().get(failing).getFailedEventsCount());
+        dispatcher.close();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testCloseDrainsAndRejectsNewEvents() {
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        RingBufferEventDispatcher dispatcher = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder().build();
+        dispatcher.addObserver(received::add);
+
+        dispatcher.dispatch(addEvent(1));
+        dispatcher.close();
+
+        assertEquals(1, received.size());
+        assertThatThrownBy(() -> dispatcher.dispatch(addEvent(2)))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Event dispatcher is closed");
+    }
+
+    @Test
+    public void testBuilderRoundsCapacityAndThrowsForInvalidArguments() {
+        var builder = new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder();
+
+        assertEquals(16, builder.withCapacity(9).build().getCapacity());
+        assertEquals(1, builder.withCapacity(1).build().getCapacity());
+        assertThatThrownBy(() -> builder.withCapacity(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Capacity must be a positive integer greater than 0");
+        assertThatThrownBy(() -> builder.withWaitStrategy(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Wait strategy cannot be null");
+        assertThatThrownBy(() -> builder.withExecutor(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Executor cannot be null");
+        assertThatThrownBy(() -> builder.withPublishTimeout(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Publish timeout cannot be null");
+        assertThatThrownBy(() -> builder.withPublishTimeout(Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Publish timeout must be positive");
+    }
+
+    @Test
+    public void testStreamingPlatformWithRingBufferNotifiesAfterFlush() {
+        List<PlatformEvent> received = Collections.synchronizedList(new ArrayList<>());
+        try (StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withEventDispatcher(new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder().build())
+                .build()) {
+            platform.addObserver(received::add);
+
+            assertTrue(platform.addContent(new Movie.MovieBuilder("Movie", new Episode(1, 1)).build()));
+            platform.flush();
+
+            assertEquals(1, received.size());
+        }
+    }
+
+    @Test
+    public void testFullRingNeverFailsAPlatformMutation() {
+        CountDownLatch unblocked = new CountDownLatch(1);
+        PlatformObserver stuck = event -> {
+            try {
+                unblocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        List<PlatformEvent> logged = new ArrayList<>();
+        PlatformObserver critical = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                logged.add(event);
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        try (StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withEventDispatcher(new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                        .withCapacity(2)
+                        .withPublishTimeout(Duration.ofMillis(50))
+                        .build())
+                .build()) {
+            platform.addObserver(stuck);
+            platform.addObserver(critical);
+
+            for (int i = 0; i < 5; i++) {
+                assertTrue(platform.addContent(new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build()));
+            }
+
+            // the observer a full ring behind was quarantined instead of failing the mutations
+            assertEquals(5, platform.getContents().size());
+            assertEquals(5, logged.size());
+            assertTrue(platform.getObserverMetrics().get(stuck).isQuarantined());
+            unblocked.countDown();
+        }
+    }
+}
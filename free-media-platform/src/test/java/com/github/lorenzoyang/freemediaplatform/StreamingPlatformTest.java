@@ -1,13 +1,24 @@
 package com.github.lorenzoyang.freemediaplatform;
 
 import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.events.*;
 import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -76,6 +87,85 @@ public class StreamingPlatformTest {
         assertFalse(removed);
     }
 
+    @Test
+    public void testMutationsThrowNullPointerExceptionForNullContent() {
+        assertThatThrownBy(() -> this.platform.addContent(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Content cannot be null");
+        assertThatThrownBy(() -> this.platform.removeContent(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Content cannot be null");
+        assertThatThrownBy(() -> this.platform.updateContent(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Content cannot be null");
+    }
+
+    @Test
+    public void testAddContentsAndRemoveContentsNotifyObserversOnce() {
+        List<PlatformEvent> events = new ArrayList<>();
+        this.platform.addObserver(events::add);
+        Content movie2 = new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build();
+        Content movie3 = new Movie.MovieBuilder("Movie3", new Episode(1, 1)).build();
+
+        assertEquals(2, this.platform.addContents(List.of(movie2, movie3, movie2)));
+        assertEquals(4, this.platform.getContents().size());
+        assertEquals(1, events.size());
+        assertThat(((BatchContentEvent) events.get(0)).getEvents()).hasSize(2);
+
+        assertEquals(0, this.platform.addContents(List.of(movie2)));
+        assertEquals(1, events.size());
+
+        assertEquals(2, this.platform.removeContents(List.of(movie2, movie3)));
+        assertEquals(2, this.platform.getContents().size());
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    public void testApplyChangesAppliesChangesInOrder() {
+        List<PlatformEvent> events = new ArrayList<>();
+        this.platform.addObserver(events::add);
+        Content movie1 = this.platform.getContentByTitle("Movie1").orElseThrow();
+        Content updatedMovie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 5)).build();
+        Content movie2 = new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build();
+
+        int applied = this.platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                .withUpdate(updatedMovie1)
+                .withAddition(movie2)
+                .withRemoval(movie2)
+                .withUpdate(movie2)
+                .build());
+
+        assertEquals(3, applied);
+        assertThat(this.platform.contentIterator()).toIterable().containsExactly(updatedMovie1,
+                this.platform.getContentByTitle("TVSeries1").orElseThrow());
+
+        BatchContentEvent event = (BatchContentEvent) events.get(0);
+        assertThat(event.getEvents()).hasSize(3);
+        UpdateContentEvent update = (UpdateContentEvent) event.getEvents().get(0);
+        assertSame(movie1, update.getOldContent());
+        assertSame(updatedMovie1, update.getUpdatedContent());
+        assertThat(event.getEvents().get(1)).isInstanceOf(AddContentEvent.class);
+        assertThat(event.getEvents().get(2)).isInstanceOf(RemoveContentEvent.class);
+    }
+
+    @Test
+    public void testApplyChangesValidatesWholeBatchBeforeApplying() {
+        var builder = new ContentChangeSet.ContentChangeSetBuilder()
+                .withAddition(new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build());
+
+        assertThatThrownBy(() -> builder.withAddition(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Content cannot be null");
+        assertThatThrownBy(() -> this.platform.addContents(Arrays.asList(
+                new Movie.MovieBuilder("Movie3", new Episode(1, 1)).build(), null)))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Content cannot be null");
+        assertThatThrownBy(() -> this.platform.applyChanges(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Content changes cannot be null");
+        assertEquals(2, this.platform.getContents().size());
+    }
+
     @Test
     public void testUpdateContentCorrectly() {
         Content oldContent = this.platform.contentIterator().next();
@@ -107,6 +197,35 @@ public class StreamingPlatformTest {
         assertEquals(expected, displayedContent);
     }
 
+    @Test
+    public void testDisplayContentIsCachedUntilContentIsUpdated() {
+        Content content = this.platform.contentIterator().next();
+        String displayedContent = this.platform.displayContent(content);
+        assertSame(displayedContent, this.platform.displayContent(content));
+
+        this.platform.updateContent(new Movie.MovieBuilder(content.getTitle(), new Episode(1, 1))
+                .withDescription("Updated description")
+                .build());
+
+        assertThat(this.platform.displayContent(content)).contains("Description: Updated description");
+        DisplayCacheStats stats = this.platform.getDisplayCacheStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    public void testDisplayContentWritesToAppendable() throws IOException {
+        Iterator<Content> contentIterator = this.platform.contentIterator();
+        contentIterator.next();
+        Content tvSeries = contentIterator.next();
+        var sb = new StringBuilder();
+
+        this.platform.displayContent(tvSeries, sb);
+
+        assertEquals(this.platform.displayContent(tvSeries), sb.toString());
+    }
+
     @Test
     public void testDisplayContentThrowsNullPointerExceptionForNullContent() {
         assertThatThrownBy(() -> this.platform.displayContent(null))
@@ -134,7 +253,10 @@ public class StreamingPlatformTest {
 
         Content tvSeries = contentIterator.next();
         episodes = this.platform.watchContent(tvSeries);
-        assertEquals(List.of(new Episode(1, 1), new Episode(2, 1)), episodes);
+        assertThat(episodes).containsExactly(new Episode(1, 1), new Episode(2, 1));
+
+        episodes = this.platform.watchContent(tvSeries, 1, 2);
+        assertThat(episodes).containsExactly(new Episode(2, 1));
     }
 
     @Test
@@ -168,4 +290,409 @@ public class StreamingPlatformTest {
         assertThat(platform.getObservers()).doesNotContain(observer);
         assertEquals(0, platform.getObservers().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindContentsFollowsCatalogMutations() {
+        var fourK = new ContentQuery.ContentQueryBuilder()
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        assertThat(this.platform.findContents(fourK)).isEmpty();
+
+        Content movie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 1))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.platform.updateContent(movie1);
+        assertThat(this.platform.findContents(fourK)).containsExactly(movie1);
+
+        this.platform.removeContents(List.of(movie1));
+        assertThat(this.platform.findContents(fourK)).isEmpty();
+    }
+
+    @Test
+    public void testContentPagesResumeFromCursorDespiteMutations() {
+        for (int i = 2; i <= 6; i++) {
+            this.platform.addContent(new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build());
+        }
+
+        ContentPage first = this.platform.getFirstContentPage(CatalogOrder.INSERTION, 3);
+        assertThat(first).extracting(Content::getTitle).containsExactly("Movie1", "TVSeries1", "Movie2");
+
+        // removing an already served content and adding a new one do not shift the next page
+        this.platform.removeContent(first.getContents().get(0));
+        this.platform.addContent(new Movie.MovieBuilder("Movie7", new Episode(1, 1)).build());
+
+        ContentPage second = this.platform.getNextContentPage(first.getNextCursor().orElseThrow(), 3);
+        assertThat(second).extracting(Content::getTitle).containsExactly("Movie3", "Movie4", "Movie5");
+        ContentPage third = this.platform.getNextContentPage(second.getNextCursor().orElseThrow(), 3);
+        assertThat(third).extracting(Content::getTitle).containsExactly("Movie6", "Movie7");
+        assertThat(third.getNextCursor()).isEmpty();
+    }
+
+    @Test
+    public void testContentPagesInTitleOrder() {
+        this.platform.addContent(new Movie.MovieBuilder("A Movie", new Episode(1, 1)).build());
+
+        ContentPage first = this.platform.getFirstContentPage(CatalogOrder.TITLE, 2);
+        assertThat(first).extracting(Content::getTitle).containsExactly("A Movie", "Movie1");
+        ContentPage second = this.platform.getNextContentPage(first.getNextCursor().orElseThrow(), 2);
+        assertThat(second).extracting(Content::getTitle).containsExactly("TVSeries1");
+        assertThat(second.getNextCursor()).isEmpty();
+    }
+
+    @Test
+    public void testUpdatedContentKeepsItsPagePosition() {
+        Content updatedMovie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 5)).build();
+        this.platform.updateContent(updatedMovie1);
+
+        ContentPage page = this.platform.getFirstContentPage(CatalogOrder.INSERTION, 10);
+        assertThat(page.getContents()).containsExactly(updatedMovie1,
+                this.platform.getContentByTitle("TVSeries1").orElseThrow());
+    }
+
+    @Test
+    public void testContentPagesThrowForInvalidArguments() {
+        assertThatThrownBy(() -> this.platform.getFirstContentPage(CatalogOrder.TITLE, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page size must be a positive integer greater than 0");
+        assertThatThrownBy(() -> this.platform.getNextContentPage("not a cursor", 10))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid content cursor");
+        assertThatThrownBy(() -> this.platform.getNextContentPage("VElUTEU", 10))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid content cursor");
+    }
+
+    @Test
+    public void testContentStreamSupportsParallelTraversal() {
+        List<Content> movies = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            movies.add(new Movie.MovieBuilder("Movie-" + i, new Episode(1, i + 1)).build());
+        }
+        this.platform.addContents(movies);
+
+        int expected = this.platform.getContents().stream().mapToInt(Content::getDurationInMinutes).sum();
+        assertEquals(expected, this.platform.contentStream().parallel().mapToInt(Content::getDurationInMinutes).sum());
+        assertThat(this.platform.contentStream().map(Content::getTitle).limit(2))
+                .containsExactly("Movie1", "TVSeries1");
+    }
+
+    @Test
+    public void testAddObserverWithEventTypesOnlyDeliversThoseTypes() {
+        List<PlatformEvent> events = new ArrayList<>();
+        this.platform.addObserver(events::add, Set.of(RemoveContentEvent.class));
+        Content newMovie = new Movie.MovieBuilder("NewMovie", new Episode(1, 1)).build();
+
+        this.platform.addContent(newMovie);
+        this.platform.updateContent(newMovie);
+        assertThat(events).isEmpty();
+
+        this.platform.removeContent(newMovie);
+        assertThat(events).hasSize(1).first().isInstanceOf(RemoveContentEvent.class);
+    }
+
+    @Test
+    public void testAttachObserverInitializesFromCurrentCatalog() {
+        List<Content> initialContents = new ArrayList<>();
+        List<PlatformEvent> events = new ArrayList<>();
+
+        this.platform.attachObserver(events::add, snapshot -> snapshot.forEach(initialContents::add));
+        this.platform.addContent(new Movie.MovieBuilder("NewMovie", new Episode(1, 1)).build());
+
+        assertThat(initialContents).extracting(Content::getTitle).containsExactly("Movie1", "TVSeries1");
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    public void testConcurrentPlatformServesReadsWhileWritersMutate() throws Exception {
+        StreamingPlatform concurrentPlatform = new StreamingPlatform.StreamingPlatformBuilder(
+                "Streaming Platform", List::of)
+                .withConcurrentAccess(true)
+                .build();
+        Collection<PlatformEvent> events = new ConcurrentLinkedQueue<>();
+        concurrentPlatform.addObserver(events::add);
+
+        int writers = 4;
+        int readers = 4;
+        int titlesPerWriter = 500;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < titlesPerWriter; i++) {
+                    Content movie = new Movie.MovieBuilder("Movie-" + writer + "-" + i, new Episode(1, 1))
+                            .build();
+                    assertTrue(concurrentPlatform.addContent(movie));
+                    if (i % 2 == 0) {
+                        assertTrue(concurrentPlatform.removeContent(movie));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < readers; r++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                long lastVersion = -1;
+                while (writing.get()) {
+                    CatalogSnapshot snapshot = concurrentPlatform.catalogSnapshot();
+                    assertThat(snapshot.getVersion()).isGreaterThanOrEqualTo(lastVersion);
+                    lastVersion = snapshot.getVersion();
+
+                    int count = 0;
+                    for (Content content : snapshot) {
+                        assertThat(snapshot.getContentByTitle(content.getTitle())).containsSame(content);
+                        count++;
+                    }
+                    assertEquals(snapshot.size(), count);
+                    concurrentPlatform.contentIterator().forEachRemaining(content -> {
+                    });
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (int i = 0; i < writers; i++) {
+            futures.get(i).get(30, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        int expectedSize = writers * titlesPerWriter / 2;
+        assertEquals(expectedSize, concurrentPlatform.getContents().size());
+        assertEquals(writers * titlesPerWriter * 3 / 2, concurrentPlatform.catalogSnapshot().getVersion());
+        assertEquals(writers * titlesPerWriter * 3 / 2, events.size());
+    }
+
+    @Test
+    public void testPublishedEventsAreSequencedAndTimestamped() {
+        Instant now = Instant.parse("2024-05-01T10:00:00Z");
+        StreamingPlatform clockedPlatform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withClock(Clock.fixed(now, ZoneOffset.UTC))
+                .build();
+        List<PlatformEvent> events = new ArrayList<>();
+        clockedPlatform.addObserver(events::add);
+        Content movie = new Movie.MovieBuilder("Movie", new Episode(1, 1)).build();
+
+        assertEquals(0, clockedPlatform.getLastEventSequence());
+        clockedPlatform.addContent(movie);
+        clockedPlatform.addContents(List.of(new Movie.MovieBuilder("Other", new Episode(1, 1)).build()));
+        clockedPlatform.removeContent(movie);
+
+        assertThat(events).extracting(PlatformEvent::getSequence).containsExactly(1L, 2L, 3L);
+        assertThat(events).extracting(event -> event.getTimestamp().orElseThrow()).containsOnly(now);
+        assertEquals(PlatformEvent.UNSEQUENCED, ((BatchContentEvent) events.get(1)).getEvents().get(0).getSequence());
+        assertEquals(3, clockedPlatform.getLastEventSequence());
+    }
+
+    @Test
+    public void testAddObserverFromSequenceReplaysThenDeliversLiveEvents() {
+        for (int i = 1; i <= 4; i++) {
+            platform.addContent(new Movie.MovieBuilder("NewMovie" + i, new Episode(1, 1)).build());
+        }
+        List<PlatformEvent> events = new ArrayList<>();
+
+        platform.addObserver(events::add, 3);
+        platform.addContent(new Movie.MovieBuilder("NewMovie5", new Episode(1, 1)).build());
+
+        assertThat(events).extracting(PlatformEvent::getSequence).containsExactly(3L, 4L, 5L);
+        assertThat(events).extracting(event -> ((AddContentEvent) event).getAddedContent().getTitle())
+                .containsExactly("NewMovie3", "NewMovie4", "NewMovie5");
+    }
+
+    @Test
+    public void testBatchIsReplayedAsAWhole() {
+        platform.addContents(List.of(
+                new Movie.MovieBuilder("NewMovie1", new Episode(1, 1)).build(),
+                new Movie.MovieBuilder("NewMovie2", new Episode(1, 1)).build()));
+        long batchSequence = platform.getLastEventSequence();
+        List<PlatformEvent> events = new ArrayList<>();
+
+        platform.addObserver(events::add, batchSequence);
+
+        assertThat(events).hasSize(1);
+        assertThat(((BatchContentEvent) events.get(0)).getEvents())
+                .extracting(event -> ((AddContentEvent) event).getAddedContent().getTitle())
+                .containsExactly("NewMovie1", "NewMovie2");
+    }
+
+    @Test
+    public void testEventsCreatedOutsideThePlatformAreUnsequenced() {
+        PlatformEvent event = visitor -> {
+        };
+
+        assertEquals(PlatformEvent.UNSEQUENCED, event.getSequence());
+        assertThat(event.getTimestamp()).isEmpty();
+    }
+
+    @Test
+    public void testAddObserverFromSequenceReplaysThroughTheDispatcher() {
+        StreamingPlatform quarantiningPlatform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withEventDispatcher(new SynchronousEventDispatcher(new QuarantinePolicy.QuarantinePolicyBuilder()
+                        .withErrorBudget(2)
+                        .build()))
+                .build();
+        for (int i = 1; i <= 4; i++) {
+            quarantiningPlatform.addContent(new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build());
+        }
+        List<PlatformEvent> received = new ArrayList<>();
+        PlatformObserver failing = event -> {
+            received.add(event);
+            throw new IllegalStateException("Observer failure");
+        };
+        quarantiningPlatform.addObserver(failing, 1);
+
+        assertEquals(2, received.size());
+        ObserverMetrics metrics = quarantiningPlatform.getObserverMetrics().get(failing);
+        assertEquals(2, metrics.getDeliveredEventsCount());
+        assertTrue(metrics.isQuarantined());
+    }
+
+    @Test
+    public void testCriticalObserverFailingTheReplayIsNotRegistered() {
+        platform.addContent(new Movie.MovieBuilder("NewMovie", new Episode(1, 1)).build());
+        PlatformObserver critical = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                throw new IllegalStateException("Critical failure");
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+
+        assertThatThrownBy(() -> platform.addObserver(critical, 1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Critical failure");
+        assertThat(platform.getObservers()).doesNotContain(critical);
+    }
+
+    @Test
+    public void testFailedCriticalObserverLeavesThePlatformUnchanged() {
+        AtomicBoolean failing = new AtomicBoolean(true);
+        List<PlatformEvent> accepted = new ArrayList<>();
+        PlatformObserver critical = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                if (failing.get()) {
+                    throw new IllegalStateException("Critical failure");
+                }
+                accepted.add(event);
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        List<PlatformEvent> received = new ArrayList<>();
+        // registered first, it would be notified before the critical observer
+        platform.addObserver(received::add);
+        platform.addObserver(critical);
+        Content movie = platform.getContentByTitle("Movie1").orElseThrow();
+        String display = platform.displayContent(movie);
+        Content updatedMovie = new Movie.MovieBuilder("Movie1", new Episode(1, 2)).build();
+        Content newMovie = new Movie.MovieBuilder("NewMovie", new Episode(1, 1)).build();
+        List<Content> contents = List.copyOf(platform.getContents());
+        long lastSequence = platform.getLastEventSequence();
+
+        assertThatThrownBy(() -> platform.addContent(newMovie)).hasMessage("Critical failure");
+        assertThatThrownBy(() -> platform.removeContent(movie)).hasMessage("Critical failure");
+        assertThatThrownBy(() -> platform.updateContent(updatedMovie)).hasMessage("Critical failure");
+        assertThatThrownBy(() -> platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                .withAddition(newMovie)
+                .withRemoval(movie)
+                .build())).hasMessage("Critical failure");
+
+        assertThat(platform.getContents()).containsExactlyInAnyOrderElementsOf(contents);
+        assertThat(platform.getFirstContentPage(CatalogOrder.INSERTION, 10).getContents())
+                .containsExactlyElementsOf(contents);
+        assertEquals(lastSequence, platform.getLastEventSequence());
+        assertSame(display, platform.displayContent(movie));
+        assertThat(received).isEmpty();
+
+        // the sequence of a rejected event is given to the next accepted one
+        failing.set(false);
+        assertTrue(platform.updateContent(updatedMovie));
+        assertThat(received).containsExactlyElementsOf(accepted);
+        assertEquals(lastSequence + 1, received.get(0).getSequence());
+        assertThat(platform.displayContent(movie)).isNotEqualTo(display);
+    }
+
+    @Test
+    public void testBatchIsAppliedOnlyOnceTheCriticalObserversAcceptIt() {
+        for (boolean concurrent : new boolean[]{false, true}) {
+            Content movie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 1)).build();
+            Content movie2 = new Movie.MovieBuilder("Movie2", new Episode(1, 1)).build();
+            Content newMovie = new Movie.MovieBuilder("NewMovie", new Episode(1, 1)).build();
+            StreamingPlatform batchPlatform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform",
+                    () -> List.of(movie1, movie2))
+                    .withConcurrentAccess(concurrent)
+                    .build();
+            AtomicBoolean failing = new AtomicBoolean(true);
+            List<Content> seen = new ArrayList<>();
+            batchPlatform.addObserver(new PlatformObserver() {
+                @Override
+                public void notifyChange(PlatformEvent event) {
+                    // the catalog is not changed yet when the event is notified
+                    seen.addAll(batchPlatform.getContents());
+                    if (failing.get()) {
+                        throw new IllegalStateException("Critical failure");
+                    }
+                }
+
+                @Override
+                public boolean isCritical() {
+                    return true;
+                }
+            });
+            ContentChangeSet changes = new ContentChangeSet.ContentChangeSetBuilder()
+                    .withRemoval(movie1)
+                    .withAddition(newMovie)
+                    .withAddition(movie1)
+                    .withAddition(movie2)
+                    .build();
+
+            assertThatThrownBy(() -> batchPlatform.applyChanges(changes)).hasMessage("Critical failure");
+            assertThat(batchPlatform.getFirstContentPage(CatalogOrder.INSERTION, 10).getContents())
+                    .containsExactly(movie1, movie2);
+
+            failing.set(false);
+            assertEquals(3, batchPlatform.applyChanges(changes));
+            assertThat(seen).containsExactly(movie1, movie2, movie1, movie2);
+            assertThat(batchPlatform.getFirstContentPage(CatalogOrder.INSERTION, 10).getContents())
+                    .containsExactly(movie2, newMovie, movie1);
+        }
+    }
+
+    @Test
+    public void testAddObserverFromSequenceThrowsWhenHistoryIsTooShort() {
+        StreamingPlatform shortHistoryPlatform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withEventHistoryCapacity(2)
+                .build();
+        for (int i = 1; i <= 4; i++) {
+            shortHistoryPlatform.addContent(new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build());
+        }
+        PlatformObserver observer = event -> {
+        };
+
+        assertThatThrownBy(() -> shortHistoryPlatform.addObserver(observer, 2))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Events before sequence 3 are no longer retained");
+        assertThat(shortHistoryPlatform.getObservers()).doesNotContain(observer);
+        assertThatThrownBy(() -> new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withEventHistoryCapacity(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Event history capacity must be a positive integer greater than 0");
+    }
+}
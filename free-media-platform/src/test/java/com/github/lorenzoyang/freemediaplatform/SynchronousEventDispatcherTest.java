@@ -0,0 +1,245 @@
+package com.github.lorenzoyang.freemediaplatform;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class SynchronousEventDispatcherTest {
+    private static PlatformEvent addEvent(int i) {
+        Content movie = new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build();
+        return new AddContentEvent(movie);
+    }
+
+    private static PlatformObserver sleeping(long millis, List<PlatformEvent> received) {
+        return event -> {
+            received.add(event);
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    @Test
+    public void testFailingObserverDoesNotAbortDeliveryToTheOthers() {
+        var dispatcher = new SynchronousEventDispatcher();
+        List<PlatformEvent> received = new ArrayList<>();
+        PlatformObserver failing = event -> {
+            throw new IllegalStateException("Observer failure");
+        };
+        dispatcher.addObserver(failing);
+        dispatcher.addObserver(received::add);
+
+        dispatcher.dispatch(addEvent(1));
+        dispatcher.dispatch(addEvent(2));
+
+        assertEquals(2, received.size());
+        ObserverMetrics metrics = dispatcher.getObserverMetrics().get(failing);
+        assertEquals(2, metrics.getDeliveredEventsCount());
+        assertEquals(2, metrics.getFailedEventsCount());
+        assertThat(metrics.getLastFailure().orElseThrow()).hasMessage("Observer failure");
+        assertFalse(metrics.isQuarantined());
+    }
+
+    @Test
+    public void testMetricsRecordLatencyAndThroughput() {
+        var dispatcher = new SynchronousEventDispatcher();
+        PlatformObserver slow = sleeping(5, new ArrayList<>());
+        PlatformObserver fast = event -> {
+        };
+        dispatcher.addObserver(slow);
+        dispatcher.addObserver(fast);
+
+        for (int i = 0; i < 4; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+
+        assertThat(dispatcher.getObserverMetrics().keySet()).containsExactly(slow, fast);
+        ObserverMetrics slowMetrics = dispatcher.getObserverMetrics().get(slow);
+        ObserverMetrics fastMetrics = dispatcher.getObserverMetrics().get(fast);
+        assertEquals(4, slowMetrics.getDeliveredEventsCount());
+        assertEquals(0, slowMetrics.getFailedEventsCount());
+        assertThat(slowMetrics.getAverageLatency()).isGreaterThanOrEqualTo(Duration.ofMillis(5));
+        assertThat(slowMetrics.getLatencyPercentile(50)).isGreaterThanOrEqualTo(Duration.ofMillis(5))
+                .isLessThanOrEqualTo(slowMetrics.getMaxLatency());
+        assertThat(slowMetrics.getThroughput()).isGreaterThan(0);
+        assertThat(fastMetrics.getLatencyPercentile(99)).isLessThan(slowMetrics.getLatencyPercentile(1));
+        assertThatThrownBy(() -> fastMetrics.getLatencyPercentile(101))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Percentile must be between 0 and 100");
+    }
+
+    @Test
+    public void testSlowObserverIsQuarantinedUntilReleased() {
+        var dispatcher = new SynchronousEventDispatcher(new QuarantinePolicy.QuarantinePolicyBuilder()
+                .withLatencyBudget(Duration.ofMillis(1), 2)
+                .build());
+        List<PlatformEvent> slowReceived = new ArrayList<>();
+        List<PlatformEvent> fastReceived = new ArrayList<>();
+        PlatformObserver slow = sleeping(5, slowReceived);
+        dispatcher.addObserver(slow);
+        dispatcher.addObserver(fastReceived::add);
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+
+        assertEquals(2, slowReceived.size());
+        assertEquals(5, fastReceived.size());
+        assertTrue(dispatcher.getObserverMetrics().get(slow).isQuarantined());
+
+        dispatcher.releaseObserver(slow);
+        dispatcher.dispatch(addEvent(5));
+        assertEquals(3, slowReceived.size());
+        assertFalse(dispatcher.getObserverMetrics().get(slow).isQuarantined());
+    }
+
+    @Test
+    public void testFailingObserverIsQuarantinedAfterErrorBudget() {
+        var dispatcher = new SynchronousEventDispatcher(new QuarantinePolicy.QuarantinePolicyBuilder()
+                .withErrorBudget(3)
+                .build());
+        List<PlatformEvent> received = new ArrayList<>();
+        PlatformObserver failing = event -> {
+            received.add(event);
+            throw new IllegalStateException("Observer failure");
+        };
+        dispatcher.addObserver(failing);
+
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(addEvent(i));
+        }
+
+        assertEquals(3, received.size());
+        assertEquals(3, dispatcher.getObserverMetrics().get(failing).getFailedEventsCount());
+        assertTrue(dispatcher.getObserverMetrics().get(failing).isQuarantined());
+    }
+
+    @Test
+    public void testCriticalObserverFailurePropagatesAndIsNeverQuarantined() {
+        var dispatcher = new SynchronousEventDispatcher(new QuarantinePolicy.QuarantinePolicyBuilder()
+                .withErrorBudget(1)
+                .build());
+        PlatformObserver critical = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                throw new IllegalStateException("Critical failure");
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        dispatcher.addObserver(critical);
+
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            assertThatThrownBy(() -> dispatcher.dispatch(addEvent(index)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Critical failure");
+        }
+
+        ObserverMetrics metrics = dispatcher.getObserverMetrics().get(critical);
+        assertEquals(3, metrics.getFailedEventsCount());
+        assertFalse(metrics.isQuarantined());
+    }
+
+    @Test
+    public void testFailingCriticalObserverRejectsTheEvent() {
+        var dispatcher = new SynchronousEventDispatcher();
+        List<PlatformEvent> notified = new ArrayList<>();
+        List<PlatformEvent> aborted = new ArrayList<>();
+        PlatformObserver first = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                notified.add(event);
+            }
+
+            @Override
+            public void abort(PlatformEvent event) {
+                aborted.add(event);
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        PlatformObserver second = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                throw new IllegalStateException("Critical failure");
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        List<PlatformEvent> received = new ArrayList<>();
+        // registered first, it is still notified after the critical observers
+        dispatcher.addObserver(received::add);
+        dispatcher.addObserver(first);
+        dispatcher.addObserver(second);
+        PlatformEvent event = addEvent(1);
+
+        assertThatThrownBy(() -> dispatcher.dispatch(event))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Critical failure");
+
+        assertThat(notified).containsExactly(event);
+        assertThat(aborted).containsExactly(event);
+        assertThat(received).isEmpty();
+        assertEquals(1, dispatcher.getObserverMetrics().get(second).getFailedEventsCount());
+    }
+
+    @Test
+    public void testQuarantinePolicyBuilderThrowsForInvalidArguments() {
+        var builder = new QuarantinePolicy.QuarantinePolicyBuilder();
+
+        assertThatThrownBy(() -> builder.withLatencyBudget(null, 1))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Latency budget cannot be null");
+        assertThatThrownBy(() -> builder.withLatencyBudget(Duration.ZERO, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Latency budget must be positive");
+        assertThatThrownBy(() -> builder.withLatencyBudget(Duration.ofMillis(1), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max slow deliveries must be a positive integer greater than 0");
+        assertThatThrownBy(() -> builder.withErrorBudget(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Max failures must be a positive integer greater than 0");
+        assertThatThrownBy(() -> new SynchronousEventDispatcher(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Quarantine policy cannot be null");
+    }
+
+    @Test
+    public void testStreamingPlatformKeepsNotifyingAfterObserverFailure() {
+        StreamingPlatform platform = new StreamingPlatform("Streaming Platform", List::of);
+        List<PlatformEvent> received = new ArrayList<>();
+        PlatformObserver failing = event -> {
+            throw new IllegalStateException("Observer failure");
+        };
+        platform.addObserver(failing);
+        platform.addObserver(received::add);
+
+        assertTrue(platform.addContent(new Movie.MovieBuilder("Movie", new Episode(1, 1)).build()));
+
+        assertEquals(1, received.size());
+        assertEquals(1, platform.getObserverMetrics().get(failing).getFailedEventsCount());
+    }
+}
@@ -0,0 +1,123 @@
+package com.github.lorenzoyang.freemediaplatform.analytics;
+
+import com.github.lorenzoyang.freemediaplatform.ContentChangeSet;
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.Assert.*;
+
+public class CatalogStatisticsTest {
+    private Movie movie1;
+    private Movie movie2;
+    private TVSeries tvSeries;
+
+    @Before
+    public void setUp() {
+        this.movie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 120))
+                .withReleaseDate(LocalDate.of(2023, 6, 1))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.movie2 = new Movie.MovieBuilder("Movie2", new Episode(1, 90)).build();
+        this.tvSeries = new TVSeries.TVSeriesBuilder("TV Series",
+                new Season(1, List.of(new Episode(1, 40), new Episode(2, 50))))
+                .withReleaseDate(LocalDate.of(2020, 1, 1))
+                .withResolution(VideoResolution.FULL_HD_1080P)
+                .build();
+    }
+
+    @Test
+    public void testSnapshotOfInitialContents() {
+        CatalogStatisticsSnapshot snapshot = new CatalogStatistics(List.of(movie1, movie2, tvSeries)).snapshot();
+
+        assertEquals(3, snapshot.getTitlesCount());
+        assertEquals(300, snapshot.getTotalDurationInMinutes());
+        assertThat(snapshot.getCountByResolution()).containsOnly(
+                entry(VideoResolution.UHD_4K, 1L), entry(VideoResolution.FULL_HD_1080P, 1L));
+        assertThat(snapshot.getCountByReleaseYear()).containsExactly(entry(2020, 1L), entry(2023, 1L));
+    }
+
+    @Test
+    public void testStatisticsFollowPlatformEvents() {
+        try (StreamingPlatform platform = new StreamingPlatform("Streaming Platform", () -> List.of(movie1, movie2))) {
+            CatalogStatistics statistics = CatalogStatistics.attachTo(platform);
+
+            platform.updateContent(new Movie.MovieBuilder("Movie1", new Episode(1, 100))
+                    .withReleaseDate(LocalDate.of(2024, 1, 1))
+                    .withResolution(VideoResolution.HD_720P)
+                    .build());
+            platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                    .withAddition(tvSeries)
+                    .withRemoval(movie2)
+                    .build());
+
+            CatalogStatisticsSnapshot snapshot = statistics.snapshot();
+            assertEquals(2, snapshot.getTitlesCount());
+            assertEquals(190, snapshot.getTotalDurationInMinutes());
+            assertThat(snapshot.getCountByResolution()).containsOnly(
+                    entry(VideoResolution.HD_720P, 1L), entry(VideoResolution.FULL_HD_1080P, 1L));
+            assertThat(snapshot.getCountByReleaseYear()).containsExactly(entry(2020, 1L), entry(2024, 1L));
+        }
+    }
+
+    @Test
+    public void testSnapshotIsConsistentWithConcurrentEvents() throws Exception {
+        var statistics = new CatalogStatistics(List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 5_000; j++) {
+                        statistics.notifyChange(new AddContentEvent(movie1));
+                        statistics.notifyChange(new RemoveContentEvent(movie1));
+                    }
+                }));
+            }
+            while (!futures.stream().allMatch(Future::isDone)) {
+                CatalogStatisticsSnapshot snapshot = statistics.snapshot();
+                assertEquals(snapshot.getTitlesCount() * 120, snapshot.getTotalDurationInMinutes());
+                Map<VideoResolution, Long> resolutions = snapshot.getCountByResolution();
+                assertEquals(snapshot.getTitlesCount(), (long) resolutions.getOrDefault(VideoResolution.UHD_4K, 0L));
+                assertEquals(snapshot.getTitlesCount(), (long) snapshot.getCountByReleaseYear().getOrDefault(2023, 0L));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CatalogStatisticsSnapshot snapshot = statistics.snapshot();
+        assertEquals(0, snapshot.getTitlesCount());
+        assertEquals(0, snapshot.getTotalDurationInMinutes());
+        assertThat(snapshot.getCountByResolution()).isEmpty();
+        assertThat(snapshot.getCountByReleaseYear()).isEmpty();
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilTheNextEvent() {
+        var statistics = new CatalogStatistics(List.of(movie1));
+        CatalogStatisticsSnapshot snapshot = statistics.snapshot();
+
+        assertSame(snapshot, statistics.snapshot());
+        statistics.notifyChange(new AddContentEvent(movie2));
+        CatalogStatisticsSnapshot updated = statistics.snapshot();
+        assertNotSame(snapshot, updated);
+        assertEquals(2, updated.getTitlesCount());
+        assertSame(updated, statistics.snapshot());
+    }
+}
@@ -0,0 +1,139 @@
+package com.github.lorenzoyang.freemediaplatform.analytics;
+
+import com.github.lorenzoyang.freemediaplatform.ContentChangeSet;
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class ColumnarCatalogTest {
+    private Movie movie2023;
+    private Movie movie2022;
+    private Movie movieWithoutDate;
+    private TVSeries tvSeries;
+    private ColumnarCatalog catalog;
+
+    @Before
+    public void setUp() {
+        this.movie2023 = new Movie.MovieBuilder("Movie 2023", new Episode(1, 120))
+                .withReleaseDate(LocalDate.of(2023, 6, 1))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.movie2022 = new Movie.MovieBuilder("Movie 2022", new Episode(1, 90))
+                .withReleaseDate(LocalDate.of(2022, 12, 31))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.movieWithoutDate = new Movie.MovieBuilder("Movie", new Episode(1, 100)).build();
+        this.tvSeries = new TVSeries.TVSeriesBuilder("TV Series",
+                new Season(1, List.of(new Episode(1, 40), new Episode(2, 50))))
+                .withSeason(new Season(2, List.of(new Episode(1, 30))))
+                .withReleaseDate(LocalDate.of(2023, 1, 1))
+                .withResolution(VideoResolution.FULL_HD_1080P)
+                .build();
+        this.catalog = new ColumnarCatalog(List.of(movie2023, movie2022, movieWithoutDate, tvSeries));
+    }
+
+    @Test
+    public void testAggregatesOverWholeCatalog() {
+        var all = catalog.select();
+
+        assertEquals(4, all.count());
+        assertEquals(430, all.totalDuration());
+        assertEquals(6, all.totalEpisodes());
+        assertEquals(2, all.totalSeasons());
+        assertThat(all.averageDuration()).hasValue(107.5);
+    }
+
+    @Test
+    public void testFiltersCombineOnColumns() {
+        var uhdReleasedIn2023 = catalog.select()
+                .withResolution(VideoResolution.UHD_4K)
+                .withReleaseDateBetween(LocalDate.of(2023, 1, 1), LocalDate.of(2023, 12, 31));
+
+        assertEquals(120, uhdReleasedIn2023.totalDuration());
+        assertThat(uhdReleasedIn2023.titles()).containsExactly("Movie 2023");
+        assertThat(catalog.select().withDurationBetween(100, null).titles())
+                .containsExactlyInAnyOrder("Movie 2023", "Movie", "TV Series");
+        assertThat(catalog.select().withDurationBetween(null, 10).averageDuration()).isEmpty();
+    }
+
+    @Test
+    public void testReleaseDateFilterExcludesContentsWithoutDate() {
+        assertThat(catalog.select().withReleaseDateBetween(null, null).titles())
+                .containsExactlyInAnyOrder("Movie 2023", "Movie 2022", "TV Series");
+    }
+
+    @Test
+    public void testAverageEpisodeDurationByResolution() {
+        Map<VideoResolution, Double> averages = catalog.select().averageEpisodeDurationByResolution();
+
+        assertThat(averages).containsOnlyKeys(VideoResolution.UHD_4K, VideoResolution.FULL_HD_1080P);
+        assertEquals(105.0, averages.get(VideoResolution.UHD_4K), 0);
+        assertEquals(40.0, averages.get(VideoResolution.FULL_HD_1080P), 0);
+        assertThat(catalog.select().averageEpisodeDuration()).hasValue(430.0 / 6);
+    }
+
+    @Test
+    public void testColumnsFollowPlatformEvents() {
+        try (StreamingPlatform platform = new StreamingPlatform("Streaming Platform",
+                () -> List.of(movie2023, movie2022))) {
+            ColumnarCatalog columnarCatalog = ColumnarCatalog.attachTo(platform);
+            assertEquals(2, columnarCatalog.size());
+
+            platform.addContent(tvSeries);
+            platform.removeContent(movie2023);
+            platform.updateContent(new Movie.MovieBuilder("Movie 2022", new Episode(1, 95))
+                    .withResolution(VideoResolution.HD_720P)
+                    .build());
+            platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                    .withAddition(movieWithoutDate)
+                    .build());
+
+            assertEquals(3, columnarCatalog.size());
+            assertThat(columnarCatalog.select().titles())
+                    .containsExactlyInAnyOrder("TV Series", "Movie 2022", "Movie");
+            assertEquals(95, columnarCatalog.select().withResolution(VideoResolution.HD_720P).totalDuration());
+            assertEquals(315, columnarCatalog.select().totalDuration());
+        }
+    }
+
+    @Test
+    public void testColumnsGrowPastInitialCapacity() {
+        var columnarCatalog = new ColumnarCatalog(List.of());
+        try (StreamingPlatform platform = new StreamingPlatform("Streaming Platform", List::of)) {
+            platform.addObserver(columnarCatalog);
+            for (int i = 1; i <= 100; i++) {
+                platform.addContent(new Movie.MovieBuilder("Movie" + i, new Episode(1, i)).build());
+            }
+            for (int i = 1; i <= 100; i += 2) {
+                platform.removeContent(new Movie.MovieBuilder("Movie" + i, new Episode(1, i)).build());
+            }
+        }
+
+        assertEquals(50, columnarCatalog.size());
+        assertEquals(2550, columnarCatalog.select().totalDuration());
+    }
+
+    @Test
+    public void testSelectionThrowsForInvalidArguments() {
+        var selection = catalog.select();
+
+        assertThatThrownBy(() -> selection.withResolution(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Resolution cannot be null");
+        assertThatThrownBy(() -> selection.withReleaseDateBetween(LocalDate.of(2023, 1, 2), LocalDate.of(2023, 1, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Release date range start cannot be after its end");
+        assertThatThrownBy(() -> selection.withDurationBetween(2, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duration range start cannot be greater than its end");
+    }
+}
@@ -0,0 +1,6 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+// JUnit category of the timing tests: they are excluded from the default build and run with
+// mvn test -Pbenchmarks
+public interface Benchmark {
+}
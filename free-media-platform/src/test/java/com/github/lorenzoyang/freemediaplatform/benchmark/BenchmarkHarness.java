@@ -0,0 +1,123 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// the timing loop shared by the benchmarks: a case is warmed up, then timed over several rounds
+// and reported as its median round. Results are written to a sink so the JIT cannot drop the
+// measured work. The numbers are indicative only, there is no fork or JIT isolation as in JMH
+final class BenchmarkHarness {
+    private static final int WARMUP_ROUNDS = Integer.getInteger("benchmark.warmupRounds", 5);
+    private static final int MEASURED_ROUNDS = Integer.getInteger("benchmark.rounds", 10);
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static volatile Object sink;
+
+    private BenchmarkHarness() {
+    }
+
+    // -Dbenchmark.<name>=<size> scales a case up, e.g. to the catalog sizes of production
+    static int size(String name, int defaultSize) {
+        return Integer.getInteger("benchmark." + name, defaultSize);
+    }
+
+    static void consume(Object value) {
+        sink = value;
+    }
+
+    static void consume(long value) {
+        sink = value;
+    }
+
+    // times a round performing the given number of operations; the allocations are those of
+    // the calling thread, when the JVM can measure them
+    static Result measure(String benchmark, String name, int operations, Runnable round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round.run();
+        }
+        long[] nanos = new long[MEASURED_ROUNDS];
+        long allocatedBefore = allocatedBytes();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            round.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        long allocated = allocatedBytes() - allocatedBefore;
+        Arrays.sort(nanos);
+        var result = new Result(name, (double) nanos[nanos.length / 2] / operations,
+                allocatedBefore < 0 ? -1 : (double) allocated / MEASURED_ROUNDS / operations);
+        System.out.printf("%-20s %-56s %14.1f ns/op %14.0f ops/s %12s%n", benchmark, name,
+                result.nanosPerOperation, result.operationsPerSecond(),
+                result.bytesPerOperation < 0 ? "" : String.format("%.1f B/op", result.bytesPerOperation));
+        return result;
+    }
+
+    // times every operation on its own and reports the latency percentiles
+    static void latencies(String benchmark, String name, int samples, IntConsumer operation) {
+        for (int i = 0; i < samples; i++) {
+            operation.accept(i);
+        }
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            operation.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-20s %-56s p50 %10.1f us   p99 %10.1f us   max %10.1f us%n", benchmark, name,
+                nanos[samples / 2] / 1_000.0, nanos[(int) (samples * 0.99)] / 1_000.0, nanos[samples - 1] / 1_000.0);
+    }
+
+    static void speedup(String benchmark, Result baseline, Result candidate) {
+        System.out.printf("%-20s %-56s %14.2fx%n", benchmark, candidate.name + " vs " + baseline.name,
+                baseline.nanosPerOperation / candidate.nanosPerOperation);
+    }
+
+    static void footprint(String benchmark, String name, long bytes, long count, String unit) {
+        System.out.printf("%-20s %-56s %14d bytes %12.1f B/%s%n", benchmark, name, bytes,
+                (double) bytes / count, unit);
+    }
+
+    static long usedHeapAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            var threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    static class Result {
+        private final String name;
+        private final double nanosPerOperation;
+        private final double bytesPerOperation;
+
+        private Result(String name, double nanosPerOperation, double bytesPerOperation) {
+            this.name = name;
+            this.nanosPerOperation = nanosPerOperation;
+            this.bytesPerOperation = bytesPerOperation;
+        }
+
+        double operationsPerSecond() {
+            return 1_000_000_000 / nanosPerOperation;
+        }
+    }
+}
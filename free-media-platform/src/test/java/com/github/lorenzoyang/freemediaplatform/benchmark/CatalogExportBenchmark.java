@@ -0,0 +1,58 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.CatalogExporter;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentWriter;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+// whole-catalog export throughput at 1, 4 and 16 threads, against rendering title by title
+// on the calling thread
+@Category(Benchmark.class)
+public class CatalogExportBenchmark {
+    private static final String BENCHMARK = "catalog-export";
+
+    @Test
+    public void benchmarkExportThroughput() throws IOException {
+        List<Content> contents = SyntheticCatalog.contents(BenchmarkHarness.size("catalog", 50_000), 23);
+        Path file = Files.createTempFile("catalog", ".txt");
+        try {
+            var visitor = new DisplayContentVisitor();
+            var sequential = BenchmarkHarness.measure(BENCHMARK, "title by title", contents.size(), () -> {
+                try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    for (Content content : contents) {
+                        writer.write(content.accept(visitor));
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            for (int parallelism : new int[]{1, 4, 16}) {
+                try (CatalogExporter exporter = new CatalogExporter.CatalogExporterBuilder()
+                        .withParallelism(parallelism)
+                        .build()) {
+                    var exported = BenchmarkHarness.measure(BENCHMARK, "exporter, " + parallelism + " threads",
+                            contents.size(), () -> {
+                                try {
+                                    BenchmarkHarness.consume(exporter.export(contents, DisplayContentWriter::new, file));
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            });
+                    BenchmarkHarness.speedup(BENCHMARK, sequential, exported);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
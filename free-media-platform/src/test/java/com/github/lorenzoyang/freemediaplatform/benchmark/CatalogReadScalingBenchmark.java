@@ -0,0 +1,86 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+
+// lookups by title on the copy-on-write catalog from 1 to 8 reader threads, alone and while a
+// writer keeps updating the catalog: readers never lock, so the throughput should scale up to
+// the available cores, the writer only taking the CPU and the allocations of its copies
+@Category(Benchmark.class)
+public class CatalogReadScalingBenchmark {
+    private static final String BENCHMARK = "catalog-read-scaling";
+    private static final int LOOKUPS_PER_READER = 200_000;
+    private static final int[] READERS = {1, 2, 4, 8};
+
+    @Test
+    public void benchmarkLookupsByTitle() throws Exception {
+        List<Content> contents = SyntheticCatalog.contents(BenchmarkHarness.size("catalog", 100_000), 29);
+        String[] titles = contents.stream().map(Content::getTitle).toArray(String[]::new);
+        ExecutorService readers = Executors.newFixedThreadPool(READERS[READERS.length - 1]);
+        try (StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Benchmark", () -> contents)
+                .withConcurrentAccess(true)
+                .build()) {
+            for (int readersCount : READERS) {
+                BenchmarkHarness.measure(BENCHMARK, readersCount + " readers",
+                        readersCount * LOOKUPS_PER_READER, () -> lookups(platform, titles, readers, readersCount));
+            }
+
+            AtomicBoolean writing = new AtomicBoolean(true);
+            Thread writer = new Thread(() -> {
+                for (int i = 0; writing.get(); i = (i + 1) % contents.size()) {
+                    platform.updateContent(contents.get(i));
+                }
+            }, "benchmark-writer");
+            writer.start();
+            try {
+                for (int readersCount : READERS) {
+                    BenchmarkHarness.measure(BENCHMARK, readersCount + " readers, 1 writer",
+                            readersCount * LOOKUPS_PER_READER, () -> lookups(platform, titles, readers, readersCount));
+                }
+            } finally {
+                writing.set(false);
+                writer.join();
+            }
+        } finally {
+            readers.shutdown();
+        }
+    }
+
+    private static void lookups(StreamingPlatform platform, String[] titles, ExecutorService readers,
+                                int readersCount) {
+        List<Future<Integer>> futures = new ArrayList<>(readersCount);
+        for (int reader = 0; reader < readersCount; reader++) {
+            int first = reader * 7_919;
+            futures.add(readers.submit(() -> {
+                int found = 0;
+                for (int i = 0; i < LOOKUPS_PER_READER; i++) {
+                    if (platform.getContentByTitle(titles[(first + i) % titles.length]).isPresent()) {
+                        found++;
+                    }
+                }
+                return found;
+            }));
+        }
+        int found = 0;
+        for (Future<Integer> future : futures) {
+            try {
+                found += future.get();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        assertEquals(readersCount * LOOKUPS_PER_READER, found);
+        BenchmarkHarness.consume(found);
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.storage.CatalogSnapshotWriter;
+import com.github.lorenzoyang.freemediaplatform.storage.MappedCatalogSnapshot;
+import com.github.lorenzoyang.freemediaplatform.utils.ContentVisitor;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// warm restart from a mapped snapshot against rebuilding every content through the builders,
+// as a restart from the external source does; a restarted platform can serve lookups from the
+// mapping right away, decoding only the contents requested
+@Category(Benchmark.class)
+public class CatalogSnapshotBenchmark {
+    private static final String BENCHMARK = "catalog-snapshot";
+
+    private static final ContentVisitor<Content> REBUILDER = new ContentVisitor<>() {
+        @Override
+        public Content visitMovie(Movie movie) {
+            return new Movie.MovieBuilder(movie.getTitle(), new Episode(1, movie.getDurationInMinutes()))
+                    .withDescription(movie.getDescription().orElse(null))
+                    .withReleaseDate(movie.getReleaseDate().orElse(null))
+                    .withResolution(movie.getResolution().orElse(null))
+                    .build();
+        }
+
+        @Override
+        public Content visitTVSeries(TVSeries tvSeries) {
+            var builder = new TVSeries.TVSeriesBuilder(tvSeries.getTitle(), rebuild(tvSeries.getSeason(1)))
+                    .withDescription(tvSeries.getDescription().orElse(null))
+                    .withReleaseDate(tvSeries.getReleaseDate().orElse(null))
+                    .withResolution(tvSeries.getResolution().orElse(null));
+            for (int seasonNumber = 2; seasonNumber <= tvSeries.getSeasonsCount(); seasonNumber++) {
+                builder.withSeason(rebuild(tvSeries.getSeason(seasonNumber)));
+            }
+            return builder.build();
+        }
+
+        private Season rebuild(Season season) {
+            List<Episode> episodes = new ArrayList<>(season.getEpisodesCount());
+            for (int episodeNumber = 1; episodeNumber <= season.getEpisodesCount(); episodeNumber++) {
+                episodes.add(new Episode(episodeNumber, season.getEpisodeDuration(episodeNumber)));
+            }
+            return new Season(season.getSeasonNumber(), episodes);
+        }
+    };
+
+    @Test
+    public void benchmarkWarmRestart() throws IOException {
+        List<Content> contents = SyntheticCatalog.contents(BenchmarkHarness.size("catalog", 100_000), 13);
+        Path file = Files.createTempFile("catalog", ".snapshot");
+        try {
+            CatalogSnapshotWriter.write(contents, file);
+
+            var builders = BenchmarkHarness.measure(BENCHMARK, "rebuild through builders", contents.size(), () -> {
+                List<Content> rebuilt = new ArrayList<>(contents.size());
+                contents.forEach(content -> rebuilt.add(content.accept(REBUILDER)));
+                BenchmarkHarness.consume(rebuilt);
+            });
+            var titlesRead = BenchmarkHarness.measure(BENCHMARK, "open snapshot, read titles", contents.size(), () -> {
+                MappedCatalogSnapshot snapshot = open(file);
+                for (int i = 0; i < snapshot.size(); i++) {
+                    BenchmarkHarness.consume(snapshot.getTitle(i));
+                }
+            });
+            String[] titles = new String[1_000];
+            for (int i = 0; i < titles.length; i++) {
+                titles[i] = contents.get((int) ((long) i * contents.size() / titles.length)).getTitle();
+            }
+            // a warm restart serving its first request
+            BenchmarkHarness.latencies(BENCHMARK, "open snapshot, look up one title", titles.length, i ->
+                    BenchmarkHarness.consume(open(file).get(titles[i])));
+            MappedCatalogSnapshot opened = open(file);
+            BenchmarkHarness.measure(BENCHMARK, "look up titles in the mapping", titles.length, () -> {
+                for (String title : titles) {
+                    BenchmarkHarness.consume(opened.get(title));
+                }
+            });
+            var decoded = BenchmarkHarness.measure(BENCHMARK, "open snapshot, decode all", contents.size(), () -> {
+                List<Content> loaded = new ArrayList<>(contents.size());
+                open(file).forEach(loaded::add);
+                BenchmarkHarness.consume(loaded);
+            });
+            BenchmarkHarness.speedup(BENCHMARK, builders, titlesRead);
+            BenchmarkHarness.speedup(BENCHMARK, builders, decoded);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static MappedCatalogSnapshot open(Path file) {
+        try {
+            return MappedCatalogSnapshot.open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
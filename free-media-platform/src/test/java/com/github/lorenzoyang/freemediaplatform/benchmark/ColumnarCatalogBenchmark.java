@@ -0,0 +1,52 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.analytics.ColumnarCatalog;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.VideoResolution;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+// total minutes of the 4K contents released in a decade, on the columnar view against the scan
+// of the object graph through the content getters
+@Category(Benchmark.class)
+public class ColumnarCatalogBenchmark {
+    private static final String BENCHMARK = "columnar-catalog";
+    private static final LocalDate FROM = LocalDate.of(2000, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2009, 12, 31);
+
+    @Test
+    public void benchmarkFilteredAggregate() {
+        List<Content> contents = SyntheticCatalog.contents(BenchmarkHarness.size("catalog", 100_000), 17);
+        var columnar = new ColumnarCatalog(contents);
+        assertEquals(objectScan(contents), columnarScan(columnar));
+
+        var objects = BenchmarkHarness.measure(BENCHMARK, "object graph scan", contents.size(),
+                () -> BenchmarkHarness.consume(objectScan(contents)));
+        var columns = BenchmarkHarness.measure(BENCHMARK, "columnar scan", contents.size(),
+                () -> BenchmarkHarness.consume(columnarScan(columnar)));
+        BenchmarkHarness.speedup(BENCHMARK, objects, columns);
+    }
+
+    private static long objectScan(List<Content> contents) {
+        long total = 0;
+        for (Content content : contents) {
+            if (content.getResolution().filter(VideoResolution.UHD_4K::equals).isPresent() &&
+                    content.getReleaseDate().filter(date -> !date.isBefore(FROM) && !date.isAfter(TO)).isPresent()) {
+                total += content.getDurationInMinutes();
+            }
+        }
+        return total;
+    }
+
+    private static long columnarScan(ColumnarCatalog columnar) {
+        return columnar.select()
+                .withResolution(VideoResolution.UHD_4K)
+                .withReleaseDateBetween(FROM, TO)
+                .totalDuration();
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Season;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// retained heap of seasons storing packed episode durations, against the same episodes kept
+// as objects in a list per season as the seasons did before; measured after a full GC, so
+// the figures are approximate
+@Category(Benchmark.class)
+public class EpisodeStorageBenchmark {
+    private static final String BENCHMARK = "episode-storage";
+    private static final int SEASONS_PER_SERIES = 10;
+    private static final int EPISODES_PER_SEASON = 50;
+
+    @Test
+    public void benchmarkRetainedHeap() {
+        int seriesCount = BenchmarkHarness.size("series", 2_000);
+        long episodesCount = (long) seriesCount * SEASONS_PER_SERIES * EPISODES_PER_SEASON;
+
+        long before = BenchmarkHarness.usedHeapAfterGc();
+        List<Season> packed = packedSeasons(seriesCount);
+        long packedBytes = BenchmarkHarness.usedHeapAfterGc() - before;
+        BenchmarkHarness.consume(packed.size());
+        packed = null;
+
+        before = BenchmarkHarness.usedHeapAfterGc();
+        List<List<Episode>> objects = episodeObjects(seriesCount);
+        long objectBytes = BenchmarkHarness.usedHeapAfterGc() - before;
+        BenchmarkHarness.consume(objects.size());
+        objects = null;
+
+        BenchmarkHarness.footprint(BENCHMARK, "episode objects per season", objectBytes, episodesCount, "episode");
+        BenchmarkHarness.footprint(BENCHMARK, "packed seasons", packedBytes, episodesCount, "episode");
+    }
+
+    private static List<Season> packedSeasons(int seriesCount) {
+        var random = new Random(19);
+        List<Season> seasons = new ArrayList<>(seriesCount * SEASONS_PER_SERIES);
+        for (int i = 0; i < seriesCount * SEASONS_PER_SERIES; i++) {
+            seasons.add(SyntheticCatalog.season(random, 1 + i % SEASONS_PER_SERIES, EPISODES_PER_SEASON));
+        }
+        return seasons;
+    }
+
+    private static List<List<Episode>> episodeObjects(int seriesCount) {
+        var random = new Random(19);
+        List<List<Episode>> seasons = new ArrayList<>(seriesCount * SEASONS_PER_SERIES);
+        for (int i = 0; i < seriesCount * SEASONS_PER_SERIES; i++) {
+            List<Episode> episodes = new ArrayList<>();
+            for (int episodeNumber = 1; episodeNumber <= EPISODES_PER_SEASON; episodeNumber++) {
+                episodes.add(new Episode(episodeNumber, 20 + random.nextInt(40)));
+            }
+            seasons.add(episodes);
+        }
+        return seasons;
+    }
+}
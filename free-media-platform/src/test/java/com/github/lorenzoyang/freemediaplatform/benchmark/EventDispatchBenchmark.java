@@ -0,0 +1,83 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.*;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// events per second from one publisher to a few observers: the synchronous loop, the
+// per-observer queues and the ring buffer with its wait strategies. The events are built up
+// front, so B/op is what a dispatcher allocates per event; the platform mutations below also
+// count the event each of them allocates, which the event history keeps for replay
+@Category(Benchmark.class)
+public class EventDispatchBenchmark {
+    private static final String BENCHMARK = "event-dispatch";
+    private static final int OBSERVERS_COUNT = 4;
+
+    @Test
+    public void benchmarkEventsPerSecond() {
+        List<PlatformEvent> events = new ArrayList<>();
+        for (Content content : SyntheticCatalog.contents(BenchmarkHarness.size("events", 100_000), 37)) {
+            events.add(new AddContentEvent(content));
+        }
+
+        var synchronous = run("synchronous loop", new SynchronousEventDispatcher(), events);
+        var async = run("async queues", new AsyncEventDispatcher.AsyncEventDispatcherBuilder()
+                .withBackpressurePolicy(BackpressurePolicy.BLOCK)
+                .build(), events);
+        BenchmarkHarness.speedup(BENCHMARK, synchronous, async);
+        for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+            var ring = run("ring buffer, " + waitStrategy, new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                    .withWaitStrategy(waitStrategy)
+                    .build(), events);
+            BenchmarkHarness.speedup(BENCHMARK, synchronous, ring);
+        }
+    }
+
+    @Test
+    public void benchmarkPlatformMutations() {
+        List<Content> contents = SyntheticCatalog.contents(BenchmarkHarness.size("mutations", 10_000), 41);
+        var synchronous = mutate("platform updates, synchronous loop", new SynchronousEventDispatcher(), contents);
+        var ring = mutate("platform updates, ring buffer", new RingBufferEventDispatcher.RingBufferEventDispatcherBuilder()
+                .build(), contents);
+        BenchmarkHarness.speedup(BENCHMARK, synchronous, ring);
+    }
+
+    private static BenchmarkHarness.Result mutate(String name, EventDispatcher dispatcher, List<Content> contents) {
+        var delivered = new LongAdder();
+        try (StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Benchmark", () -> contents)
+                .withEventDispatcher(dispatcher)
+                .build()) {
+            for (int i = 0; i < OBSERVERS_COUNT; i++) {
+                platform.addObserver(event -> delivered.increment());
+            }
+            return BenchmarkHarness.measure(BENCHMARK, name, contents.size(), () -> {
+                contents.forEach(platform::updateContent);
+                dispatcher.flush();
+                BenchmarkHarness.consume(delivered.sum());
+            });
+        }
+    }
+
+    private static BenchmarkHarness.Result run(String name, EventDispatcher dispatcher, List<PlatformEvent> events) {
+        var delivered = new LongAdder();
+        for (int i = 0; i < OBSERVERS_COUNT; i++) {
+            dispatcher.addObserver(event -> delivered.increment());
+        }
+        try {
+            return BenchmarkHarness.measure(BENCHMARK, name, events.size(), () -> {
+                events.forEach(dispatcher::dispatch);
+                dispatcher.flush();
+                BenchmarkHarness.consume(delivered.sum());
+            });
+        } finally {
+            dispatcher.close();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.DurationContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.FusedContentResults;
+import com.github.lorenzoyang.freemediaplatform.utils.FusedContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.MetadataContentVisitor;
+import com.github.lorenzoyang.freemediaplatform.utils.PlaybackContentVisitor;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+// display text, playback, episode durations and metadata of deep series: one visitor after the
+// other, the display and the durations each walking the whole series, against a single fused
+// traversal
+@Category(Benchmark.class)
+public class FusedVisitorBenchmark {
+    private static final String BENCHMARK = "fused-visitor";
+
+    @Test
+    public void benchmarkDeepSeries() {
+        var random = new Random(29);
+        List<Content> series = new ArrayList<>();
+        for (int i = 0; i < BenchmarkHarness.size("series", 20); i++) {
+            series.add(SyntheticCatalog.tvSeries(random, i, 20, 200));
+        }
+        var display = new DisplayContentVisitor();
+        var playback = new PlaybackContentVisitor();
+        var durations = new DurationContentVisitor();
+        var metadata = new MetadataContentVisitor();
+        var fused = new FusedContentVisitor(display, playback, durations, metadata);
+        FusedContentResults results = series.get(0).accept(fused);
+        assertEquals(series.get(0).accept(display), results.get(display));
+        assertEquals(series.get(0).accept(durations).getSum(), results.get(durations).getSum());
+
+        var separate = BenchmarkHarness.measure(BENCHMARK, "separate visitors", series.size(), () -> {
+            for (Content content : series) {
+                BenchmarkHarness.consume(content.accept(display));
+                BenchmarkHarness.consume(content.accept(playback));
+                BenchmarkHarness.consume(content.accept(durations));
+                BenchmarkHarness.consume(content.accept(metadata));
+            }
+        });
+        var single = BenchmarkHarness.measure(BENCHMARK, "fused traversal", series.size(), () -> {
+            for (Content content : series) {
+                BenchmarkHarness.consume(content.accept(fused));
+            }
+        });
+        BenchmarkHarness.speedup(BENCHMARK, separate, single);
+    }
+}
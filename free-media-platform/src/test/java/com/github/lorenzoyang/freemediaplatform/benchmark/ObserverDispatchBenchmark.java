@@ -0,0 +1,54 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.PlatformObserver;
+import com.github.lorenzoyang.freemediaplatform.PlatformUser;
+import com.github.lorenzoyang.freemediaplatform.SynchronousEventDispatcher;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.events.RemoveContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.UpdateContentEvent;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// dispatch cost of a mixed event stream when the users subscribe to the event types they
+// handle, against users receiving every event and ignoring the removals themselves
+@Category(Benchmark.class)
+public class ObserverDispatchBenchmark {
+    private static final String BENCHMARK = "observer-dispatch";
+    private static final Set<Class<? extends PlatformEvent>> EVERY_EVENT_TYPE =
+            Set.of(AddContentEvent.class, RemoveContentEvent.class, UpdateContentEvent.class);
+
+    @Test
+    public void benchmarkMixedEventStream() {
+        int usersCount = BenchmarkHarness.size("users", 10_000);
+        List<Content> contents = SyntheticCatalog.contents(100, 5);
+        // half of the stream are removals, which users do not handle
+        List<PlatformEvent> events = new ArrayList<>();
+        for (Content content : contents) {
+            events.add(new AddContentEvent(content));
+            events.add(new UpdateContentEvent(content, content));
+            events.add(new RemoveContentEvent(content));
+            events.add(new RemoveContentEvent(content));
+        }
+
+        var filtered = new SynchronousEventDispatcher();
+        var unfiltered = new SynchronousEventDispatcher();
+        for (int i = 0; i < usersCount; i++) {
+            PlatformObserver user = new PlatformUser("user" + i + "@example.com", (email, subject, message) ->
+                    BenchmarkHarness.consume(message));
+            filtered.addObserver(user);
+            unfiltered.addObserver(user, EVERY_EVENT_TYPE);
+        }
+
+        var everyType = BenchmarkHarness.measure(BENCHMARK, "every event type", events.size(),
+                () -> events.forEach(unfiltered::dispatch));
+        var subscribed = BenchmarkHarness.measure(BENCHMARK, "subscribed event types", events.size(),
+                () -> events.forEach(filtered::dispatch));
+        BenchmarkHarness.speedup(BENCHMARK, everyType, subscribed);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.search.ContentSearchIndex;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+// query latency of the inverted index against the substring scan it replaces; the requests
+// target a catalog of a million titles, run with -Dbenchmark.catalog=1000000
+@Category(Benchmark.class)
+public class SearchBenchmark {
+    private static final String BENCHMARK = "search";
+
+    @Test
+    public void benchmarkQueryLatency() {
+        List<Content> contents = SyntheticCatalog.contents(BenchmarkHarness.size("catalog", 100_000), 7);
+        var searchIndex = new ContentSearchIndex(contents);
+        var random = new Random(11);
+        String[] queries = new String[1_000];
+        String[] prefixes = new String[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = SyntheticCatalog.word(random) + " " + SyntheticCatalog.word(random);
+            String word = SyntheticCatalog.word(random);
+            prefixes[i] = SyntheticCatalog.word(random) + " " + word.substring(0, 1 + random.nextInt(word.length()));
+        }
+
+        BenchmarkHarness.latencies(BENCHMARK, "substring scan", 50, i ->
+                BenchmarkHarness.consume(scan(contents, queries[i])));
+        BenchmarkHarness.latencies(BENCHMARK, "index search, first page", queries.length, i ->
+                BenchmarkHarness.consume(searchIndex.search(queries[i], 0, 20)));
+        BenchmarkHarness.latencies(BENCHMARK, "index search, tenth page", queries.length, i ->
+                BenchmarkHarness.consume(searchIndex.search(queries[i], 9, 20)));
+        BenchmarkHarness.latencies(BENCHMARK, "autocomplete", prefixes.length, i ->
+                BenchmarkHarness.consume(searchIndex.autocomplete(prefixes[i], 10)));
+    }
+
+    // every match is collected, as the index counts every hit of a query
+    private static List<Content> scan(List<Content> contents, String query) {
+        String[] tokens = query.toLowerCase(Locale.ROOT).split(" ");
+        return contents.stream()
+                .filter(content -> {
+                    String text = (content.getTitle() + " " + content.getDescription().orElse(""))
+                            .toLowerCase(Locale.ROOT);
+                    for (String token : tokens) {
+                        if (!text.contains(token)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import com.github.lorenzoyang.freemediaplatform.content.Season;
+import com.github.lorenzoyang.freemediaplatform.content.TVSeries;
+import com.github.lorenzoyang.freemediaplatform.serialization.BinaryContentEncoder;
+import com.github.lorenzoyang.freemediaplatform.serialization.JsonContentEncoder;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// encoding throughput and allocations of the encoders writing into a reused buffer, against
+// building a map from the getters and formatting it as a JSON string
+@Category(Benchmark.class)
+public class SerializationBenchmark {
+    private static final String BENCHMARK = "serialization";
+
+    @Test
+    public void benchmarkEncoding() {
+        List<Content> contents = SyntheticCatalog.contents(BenchmarkHarness.size("catalog", 10_000), 31);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+        var json = new JsonContentEncoder(buffer);
+        var binary = new BinaryContentEncoder(buffer);
+
+        var maps = BenchmarkHarness.measure(BENCHMARK, "getters, map and string", contents.size(), () -> {
+            for (Content content : contents) {
+                BenchmarkHarness.consume(toJson(toMap(content)).getBytes(StandardCharsets.UTF_8));
+            }
+        });
+        var jsonEncoder = BenchmarkHarness.measure(BENCHMARK, "json encoder", contents.size(), () -> {
+            for (Content content : contents) {
+                buffer.clear();
+                content.accept(json);
+            }
+            BenchmarkHarness.consume(buffer.position());
+        });
+        var binaryEncoder = BenchmarkHarness.measure(BENCHMARK, "binary encoder", contents.size(), () -> {
+            for (Content content : contents) {
+                buffer.clear();
+                content.accept(binary);
+            }
+            BenchmarkHarness.consume(buffer.position());
+        });
+        BenchmarkHarness.speedup(BENCHMARK, maps, jsonEncoder);
+        BenchmarkHarness.speedup(BENCHMARK, maps, binaryEncoder);
+    }
+
+    private static Map<String, Object> toMap(Content content) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("type", content instanceof Movie ? "movie" : "tvSeries");
+        map.put("title", content.getTitle());
+        content.getDescription().ifPresent(description -> map.put("description", description));
+        content.getReleaseDate().ifPresent(releaseDate -> map.put("releaseDate", releaseDate.toString()));
+        content.getResolution().ifPresent(resolution -> map.put("resolution", resolution.getDisplayName()));
+        if (content instanceof Movie) {
+            map.put("episode", episode(1, ((Movie) content).getEpisode().getDurationInMinutes()));
+        } else {
+            List<Object> seasons = new ArrayList<>();
+            for (Season season : (TVSeries) content) {
+                List<Object> episodes = new ArrayList<>();
+                for (int episodeNumber = 1; episodeNumber <= season.getEpisodesCount(); episodeNumber++) {
+                    episodes.add(episode(episodeNumber, season.getEpisodeDuration(episodeNumber)));
+                }
+                Map<String, Object> seasonMap = new LinkedHashMap<>();
+                seasonMap.put("seasonNumber", season.getSeasonNumber());
+                seasonMap.put("episodes", episodes);
+                seasons.add(seasonMap);
+            }
+            map.put("seasons", seasons);
+        }
+        return map;
+    }
+
+    private static Map<String, Object> episode(int episodeNumber, int durationInMinutes) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("episodeNumber", episodeNumber);
+        map.put("durationInMinutes", durationInMinutes);
+        return map;
+    }
+
+    // the synthetic strings need no escaping
+    private static String toJson(Object value) {
+        if (value instanceof Map) {
+            var joined = new StringBuilder("{");
+            ((Map<?, ?>) value).forEach((key, field) -> joined.append(joined.length() > 1 ? "," : "")
+                    .append('"').append(key).append("\":").append(toJson(field)));
+            return joined.append('}').toString();
+        }
+        if (value instanceof List) {
+            var joined = new StringBuilder("[");
+            for (Object element : (List<?>) value) {
+                joined.append(joined.length() > 1 ? "," : "").append(toJson(element));
+            }
+            return joined.append(']').toString();
+        }
+        return value instanceof String ? "\"" + value + "\"" : String.valueOf(value);
+    }
+}
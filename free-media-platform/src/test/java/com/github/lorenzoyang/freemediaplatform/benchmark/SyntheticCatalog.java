@@ -0,0 +1,76 @@
+package com.github.lorenzoyang.freemediaplatform.benchmark;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// reproducible catalogs for the benchmarks: titles and descriptions are drawn from a small
+// vocabulary, so that search tokens have realistic posting lists
+final class SyntheticCatalog {
+    private static final String[] WORDS = {
+            "star", "night", "river", "shadow", "empire", "garden", "storm", "silent", "golden", "winter",
+            "island", "machine", "ocean", "secret", "city", "dragon", "mountain", "broken", "crown", "fire",
+            "glass", "hunter", "kingdom", "last", "midnight", "north", "paper", "queen", "road", "summer"
+    };
+
+    private SyntheticCatalog() {
+    }
+
+    // one TV series every ten contents, the others are movies
+    static List<Content> contents(int count, long seed) {
+        var random = new Random(seed);
+        List<Content> contents = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            contents.add(i % 10 == 0 ? tvSeries(random, i, 1 + random.nextInt(5), 5 + random.nextInt(16))
+                    : movie(random, i));
+        }
+        return contents;
+    }
+
+    static Movie movie(Random random, int id) {
+        return new Movie.MovieBuilder(title(random, id), new Episode(1, 80 + random.nextInt(80)))
+                .withDescription(description(random))
+                .withReleaseDate(LocalDate.ofEpochDay(random.nextInt(20_000)))
+                .withResolution(VideoResolution.values()[random.nextInt(VideoResolution.values().length)])
+                .build();
+    }
+
+    static TVSeries tvSeries(Random random, int id, int seasonsCount, int episodesPerSeason) {
+        var builder = new TVSeries.TVSeriesBuilder(title(random, id), season(random, 1, episodesPerSeason))
+                .withDescription(description(random))
+                .withReleaseDate(LocalDate.ofEpochDay(random.nextInt(20_000)))
+                .withResolution(VideoResolution.values()[random.nextInt(VideoResolution.values().length)]);
+        for (int seasonNumber = 2; seasonNumber <= seasonsCount; seasonNumber++) {
+            builder.withSeason(season(random, seasonNumber, episodesPerSeason));
+        }
+        return builder.build();
+    }
+
+    static Season season(Random random, int seasonNumber, int episodesCount) {
+        List<Episode> episodes = new ArrayList<>(episodesCount);
+        for (int episodeNumber = 1; episodeNumber <= episodesCount; episodeNumber++) {
+            episodes.add(new Episode(episodeNumber, 20 + random.nextInt(40)));
+        }
+        return new Season(seasonNumber, episodes);
+    }
+
+    static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    // the id keeps titles unique
+    private static String title(Random random, int id) {
+        return word(random) + " " + word(random) + " " + id;
+    }
+
+    private static String description(Random random) {
+        var sb = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            sb.append(i == 0 ? "" : " ").append(word(random));
+        }
+        return sb.toString();
+    }
+}
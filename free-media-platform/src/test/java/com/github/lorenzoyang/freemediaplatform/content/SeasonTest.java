@@ -4,7 +4,9 @@ import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidSeasonExceptio
 import org.junit.Test;
 
 import java.util.List;
+import java.util.NoSuchElementException;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
@@ -86,4 +88,48 @@ public class SeasonTest {
         var season4 = new Season(1, List.of(episode1));
         assertNotEquals(season1.hashCode(), season4.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testIteratorMaterializesEpisodesInOrder() {
+        var episode1 = new Episode(1, 10);
+        var episode2 = new Episode(2, 20);
+        var season = new Season(1, List.of(episode1, episode2));
+
+        assertEquals(2, season.getEpisodesCount());
+        assertThat(season).containsExactly(episode1, episode2);
+        assertThat(new Season(1, List.of())).isEmpty();
+    }
+
+    @Test
+    public void testIteratorIsReadOnly() {
+        var season = new Season(1, List.of(new Episode(1, 10)));
+        var iterator = season.iterator();
+        iterator.next();
+
+        assertThatThrownBy(iterator::remove).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(iterator::next).isInstanceOf(NoSuchElementException.class);
+        assertEquals(1, season.getEpisodesCount());
+    }
+
+    @Test
+    public void testTimelineLookups() {
+        var season = new Season(2, List.of(new Episode(1, 10), new Episode(2, 20), new Episode(3, 5)));
+
+        assertEquals(10, season.getEpisodeOffset(2));
+        assertThat(season.getPositionAt(29)).hasValue(new TimelinePosition(2, 2, 19));
+        assertThat(season.getPositionAt(30)).hasValue(new TimelinePosition(2, 3, 0));
+        assertThat(season.getPositionAt(35)).isEmpty();
+        assertThat(new Season(1, List.of()).getPositionAt(0)).isEmpty();
+    }
+
+    @Test
+    public void testGetEpisodeByNumber() {
+        var season = new Season(1, List.of(new Episode(1, 10), new Episode(2, 20)));
+
+        assertEquals(new Episode(2, 20), season.getEpisode(2));
+        assertEquals(20, season.getEpisodeDuration(2));
+        assertThatThrownBy(() -> season.getEpisode(3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Episode 3 does not exist in season 1");
+    }
+}
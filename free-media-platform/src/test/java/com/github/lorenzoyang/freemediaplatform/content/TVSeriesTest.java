@@ -134,4 +134,67 @@ public class TVSeriesTest {
         assertNotEquals(tvSeries1.hashCode(), tvSeries3.hashCode());
         assertNotEquals(tvSeries2.hashCode(), tvSeries3.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetPositionAtSeeksAcrossSeasons() {
+        var tvSeries = new TVSeries.TVSeriesBuilder("TVSeries", new Season(1, List.of(
+                new Episode(1, 30), new Episode(2, 45))))
+                .withSeason(new Season(2, List.of()))
+                .withSeason(new Season(3, List.of(new Episode(1, 50), new Episode(2, 20))))
+                .build();
+
+        assertThat(tvSeries.getPositionAt(0)).hasValue(new TimelinePosition(1, 1, 0));
+        assertThat(tvSeries.getPositionAt(30)).hasValue(new TimelinePosition(1, 2, 0));
+        assertThat(tvSeries.getPositionAt(74)).hasValue(new TimelinePosition(1, 2, 44));
+        assertThat(tvSeries.getPositionAt(75)).hasValue(new TimelinePosition(3, 1, 0));
+        assertThat(tvSeries.getPositionAt(144)).hasValue(new TimelinePosition(3, 2, 19));
+        assertThat(tvSeries.getPositionAt(145)).isEmpty();
+        assertThatThrownBy(() -> tvSeries.getPositionAt(-1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Minute cannot be negative");
+    }
+
+    @Test
+    public void testGetOffsetOfAndRemainingMinutes() {
+        var tvSeries = new TVSeries.TVSeriesBuilder("TVSeries", seasons.get(0))
+                .withSeason(seasons.get(1))
+                .build();
+
+        assertEquals(0, tvSeries.getOffsetOf(1, 1));
+        assertEquals(60, tvSeries.getOffsetOf(2, 2));
+        assertEquals(80, tvSeries.getRemainingMinutes(1, 1, 0));
+        assertEquals(5, tvSeries.getRemainingMinutes(2, 2, 15));
+        assertEquals(0, tvSeries.getRemainingMinutes(2, 2, 20));
+        assertThatThrownBy(() -> tvSeries.getOffsetOf(3, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Season 3 does not exist");
+        assertThatThrownBy(() -> tvSeries.getOffsetOf(0, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Season 0 does not exist");
+        assertThatThrownBy(() -> tvSeries.getRemainingMinutes(0, 1, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Season 0 does not exist");
+        assertThatThrownBy(() -> tvSeries.getOffsetOf(1, 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Episode 3 does not exist in season 1");
+        assertThatThrownBy(() -> tvSeries.getRemainingMinutes(1, 1, 21))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Minute must be within the episode duration");
+    }
+
+    @Test
+    public void testGetSeasonAndGetEpisodeByNumber() {
+        var tvSeries = new TVSeries.TVSeriesBuilder("TVSeries", seasons.get(0))
+                .withSeason(new Season(2, List.of(new Episode(1, 20), new Episode(2, 35))))
+                .build();
+
+        assertEquals(seasons.get(0), tvSeries.getSeason(1));
+        assertEquals(new Episode(2, 35), tvSeries.getEpisode(2, 2));
+        assertThatThrownBy(() -> tvSeries.getSeason(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Season 0 does not exist");
+        assertThatThrownBy(() -> tvSeries.getEpisode(2, 3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Episode 3 does not exist in season 2");
+    }
+}
@@ -0,0 +1,204 @@
+package com.github.lorenzoyang.freemediaplatform.search;
+
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.Content;
+import com.github.lorenzoyang.freemediaplatform.content.Episode;
+import com.github.lorenzoyang.freemediaplatform.content.Movie;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class ContentSearchIndexTest {
+    private StreamingPlatform platform;
+    private ContentSearchIndex searchIndex;
+
+    private static Content movie(String title, String description) {
+        return new Movie.MovieBuilder(title, new Episode(1, 100))
+                .withDescription(description)
+                .build();
+    }
+
+    private static List<String> titles(SearchPage page) {
+        return titles(page.getResults());
+    }
+
+    private static List<String> titles(List<SearchResult> results) {
+        return results.stream()
+                .map(result -> result.getContent().getTitle())
+                .collect(Collectors.toList());
+    }
+
+    @Before
+    public void setUp() {
+        this.platform = new StreamingPlatform("Streaming Platform", () -> List.of(
+                movie("Star Wars", "A space opera"),
+                movie("Star Trek", "Space exploration with the Enterprise crew"),
+                movie("The Space Between Us", "A boy born on Mars travels to Earth"),
+                movie("Stardust", "A fairy tale about a fallen star")
+        ));
+        this.searchIndex = ContentSearchIndex.attachTo(platform);
+    }
+
+    @Test
+    public void testSearchRanksTitleMatchesFirst() {
+        SearchPage page = searchIndex.search("space", 0, 10);
+
+        assertEquals(3, page.getTotalHits());
+        assertThat(titles(page)).first().isEqualTo("The Space Between Us");
+        assertThat(titles(page)).containsExactlyInAnyOrder("The Space Between Us", "Star Wars", "Star Trek");
+    }
+
+    @Test
+    public void testSearchRequiresEveryToken() {
+        assertThat(titles(searchIndex.search("Star, SPACE!", 0, 10)))
+                .containsExactlyInAnyOrder("Star Wars", "Star Trek");
+        assertThat(titles(searchIndex.search("star unknown", 0, 10))).isEmpty();
+        assertThat(titles(searchIndex.search("  ", 0, 10))).isEmpty();
+    }
+
+    @Test
+    public void testSearchPaginatesResults() {
+        SearchPage first = searchIndex.search("star", 0, 2);
+        SearchPage second = searchIndex.search("star", 1, 2);
+        SearchPage beyond = searchIndex.search("star", 5, 2);
+
+        assertEquals(3, first.getTotalHits());
+        assertThat(first.getResults()).hasSize(2);
+        assertTrue(first.hasNextPage());
+        assertThat(second.getResults()).hasSize(1);
+        assertFalse(second.hasNextPage());
+        assertThat(titles(first)).doesNotContainAnyElementsOf(titles(second));
+        assertThat(beyond.getResults()).isEmpty();
+    }
+
+    @Test
+    public void testPagesAndAutocompleteKeepTheFullRanking() {
+        for (int i = 0; i < 30; i++) {
+            String title = "Saga " + "x".repeat(i % 7) + i;
+            platform.addContent(movie(title, i % 3 == 0 ? "saga saga" : "an epic"));
+        }
+        List<String> ranked = titles(searchIndex.search("saga", 0, 100));
+        assertEquals(30, ranked.size());
+
+        for (int pageSize = 1; pageSize <= 7; pageSize++) {
+            for (int pageNumber = 0; pageNumber * pageSize < 30; pageNumber++) {
+                int from = pageNumber * pageSize;
+                assertEquals(ranked.subList(from, Math.min(from + pageSize, 30)),
+                        titles(searchIndex.search("saga", pageNumber, pageSize)));
+            }
+        }
+        List<Content> completions = searchIndex.autocomplete("sag", 30);
+        assertThat(completions).hasSize(30);
+        for (int limit = 1; limit <= 30; limit++) {
+            assertEquals(completions.subList(0, limit), searchIndex.autocomplete("sag", limit));
+        }
+    }
+
+    @Test
+    public void testEarlyStoppingKeepsTheExhaustiveRanking() {
+        String[] words = {"red", "green", "blue", "dark", "light"};
+        var random = new Random(3);
+        List<Content> contents = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            StringBuilder description = new StringBuilder();
+            for (int j = 0; j < 6; j++) {
+                description.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            Content content = movie(words[random.nextInt(words.length)] + " " + i, description.toString());
+            contents.add(content);
+            platform.addContent(content);
+        }
+        // removed ids are reused by the next contents
+        for (int i = 0; i < 400; i += 3) {
+            platform.removeContent(contents.get(i));
+            platform.addContent(movie("light " + (1_000 + i), "dark red red"));
+        }
+
+        for (String query : List.of("red", "red blue", "dark light green", "blue blue", "red 1003")) {
+            SearchPage all = searchIndex.search(query, 0, 1_000);
+            long expectedHits = platform.contentStream()
+                    .filter(content -> Stream.of(query.split(" ")).allMatch(word ->
+                            (content.getTitle() + " " + content.getDescription().orElse("")).contains(word)))
+                    .count();
+            assertEquals(query, expectedHits, all.getTotalHits());
+            List<SearchResult> ranked = all.getResults();
+            for (int i = 1; i < ranked.size(); i++) {
+                assertTrue(query, ranked.get(i - 1).getScore() >= ranked.get(i).getScore());
+            }
+            for (int pageSize : new int[]{1, 7, 25}) {
+                for (int pageNumber = 0; pageNumber * pageSize < ranked.size() && pageNumber < 10; pageNumber++) {
+                    int from = pageNumber * pageSize;
+                    assertEquals(query, titles(ranked.subList(from, Math.min(from + pageSize, ranked.size()))),
+                            titles(searchIndex.search(query, pageNumber, pageSize)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCachedCompletionsFollowPlatformEvents() {
+        assertThat(searchIndex.autocomplete("sta", 2)).extracting(Content::getTitle)
+                .containsExactly("Stardust", "Star Trek");
+
+        platform.addContent(movie("Stag", "A deer"));
+        assertThat(searchIndex.autocomplete("sta", 2)).extracting(Content::getTitle)
+                .containsExactly("Stag", "Stardust");
+
+        platform.removeContent(movie("Stag", null));
+        platform.updateContent(movie("Star Trek", "Beyond"));
+        assertThat(searchIndex.autocomplete("sta", 2)).extracting(Content::getTitle)
+                .containsExactly("Stardust", "Star Trek");
+        assertThat(searchIndex.autocomplete("star t", 40)).extracting(Content::getTitle)
+                .containsExactly("Star Trek");
+    }
+
+    @Test
+    public void testAutocompleteMatchesLastTokenAsPrefix() {
+        assertThat(searchIndex.autocomplete("sta", 10))
+                .extracting(Content::getTitle)
+                .containsExactly("Stardust", "Star Trek", "Star Wars");
+        assertThat(searchIndex.autocomplete("star w", 10))
+                .extracting(Content::getTitle)
+                .containsExactly("Star Wars");
+        assertThat(searchIndex.autocomplete("sta", 1)).hasSize(1);
+        assertThat(searchIndex.autocomplete("", 10)).isEmpty();
+    }
+
+    @Test
+    public void testIndexFollowsPlatformEvents() {
+        platform.addContent(movie("Interstellar", "Explorers travel through a wormhole in space"));
+        assertThat(titles(searchIndex.search("wormhole", 0, 10))).containsExactly("Interstellar");
+
+        platform.updateContent(movie("Star Wars", "A galaxy far, far away"));
+        assertThat(titles(searchIndex.search("space", 0, 10))).doesNotContain("Star Wars");
+        assertThat(titles(searchIndex.search("galaxy", 0, 10))).containsExactly("Star Wars");
+
+        platform.removeContents(List.of(movie("Star Trek", null), movie("Stardust", null)));
+        assertThat(searchIndex.autocomplete("star", 10)).extracting(Content::getTitle).containsExactly("Star Wars");
+    }
+
+    @Test
+    public void testSearchThrowsForInvalidArguments() {
+        assertThatThrownBy(() -> searchIndex.search(null, 0, 10))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Query cannot be null");
+        assertThatThrownBy(() -> searchIndex.search("star", -1, 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page number cannot be negative");
+        assertThatThrownBy(() -> searchIndex.search("star", 0, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Page size must be a positive integer greater than 0");
+        assertThatThrownBy(() -> searchIndex.autocomplete("star", 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be a positive integer greater than 0");
+    }
+}
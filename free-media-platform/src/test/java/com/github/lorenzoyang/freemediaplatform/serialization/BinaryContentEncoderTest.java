@@ -0,0 +1,114 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+import com.github.lorenzoyang.freemediaplatform.Allocations;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidContentException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentVisitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+public class BinaryContentEncoderTest {
+    private Content movie;
+    private Content tvSeries;
+    private ByteBuffer buffer;
+
+    @Before
+    public void setUp() {
+        this.movie = new Movie.MovieBuilder("Movie", new Episode(1, 90))
+                .withReleaseDate(LocalDate.of(1960, 1, 1))
+                .build();
+        this.tvSeries = new TVSeries.TVSeriesBuilder("Città 🎬 Series",
+                new Season(1, List.of(new Episode(1, 20), new Episode(2, 300))))
+                .withSeason(new Season(2, List.of(new Episode(1, 40))))
+                .withDescription("Ünïcode description")
+                .withReleaseDate(LocalDate.of(2020, 3, 9))
+                .withResolution(VideoResolution.FULL_HD_1080P)
+                .build();
+        this.buffer = ByteBuffer.allocate(1024);
+    }
+
+    @Test
+    public void testDecoderRebuildsEncodedContents() {
+        var encoder = new BinaryContentEncoder(buffer);
+        tvSeries.accept(encoder);
+        movie.accept(encoder);
+        buffer.flip();
+
+        Content decodedSeries = BinaryContentDecoder.decode(buffer);
+        Content decodedMovie = BinaryContentDecoder.decode(buffer);
+
+        assertThat(decodedSeries).isInstanceOf(TVSeries.class);
+        assertEquals(tvSeries.accept(new DisplayContentVisitor()), decodedSeries.accept(new DisplayContentVisitor()));
+        assertThat((TVSeries) decodedSeries).containsExactlyElementsOf((TVSeries) tvSeries);
+        assertThat(decodedMovie).isInstanceOf(Movie.class);
+        assertEquals(movie.accept(new DisplayContentVisitor()), decodedMovie.accept(new DisplayContentVisitor()));
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testMovieEncodingIsCompact() {
+        movie.accept(new BinaryContentEncoder(buffer));
+
+        // type, flags, title length and bytes, zigzag epoch day (-3652) and duration
+        assertEquals(2 + 1 + 5 + 2 + 1, buffer.position());
+    }
+
+    @Test
+    public void testDecoderThrowsForInvalidInput() {
+        tvSeries.accept(new BinaryContentEncoder(buffer));
+        buffer.flip().limit(buffer.limit() - 1);
+
+        assertThatThrownBy(() -> BinaryContentDecoder.decode(buffer))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid binary content");
+        assertThatThrownBy(() -> BinaryContentDecoder.decode(ByteBuffer.wrap(new byte[]{7, 0, 0})))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid binary content");
+    }
+
+    @Test
+    public void testDecoderReportsInvalidContentsWithTheirCause() {
+        new Movie.MovieBuilder("X", new Episode(1, 90)).build().accept(new BinaryContentEncoder(buffer));
+        buffer.flip();
+        // type, flags, title length, then the title is made blank
+        buffer.put(3, (byte) ' ');
+
+        assertThatThrownBy(() -> BinaryContentDecoder.decode(buffer))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid binary content")
+                .hasCauseInstanceOf(InvalidContentException.class);
+    }
+
+    @Test
+    public void testEncodingDoesNotAllocate() {
+        List<Episode> episodes = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            episodes.add(new Episode(i, 45));
+        }
+        var builder = new TVSeries.TVSeriesBuilder("Long Series", new Season(1, episodes));
+        for (int i = 2; i <= 20; i++) {
+            builder.withSeason(new Season(i, episodes));
+        }
+        TVSeries longSeries = builder.withDescription("Description")
+                .withReleaseDate(LocalDate.of(2020, 3, 9))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        ByteBuffer target = ByteBuffer.allocate(1 << 16);
+        var encoder = new BinaryContentEncoder(target);
+
+        assertEquals(0, Allocations.allocatedBytes(200, () -> {
+            target.clear();
+            longSeries.accept(encoder);
+        }));
+    }
+}
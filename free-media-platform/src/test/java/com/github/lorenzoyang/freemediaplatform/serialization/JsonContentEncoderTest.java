@@ -0,0 +1,143 @@
+package com.github.lorenzoyang.freemediaplatform.serialization;
+
+import com.github.lorenzoyang.freemediaplatform.Allocations;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.exceptions.InvalidEpisodeException;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import com.github.lorenzoyang.freemediaplatform.utils.DisplayContentVisitor;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+public class JsonContentEncoderTest {
+    private Content movie;
+    private Content tvSeries;
+    private ByteBuffer buffer;
+
+    @Before
+    public void setUp() {
+        this.movie = new Movie.MovieBuilder("Movie", new Episode(1, 90)).build();
+        this.tvSeries = new TVSeries.TVSeriesBuilder("Città \"🎬\" Series",
+                new Season(1, List.of(new Episode(1, 20), new Episode(2, 30))))
+                .withSeason(new Season(2, List.of(new Episode(1, 40))))
+                .withDescription("Line\nbreak\\ \u0001")
+                .withReleaseDate(LocalDate.of(987, 3, 9))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.buffer = ByteBuffer.allocate(1024);
+    }
+
+    private String encode(Content content) {
+        buffer.clear();
+        content.accept(new JsonContentEncoder(buffer));
+        buffer.flip();
+        return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+
+    @Test
+    public void testMovieIsEncodedWithoutAbsentFields() {
+        assertEquals("{\"type\":\"movie\",\"title\":\"Movie\"," +
+                "\"episode\":{\"episodeNumber\":1,\"durationInMinutes\":90}}", encode(movie));
+    }
+
+    @Test
+    public void testTVSeriesIsEncodedWithEscapes() {
+        assertEquals("{\"type\":\"tvSeries\",\"title\":\"Città \\\"🎬\\\" Series\"," +
+                "\"description\":\"Line\\nbreak\\\\ \\u0001\"," +
+                "\"releaseDate\":\"0987-03-09\",\"resolution\":\"UHD_4K\"," +
+                "\"seasons\":[{\"seasonNumber\":1,\"episodes\":[" +
+                "{\"episodeNumber\":1,\"durationInMinutes\":20},{\"episodeNumber\":2,\"durationInMinutes\":30}]}," +
+                "{\"seasonNumber\":2,\"episodes\":[{\"episodeNumber\":1,\"durationInMinutes\":40}]}]}", encode(tvSeries));
+    }
+
+    @Test
+    public void testDecoderRebuildsEncodedContents() {
+        buffer.clear();
+        var encoder = new JsonContentEncoder(buffer);
+        tvSeries.accept(encoder);
+        movie.accept(encoder);
+        buffer.flip();
+
+        Content decodedSeries = JsonContentDecoder.decode(buffer);
+        Content decodedMovie = JsonContentDecoder.decode(buffer);
+
+        assertThat(decodedSeries).isInstanceOf(TVSeries.class);
+        assertEquals(tvSeries.accept(new DisplayContentVisitor()), decodedSeries.accept(new DisplayContentVisitor()));
+        assertThat((TVSeries) decodedSeries).containsExactlyElementsOf((TVSeries) tvSeries);
+        assertThat(decodedMovie).isInstanceOf(Movie.class);
+        assertEquals(movie.accept(new DisplayContentVisitor()), decodedMovie.accept(new DisplayContentVisitor()));
+        assertEquals(0, buffer.remaining());
+    }
+
+    @Test
+    public void testDecoderAcceptsWhitespaceNullsAndAnyFieldOrder() {
+        String json = " { \"episode\" : {\"durationInMinutes\": 90, \"episodeNumber\": 1},\n" +
+                "\"description\": null, \"title\": \"Movie \\u00e8\", \"type\": \"movie\" } ";
+        Content decoded = JsonContentDecoder.decode(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("Movie è", decoded.getTitle());
+        assertThat(decoded.getDescription()).isEmpty();
+        assertEquals(90, decoded.getDurationInMinutes());
+    }
+
+    @Test
+    public void testDecoderThrowsForInvalidJson() {
+        for (String json : List.of("{\"type\":\"movie\"", "{\"type\":\"movie\",\"title\":\"Movie\"}",
+                "{\"unknown\":1}", "[]", "{\"type\":\"tvSeries\",\"title\":\"Series\",\"seasons\":[]}")) {
+            ByteBuffer source = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+            assertThatThrownBy(() -> JsonContentDecoder.decode(source))
+                    .isInstanceOf(StreamingPlatformException.class)
+                    .hasMessage("Invalid JSON content");
+        }
+    }
+
+    @Test
+    public void testDecoderReportsInvalidContentsWithTheirCause() {
+        String json = "{\"type\":\"movie\",\"title\":\"Movie\",\"episode\":{\"episodeNumber\":1,\"durationInMinutes\":0}}";
+        ByteBuffer source = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> JsonContentDecoder.decode(source))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid JSON content")
+                .hasCauseInstanceOf(InvalidEpisodeException.class);
+    }
+
+    @Test
+    public void testEncoderThrowsWhenTargetIsFull() {
+        assertThatThrownBy(() -> tvSeries.accept(new JsonContentEncoder(ByteBuffer.allocate(16))))
+                .isInstanceOf(BufferOverflowException.class);
+    }
+
+    @Test
+    public void testEncodingDoesNotAllocate() {
+        List<Episode> episodes = new ArrayList<>();
+        for (int i = 1; i <= 1_000; i++) {
+            episodes.add(new Episode(i, 45));
+        }
+        var builder = new TVSeries.TVSeriesBuilder("Long Series", new Season(1, episodes));
+        for (int i = 2; i <= 20; i++) {
+            builder.withSeason(new Season(i, episodes));
+        }
+        TVSeries longSeries = builder.withDescription("Description")
+                .withReleaseDate(LocalDate.of(2020, 3, 9))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        ByteBuffer target = ByteBuffer.allocate(1 << 20);
+        var encoder = new JsonContentEncoder(target);
+
+        assertEquals(0, Allocations.allocatedBytes(200, () -> {
+            target.clear();
+            longSeries.accept(encoder);
+        }));
+    }
+}
@@ -0,0 +1,491 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+import com.github.lorenzoyang.freemediaplatform.AsyncEventDispatcher;
+import com.github.lorenzoyang.freemediaplatform.ContentChangeSet;
+import com.github.lorenzoyang.freemediaplatform.PlatformObserver;
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.events.AddContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.LoadContentEvent;
+import com.github.lorenzoyang.freemediaplatform.events.PlatformEvent;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class EventLogTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path logFile;
+    private Movie movie1;
+    private Movie movie2;
+    private TVSeries tvSeries;
+
+    @Before
+    public void setUp() {
+        this.logFile = folder.getRoot().toPath().resolve("catalog.log");
+        this.movie1 = new Movie.MovieBuilder("Movie1", new Episode(1, 100)).build();
+        this.movie2 = new Movie.MovieBuilder("Movie2", new Episode(1, 90))
+                .withReleaseDate(LocalDate.of(2021, 5, 1))
+                .build();
+        this.tvSeries = new TVSeries.TVSeriesBuilder("TV Series", new Season(1, List.of(new Episode(1, 40))))
+                .withSeason(new Season(2, List.of(new Episode(1, 45), new Episode(2, 42))))
+                .withDescription("Description")
+                .withResolution(VideoResolution.FULL_HD_1080P)
+                .build();
+    }
+
+    private EventLog openLog(Durability durability) throws IOException {
+        return new EventLog.EventLogBuilder(logFile).withDurability(durability).build();
+    }
+
+    private static Movie updated(Movie movie) {
+        return new Movie.MovieBuilder(movie.getTitle(), movie.getEpisode())
+                .withDescription("Updated description")
+                .build();
+    }
+
+    @Test
+    public void testReplayRebuildsPlatformStateAfterRestart() throws IOException {
+        List<Content> expected;
+        try (EventLog log = openLog(Durability.SYNC);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform", () -> List.of(movie1))) {
+            platform.addObserver(log);
+            platform.addContent(movie2);
+            platform.updateContent(updated(movie1));
+            platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                    .withAddition(tvSeries)
+                    .withRemoval(movie2)
+                    .build());
+            expected = platform.catalogSnapshot().stream().collect(Collectors.toList());
+        }
+
+        try (EventLog log = openLog(Durability.SYNC)) {
+            List<Content> recovered = log.replay(List.of(movie1));
+
+            assertThat(recovered).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(expected);
+            assertThat(recovered.get(0).getDescription()).hasValue("Updated description");
+        }
+    }
+
+    @Test
+    public void testEveryDurabilityLevelPersistsEvents() throws IOException {
+        for (Durability durability : Durability.values()) {
+            Files.deleteIfExists(logFile);
+            try (EventLog log = new EventLog.EventLogBuilder(logFile)
+                    .withDurability(durability)
+                    .withCommitInterval(Duration.ofMillis(1))
+                    .build()) {
+                log.notifyChange(new AddContentEvent(movie1));
+                log.notifyChange(new AddContentEvent(movie2));
+            }
+            try (EventLog log = openLog(durability)) {
+                assertThat(log.replay(List.of())).as(durability.name()).containsExactly(movie1, movie2);
+            }
+        }
+    }
+
+    @Test
+    public void testGroupCommitPersistsConcurrentAppends() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (EventLog log = openLog(Durability.GROUP_COMMIT)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        log.notifyChange(new AddContentEvent(
+                                new Movie.MovieBuilder("Movie" + thread + "-" + j, new Episode(1, 1)).build()));
+                        log.commit();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            assertEquals(400, log.replay(List.of()).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testGroupCommitSharesForcesBetweenConcurrentMutations() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (EventLog log = openLog(Durability.GROUP_COMMIT);
+             StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                     .withConcurrentAccess(true)
+                     .build()) {
+            platform.addObserver(log);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 50; j++) {
+                        platform.addContent(new Movie.MovieBuilder("Movie" + thread + "-" + j, new Episode(1, 1)).build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+
+            // the publishers wait for durability without the platform lock
+            assertThat(log.getForcesCount()).isLessThan(400);
+            assertEquals(400, log.replay(List.of()).size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMutationsAreDurableWithAnAsyncEventDispatcher() throws IOException {
+        for (Durability durability : List.of(Durability.SYNC, Durability.GROUP_COMMIT)) {
+            Files.deleteIfExists(logFile);
+            try (EventLog log = new EventLog.EventLogBuilder(logFile)
+                    .withDurability(durability)
+                    .withCommitInterval(Duration.ofMinutes(1))
+                    .build();
+                 StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                         .withEventDispatcher(new AsyncEventDispatcher.AsyncEventDispatcherBuilder().build())
+                         .build()) {
+                platform.addObserver(log);
+
+                platform.addContent(movie1);
+                assertTrue(durability.name(), log.isDurable());
+                platform.applyChanges(new ContentChangeSet.ContentChangeSetBuilder()
+                        .withAddition(movie2)
+                        .withAddition(tvSeries)
+                        .build());
+                assertTrue(durability.name(), log.isDurable());
+                assertEquals(2, log.getRecordsCount());
+            }
+        }
+    }
+
+    @Test
+    public void testLongTitlesAndDescriptionsAreLogged() throws IOException {
+        String title = "T".repeat(70_000) + "\u00e8\u4e2d\ud83d\ude00";
+        Movie longMovie = new Movie.MovieBuilder(title, new Episode(1, 100))
+                .withDescription("D".repeat(70_000))
+                .build();
+        try (EventLog log = openLog(Durability.SYNC)) {
+            log.notifyChange(new AddContentEvent(longMovie));
+        }
+
+        try (EventLog log = openLog(Durability.SYNC)) {
+            assertThat(log.replay(List.of())).containsExactly(longMovie);
+        }
+    }
+
+    @Test
+    public void testLoadedContentsAreNotLogged() throws IOException {
+        try (EventLog log = openLog(Durability.SYNC)) {
+            log.notifyChange(new LoadContentEvent(List.of(movie1, movie2)));
+
+            assertEquals(0, log.getRecordsCount());
+            assertThat(log.replay(List.of())).isEmpty();
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDroppedOnOpen() throws IOException {
+        try (EventLog log = openLog(Durability.SYNC)) {
+            log.notifyChange(new AddContentEvent(movie1));
+        }
+        Files.write(logFile, new byte[]{0, 0, 0, 100, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (EventLog log = openLog(Durability.SYNC)) {
+            log.notifyChange(new AddContentEvent(movie2));
+
+            assertEquals(2, log.getRecordsCount());
+            assertThat(log.replay(List.of())).containsExactly(movie1, movie2);
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsLatestStatePerTitle() throws IOException {
+        try (EventLog log = openLog(Durability.SYNC);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform", () -> List.of(movie1, movie2))) {
+            platform.addObserver(log);
+            for (int i = 0; i < 5; i++) {
+                platform.updateContent(updated(movie1));
+            }
+            platform.removeContent(movie1);
+            platform.addContent(movie1);
+            platform.addContent(tvSeries);
+            platform.removeContent(tvSeries);
+            List<Content> expected = log.replay(List.of(movie1, movie2));
+
+            log.compact();
+
+            // the record of the last event is kept as it is
+            assertEquals(3, log.getRecordsCount());
+            assertThat(log.replay(List.of(movie1, movie2))).containsExactlyElementsOf(expected)
+                    .containsExactly(movie2, movie1);
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsRecordsAppendedMeanwhile() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (EventLog log = openLog(Durability.GROUP_COMMIT);
+             StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                     .withConcurrentAccess(true)
+                     .build()) {
+            platform.addObserver(log);
+            Future<?> publisher = executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    platform.addContent(new Movie.MovieBuilder("Movie" + i, new Episode(1, 1)).build());
+                }
+            });
+            while (!publisher.isDone()) {
+                log.compact();
+            }
+            publisher.get();
+
+            assertThat(log.replay(List.of())).containsExactlyElementsOf(platform.catalogSnapshot());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCompactionRunsOnceThresholdIsReached() throws Exception {
+        try (EventLog log = new EventLog.EventLogBuilder(logFile)
+                .withDurability(Durability.SYNC)
+                .withCompactionThreshold(10)
+                .build()) {
+            for (int i = 0; i < 25; i++) {
+                log.notifyChange(new AddContentEvent(i % 2 == 0 ? movie1 : movie2));
+            }
+
+            // compaction runs on the flusher thread
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (log.getRecordsCount() >= 10 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertThat(log.getRecordsCount()).isLessThan(10);
+            assertThat(log.replay(List.of())).containsExactlyInAnyOrder(movie1, movie2);
+        }
+    }
+
+    @Test
+    public void testCheckpointWritesSnapshotAndTruncatesLog() throws IOException {
+        Path snapshotFile = folder.getRoot().toPath().resolve("catalog.snapshot");
+        try (EventLog log = openLog(Durability.SYNC);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform", () -> List.of(movie1))) {
+            platform.addObserver(log);
+            platform.addContent(movie2);
+
+            log.checkpoint(platform, snapshotFile);
+            assertEquals(0, log.getRecordsCount());
+
+            platform.addContent(tvSeries);
+        }
+
+        try (EventLog log = openLog(Durability.SYNC)) {
+            assertThat(log.replay(MappedCatalogSnapshot.open(snapshotFile)))
+                    .containsExactly(movie1, movie2, tvSeries);
+        }
+    }
+
+    @Test
+    public void testPlatformRecoversFromSnapshotAndLog() throws IOException {
+        Path snapshotFile = folder.getRoot().toPath().resolve("catalog.snapshot");
+        try (EventLog log = openLog(Durability.SYNC);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform",
+                     log.recover(snapshotFile, () -> List.of(movie1)))) {
+            platform.addObserver(log);
+            platform.addContent(movie2);
+        }
+
+        try (EventLog log = openLog(Durability.SYNC);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform",
+                     log.recover(snapshotFile, () -> List.of(movie1)))) {
+            assertThat(platform.catalogSnapshot()).containsExactly(movie1, movie2);
+            platform.addObserver(log);
+            log.checkpoint(platform, snapshotFile);
+            platform.addContent(tvSeries);
+        }
+
+        try (EventLog log = openLog(Durability.SYNC);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform",
+                     log.recover(snapshotFile, List::of))) {
+            assertThat(platform.catalogSnapshot()).containsExactly(movie1, movie2, tvSeries);
+        }
+    }
+
+    @Test
+    public void testMalformedRecordFailsOpening() throws IOException {
+        // a valid checksum over a movie with an unknown resolution, then a series without seasons
+        byte[][] contents = {
+                {0, 1 << 2, 5, 'M', 'o', 'v', 'i', 'e', 100, 90},
+                {1, 0, 6, 'S', 'e', 'r', 'i', 'e', 's', 0}
+        };
+        for (byte[] content : contents) {
+            ByteBuffer payload = ByteBuffer.allocate(Integer.BYTES + 1 + content.length)
+                    .putInt(1)
+                    .put((byte) 1)
+                    .put(content);
+            var crc = new CRC32();
+            crc.update(payload.array());
+            ByteBuffer record = ByteBuffer.allocate(2 * Integer.BYTES + payload.capacity())
+                    .putInt(payload.capacity())
+                    .putInt((int) crc.getValue())
+                    .put(payload.array());
+            Files.write(logFile, record.array());
+
+            assertThatThrownBy(() -> openLog(Durability.SYNC))
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Malformed event log record");
+        }
+    }
+
+
+    @Test
+    public void testCheckpointDuringConcurrentMutations() throws Exception {
+        Path snapshotFile = folder.getRoot().toPath().resolve("catalog.snapshot");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<Content> expected;
+        try (EventLog log = openLog(Durability.GROUP_COMMIT);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform", List::of)) {
+            platform.addObserver(log);
+            Future<?> publisher = executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    Movie movie = new Movie.MovieBuilder("Movie" + i % 50, new Episode(1, i + 1)).build();
+                    if (!platform.addContent(movie)) {
+                        platform.updateContent(movie);
+                    }
+                }
+            });
+            do {
+                log.checkpoint(platform, snapshotFile);
+            } while (!publisher.isDone());
+            publisher.get();
+            expected = platform.catalogSnapshot().stream().collect(Collectors.toList());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (EventLog log = openLog(Durability.GROUP_COMMIT)) {
+            assertThat(log.replay(MappedCatalogSnapshot.open(snapshotFile)))
+                    .usingRecursiveFieldByFieldElementComparator()
+                    .containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void testAppendsFailOnceTheFlusherHasStopped() throws Exception {
+        try (EventLog log = openLog(Durability.GROUP_COMMIT)) {
+            log.getFlusher().interrupt();
+            log.getFlusher().join();
+
+            assertThatThrownBy(() -> log.notifyChange(new AddContentEvent(movie1)))
+                    .isInstanceOf(StreamingPlatformException.class)
+                    .hasMessage("Event log flusher has stopped");
+        }
+    }
+
+    @Test
+    public void testNotifyChangeThrowsAfterClose() throws IOException {
+        EventLog log = openLog(Durability.GROUP_COMMIT);
+        log.close();
+
+        assertThatThrownBy(() -> log.notifyChange(new AddContentEvent(movie1)))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Event log is closed");
+    }
+
+    @Test
+    public void testLogFailureFailsThePlatformMutation() throws IOException {
+        EventLog log = openLog(Durability.SYNC);
+        StreamingPlatform platform = new StreamingPlatform("Streaming Platform", List::of);
+        platform.addObserver(log);
+        log.close();
+
+        assertTrue(log.isCritical());
+        assertThatThrownBy(() -> platform.addContent(movie1))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Event log is closed");
+        assertFalse(platform.getObserverMetrics().get(log).isQuarantined());
+    }
+
+    @Test
+    public void testRecordOfARejectedMutationIsTruncated() throws IOException {
+        PlatformObserver failing = new PlatformObserver() {
+            @Override
+            public void notifyChange(PlatformEvent event) {
+                throw new IllegalStateException("Critical failure");
+            }
+
+            @Override
+            public boolean isCritical() {
+                return true;
+            }
+        };
+        try (EventLog log = openLog(Durability.SYNC);
+             StreamingPlatform platform = new StreamingPlatform("Streaming Platform", () -> List.of(movie1))) {
+            platform.addObserver(log);
+            platform.addContent(movie2);
+            // notified after the log, which has already written the record
+            platform.addObserver(failing);
+
+            assertThatThrownBy(() -> platform.addContent(tvSeries))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Critical failure");
+            assertThatThrownBy(() -> platform.updateContent(updated(movie1)))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Critical failure");
+            assertEquals(1, log.getRecordsCount());
+
+            platform.removeObserver(failing);
+            platform.removeContent(movie2);
+        }
+
+        try (EventLog log = openLog(Durability.SYNC)) {
+            assertEquals(2, log.getRecordsCount());
+            assertThat(log.replay(List.of(movie1))).containsExactly(movie1);
+        }
+    }
+
+    @Test
+    public void testBuilderThrowsForInvalidArguments() {
+        var builder = new EventLog.EventLogBuilder(logFile);
+
+        assertThatThrownBy(() -> new EventLog.EventLogBuilder(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("File cannot be null");
+        assertThatThrownBy(() -> builder.withDurability(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Durability cannot be null");
+        assertThatThrownBy(() -> builder.withCommitInterval(Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Commit interval must be positive");
+        assertThatThrownBy(() -> builder.withCompactionThreshold(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Compaction threshold must be a positive integer greater than 0");
+    }
+}
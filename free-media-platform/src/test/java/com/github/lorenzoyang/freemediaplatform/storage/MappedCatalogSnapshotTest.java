@@ -0,0 +1,175 @@
+package com.github.lorenzoyang.freemediaplatform.storage;
+
+import com.github.lorenzoyang.freemediaplatform.StreamingPlatform;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import com.github.lorenzoyang.freemediaplatform.exceptions.StreamingPlatformException;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
+
+public class MappedCatalogSnapshotTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path file;
+    private Movie movie;
+    private Movie bareMovie;
+    private TVSeries tvSeries;
+
+    @Before
+    public void setUp() {
+        this.file = folder.getRoot().toPath().resolve("catalog.snapshot");
+        this.movie = new Movie.MovieBuilder("Movie", new Episode(1, 120))
+                .withDescription("Description")
+                .withReleaseDate(LocalDate.of(2020, 1, 1))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+        this.bareMovie = new Movie.MovieBuilder("Film è già visto", new Episode(1, 95)).build();
+        this.tvSeries = new TVSeries.TVSeriesBuilder("TV Series",
+                new Season(1, List.of(new Episode(1, 45), new Episode(2, 50))))
+                .withSeason(new Season(2, List.of()))
+                .withSeason(new Season(3, List.of(new Episode(1, 60))))
+                .withDescription("Description")
+                .withReleaseDate(LocalDate.of(1999, 12, 31))
+                .withResolution(VideoResolution.SD_480P)
+                .build();
+    }
+
+    @Test
+    public void testRoundTripPreservesEveryContentType() throws IOException {
+        CatalogSnapshotWriter.write(List.of(movie, bareMovie, tvSeries), file);
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+
+        assertEquals(3, snapshot.size());
+        assertThat(snapshot.getExpectedCount()).hasValue(3);
+        assertEquals("Film è già visto", snapshot.getTitle(1));
+        assertThat(snapshot).usingRecursiveFieldByFieldElementComparator()
+                .containsExactly(movie, bareMovie, tvSeries);
+    }
+
+    @Test
+    public void testEmptyCatalogRoundTrip() throws IOException {
+        CatalogSnapshotWriter.write(List.of(), file);
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+
+        assertEquals(0, snapshot.size());
+        assertFalse(snapshot.iterator().hasNext());
+    }
+
+    @Test
+    public void testWriteReplacesExistingSnapshot() throws IOException {
+        CatalogSnapshotWriter.write(List.of(movie, tvSeries), file);
+        CatalogSnapshotWriter.write(List.of(bareMovie), file);
+
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+        assertThat(snapshot).containsExactly(bareMovie);
+        try (var files = Files.list(folder.getRoot().toPath())) {
+            assertThat(files).containsExactly(file);
+        }
+    }
+
+    @Test
+    public void testGetContentThrowsForInvalidIndex() throws IOException {
+        CatalogSnapshotWriter.write(List.of(movie), file);
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+
+        assertThatThrownBy(() -> snapshot.getContent(1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testOpenThrowsForInvalidFile() throws IOException {
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThatThrownBy(() -> MappedCatalogSnapshot.open(file))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid catalog snapshot file");
+    }
+
+    @Test
+    public void testGetLooksUpTitlesInTheMapping() throws IOException {
+        List<Content> contents = new ArrayList<>(List.of(movie, bareMovie, tvSeries));
+        for (String title : List.of("Zeta", "Ärger", "apple", "Éclair", "Movie 2", "東京")) {
+            contents.add(new Movie.MovieBuilder(title, new Episode(1, 90)).build());
+        }
+        CatalogSnapshotWriter.write(contents, file);
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+
+        for (Content content : contents) {
+            assertThat(snapshot.get(content.getTitle())).hasValue(content);
+        }
+        assertThat(snapshot.get("Movie 3")).isEmpty();
+        assertThat(snapshot.get("")).isEmpty();
+        assertThatThrownBy(() -> snapshot.get(null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Title cannot be null");
+    }
+
+    @Test
+    public void testOpenThrowsForCorruptedCounts() throws IOException {
+        CatalogSnapshotWriter.write(List.of(movie, tvSeries), file);
+        byte[] valid = Files.readAllBytes(file);
+
+        // negative counts, and counts whose sections would overflow the offsets of an int
+        for (int[] corruption : new int[][]{{8, -1}, {12, -5}, {16, Integer.MIN_VALUE}, {20, -2},
+                {8, Integer.MAX_VALUE}, {12, Integer.MAX_VALUE / 2}, {20, Integer.MAX_VALUE}}) {
+            byte[] corrupted = valid.clone();
+            ByteBuffer.wrap(corrupted).putInt(corruption[0], corruption[1]);
+            Files.write(file, corrupted);
+
+            assertThatThrownBy(() -> MappedCatalogSnapshot.open(file))
+                    .isInstanceOf(StreamingPlatformException.class)
+                    .hasMessage("Invalid catalog snapshot file");
+        }
+    }
+
+    @Test
+    public void testGetContentThrowsForCorruptedRecord() throws IOException {
+        CatalogSnapshotWriter.write(List.of(movie), file);
+        byte[] corrupted = Files.readAllBytes(file);
+        // the title string id of the first content record
+        ByteBuffer.wrap(corrupted).putInt(6 * Integer.BYTES + 4, 1_000);
+        Files.write(file, corrupted);
+        MappedCatalogSnapshot snapshot = MappedCatalogSnapshot.open(file);
+
+        assertThatThrownBy(() -> snapshot.getContent(0))
+                .isInstanceOf(StreamingPlatformException.class)
+                .hasMessage("Invalid catalog snapshot record");
+    }
+
+    @Test
+    public void testPlatformLoadsCatalogFromSnapshot() throws IOException {
+        CatalogSnapshotWriter.write(List.of(movie, bareMovie, tvSeries), file);
+
+        try (StreamingPlatform platform = new StreamingPlatform.StreamingPlatformBuilder("Streaming Platform", List::of)
+                .withContentLoader(MappedCatalogSnapshot.open(file))
+                .build()) {
+            platform.awaitLoaded();
+
+            assertThat(platform.catalogSnapshot()).containsExactly(movie, bareMovie, tvSeries);
+            assertThat(platform.getContentByTitle("TV Series").map(Content::getDurationInMinutes)).hasValue(155);
+        }
+    }
+
+    @Test
+    public void testWriteThrowsNullPointerExceptionForNullArguments() {
+        assertThatThrownBy(() -> CatalogSnapshotWriter.write(null, file))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("Contents cannot be null");
+        assertThatThrownBy(() -> CatalogSnapshotWriter.write(List.of(), null))
+                .isInstanceOf(NullPointerException.class)
+                .hasMessage("File cannot be null");
+    }
+}
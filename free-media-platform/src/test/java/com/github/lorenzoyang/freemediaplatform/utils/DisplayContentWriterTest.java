@@ -0,0 +1,81 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.Allocations;
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+public class DisplayContentWriterTest {
+    private Content tvSeries;
+
+    @Before
+    public void setUp() {
+        this.tvSeries = new TVSeries.TVSeriesBuilder("Città 🎬 Series",
+                new Season(1, List.of(new Episode(1, 20), new Episode(2, 1005))))
+                .withDescription("Ünïcode description")
+                .withReleaseDate(LocalDate.of(987, 3, 9))
+                .withResolution(VideoResolution.UHD_4K)
+                .build();
+    }
+
+    private String expected(Content content) {
+        return content.accept(new DisplayContentVisitor());
+    }
+
+    @Test
+    public void testWriterReceivesDisplayText() {
+        var writer = new StringWriter();
+        tvSeries.accept(new DisplayContentWriter(writer));
+
+        assertEquals(expected(tvSeries), writer.toString());
+        assertEquals("TV Series: Città 🎬 Series\n" +
+                "  Description: Ünïcode description\n" +
+                "  Release Date: 09-03-0987\n" +
+                "  Resolution: 4K\n" +
+                "  Total Duration: 1025 minutes\n" +
+                "Season 1\n" +
+                "  Total Duration: 1025 minutes\n" +
+                "  Episode 1, Duration: 20 minutes\n" +
+                "  Episode 2, Duration: 1005 minutes\n", writer.toString());
+    }
+
+    @Test
+    public void testByteBufferReceivesUtf8Text() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        tvSeries.accept(new DisplayContentWriter(buffer));
+        Content movie = new Movie.MovieBuilder("Movie", new Episode(1, 90)).build();
+        movie.accept(new DisplayContentWriter(buffer));
+
+        buffer.flip();
+        assertEquals(expected(tvSeries) + expected(movie), StandardCharsets.UTF_8.decode(buffer).toString());
+    }
+
+    @Test
+    public void testWritingIntoAReusedByteBufferDoesNotAllocate() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        var writer = new DisplayContentWriter(buffer);
+
+        assertEquals(0, Allocations.allocatedBytes(200, () -> {
+            buffer.clear();
+            tvSeries.accept(writer);
+        }));
+    }
+
+    @Test
+    public void testByteBufferOverflowIsReported() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+
+        assertThatThrownBy(() -> tvSeries.accept(new DisplayContentWriter(buffer)))
+                .isInstanceOf(BufferOverflowException.class);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import org.junit.Test;
+
+import java.util.IntSummaryStatistics;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class DurationContentVisitorTest {
+    private static void assertDurations(IntSummaryStatistics durations, long count, long sum, int min, int max) {
+        assertEquals(count, durations.getCount());
+        assertEquals(sum, durations.getSum());
+        assertEquals(min, durations.getMin());
+        assertEquals(max, durations.getMax());
+    }
+
+    @Test
+    public void testVisitMovieRunsCorrectly() {
+        Content movie = new Movie.MovieBuilder("Movie", new Episode(1, 120)).build();
+
+        assertDurations(movie.accept(new DurationContentVisitor()), 1, 120, 120, 120);
+    }
+
+    @Test
+    public void testVisitTVSeriesRunsCorrectly() {
+        Content tvSeries = new TVSeries.TVSeriesBuilder("TVSeries",
+                new Season(1, List.of(new Episode(1, 20), new Episode(2, 45))))
+                .withSeason(new Season(2, List.of()))
+                .withSeason(new Season(3, List.of(new Episode(1, 30))))
+                .build();
+
+        assertDurations(tvSeries.accept(new DurationContentVisitor()), 3, 95, 20, 45);
+    }
+
+    @Test
+    public void testFusedWalkMatchesTheVisitor() {
+        var durations = new DurationContentVisitor();
+        Content tvSeries = new TVSeries.TVSeriesBuilder("TVSeries",
+                new Season(1, List.of(new Episode(1, 20), new Episode(2, 45))))
+                .build();
+        Content movie = new Movie.MovieBuilder("Movie", new Episode(1, 120)).build();
+        var fused = new FusedContentVisitor(new DisplayContentVisitor(), durations);
+
+        assertDurations(tvSeries.accept(fused).get(durations), 2, 65, 20, 45);
+        assertDurations(movie.accept(fused).get(durations), 1, 120, 120, 120);
+    }
+}
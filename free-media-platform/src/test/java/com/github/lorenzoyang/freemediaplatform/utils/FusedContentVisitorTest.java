@@ -0,0 +1,185 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.assertEquals;
+
+public class FusedContentVisitorTest {
+    private Content tvSeries;
+    private Content movie;
+
+    @Before
+    public void setUp() {
+        this.tvSeries = new TVSeries.TVSeriesBuilder("Series",
+                new Season(1, List.of(new Episode(1, 20), new Episode(2, 30))))
+                .withSeason(new Season(2, List.of(new Episode(1, 40))))
+                .build();
+        this.movie = new Movie.MovieBuilder("Movie", new Episode(1, 90)).build();
+    }
+
+    // records the nodes it receives and returns them as the result
+    private static class RecordingWalk implements ContentWalkVisitor<List<String>> {
+        private final List<String> nodes = new ArrayList<>();
+
+        @Override
+        public void enterMovie(Movie movie) {
+            nodes.add(movie.getTitle());
+        }
+
+        @Override
+        public void enterTVSeries(TVSeries tvSeries) {
+            nodes.add(tvSeries.getTitle());
+        }
+
+        @Override
+        public void enterSeason(Season season) {
+            nodes.add("S" + season.getSeasonNumber());
+        }
+
+        @Override
+        public void visitEpisode(Episode episode) {
+            nodes.add("E" + episode.getEpisodeNumber());
+        }
+
+        @Override
+        public List<String> complete() {
+            return nodes;
+        }
+    }
+
+    @Test
+    public void testFusedResultsMatchSeparateTraversals() {
+        var display = new DisplayContentVisitor();
+        var recording = ContentWalkVisitor.visitor(RecordingWalk::new);
+        var fused = new FusedContentVisitor(display, recording);
+
+        FusedContentResults results = tvSeries.accept(fused);
+
+        assertEquals(tvSeries.accept(new DisplayContentVisitor()), results.get(display));
+        assertThat(results.get(recording)).containsExactly("Series", "S1", "E1", "E2", "S2", "E1");
+
+        results = movie.accept(fused);
+        assertEquals(movie.accept(new DisplayContentVisitor()), results.get(display));
+        assertThat(results.get(recording)).containsExactly("Movie");
+    }
+
+    @Test
+    public void testEveryEpisodeIsVisitedOnceForAllVisitors() {
+        List<Episode> seen = new ArrayList<>();
+        ContentVisitor<Integer> counter = ContentWalkVisitor.visitor(() -> new ContentWalkVisitor<>() {
+            @Override
+            public void visitEpisode(Episode episode) {
+                seen.add(episode);
+            }
+
+            @Override
+            public Integer complete() {
+                return seen.size();
+            }
+        });
+        ContentVisitor<Integer> sameCounter = ContentWalkVisitor.visitor(() -> new ContentWalkVisitor<>() {
+            private int index = 0;
+
+            @Override
+            public void visitEpisode(Episode episode) {
+                // the fused traversal hands the very same episode instance to every visitor
+                assertThat(episode).isSameAs(seen.get(index++));
+            }
+
+            @Override
+            public Integer complete() {
+                return index;
+            }
+        });
+
+        FusedContentResults results = tvSeries.accept(new FusedContentVisitor(counter, sameCounter));
+
+        assertEquals(3, (int) results.get(counter));
+        assertEquals(3, (int) results.get(sameCounter));
+    }
+
+    @Test
+    public void testVisitorFromWalksReturnsSingleResult() {
+        var recording = ContentWalkVisitor.visitor(RecordingWalk::new);
+
+        assertThat(tvSeries.accept(recording)).containsExactly("Series", "S1", "E1", "E2", "S2", "E1");
+        assertThat(movie.accept(recording)).containsExactly("Movie");
+    }
+
+    @Test
+    public void testVisitorsWithoutWalkAreFusedToo() {
+        var playback = new PlaybackContentVisitor(1, 2);
+        var display = new DisplayContentVisitor();
+
+        FusedContentResults results = tvSeries.accept(new FusedContentVisitor(playback, display));
+
+        assertThat(results.get(playback)).containsExactly(new Episode(2, 30), new Episode(1, 40));
+        assertEquals(tvSeries.accept(display), results.get(display));
+    }
+
+    @Test
+    public void testSharedFusedVisitorIsThreadSafe() throws Exception {
+        var display = new DisplayContentVisitor();
+        var fused = new FusedContentVisitor(display);
+        String expected = tvSeries.accept(display);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Content content = i % 2 == 0 ? tvSeries : movie;
+                futures.add(executor.submit(() -> content.accept(fused).get(display)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                String text = futures.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals(i % 2 == 0 ? expected : movie.accept(display), text);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testVisitorFusedTwiceGetsItsFirstResult() {
+        List<Integer> walks = new ArrayList<>();
+        ContentVisitor<Integer> counter = ContentWalkVisitor.visitor(() -> {
+            int walk = walks.size();
+            walks.add(walk);
+            return () -> walk;
+        });
+
+        FusedContentResults results = movie.accept(new FusedContentVisitor(counter, counter));
+
+        assertThat(walks).containsExactly(0, 1);
+        assertEquals(0, (int) results.get(counter));
+    }
+
+    @Test
+    public void testWalkVisitorStartsANewWalkOnEveryVisit() {
+        var recording = ContentWalkVisitor.visitor(RecordingWalk::new);
+
+        assertThat(movie.accept(recording)).containsExactly("Movie");
+        assertThat(tvSeries.accept(recording)).containsExactly("Series", "S1", "E1", "E2", "S2", "E1");
+        assertThat(movie.accept(recording)).containsExactly("Movie");
+    }
+
+    @Test
+    public void testResultsThrowForUnknownVisitor() {
+        var recording = ContentWalkVisitor.visitor(RecordingWalk::new);
+        FusedContentResults results = movie.accept(new FusedContentVisitor(recording));
+
+        assertThatThrownBy(() -> results.get(ContentWalkVisitor.visitor(RecordingWalk::new)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Visitor is not part of the fused traversal");
+    }
+}
@@ -0,0 +1,50 @@
+package com.github.lorenzoyang.freemediaplatform.utils;
+
+import com.github.lorenzoyang.freemediaplatform.content.*;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.Assert.assertEquals;
+
+public class MetadataContentVisitorTest {
+    @Test
+    public void testVisitMovieLeavesOutMissingFields() {
+        Content movie = new Movie.MovieBuilder("Movie", new Episode(1, 120)).build();
+
+        assertThat(movie.accept(new MetadataContentVisitor())).containsExactly(
+                entry("title", "Movie"), entry("seasons", "1"), entry("episodes", "1"), entry("duration", "120"));
+    }
+
+    @Test
+    public void testVisitTVSeriesRunsCorrectly() {
+        Content tvSeries = new TVSeries.TVSeriesBuilder("TVSeries",
+                new Season(1, List.of(new Episode(1, 20), new Episode(2, 45))))
+                .withSeason(new Season(2, List.of(new Episode(1, 30))))
+                .withDescription("Description")
+                .withReleaseDate(LocalDate.of(2020, 5, 1))
+                .withResolution(VideoResolution.FULL_HD_1080P)
+                .build();
+
+        assertThat(tvSeries.accept(new MetadataContentVisitor())).containsExactly(
+                entry("title", "TVSeries"), entry("description", "Description"), entry("releaseDate", "2020-05-01"),
+                entry("resolution", "FULL_HD_1080P"), entry("seasons", "2"), entry("episodes", "3"),
+                entry("duration", "95"));
+    }
+
+    @Test
+    public void testFusedWalkMatchesTheVisitor() {
+        var metadata = new MetadataContentVisitor();
+        Content tvSeries = new TVSeries.TVSeriesBuilder("TVSeries", new Season(1, List.of(new Episode(1, 20))))
+                .withDescription("Description")
+                .build();
+        Map<String, String> expected = tvSeries.accept(metadata);
+
+        assertEquals(expected, tvSeries.accept(new FusedContentVisitor(new DurationContentVisitor(), metadata))
+                .get(metadata));
+    }
+}
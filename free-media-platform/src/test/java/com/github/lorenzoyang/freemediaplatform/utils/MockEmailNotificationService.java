@@ -2,13 +2,19 @@ package com.github.lorenzoyang.freemediaplatform.utils;
 
 public class MockEmailNotificationService implements EmailNotificationService {
     private String lastNotificationMessage = "";
+    private int notificationsCount = 0;
 
     public String getLastNotificationMessage() {
         return lastNotificationMessage;
     }
 
+    public int getNotificationsCount() {
+        return notificationsCount;
+    }
+
     @Override
     public void notifyUser(String email, String subject, String message) {
+        notificationsCount++;
         lastNotificationMessage = "To: " + email + "\n" +
                 "Subject: " + subject + "\n" +
                 "Message: " + message;
@@ -1,13 +1,31 @@
 package com.github.lorenzoyang.freemediaplatform.utils;
 
+import com.github.lorenzoyang.freemediaplatform.Allocations;
 import com.github.lorenzoyang.freemediaplatform.content.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.Assert.*;
 
 public class PlaybackContentVisitorTest {
+    private static TVSeries tvSeries(int seasons, int episodesPerSeason) {
+        List<Episode> episodes = IntStream.rangeClosed(1, episodesPerSeason)
+                .mapToObj(i -> new Episode(i, i))
+                .collect(Collectors.toList());
+        var builder = new TVSeries.TVSeriesBuilder("TVSeries", new Season(1, episodes));
+        for (int i = 2; i <= seasons; i++) {
+            builder.withSeason(new Season(i, episodes));
+        }
+        return builder.build();
+    }
+
     @Test
     public void testVisitMovieRunsCorrectly() {
         var episode = new Episode(1, 120);
@@ -15,6 +33,9 @@ public class PlaybackContentVisitorTest {
         Iterable<Episode> episodes = movie.accept(new PlaybackContentVisitor());
 
         assertThat(episodes).containsExactly(episode);
+        assertThatThrownBy(() -> movie.accept(new PlaybackContentVisitor(1, 2)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Episode 2 does not exist in season 1");
     }
 
     @Test
@@ -31,4 +52,70 @@ public class PlaybackContentVisitorTest {
 
         assertThat(episodes).containsExactly(episode1, episode2, episode3);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testVisitTVSeriesStartsFromGivenEpisodeSkippingEmptySeasons() {
+        Content tvSeries = new TVSeries.TVSeriesBuilder("TVSeries", new Season(1, List.of()))
+                .withSeason(new Season(2, List.of(new Episode(1, 10), new Episode(2, 20))))
+                .withSeason(new Season(3, List.of()))
+                .withSeason(new Season(4, List.of(new Episode(1, 30))))
+                .build();
+
+        assertThat(tvSeries.accept(new PlaybackContentVisitor()))
+                .containsExactly(new Episode(1, 10), new Episode(2, 20), new Episode(1, 30));
+        assertThat(tvSeries.accept(new PlaybackContentVisitor(2, 2)))
+                .containsExactly(new Episode(2, 20), new Episode(1, 30));
+        assertThatThrownBy(() -> tvSeries.accept(new PlaybackContentVisitor(3, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Episode 1 does not exist in season 3");
+    }
+
+    @Test
+    public void testFusedWalkMatchesTheVisitor() {
+        Content movie = new Movie.MovieBuilder("Movie", new Episode(1, 120)).build();
+        TVSeries tvSeries = tvSeries(3, 4);
+        var playback = new PlaybackContentVisitor(2, 3);
+        var fused = new FusedContentVisitor(new DisplayContentVisitor(), playback);
+
+        assertThat(tvSeries.accept(fused).get(playback)).containsExactlyElementsOf(tvSeries.accept(playback));
+        assertThatThrownBy(() -> movie.accept(fused))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Season 2 does not exist");
+        var moviePlayback = new PlaybackContentVisitor();
+        assertThat(movie.accept(new FusedContentVisitor(moviePlayback)).get(moviePlayback))
+                .containsExactly(new Episode(1, 120));
+    }
+
+    @Test
+    public void testSpliteratorSplitsForParallelTraversal() {
+        TVSeries tvSeries = tvSeries(10, 25);
+        Iterable<Episode> episodes = tvSeries.accept(new PlaybackContentVisitor(3, 5));
+
+        var spliterator = episodes.spliterator();
+        assertEquals(25 * 8 - 4, spliterator.estimateSize());
+        var prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        assertEquals(98, prefix.estimateSize());
+        assertEquals(98, spliterator.estimateSize());
+
+        List<Episode> sequential = new ArrayList<>();
+        episodes.forEach(sequential::add);
+        List<Episode> parallel = StreamSupport.stream(episodes.spliterator(), true)
+                .collect(Collectors.toList());
+        assertEquals(sequential, parallel);
+        assertEquals(sequential.get(0), new Episode(5, 5));
+    }
+
+    @Test
+    public void testPlaybackAllocationDoesNotDependOnEpisodesCount() {
+        TVSeries shortSeries = tvSeries(1, 10);
+        TVSeries longSeries = tvSeries(100, 1_000);
+        var visitor = new PlaybackContentVisitor(1, 2);
+        shortSeries.accept(visitor).iterator().next();
+
+        long allocated = Allocations.allocatedBytes(10_000, () -> longSeries.accept(visitor).iterator().next());
+
+        // a copy of the 100,000 episodes would take megabytes
+        assertThat(allocated).isLessThan(4_096);
+    }
+}